@@ -0,0 +1,89 @@
+/** ******************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * ****************************************************************************** */
+package org.eclipse.openvsx;
+
+import org.eclipse.openvsx.entities.Extension;
+import org.eclipse.openvsx.entities.ExtensionVersion;
+import org.eclipse.openvsx.entities.Namespace;
+import org.eclipse.openvsx.util.TargetPlatform;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Creates entities for the benchmarks. A fixed seed is used, so each run measures the same data.
+ */
+public final class BenchmarkData {
+
+    private static final String[] PRE_RELEASES = { null, null, null, "next", "alpha.1", "beta.2", "rc.1" };
+
+    private BenchmarkData() {}
+
+    public static Extension extension() {
+        var namespace = new Namespace();
+        namespace.setId(1L);
+        namespace.setName("redhat");
+
+        var extension = new Extension();
+        extension.setId(2L);
+        extension.setName("vscode-yaml");
+        extension.setNamespace(namespace);
+        extension.setDownloadCount(1_250_000);
+        extension.setAverageRating(4.2);
+        extension.setReviewCount(320L);
+        return extension;
+    }
+
+    public static List<ExtensionVersion> extensionVersions(Extension extension, int count) {
+        var random = new Random(42);
+        var timestamp = LocalDateTime.of(2020, 1, 1, 0, 0);
+        var versions = new ArrayList<ExtensionVersion>(count);
+        for (var i = 0; i < count; i++) {
+            var extVersion = extensionVersion(extension);
+            extVersion.setId(i + 1);
+            var version = random.nextInt(3) + "." + random.nextInt(30) + "." + random.nextInt(100);
+            var preRelease = PRE_RELEASES[random.nextInt(PRE_RELEASES.length)];
+            extVersion.setVersion(preRelease != null ? version + "-" + preRelease : version);
+            extVersion.setPreRelease(preRelease != null);
+            extVersion.setTargetPlatform(random.nextInt(4) == 0
+                    ? TargetPlatform.TARGET_PLATFORM_NAMES.get(random.nextInt(TargetPlatform.TARGET_PLATFORM_NAMES.size()))
+                    : TargetPlatform.NAME_UNIVERSAL);
+            extVersion.setTimestamp(timestamp.plusHours(random.nextInt(30_000)));
+            versions.add(extVersion);
+        }
+
+        return versions;
+    }
+
+    public static ExtensionVersion extensionVersion(Extension extension) {
+        var extVersion = new ExtensionVersion();
+        extVersion.setExtension(extension);
+        extVersion.setVersion("1.14.0");
+        extVersion.setTargetPlatform(TargetPlatform.NAME_UNIVERSAL);
+        extVersion.setTimestamp(LocalDateTime.of(2024, 3, 12, 9, 30));
+        extVersion.setDisplayName("YAML");
+        extVersion.setDescription("YAML Language Support by Red Hat, with built-in Kubernetes syntax support");
+        extVersion.setEngines(List.of("vscode@^1.63.0"));
+        extVersion.setCategories(List.of("Programming Languages", "Linters", "Snippets", "Formatters"));
+        extVersion.setTags(List.of("kubernetes", "yaml", "__web_extension", "json"));
+        extVersion.setExtensionKind(List.of("workspace", "web"));
+        extVersion.setLicense("MIT");
+        extVersion.setRepository("https://github.com/redhat-developer/vscode-yaml");
+        extVersion.setBugs("https://github.com/redhat-developer/vscode-yaml/issues");
+        extVersion.setGalleryColor("#A60000");
+        extVersion.setGalleryTheme("dark");
+        extVersion.setLocalizedLanguages(List.of());
+        extVersion.setDependencies(List.of());
+        extVersion.setBundledExtensions(List.of());
+        return extVersion;
+    }
+}
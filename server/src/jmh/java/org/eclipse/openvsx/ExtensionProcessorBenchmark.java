@@ -0,0 +1,56 @@
+/** ******************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * ****************************************************************************** */
+package org.eclipse.openvsx;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.eclipse.openvsx.entities.ExtensionVersion;
+import org.eclipse.openvsx.util.TempFile;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading the metadata from package.json and extension.vsixmanifest of a published extension.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExtensionProcessorBenchmark {
+
+    TempFile extensionFile;
+
+    @Setup
+    public void setup() throws IOException {
+        extensionFile = new TempFile("benchmark", ".vsix");
+        try (
+                var stream = getClass().getResourceAsStream("EditorConfig.EditorConfig-0.16.6.vsix");
+                var out = Files.newOutputStream(extensionFile.getPath())
+        ) {
+            stream.transferTo(out);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        extensionFile.close();
+    }
+
+    @Benchmark
+    public ExtensionVersion getMetadata() {
+        try (var processor = new ExtensionProcessor(extensionFile, ObservationRegistry.NOOP)) {
+            return processor.getMetadata();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/** ******************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * ****************************************************************************** */
+package org.eclipse.openvsx.adapter;
+
+import org.eclipse.openvsx.BenchmarkData;
+import org.eclipse.openvsx.entities.ExtensionVersion;
+import org.eclipse.openvsx.entities.FileResource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.eclipse.openvsx.adapter.ExtensionQueryParam.*;
+
+/**
+ * Measures creating the query result version of an extension, which is done
+ * for every version of every extension returned by {@code /vscode/gallery/extensionquery}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LocalVSCodeServiceBenchmark {
+
+    static final int FLAGS = FLAG_INCLUDE_ASSET_URI | FLAG_INCLUDE_VERSION_PROPERTIES | FLAG_INCLUDE_FILES;
+
+    LocalVSCodeService service;
+    ExtensionVersion extVersion;
+    Map<Long, List<FileResource>> fileResources;
+
+    @Setup
+    public void setup() {
+        var request = new MockHttpServletRequest();
+        request.setScheme("https");
+        request.setServerName("open-vsx.org");
+        request.setServerPort(443);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        service = new LocalVSCodeService(null, null, null, null, null);
+        extVersion = BenchmarkData.extensionVersion(BenchmarkData.extension());
+        extVersion.setId(3L);
+        fileResources = Map.of(extVersion.getId(), List.of(
+                fileResource(FileResource.MANIFEST, "package.json"),
+                fileResource(FileResource.README, "README.md"),
+                fileResource(FileResource.LICENSE, "LICENSE"),
+                fileResource(FileResource.ICON, "icon.png"),
+                fileResource(FileResource.DOWNLOAD, "redhat.vscode-yaml-1.14.0.vsix"),
+                fileResource(FileResource.CHANGELOG, "CHANGELOG.md"),
+                fileResource(FileResource.VSIXMANIFEST, "extension.vsixmanifest")
+        ));
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private FileResource fileResource(String type, String name) {
+        var resource = new FileResource();
+        resource.setExtension(extVersion);
+        resource.setType(type);
+        resource.setName(name);
+        return resource;
+    }
+
+    @Benchmark
+    public ExtensionQueryResult.ExtensionVersion toQueryVersion() {
+        return service.toQueryVersion(extVersion, fileResources, FLAGS);
+    }
+}
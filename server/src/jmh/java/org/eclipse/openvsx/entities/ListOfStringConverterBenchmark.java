@@ -0,0 +1,45 @@
+/** ******************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * ****************************************************************************** */
+package org.eclipse.openvsx.entities;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ListOfStringConverterBenchmark {
+
+    ListOfStringConverter converter;
+    List<String> data;
+    String raw;
+
+    @Setup
+    public void setup() {
+        converter = new ListOfStringConverter();
+        data = List.of("Programming Languages", "Linters", "Snippets", "Formatters", "Debuggers", "Other");
+        raw = converter.convertToDatabaseColumn(data);
+    }
+
+    @Benchmark
+    public String convertToDatabaseColumn() {
+        return converter.convertToDatabaseColumn(data);
+    }
+
+    @Benchmark
+    public List<String> convertToEntityAttribute() {
+        return converter.convertToEntityAttribute(raw);
+    }
+}
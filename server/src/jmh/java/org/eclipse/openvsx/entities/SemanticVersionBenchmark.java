@@ -0,0 +1,60 @@
+/** ******************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * ****************************************************************************** */
+package org.eclipse.openvsx.entities;
+
+import org.eclipse.openvsx.BenchmarkData;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SemanticVersionBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    int versionCount;
+
+    List<ExtensionVersion> versions;
+    SemanticVersion[] semanticVersions;
+
+    @Setup
+    public void setup() {
+        versions = BenchmarkData.extensionVersions(BenchmarkData.extension(), versionCount);
+        semanticVersions = versions.stream()
+                .map(ExtensionVersion::getSemanticVersion)
+                .toArray(SemanticVersion[]::new);
+    }
+
+    @Benchmark
+    public void compareTo(Blackhole blackhole) {
+        for (var i = 1; i < semanticVersions.length; i++) {
+            blackhole.consume(semanticVersions[i - 1].compareTo(semanticVersions[i]));
+        }
+    }
+
+    @Benchmark
+    public SemanticVersion parse() {
+        return SemanticVersion.parse("1.85.2-insider.20240312");
+    }
+
+    @Benchmark
+    public List<ExtensionVersion> sortComparator() {
+        var sorted = new ArrayList<>(versions);
+        sorted.sort(ExtensionVersion.SORT_COMPARATOR);
+        return sorted;
+    }
+}
@@ -0,0 +1,87 @@
+/** ******************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * ****************************************************************************** */
+package org.eclipse.openvsx.json;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.openvsx.BenchmarkData;
+import org.eclipse.openvsx.adapter.ExtensionQueryResult;
+import org.eclipse.openvsx.adapter.LocalVSCodeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures writing response bodies with an object mapper configured like the one of Spring MVC.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param({ "1", "50" })
+    int extensionCount;
+
+    ObjectMapper mapper;
+    ExtensionJson extensionJson;
+    ExtensionQueryResult queryResult;
+
+    @Setup
+    public void setup() {
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+
+        var extension = BenchmarkData.extension();
+        var versions = BenchmarkData.extensionVersions(extension, 100);
+        var latest = BenchmarkData.extensionVersion(extension);
+        extensionJson = latest.toExtensionJson();
+        extensionJson.allVersions = new LinkedHashMap<>();
+        for (var extVersion : versions) {
+            extensionJson.allVersions.put(extVersion.getVersion(), "https://open-vsx.org/api/redhat/vscode-yaml/" + extVersion.getVersion());
+        }
+
+        var extensions = new ArrayList<ExtensionQueryResult.Extension>(extensionCount);
+        for (var i = 0; i < extensionCount; i++) {
+            var queryExt = new ExtensionQueryResult.Extension();
+            queryExt.extensionId = "ext-" + i;
+            queryExt.extensionName = extension.getName() + "-" + i;
+            queryExt.displayName = latest.getDisplayName();
+            queryExt.shortDescription = latest.getDescription();
+            queryExt.tags = latest.getTags();
+            queryExt.categories = latest.getCategories();
+            queryExt.versions = new ArrayList<>();
+            for (var extVersion : versions.subList(0, 10)) {
+                var queryVer = new ExtensionQueryResult.ExtensionVersion();
+                queryVer.version = extVersion.getVersion();
+                queryVer.targetPlatform = extVersion.getTargetPlatform();
+                queryVer.assetUri = "https://open-vsx.org/vscode/asset/redhat/vscode-yaml/" + extVersion.getVersion();
+                queryVer.fallbackAssetUri = queryVer.assetUri;
+                queryExt.versions.add(queryVer);
+            }
+            extensions.add(queryExt);
+        }
+        queryResult = new LocalVSCodeService(null, null, null, null, null).toQueryResult(extensions);
+    }
+
+    @Benchmark
+    public byte[] extensionJson() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(extensionJson);
+    }
+
+    @Benchmark
+    public byte[] extensionQueryResult() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(queryResult);
+    }
+}
@@ -0,0 +1,67 @@
+/** ******************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * ****************************************************************************** */
+package org.eclipse.openvsx.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.eclipse.openvsx.BenchmarkData;
+import org.eclipse.openvsx.cache.CacheService;
+import org.eclipse.openvsx.entities.Extension;
+import org.eclipse.openvsx.repositories.RepositoryService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Measures the rating and relevance math of {@link RelevanceService#toSearchEntry}.
+ * The repository is a stub, so database access isn't included.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RelevanceServiceBenchmark {
+
+    RelevanceService relevance;
+    RelevanceService.SearchStats stats;
+    Extension extension;
+
+    @Setup
+    public void setup() {
+        extension = BenchmarkData.extension();
+        var latest = BenchmarkData.extensionVersion(extension);
+
+        var repositories = mock(RepositoryService.class);
+        when(repositories.getMaxExtensionDownloadCount()).thenReturn(30_000_000);
+        when(repositories.getOldestExtensionTimestamp()).thenReturn(LocalDateTime.of(2019, 6, 1, 0, 0));
+        when(repositories.getAverageReviewRating()).thenReturn(3.8);
+        when(repositories.findLatestVersion(any(Extension.class), isNull(), anyBoolean(), anyBoolean())).thenReturn(latest);
+        when(repositories.findExtensionTargetPlatforms(any(Extension.class))).thenReturn(List.of("universal"));
+
+        relevance = new RelevanceService(repositories, mock(CacheService.class), new SimpleMeterRegistry());
+        relevance.ratingRelevance = 1.0;
+        relevance.downloadsRelevance = 1.0;
+        relevance.timestampRelevance = 1.0;
+        relevance.unverifiedRelevance = 0.5;
+        stats = new RelevanceService.SearchStats(repositories);
+    }
+
+    @Benchmark
+    public ExtensionSearch toSearchEntry() {
+        return relevance.toSearchEntry(extension, stats);
+    }
+}
@@ -0,0 +1,40 @@
+/** ******************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * ****************************************************************************** */
+package org.eclipse.openvsx.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UrlUtilBenchmark {
+
+    static final String BASE_URL = "https://open-vsx.org";
+
+    @Benchmark
+    public String createApiUrl() {
+        return UrlUtil.createApiUrl(BASE_URL, "api", "redhat", "vscode-yaml", "universal", "1.14.0");
+    }
+
+    @Benchmark
+    public String createApiUrlWithEncoding() {
+        return UrlUtil.createApiUrl(BASE_URL, "api", "redhat", "vscode-yaml", "file", "extension", "themes", "Dark+ (default).json");
+    }
+
+    @Benchmark
+    public String createApiFileUrl() {
+        return UrlUtil.createApiFileUrl(BASE_URL, "redhat", "vscode-yaml", "universal", "1.14.0", "redhat.vscode-yaml-1.14.0.vsix");
+    }
+}
@@ -0,0 +1,51 @@
+/** ******************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * ****************************************************************************** */
+package org.eclipse.openvsx.util;
+
+import org.eclipse.openvsx.BenchmarkData;
+import org.eclipse.openvsx.entities.ExtensionVersion;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link VersionService#getLatest} without the cache, which is what a cache miss costs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VersionServiceBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    int versionCount;
+
+    VersionService versions;
+    List<ExtensionVersion> extVersions;
+
+    @Setup
+    public void setup() {
+        versions = new VersionService();
+        extVersions = BenchmarkData.extensionVersions(BenchmarkData.extension(), versionCount);
+    }
+
+    @Benchmark
+    public ExtensionVersion getLatest() {
+        return versions.getLatest(extVersions, false, false);
+    }
+
+    @Benchmark
+    public ExtensionVersion getLatestPreRelease() {
+        return versions.getLatest(extVersions, false, true);
+    }
+}
@@ -0,0 +1,132 @@
+/** ******************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * ****************************************************************************** */
+package org.eclipse.openvsx;
+
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.eclipse.openvsx.entities.ChangeLogEntry;
+import org.eclipse.openvsx.entities.Extension;
+import org.eclipse.openvsx.json.ChangeLogJson;
+import org.eclipse.openvsx.repositories.RepositoryService;
+import org.eclipse.openvsx.util.ErrorResultException;
+import org.eclipse.openvsx.util.TimeUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+
+/**
+ * Records changes of extensions and namespaces, so mirrors can follow the changes instead of
+ * comparing the whole registry. Changes are recorded in the transaction that makes them and are
+ * served in the order of their id.
+ * <p>
+ * A transaction that is still open may commit a change with a lower id than a change that is
+ * already visible. Changes are therefore served only {@code ovsx.change-log.delay} seconds after
+ * they were recorded, which must exceed the time between recording a change and committing it.
+ * The timestamp of a change is taken from the clock of the node that records it and compared with
+ * the clock of the node that serves it, so the delay must also cover the clock skew between nodes.
+ * A change that commits later than that is skipped by mirrors that have already moved past it.
+ */
+@Component
+public class ChangeLogService {
+
+    public static final int MAX_CHANGES_SIZE = 1000;
+
+    protected final Logger logger = LoggerFactory.getLogger(ChangeLogService.class);
+
+    private final EntityManager entityManager;
+    private final RepositoryService repositories;
+
+    /**
+     * Seconds until a recorded change is served. Must exceed the longest transaction that records
+     * changes plus the clock skew between the nodes of the registry.
+     */
+    @Value("${ovsx.change-log.delay:30}")
+    long delay;
+
+    @Value("${ovsx.change-log.retention-days:30}")
+    long retentionDays;
+
+    public ChangeLogService(EntityManager entityManager, RepositoryService repositories) {
+        this.entityManager = entityManager;
+        this.repositories = repositories;
+    }
+
+    public void extensionUpdated(Extension extension) {
+        record(ChangeLogEntry.UPDATE, extension.getNamespace().getName(), extension.getName());
+    }
+
+    public void extensionDeactivated(Extension extension) {
+        record(ChangeLogEntry.DEACTIVATE, extension.getNamespace().getName(), extension.getName());
+    }
+
+    public void extensionDeleted(String namespaceName, String extensionName) {
+        record(ChangeLogEntry.DELETE, namespaceName, extensionName);
+    }
+
+    public void namespaceChanged(String namespaceName) {
+        record(ChangeLogEntry.NAMESPACE, namespaceName, null);
+    }
+
+    private void record(String type, String namespaceName, String extensionName) {
+        var entry = new ChangeLogEntry();
+        entry.setTimestamp(TimeUtil.getCurrentUTC());
+        entry.setType(type);
+        entry.setNamespace(namespaceName);
+        entry.setExtension(extensionName);
+        entityManager.persist(entry);
+    }
+
+    /**
+     * Without a cursor, no changes are returned and the next cursor points to the latest change,
+     * so a mirror that has just copied the whole registry can continue from there.
+     *
+     * @throws ErrorResultException with status {@code 410 Gone} if the changes following the cursor
+     * have been removed from the change log
+     */
+    public ChangeLogJson getChanges(Long since, int size) {
+        var before = TimeUtil.getCurrentUTC().minusSeconds(delay);
+        var json = new ChangeLogJson();
+        if (since == null) {
+            var latest = repositories.findLatestChangeId(before);
+            json.changes = Collections.emptyList();
+            json.nextCursor = latest != null ? latest : 0;
+            return json;
+        }
+
+        var oldest = repositories.findOldestChangeId();
+        if (oldest != null && since < oldest - 1) {
+            throw new ErrorResultException("Changes after cursor " + since + " are no longer available.", HttpStatus.GONE);
+        }
+
+        var entries = size > 0
+                ? repositories.findChanges(since, before, Math.min(size, MAX_CHANGES_SIZE))
+                : Collections.<ChangeLogEntry>emptyList();
+        json.changes = entries.stream().map(ChangeLogEntry::toChangeJson).toList();
+        json.nextCursor = entries.isEmpty() ? since : entries.get(entries.size() - 1).getId();
+        return json;
+    }
+
+    /**
+     * The latest change is always kept, so the oldest remaining id tells which cursors have expired.
+     */
+    @Transactional
+    @Scheduled(fixedDelayString = "${ovsx.change-log.cleanup-interval:3600000}")
+    public void deleteExpiredChanges() {
+        var deleted = repositories.deleteChangesBefore(TimeUtil.getCurrentUTC().minusDays(retentionDays));
+        if (deleted > 0) {
+            logger.info("Deleted {} expired change log entries", deleted);
+        }
+    }
+}
@@ -16,8 +16,10 @@ import com.fasterxml.jackson.databind.node.MissingNode;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import io.micrometer.observation.Observation;
 import io.micrometer.observation.ObservationRegistry;
+import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.bouncycastle.crypto.Signer;
 import org.eclipse.openvsx.adapter.ExtensionQueryResult;
 import org.eclipse.openvsx.entities.ExtensionVersion;
 import org.eclipse.openvsx.entities.FileResource;
@@ -28,6 +30,7 @@ import org.springframework.data.util.Pair;
 
 import java.io.EOFException;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.*;
@@ -57,6 +60,11 @@ public class ExtensionProcessor implements AutoCloseable {
     private JsonNode packageJson;
     private JsonNode vsixManifest;
 
+    /** Content of the entries needed by {@link #getFileResources(ExtensionVersion)}, kept while processing each resource. */
+    private final Map<String, byte[]> knownFileEntries = new HashMap<>();
+    private Map<String, EntryDigest> entryDigests;
+    private EntryDigest extensionFileDigest;
+
     public ExtensionProcessor(TempFile extensionFile, ObservationRegistry observations) {
         this.extensionFile = extensionFile;
         this.observations = observations;
@@ -356,28 +364,136 @@ public class ExtensionProcessor implements AutoCloseable {
         readInputStream();
         zipFile.stream()
                 .filter(zipEntry -> !zipEntry.isDirectory())
-                .map(zipEntry -> {
-                    byte[] bytes;
-                    try {
-                        bytes = ArchiveUtil.readEntry(zipFile, zipEntry, ObservationRegistry.NOOP);
-                    } catch(ErrorResultException exc) {
-                        logger.warn(exc.getMessage());
-                        bytes = null;
-                    }
-                    if (bytes == null) {
-                        return null;
-                    }
-                    var resource = new FileResource();
-                    resource.setExtension(extVersion);
-                    resource.setName(zipEntry.getName());
-                    resource.setType(FileResource.RESOURCE);
-                    resource.setContent(bytes);
-                    return resource;
-                })
+                .map(zipEntry -> toResource(extVersion, zipEntry, readResourceEntry(zipEntry)))
                 .filter(Objects::nonNull)
                 .forEach(processor);
     }
 
+    /**
+     * Walk the file entries of the archive once and pass each of them as resource to the given processor.
+     * The content of the files needed by {@link #getFileResources(ExtensionVersion)} is kept, so they are
+     * not read again. If {@code digestEntries} is set, the SHA-256 digests of the entries are computed from
+     * the same read, see {@link #getEntryDigests()}.
+     */
+    public void processEachResource(ExtensionVersion extVersion, boolean digestEntries, Consumer<FileResource> processor) {
+        readInputStream();
+        var knownFilePaths = getKnownFilePaths();
+        var digests = digestEntries ? new LinkedHashMap<String, EntryDigest>() : null;
+        zipFile.stream()
+                .filter(zipEntry -> !zipEntry.isDirectory())
+                .forEach(zipEntry -> {
+                    var bytes = readResourceEntry(zipEntry);
+                    if (digests != null) {
+                        var digest = bytes != null
+                                ? new EntryDigest(bytes.length, DigestUtils.sha256(bytes))
+                                : digestEntry(zipEntry);
+                        digests.put(zipEntry.getName(), digest);
+                    }
+                    if (bytes != null && knownFilePaths.contains(zipEntry.getName().toLowerCase())) {
+                        knownFileEntries.put(zipEntry.getName(), bytes);
+                    }
+
+                    var resource = toResource(extVersion, zipEntry, bytes);
+                    if (resource != null) {
+                        processor.accept(resource);
+                    }
+                });
+
+        if (digests != null) {
+            entryDigests = digests;
+        }
+    }
+
+    private byte[] readResourceEntry(ZipEntry zipEntry) {
+        try {
+            return ArchiveUtil.readEntry(zipFile, zipEntry, ObservationRegistry.NOOP);
+        } catch(ErrorResultException exc) {
+            logger.warn(exc.getMessage());
+            return null;
+        }
+    }
+
+    private FileResource toResource(ExtensionVersion extVersion, ZipEntry zipEntry, byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+
+        var resource = new FileResource();
+        resource.setExtension(extVersion);
+        resource.setName(zipEntry.getName());
+        resource.setType(FileResource.RESOURCE);
+        resource.setContent(bytes);
+        return resource;
+    }
+
+    private Set<String> getKnownFilePaths() {
+        var paths = new ArrayList<String>();
+        paths.add(PACKAGE_JSON);
+        paths.add(VSIX_MANIFEST);
+        paths.addAll(Arrays.asList(README));
+        paths.addAll(Arrays.asList(CHANGELOG));
+        paths.add(tryGetAssetPath(ExtensionQueryResult.ExtensionFile.FILE_DETAILS));
+        paths.add(tryGetAssetPath(ExtensionQueryResult.ExtensionFile.FILE_CHANGELOG));
+        paths.add(tryGetLicensePath());
+        paths.add(getIconPath());
+        return paths.stream()
+                .filter(StringUtils::isNotEmpty)
+                .map(String::toLowerCase)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Returns the size and SHA-256 digest of each file entry by entry name, in archive order.
+     * The digests are taken from {@link #processEachResource(ExtensionVersion, boolean, Consumer)}
+     * if it was called with {@code digestEntries} set, otherwise the entries are read.
+     */
+    public Map<String, EntryDigest> getEntryDigests() {
+        if (entryDigests == null) {
+            readInputStream();
+            var digests = new LinkedHashMap<String, EntryDigest>();
+            zipFile.stream()
+                    .filter(zipEntry -> !zipEntry.isDirectory())
+                    .forEach(zipEntry -> digests.put(zipEntry.getName(), digestEntry(zipEntry)));
+
+            entryDigests = digests;
+        }
+
+        return entryDigests;
+    }
+
+    private EntryDigest digestEntry(ZipEntry zipEntry) {
+        try (var entryStream = zipFile.getInputStream(zipEntry)) {
+            return new EntryDigest(zipEntry.getSize(), DigestUtils.sha256(entryStream));
+        } catch (IOException exc) {
+            throw new RuntimeException(exc);
+        }
+    }
+
+    /**
+     * Read the extension file sequentially to compute its size and SHA-256 digest. The content is passed
+     * to the given signer in the same read, so signing doesn't need to read the file again.
+     */
+    public EntryDigest digestExtensionFile(Signer signer) {
+        var digest = DigestUtils.getSha256Digest();
+        var size = 0L;
+        try (var input = Files.newInputStream(extensionFile.getPath())) {
+            var buffer = new byte[8192];
+            int len;
+            while ((len = input.read(buffer)) > 0) {
+                digest.update(buffer, 0, len);
+                if (signer != null) {
+                    signer.update(buffer, 0, len);
+                }
+                size += len;
+            }
+        } catch (IOException exc) {
+            throw new UncheckedIOException(exc);
+        }
+
+        extensionFileDigest = new EntryDigest(size, digest.digest());
+        return extensionFileDigest;
+    }
+
     public FileResource getBinary(ExtensionVersion extVersion, String binaryName) {
         return Observation.createNotStarted("ExtensionProcessor#getBinary", observations).observe(() -> {
             var binary = new FileResource();
@@ -390,17 +506,16 @@ public class ExtensionProcessor implements AutoCloseable {
     }
 
     public FileResource generateSha256Checksum(ExtensionVersion extVersion) {
-        String hash = null;
-        try(var input = Files.newInputStream(extensionFile.getPath())) {
-            hash = DigestUtils.sha256Hex(input);
-        } catch (IOException e) {
-            logger.error("Failed to read extensionFile", e);
-        }
-
-        if(hash == null) {
-            return null;
+        if (extensionFileDigest == null) {
+            try {
+                digestExtensionFile(null);
+            } catch (UncheckedIOException e) {
+                logger.error("Failed to read extensionFile", e);
+                return null;
+            }
         }
 
+        var hash = Hex.encodeHexString(extensionFileDigest.sha256());
         var sha256 = new FileResource();
         sha256.setExtension(extVersion);
         sha256.setName(NamingUtil.toFileFormat(extVersion, ".sha256"));
@@ -409,9 +524,14 @@ public class ExtensionProcessor implements AutoCloseable {
         return sha256;
     }
 
+    private byte[] readEntry(String entryName, ObservationRegistry observations) {
+        var bytes = knownFileEntries.get(entryName);
+        return bytes != null ? bytes : ArchiveUtil.readEntry(zipFile, entryName, observations);
+    }
+
     protected FileResource getManifest(ExtensionVersion extVersion) {
         readInputStream();
-        var bytes = ArchiveUtil.readEntry(zipFile, PACKAGE_JSON, ObservationRegistry.NOOP);
+        var bytes = readEntry(PACKAGE_JSON, ObservationRegistry.NOOP);
         if (bytes == null) {
             return null;
         }
@@ -460,7 +580,7 @@ public class ExtensionProcessor implements AutoCloseable {
 
             var assetPath = tryGetLicensePath();
             if (StringUtils.isNotEmpty(assetPath)) {
-                var bytes = ArchiveUtil.readEntry(zipFile, assetPath, observations);
+                var bytes = readEntry(assetPath, observations);
                 var lastSegmentIndex = assetPath.lastIndexOf('/');
                 var lastSegment = assetPath.substring(lastSegmentIndex + 1);
 
@@ -476,7 +596,7 @@ public class ExtensionProcessor implements AutoCloseable {
     private Pair<byte[], String> readFromVsixPackage(String assetType, String[] alternateNames) {
         var assetPath = tryGetAssetPath(assetType);
         if(StringUtils.isNotEmpty(assetPath)) {
-            var bytes = ArchiveUtil.readEntry(zipFile, assetPath, ObservationRegistry.NOOP);
+            var bytes = readEntry(assetPath, ObservationRegistry.NOOP);
             var lastSegmentIndex = assetPath.lastIndexOf('/');
             var lastSegment = assetPath.substring(lastSegmentIndex + 1);
             return Pair.of(bytes, lastSegment);
@@ -490,7 +610,7 @@ public class ExtensionProcessor implements AutoCloseable {
         for (var name : names) {
             var entry = ArchiveUtil.getEntryIgnoreCase(zipFile, name);
             if (entry != null) {
-                var bytes = ArchiveUtil.readEntry(zipFile, entry, ObservationRegistry.NOOP);
+                var bytes = readEntry(entry.getName(), ObservationRegistry.NOOP);
                 var lastSegmentIndex = entry.getName().lastIndexOf('/');
                 var lastSegment = entry.getName().substring(lastSegmentIndex + 1);
                 return Pair.of(bytes, lastSegment);
@@ -522,7 +642,7 @@ public class ExtensionProcessor implements AutoCloseable {
         return null;
     }
 
-    protected FileResource getIcon(ExtensionVersion extVersion) {
+    private String getIconPath() {
         var iconPath = tryGetAssetPath(ExtensionQueryResult.ExtensionFile.FILE_ICON);
         if(StringUtils.isEmpty(iconPath)) {
             loadPackageJson();
@@ -532,11 +652,16 @@ public class ExtensionProcessor implements AutoCloseable {
                     : null;
         }
 
+        return iconPath;
+    }
+
+    protected FileResource getIcon(ExtensionVersion extVersion) {
+        var iconPath = getIconPath();
         if (iconPath == null) {
             return null;
         }
 
-        var bytes = ArchiveUtil.readEntry(zipFile, iconPath, ObservationRegistry.NOOP);
+        var bytes = readEntry(iconPath, ObservationRegistry.NOOP);
         if (bytes == null) {
             return null;
         }
@@ -560,7 +685,7 @@ public class ExtensionProcessor implements AutoCloseable {
         vsixManifest.setExtension(extVersion);
         vsixManifest.setName(VSIX_MANIFEST);
         vsixManifest.setType(FileResource.VSIXMANIFEST);
-        vsixManifest.setContent(ArchiveUtil.readEntry(zipFile, VSIX_MANIFEST, ObservationRegistry.NOOP));
+        vsixManifest.setContent(readEntry(VSIX_MANIFEST, ObservationRegistry.NOOP));
         return vsixManifest;
     }
 
@@ -577,4 +702,9 @@ public class ExtensionProcessor implements AutoCloseable {
 
         return false;
     }
+
+    /**
+     * Size and SHA-256 digest of an archive entry or of the whole extension file.
+     */
+    public record EntryDigest(long size, byte[] sha256) {}
 }
\ No newline at end of file
@@ -42,6 +42,7 @@ public class ExtensionService {
     private final SearchUtilService search;
     private final CacheService cache;
     private final PublishExtensionVersionHandler publishHandler;
+    private final ChangeLogService changeLog;
     private final ObservationRegistry observations;
 
     @Value("${ovsx.publishing.require-license:false}")
@@ -52,12 +53,14 @@ public class ExtensionService {
             SearchUtilService search,
             CacheService cache,
             PublishExtensionVersionHandler publishHandler,
+            ChangeLogService changeLog,
             ObservationRegistry observations
     ) {
         this.repositories = repositories;
         this.search = search;
         this.cache = cache;
         this.publishHandler = publishHandler;
+        this.changeLog = changeLog;
         this.observations = observations;
     }
 
@@ -135,10 +138,12 @@ public class ExtensionService {
             // There is at least one active version => activate the extension
             extension.setActive(true);
             search.updateSearchEntry(extension);
+            changeLog.extensionUpdated(extension);
         } else if (extension.isActive()) {
             // All versions are deactivated => deactivate the extensions
             extension.setActive(false);
             search.removeSearchEntry(extension);
+            changeLog.extensionDeactivated(extension);
         }
     }
 
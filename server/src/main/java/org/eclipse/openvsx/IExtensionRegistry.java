@@ -11,6 +11,7 @@ package org.eclipse.openvsx;
 
 import org.eclipse.openvsx.json.*;
 import org.eclipse.openvsx.search.ISearchService;
+import org.springframework.core.io.Resource;
 import org.springframework.http.ResponseEntity;
 
 /**
@@ -28,7 +29,7 @@ public interface IExtensionRegistry {
 
     VersionReferencesJson getVersionReferences(String namespace, String extension, String targetPlatform, int size, int offset);
 
-    ResponseEntity<byte[]> getFile(String namespace, String extensionName, String targetPlatform, String version, String fileName);
+    ResponseEntity<Resource> getFile(String namespace, String extensionName, String targetPlatform, String version, String fileName);
 
     ReviewListJson getReviews(String namespace, String extension);
 
@@ -40,7 +41,7 @@ public interface IExtensionRegistry {
 
     NamespaceDetailsJson getNamespaceDetails(String namespace);
 
-    ResponseEntity<byte[]> getNamespaceLogo(String namespaceName, String fileName);
+    ResponseEntity<Resource> getNamespaceLogo(String namespaceName, String fileName);
 
     String getPublicKey(String publicId);
 
@@ -20,9 +20,11 @@ import org.eclipse.openvsx.eclipse.EclipseService;
 import org.eclipse.openvsx.entities.*;
 import org.eclipse.openvsx.json.*;
 import org.eclipse.openvsx.publish.ExtensionVersionIntegrityService;
+import org.eclipse.openvsx.repositories.QueryCursor;
 import org.eclipse.openvsx.repositories.RepositoryService;
 import org.eclipse.openvsx.search.ExtensionSearch;
 import org.eclipse.openvsx.search.ISearchService;
+import org.eclipse.openvsx.search.RelevanceService;
 import org.eclipse.openvsx.search.SearchUtilService;
 import org.eclipse.openvsx.storage.StorageUtilService;
 import org.eclipse.openvsx.util.*;
@@ -31,6 +33,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.core.io.Resource;
 import org.springframework.data.elasticsearch.core.SearchHits;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -57,6 +60,7 @@ public class LocalRegistryService implements IExtensionRegistry {
     private final VersionService versions;
     private final UserService users;
     private final SearchUtilService search;
+    private final RelevanceService relevance;
     private final ExtensionValidator validator;
     private final StorageUtilService storageUtil;
     private final EclipseService eclipse;
@@ -71,6 +75,7 @@ public class LocalRegistryService implements IExtensionRegistry {
             VersionService versions,
             UserService users,
             SearchUtilService search,
+            RelevanceService relevance,
             ExtensionValidator validator,
             StorageUtilService storageUtil,
             EclipseService eclipse,
@@ -84,6 +89,7 @@ public class LocalRegistryService implements IExtensionRegistry {
         this.versions = versions;
         this.users = users;
         this.search = search;
+        this.relevance = relevance;
         this.validator = validator;
         this.storageUtil = storageUtil;
         this.eclipse = eclipse;
@@ -208,7 +214,7 @@ public class LocalRegistryService implements IExtensionRegistry {
     }
 
     @Override
-    public ResponseEntity<byte[]> getFile(String namespace, String extensionName, String targetPlatform, String version, String fileName) {
+    public ResponseEntity<Resource> getFile(String namespace, String extensionName, String targetPlatform, String version, String fileName) {
         var resource = isType(fileName)
                 ? repositories.findFileByType(namespace, extensionName, targetPlatform, version, fileName.toLowerCase())
                 : repositories.findFileByName(namespace, extensionName, targetPlatform, version, fileName);
@@ -285,8 +291,8 @@ public class LocalRegistryService implements IExtensionRegistry {
             request.targetPlatform = null;
         }
 
-        var extensionVersionsPage = repositories.findActiveVersions(request);
-        var extensionVersions = extensionVersionsPage.getContent();
+        var result = new QueryResultJson();
+        var extensionVersions = findActiveVersions(request, result);
         var extensionIds = extensionVersions.stream()
                 .map(ev -> ev.getExtension().getId())
                 .collect(Collectors.toSet());
@@ -299,9 +305,6 @@ public class LocalRegistryService implements IExtensionRegistry {
         var fileResourcesByExtensionVersionId = getFileResources(extensionVersions);
         var membershipsByNamespaceId = getMemberships(extensionVersions);
 
-        var result = new QueryResultJson();
-        result.offset = (int) extensionVersionsPage.getPageable().getOffset();
-        result.totalSize = (int) extensionVersionsPage.getTotalElements();
         result.extensions = extensionVersions.stream()
                 .map(ev -> {
                     var latest = latestVersions.get(getLatestVersionKey(ev));
@@ -317,6 +320,27 @@ public class LocalRegistryService implements IExtensionRegistry {
         return result;
     }
 
+    /**
+     * Find the versions of a query page and set the paging fields of the result. With a cursor,
+     * the page continues after the cursor and the result holds the cursor of the next page.
+     * An empty cursor requests the first page.
+     */
+    private List<ExtensionVersion> findActiveVersions(QueryRequest request, QueryResultJson result) {
+        if (request.cursor == null) {
+            var page = repositories.findActiveVersions(request);
+            result.offset = (int) page.getPageable().getOffset();
+            result.totalSize = (int) page.getTotalElements();
+            return page.getContent();
+        }
+
+        var extensionVersions = repositories.findActiveVersions(request, QueryCursor.parse(request.cursor));
+        result.totalSize = repositories.countActiveVersions(request);
+        if (!extensionVersions.isEmpty() && extensionVersions.size() == request.size) {
+            result.nextCursor = QueryCursor.of(extensionVersions.get(extensionVersions.size() - 1)).toString();
+        }
+        return extensionVersions;
+    }
+
     @Override
     public QueryResultJson queryV2(QueryRequestV2 request) {
         if (!StringUtils.isEmpty(request.extensionId)) {
@@ -350,9 +374,10 @@ public class LocalRegistryService implements IExtensionRegistry {
         queryRequest.targetPlatform = request.targetPlatform;
         queryRequest.size = request.size;
         queryRequest.offset = request.offset;
+        queryRequest.cursor = request.cursor;
 
-        var extensionVersionsPage = repositories.findActiveVersions(queryRequest);
-        var extensionVersions = extensionVersionsPage.getContent();
+        var result = new QueryResultJson();
+        var extensionVersions = findActiveVersions(queryRequest, result);
         var extensionIds = extensionVersions.stream()
                 .map(ev -> ev.getExtension().getId())
                 .collect(Collectors.toSet());
@@ -369,9 +394,6 @@ public class LocalRegistryService implements IExtensionRegistry {
         var fileResourcesByExtensionVersionId = getFileResources(extensionVersions);
         var membershipsByNamespaceId = getMemberships(extensionVersions);
 
-        var result = new QueryResultJson();
-        result.offset = (int) extensionVersionsPage.getPageable().getOffset();
-        result.totalSize = (int) extensionVersionsPage.getTotalElements();
         result.extensions = extensionVersions.stream()
                 .map(ev -> {
                     var latest = latestVersions.get(getLatestVersionKey(ev));
@@ -437,7 +459,7 @@ public class LocalRegistryService implements IExtensionRegistry {
     }
 
     @Override
-    public ResponseEntity<byte[]> getNamespaceLogo(String namespaceName, String fileName) {
+    public ResponseEntity<Resource> getNamespaceLogo(String namespaceName, String fileName) {
         if(fileName == null) {
             fileName = "";
         }
@@ -653,9 +675,11 @@ public class LocalRegistryService implements IExtensionRegistry {
         extReview.setComment(review.comment);
         extReview.setRating(review.rating);
         entityManager.persist(extReview);
+        relevance.addReviewRating(extReview.getRating());
         extension.setAverageRating(repositories.getAverageReviewRating(extension));
         extension.setReviewCount(repositories.countActiveReviews(extension));
         search.updateSearchEntry(extension);
+        cache.evictNamespaceDetails(extension);
         cache.evictExtensionJsons(extension);
         cache.evictLatestExtensionVersion(extension);
         return ResultJson.success("Added review for " + NamingUtil.toExtensionId(extension));
@@ -678,11 +702,13 @@ public class LocalRegistryService implements IExtensionRegistry {
 
         for (var extReview : activeReviews) {
             extReview.setActive(false);
+            relevance.removeReviewRating(extReview.getRating());
         }
 
         extension.setAverageRating(repositories.getAverageReviewRating(extension));
         extension.setReviewCount(repositories.countActiveReviews(extension));
         search.updateSearchEntry(extension);
+        cache.evictNamespaceDetails(extension);
         cache.evictExtensionJsons(extension);
         cache.evictLatestExtensionVersion(extension);
         return ResultJson.success("Deleted review for " + NamingUtil.toExtensionId(extension));
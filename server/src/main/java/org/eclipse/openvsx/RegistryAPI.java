@@ -22,13 +22,18 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.servlet.http.HttpServletRequest;
 import org.apache.commons.lang3.StringUtils;
+import org.eclipse.openvsx.cache.ChangeStampService;
+import org.eclipse.openvsx.cache.SerializedJson;
 import org.eclipse.openvsx.entities.SemanticVersion;
 import org.eclipse.openvsx.json.*;
 import org.eclipse.openvsx.search.ISearchService;
 import org.eclipse.openvsx.util.*;
+import org.eclipse.openvsx.web.ShallowEtagHeaderFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
 import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -40,6 +45,7 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import static org.eclipse.openvsx.util.TargetPlatform.*;
 
@@ -53,18 +59,30 @@ public class RegistryAPI {
 
     private final LocalRegistryService local;
     private final UpstreamRegistryService upstream;
+    private final RegistryFanOut fanOut;
     private final UserService users;
+    private final SerializedJsonService serializedJsons;
+    private final ChangeStampService changeStamps;
+    private final ChangeLogService changeLog;
     private final ObservationRegistry observations;
 
     public RegistryAPI(
             LocalRegistryService local,
             UpstreamRegistryService upstream,
+            RegistryFanOut fanOut,
             UserService users,
+            SerializedJsonService serializedJsons,
+            ChangeStampService changeStamps,
+            ChangeLogService changeLog,
             ObservationRegistry observations
     ) {
         this.local = local;
         this.upstream = upstream;
+        this.fanOut = fanOut;
         this.users = users;
+        this.serializedJsons = serializedJsons;
+        this.changeStamps = changeStamps;
+        this.changeLog = changeLog;
         this.observations = observations;
     }
 
@@ -76,6 +94,63 @@ public class RegistryAPI {
         return registries;
     }
 
+    /**
+     * The response carries the {@code ETag} of the serialized body, so Spring answers a
+     * matching {@code If-None-Match} header with {@code 304 Not Modified} without writing it.
+     */
+    private ResponseEntity<SerializedJson> toResponseEntity(SerializedJson json, CacheControl cacheControl) {
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .eTag(json.getETag())
+                .body(json);
+    }
+
+    /**
+     * The response carries an {@code ETag} derived from the change stamp of the extension or namespace,
+     * so a matching {@code If-None-Match} header is answered with {@code 304 Not Modified} before the
+     * JSON is loaded. The {@link ShallowEtagHeaderFilter} does not buffer the response to compute a tag.
+     * If change stamps are disabled, the response carries the {@code ETag} of the serialized body.
+     */
+    private ResponseEntity<?> toResponseEntity(
+            HttpServletRequest request,
+            String eTag,
+            CacheControl cacheControl,
+            Supplier<SerializedJson> json
+    ) {
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+        if (!changeStamps.isEnabled()) {
+            return toResponseEntity(json.get(), cacheControl);
+        }
+        if (isNotModified(request, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(cacheControl)
+                    .eTag(eTag)
+                    .build();
+        }
+
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .eTag(eTag)
+                .body(json.get());
+    }
+
+    private boolean isNotModified(HttpServletRequest request, String eTag) {
+        var ifNoneMatch = request.getHeaders(HttpHeaders.IF_NONE_MATCH);
+        while (ifNoneMatch.hasMoreElements()) {
+            for (var tag : ifNoneMatch.nextElement().split(",")) {
+                tag = tag.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals(eTag)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
     @GetMapping(
         path = "/api/{namespace}",
         produces = MediaType.APPLICATION_JSON_VALUE
@@ -188,12 +263,17 @@ public class RegistryAPI {
     @CrossOrigin
     @Operation()
     @ApiResponses({})
-    public ResponseEntity<NamespaceDetailsJson> getNamespaceDetails(
+    public ResponseEntity<?> getNamespaceDetails(
+            HttpServletRequest request,
             @PathVariable @Parameter(description = "Namespace name", example = "redhat")
             String namespace
     ) {
         for (var registry : getRegistries()) {
             try {
+                if (registry == local) {
+                    var eTag = changeStamps.getNamespaceETag(namespace);
+                    return toResponseEntity(request, eTag, CacheControl.noCache().cachePublic(), () -> serializedJsons.getNamespaceDetails(namespace));
+                }
                 return ResponseEntity.ok()
                         .cacheControl(CacheControl.noCache().cachePublic())
                         .body(registry.getNamespaceDetails(namespace));
@@ -221,7 +301,7 @@ public class RegistryAPI {
             description = "The specified namespace could not be found"
         )
     })
-    public ResponseEntity<byte[]> getNamespaceLogo(
+    public ResponseEntity<Resource> getNamespaceLogo(
             @PathVariable @Parameter(description = "Namespace name", example = "redhat")
             String namespace,
             @PathVariable @Parameter(description = "Logo file name", example = "logo-redhat.png")
@@ -247,7 +327,8 @@ public class RegistryAPI {
     @ApiResponses({
         @ApiResponse(
             responseCode = "200",
-            description = "The extension metadata are returned in JSON format"
+            description = "The extension metadata are returned in JSON format",
+            content = @Content(schema = @Schema(implementation = ExtensionJson.class))
         ),
         @ApiResponse(
             responseCode = "404",
@@ -272,7 +353,8 @@ public class RegistryAPI {
             }
         )
     })
-    public ResponseEntity<ExtensionJson> getExtension(
+    public ResponseEntity<?> getExtension(
+            HttpServletRequest request,
             @PathVariable @Parameter(description = "Extension namespace", example = "redhat")
             String namespace,
             @PathVariable @Parameter(description = "Extension name", example = "java")
@@ -280,6 +362,10 @@ public class RegistryAPI {
     ) {
         for (var registry : getRegistries()) {
             try {
+                if (registry == local) {
+                    var eTag = changeStamps.getExtensionETag(namespace, extension);
+                    return toResponseEntity(request, eTag, CacheControl.noCache().cachePublic(), () -> serializedJsons.getExtension(namespace, extension, null));
+                }
                 return ResponseEntity.ok()
                         .cacheControl(CacheControl.noCache().cachePublic())
                         .body(registry.getExtension(namespace, extension, null));
@@ -300,7 +386,8 @@ public class RegistryAPI {
     @ApiResponses({
         @ApiResponse(
             responseCode = "200",
-            description = "The extension metadata are returned in JSON format"
+            description = "The extension metadata are returned in JSON format",
+            content = @Content(schema = @Schema(implementation = ExtensionJson.class))
         ),
         @ApiResponse(
             responseCode = "404",
@@ -325,7 +412,8 @@ public class RegistryAPI {
             }
         )
     })
-    public ResponseEntity<ExtensionJson> getExtension(
+    public ResponseEntity<?> getExtension(
+            HttpServletRequest request,
             @PathVariable @Parameter(description = "Extension namespace", example = "redhat")
             String namespace,
             @PathVariable @Parameter(description = "Extension name", example = "java")
@@ -346,6 +434,10 @@ public class RegistryAPI {
     ) {
         for (var registry : getRegistries()) {
             try {
+                if (registry == local) {
+                    var eTag = changeStamps.getExtensionETag(namespace, extension);
+                    return toResponseEntity(request, eTag, CacheControl.maxAge(10, TimeUnit.MINUTES).cachePublic(), () -> serializedJsons.getExtension(namespace, extension, targetPlatform.toString()));
+                }
                 return ResponseEntity.ok()
                         .cacheControl(CacheControl.maxAge(10, TimeUnit.MINUTES).cachePublic())
                         .body(registry.getExtension(namespace, extension, targetPlatform.toString()));
@@ -366,7 +458,8 @@ public class RegistryAPI {
     @ApiResponses({
         @ApiResponse(
             responseCode = "200",
-            description = "The extension metadata are returned in JSON format"
+            description = "The extension metadata are returned in JSON format",
+            content = @Content(schema = @Schema(implementation = ExtensionJson.class))
         ),
         @ApiResponse(
             responseCode = "404",
@@ -391,7 +484,8 @@ public class RegistryAPI {
             }
         )
     })
-    public ResponseEntity<ExtensionJson> getExtension(
+    public ResponseEntity<?> getExtension(
+            HttpServletRequest request,
             @PathVariable @Parameter(description = "Extension namespace", example = "redhat")
             String namespace,
             @PathVariable @Parameter(description = "Extension name", example = "java")
@@ -401,6 +495,10 @@ public class RegistryAPI {
     ) {
         for (var registry : getRegistries()) {
             try {
+                if (registry == local) {
+                    var eTag = changeStamps.getExtensionETag(namespace, extension);
+                    return toResponseEntity(request, eTag, CacheControl.noCache().cachePublic(), () -> serializedJsons.getExtension(namespace, extension, null, version));
+                }
                 return ResponseEntity.ok()
                         .cacheControl(CacheControl.noCache().cachePublic())
                         .body(registry.getExtension(namespace, extension, null, version));
@@ -421,7 +519,8 @@ public class RegistryAPI {
     @ApiResponses({
         @ApiResponse(
             responseCode = "200",
-            description = "The extension metadata are returned in JSON format"
+            description = "The extension metadata are returned in JSON format",
+            content = @Content(schema = @Schema(implementation = ExtensionJson.class))
         ),
         @ApiResponse(
             responseCode = "404",
@@ -446,7 +545,8 @@ public class RegistryAPI {
             }
         )
     })
-    public ResponseEntity<ExtensionJson> getExtension(
+    public ResponseEntity<?> getExtension(
+            HttpServletRequest request,
             @PathVariable @Parameter(description = "Extension namespace", example = "redhat")
             String namespace,
             @PathVariable @Parameter(description = "Extension name", example = "java")
@@ -469,6 +569,10 @@ public class RegistryAPI {
     ) {
         for (var registry : getRegistries()) {
             try {
+                if (registry == local) {
+                    var eTag = changeStamps.getExtensionETag(namespace, extension);
+                    return toResponseEntity(request, eTag, CacheControl.maxAge(10, TimeUnit.MINUTES).cachePublic(), () -> serializedJsons.getExtension(namespace, extension, targetPlatform, version));
+                }
                 return ResponseEntity.ok()
                         .cacheControl(CacheControl.maxAge(10, TimeUnit.MINUTES).cachePublic())
                         .body(registry.getExtension(namespace, extension, targetPlatform, version));
@@ -787,7 +891,7 @@ public class RegistryAPI {
             }
         )
     })
-    public ResponseEntity<byte[]> getFile(
+    public ResponseEntity<Resource> getFile(
             HttpServletRequest request,
             @PathVariable @Parameter(description = "Extension namespace", example = "redhat")
             String namespace,
@@ -848,7 +952,7 @@ public class RegistryAPI {
             }
         )
     })
-    public ResponseEntity<byte[]> getFile(
+    public ResponseEntity<Resource> getFile(
             HttpServletRequest request,
             @PathVariable @Parameter(description = "Extension namespace", example = "redhat")
             String namespace,
@@ -926,7 +1030,8 @@ public class RegistryAPI {
     @ApiResponses({
         @ApiResponse(
             responseCode = "200",
-            description = "The search results are returned in JSON format"
+            description = "The search results are returned in JSON format",
+            content = @Content(schema = @Schema(implementation = SearchResultJson.class))
         ),
         @ApiResponse(
             responseCode = "400",
@@ -954,7 +1059,7 @@ public class RegistryAPI {
             }
         )
     })
-    public ResponseEntity<SearchResultJson> search(
+    public ResponseEntity<?> search(
             @RequestParam(required = false)
             @Parameter(description = "Query text for searching", example = "javascript")
             String query,
@@ -1000,33 +1105,42 @@ public class RegistryAPI {
         }
 
         var options = new ISearchService.Options(query, category, targetPlatform, size, offset, sortOrder, sortBy, includeAllVersions);
+        try {
+            var json = serializedJsons.search(options, () -> search(options));
+            return toResponseEntity(json, CacheControl.noCache().cachePublic());
+        } catch (ErrorResultException exc) {
+            return exc.toResponseEntity(SearchResultJson.class);
+        }
+    }
+
+    private SearchResultJson search(ISearchService.Options options) {
+        var size = options.requestedSize;
+        var offset = options.requestedOffset;
         var result = new SearchResultJson();
         result.extensions = new ArrayList<>(size);
-        for (var registry : getRegistries()) {
-            if (result.extensions.size() >= size) {
-                return ResponseEntity.ok(result);
-            }
-            try {
-                var subResult = registry.search(options);
-                if(result.extensions.isEmpty() && subResult.extensions != null) {
-                    result.extensions.addAll(subResult.extensions);
-                } else if (subResult.extensions != null && !subResult.extensions.isEmpty()) {
-                    int limit = size - result.extensions.size();
-                    var subResultSize = mergeSearchResults(result, subResult.extensions, limit);
-                    result.offset += subResult.offset;
-                    offset = Math.max(offset - subResult.offset - subResultSize, 0);
+        try (var results = fanOut.query(getRegistries(), registry -> registry.search(options))) {
+            for (var registryResult : results) {
+                if (result.extensions.size() >= size) {
+                    return result;
+                }
+                try {
+                    var subResult = registryResult.get();
+                    if(result.extensions.isEmpty() && subResult.extensions != null) {
+                        result.extensions.addAll(subResult.extensions);
+                    } else if (subResult.extensions != null && !subResult.extensions.isEmpty()) {
+                        int limit = size - result.extensions.size();
+                        var subResultSize = mergeSearchResults(result, subResult.extensions, limit);
+                        result.offset += subResult.offset;
+                        offset = Math.max(offset - subResult.offset - subResultSize, 0);
+                    }
+                    result.totalSize += subResult.totalSize;
+                } catch (NotFoundException exc) {
+                    // Try the next registry
                 }
-                result.totalSize += subResult.totalSize;
-            } catch (NotFoundException exc) {
-                // Try the next registry
-            } catch (ErrorResultException exc) {
-                return exc.toResponseEntity(SearchResultJson.class);
             }
         }
 
-        return ResponseEntity.ok()
-                .cacheControl(CacheControl.noCache().cachePublic())
-                .body(result);
+        return result;
     }
 
     private int mergeSearchResults(SearchResultJson result, List<SearchEntryJson> entries, int limit) {
@@ -1102,7 +1216,11 @@ public class RegistryAPI {
             int size,
             @RequestParam(defaultValue = "0")
             @Parameter(description = "Number of entries to skip (usually a multiple of the page size)", schema = @Schema(type = "integer", minimum = "0", defaultValue = "0"))
-            int offset
+            int offset,
+            @RequestParam(required = false)
+            @Parameter(description = "Continue after the entries of a previous query, use the 'nextCursor' of its result. "
+                    + "Pass an empty value to get the first page. Cannot be combined with 'offset'.")
+            String cursor
     ) {
         if (size < 0) {
             var json = QueryResultJson.error("The parameter 'size' must not be negative.");
@@ -1112,6 +1230,10 @@ public class RegistryAPI {
             var json = QueryResultJson.error("The parameter 'offset' must not be negative.");
             return new ResponseEntity<>(json, HttpStatus.BAD_REQUEST);
         }
+        if (offset > 0 && cursor != null) {
+            var json = QueryResultJson.error("The parameters 'offset' and 'cursor' must not be combined.");
+            return new ResponseEntity<>(json, HttpStatus.BAD_REQUEST);
+        }
         if(!List.of("true", "false", "links").contains(includeAllVersions)) {
             var json = QueryResultJson.error("Invalid includeAllVersions value: " + includeAllVersions + ".");
             return new ResponseEntity<>(json, HttpStatus.BAD_REQUEST);
@@ -1128,26 +1250,33 @@ public class RegistryAPI {
         request.targetPlatform = targetPlatform;
         request.size = size;
         request.offset = offset;
+        request.cursor = cursor;
+        if (cursor != null) {
+            // a cursor refers to the versions of this registry, the upstream registry is not queried
+            return queryWithCursor(() -> local.queryV2(request));
+        }
 
         var result = new QueryResultJson();
         result.offset = request.offset;
         result.extensions = new ArrayList<>(size);
-        for (var registry : getRegistries()) {
-            try {
-                var subResult = registry.queryV2(request);
-                if(result.extensions.isEmpty() && subResult.extensions != null) {
-                    result.extensions.addAll(subResult.extensions);
-                } else if (subResult.extensions != null && !subResult.extensions.isEmpty()) {
-                    int limit = size - result.extensions.size();
-                    var subResultSize = mergeQueryResults(result, subResult.extensions, limit);
-                    result.offset += subResult.offset;
-                    offset = Math.max(offset - subResult.offset - subResultSize, 0);
+        try (var results = fanOut.query(getRegistries(), registry -> registry.queryV2(request))) {
+            for (var registryResult : results) {
+                try {
+                    var subResult = registryResult.get();
+                    if(result.extensions.isEmpty() && subResult.extensions != null) {
+                        result.extensions.addAll(subResult.extensions);
+                    } else if (subResult.extensions != null && !subResult.extensions.isEmpty()) {
+                        int limit = size - result.extensions.size();
+                        var subResultSize = mergeQueryResults(result, subResult.extensions, limit);
+                        result.offset += subResult.offset;
+                        offset = Math.max(offset - subResult.offset - subResultSize, 0);
+                    }
+                    result.totalSize += subResult.totalSize;
+                } catch (NotFoundException exc) {
+                    // Try the next registry
+                } catch (ErrorResultException exc) {
+                    return exc.toResponseEntity(QueryResultJson.class);
                 }
-                result.totalSize += subResult.totalSize;
-            } catch (NotFoundException exc) {
-                // Try the next registry
-            } catch (ErrorResultException exc) {
-                return exc.toResponseEntity(QueryResultJson.class);
             }
         }
         return ResponseEntity.ok()
@@ -1232,7 +1361,11 @@ public class RegistryAPI {
             int size,
             @RequestParam(defaultValue = "0")
             @Parameter(description = "Number of entries to skip (usually a multiple of the page size)", schema = @Schema(type = "integer", minimum = "0", defaultValue = "0"))
-            int offset
+            int offset,
+            @RequestParam(required = false)
+            @Parameter(description = "Continue after the entries of a previous query, use the 'nextCursor' of its result. "
+                    + "Pass an empty value to get the first page. Cannot be combined with 'offset'.")
+            String cursor
     ) {
         if (size < 0) {
             var json = QueryResultJson.error("The parameter 'size' must not be negative.");
@@ -1242,6 +1375,10 @@ public class RegistryAPI {
             var json = QueryResultJson.error("The parameter 'offset' must not be negative.");
             return new ResponseEntity<>(json, HttpStatus.BAD_REQUEST);
         }
+        if (offset > 0 && cursor != null) {
+            var json = QueryResultJson.error("The parameters 'offset' and 'cursor' must not be combined.");
+            return new ResponseEntity<>(json, HttpStatus.BAD_REQUEST);
+        }
         
         var request = new QueryRequest();
         request.namespaceName = namespaceName;
@@ -1254,26 +1391,33 @@ public class RegistryAPI {
         request.targetPlatform = targetPlatform;
         request.size = size;
         request.offset = offset;
+        request.cursor = cursor;
+        if (cursor != null) {
+            // a cursor refers to the versions of this registry, the upstream registry is not queried
+            return queryWithCursor(() -> local.query(request));
+        }
 
         var result = new QueryResultJson();
         result.offset = request.offset;
         result.extensions = new ArrayList<>(size);
-        for (var registry : getRegistries()) {
-            try {
-                var subResult = registry.query(request);
-                if(result.extensions.isEmpty() && subResult.extensions != null) {
-                    result.extensions.addAll(subResult.extensions);
-                } else if (subResult.extensions != null && !subResult.extensions.isEmpty()) {
-                    int limit = size - result.extensions.size();
-                    var subResultSize = mergeQueryResults(result, subResult.extensions, limit);
-                    result.offset += subResult.offset;
-                    offset = Math.max(offset - subResult.offset - subResultSize, 0);
+        try (var results = fanOut.query(getRegistries(), registry -> registry.query(request))) {
+            for (var registryResult : results) {
+                try {
+                    var subResult = registryResult.get();
+                    if(result.extensions.isEmpty() && subResult.extensions != null) {
+                        result.extensions.addAll(subResult.extensions);
+                    } else if (subResult.extensions != null && !subResult.extensions.isEmpty()) {
+                        int limit = size - result.extensions.size();
+                        var subResultSize = mergeQueryResults(result, subResult.extensions, limit);
+                        result.offset += subResult.offset;
+                        offset = Math.max(offset - subResult.offset - subResultSize, 0);
+                    }
+                    result.totalSize += subResult.totalSize;
+                } catch (NotFoundException exc) {
+                    // Try the next registry
+                } catch (ErrorResultException exc) {
+                    return exc.toResponseEntity(QueryResultJson.class);
                 }
-                result.totalSize += subResult.totalSize;
-            } catch (NotFoundException exc) {
-                // Try the next registry
-            } catch (ErrorResultException exc) {
-                return exc.toResponseEntity(QueryResultJson.class);
             }
         }
         return ResponseEntity.ok()
@@ -1281,6 +1425,16 @@ public class RegistryAPI {
                 .body(result);
     }
 
+    private ResponseEntity<QueryResultJson> queryWithCursor(Supplier<QueryResultJson> query) {
+        try {
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.maxAge(10, TimeUnit.MINUTES).cachePublic())
+                    .body(query.get());
+        } catch (ErrorResultException exc) {
+            return exc.toResponseEntity(QueryResultJson.class);
+        }
+    }
+
     private int mergeQueryResults(QueryResultJson result, List<ExtensionJson> entries, int limit) {
         var previousResult = Iterables.limit(result.extensions, result.extensions.size());
         var entriesIter = entries.iterator();
@@ -1733,6 +1887,78 @@ public class RegistryAPI {
         return ResponseEntity.notFound().build();
     }
 
+    @GetMapping(
+        path = "/api/-/changes",
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @CrossOrigin
+    @Operation(summary = "Provides the changes of extensions and namespaces in the order they were made")
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Returns the (possibly empty) list of changes after the given cursor"
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "The request contains an invalid parameter value",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                examples = @ExampleObject(value = "{\"error\":\"The parameter 'since' must not be negative.\"}")
+            )
+        ),
+        @ApiResponse(
+            responseCode = "410",
+            description = "The changes after the given cursor are no longer available",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                examples = @ExampleObject(value = "{\"error\":\"Changes after cursor 42 are no longer available.\"}")
+            )
+        ),
+        @ApiResponse(
+            responseCode = "429",
+            description = "A client has sent too many requests in a given amount of time",
+            content = @Content(),
+            headers = {
+                @Header(
+                    name = "X-Rate-Limit-Retry-After-Seconds",
+                    description = "Number of seconds to wait after receiving a 429 response",
+                    schema = @Schema(type = "integer", format = "int32")
+                ),
+                @Header(
+                    name = "X-Rate-Limit-Remaining",
+                    description = "Remaining number of requests left",
+                    schema = @Schema(type = "integer", format = "int32")
+                )
+            }
+        )
+    })
+    public ResponseEntity<ChangeLogJson> getChanges(
+            @RequestParam(required = false)
+            @Parameter(description = "Return the changes after this cursor, use the 'nextCursor' of a previous response. "
+                    + "Without a cursor, no changes are returned and 'nextCursor' points to the latest change.")
+            Long since,
+            @RequestParam(defaultValue = "100")
+            @Parameter(description = "Maximal number of changes to return", schema = @Schema(type = "integer", minimum = "0", maximum = "1000", defaultValue = "100"))
+            int size
+    ) {
+        if (since != null && since < 0) {
+            var json = ChangeLogJson.error("The parameter 'since' must not be negative.");
+            return new ResponseEntity<>(json, HttpStatus.BAD_REQUEST);
+        }
+        if (size < 0) {
+            var json = ChangeLogJson.error("The parameter 'size' must not be negative.");
+            return new ResponseEntity<>(json, HttpStatus.BAD_REQUEST);
+        }
+
+        try {
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache().cachePublic())
+                    .body(changeLog.getChanges(since, size));
+        } catch (ErrorResultException exc) {
+            return exc.toResponseEntity(ChangeLogJson.class);
+        }
+    }
+
     @GetMapping(path = "/api/version", produces = MediaType.APPLICATION_JSON_VALUE)
     @CrossOrigin
     @Operation(summary = "Return the registry version")
@@ -0,0 +1,154 @@
+/** ******************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * ****************************************************************************** */
+package org.eclipse.openvsx;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.eclipse.openvsx.util.NotFoundException;
+import org.eclipse.openvsx.util.UrlUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Sends a request to several registries. If {@code ovsx.registry.fan-out.enabled} is set, the
+ * request is sent to all registries but the first one in the background before the first registry
+ * is queried on the calling thread, so the response time is the maximum instead of the sum of the
+ * registry response times. A registry that has not responded within {@code ovsx.registry.fan-out.timeout}
+ * milliseconds after the request was submitted is skipped and its request is cancelled, so the caller
+ * falls back to the results of the other registries. At most {@code ovsx.registry.fan-out.queue-size}
+ * requests wait for a thread; further requests skip the background registries. Callers close the
+ * results, so requests whose result is not needed do not hold a thread until the registry responds.
+ */
+@Component
+public class RegistryFanOut {
+
+    protected final Logger logger = LoggerFactory.getLogger(RegistryFanOut.class);
+
+    @Value("${ovsx.registry.fan-out.enabled:false}")
+    boolean enabled;
+
+    @Value("${ovsx.registry.fan-out.timeout:3000}")
+    long timeout;
+
+    @Value("${ovsx.registry.fan-out.threads:16}")
+    int threads;
+
+    @Value("${ovsx.registry.fan-out.queue-size:16}")
+    int queueSize;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void createExecutor() {
+        if (!enabled) {
+            return;
+        }
+
+        var threadCount = new AtomicInteger();
+        var poolSize = Math.max(1, threads);
+        BlockingQueue<Runnable> queue = queueSize > 0 ? new ArrayBlockingQueue<>(queueSize) : new SynchronousQueue<>();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS, queue, runnable -> {
+            var thread = new Thread(runnable, "registry-fan-out-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdownExecutor() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * @return the results in the order of the registries. Getting a result waits for the registry
+     * to respond and throws the exception of the registry. A registry that did not respond in time
+     * or could not be queried because too many requests are waiting throws {@link NotFoundException}.
+     */
+    public <T> Results<T> query(Iterable<IExtensionRegistry> registries, Function<IExtensionRegistry, T> request) {
+        var results = new Results<T>();
+        // the response URLs are derived from the request, which must not be accessed by other threads
+        var baseUrl = executor != null ? UrlUtil.getBaseUrl() : null;
+        for (var registry : registries) {
+            if (executor == null || results.suppliers.isEmpty()) {
+                results.add(() -> request.apply(registry));
+                continue;
+            }
+
+            try {
+                var deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+                var result = executor.submit(() -> UrlUtil.withBaseUrl(baseUrl, () -> request.apply(registry)));
+                results.futures.add(result);
+                results.add(() -> await(registry, result, deadline));
+            } catch (RejectedExecutionException exc) {
+                logger.warn("{} skipped, too many requests are waiting", registry.getClass().getSimpleName());
+                results.add(() -> {
+                    throw new NotFoundException();
+                });
+            }
+        }
+
+        return results;
+    }
+
+    private <T> T await(IExtensionRegistry registry, Future<T> result, long deadline) {
+        try {
+            return result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException exc) {
+            result.cancel(true);
+            logger.warn("{} did not respond within {} ms", registry.getClass().getSimpleName(), timeout);
+            throw new NotFoundException();
+        } catch (InterruptedException exc) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new NotFoundException();
+        } catch (ExecutionException exc) {
+            throw exc.getCause() instanceof RuntimeException cause ? cause : new CompletionException(exc.getCause());
+        }
+    }
+
+    /**
+     * Closing the results cancels the requests of registries whose result has not been read.
+     */
+    public static class Results<T> implements Iterable<Supplier<T>>, AutoCloseable {
+
+        private final List<Supplier<T>> suppliers = new ArrayList<>();
+        private final List<Future<T>> futures = new ArrayList<>();
+
+        private void add(Supplier<T> supplier) {
+            suppliers.add(supplier);
+        }
+
+        public Supplier<T> get(int index) {
+            return suppliers.get(index);
+        }
+
+        @Override
+        public Iterator<Supplier<T>> iterator() {
+            return suppliers.iterator();
+        }
+
+        @Override
+        public void close() {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+}
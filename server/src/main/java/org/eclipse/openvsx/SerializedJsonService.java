@@ -0,0 +1,63 @@
+/** ******************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * ****************************************************************************** */
+package org.eclipse.openvsx;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.openvsx.cache.CacheService;
+import org.eclipse.openvsx.cache.SerializedJson;
+import org.eclipse.openvsx.json.SearchResultJson;
+import org.eclipse.openvsx.search.ISearchService;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+import static org.eclipse.openvsx.cache.CacheService.*;
+
+/**
+ * Caches the serialized responses of the most requested metadata endpoints, so cache hits
+ * are written to the response without running Jackson and without hashing the body again.
+ * The caches are keyed like the corresponding object caches and evicted by {@link CacheService}.
+ */
+@Component
+public class SerializedJsonService {
+
+    private final LocalRegistryService local;
+    private final ObjectMapper mapper;
+
+    public SerializedJsonService(LocalRegistryService local, ObjectMapper mapper) {
+        this.local = local;
+        this.mapper = mapper;
+    }
+
+    @Cacheable(value = CACHE_EXTENSION_JSON_BYTES, keyGenerator = GENERATOR_EXTENSION_JSON)
+    public SerializedJson getExtension(String namespace, String extension, String targetPlatform) {
+        return SerializedJson.of(local.getExtension(namespace, extension, targetPlatform), mapper);
+    }
+
+    @Cacheable(value = CACHE_EXTENSION_JSON_BYTES, keyGenerator = GENERATOR_EXTENSION_JSON)
+    public SerializedJson getExtension(String namespace, String extension, String targetPlatform, String version) {
+        return SerializedJson.of(local.getExtension(namespace, extension, targetPlatform, version), mapper);
+    }
+
+    @Cacheable(CACHE_NAMESPACE_DETAILS_JSON_BYTES)
+    public SerializedJson getNamespaceDetails(String namespace) {
+        return SerializedJson.of(local.getNamespaceDetails(namespace), mapper);
+    }
+
+    /**
+     * The search result may be merged from several registries, so it is computed by the caller.
+     * Search results are not evicted per extension; the cache relies on a short expiry instead.
+     */
+    @Cacheable(value = CACHE_SEARCH_JSON_BYTES, key = "#options")
+    public SerializedJson search(ISearchService.Options options, Supplier<SearchResultJson> search) {
+        return SerializedJson.of(search.get(), mapper);
+    }
+}
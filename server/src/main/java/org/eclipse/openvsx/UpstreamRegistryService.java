@@ -16,6 +16,7 @@ import org.eclipse.openvsx.util.NotFoundException;
 import org.eclipse.openvsx.util.TargetPlatform;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -37,15 +38,18 @@ public class UpstreamRegistryService implements IExtensionRegistry {
     protected final Logger logger = LoggerFactory.getLogger(UpstreamRegistryService.class);
 
     private final RestTemplate restTemplate;
+    private final UpstreamResponseCache responses;
     private UpstreamProxyService proxy;
     private final UrlConfigService urlConfigService;
 
     public UpstreamRegistryService(
             RestTemplate restTemplate,
+            UpstreamResponseCache responses,
             Optional<UpstreamProxyService> upstreamProxyService,
             UrlConfigService urlConfigService
     ) {
         this.restTemplate = restTemplate;
+        this.responses = responses;
         upstreamProxyService.ifPresent(service -> this.proxy = service);
         this.urlConfigService = urlConfigService;
     }
@@ -59,7 +63,7 @@ public class UpstreamRegistryService implements IExtensionRegistry {
         var urlTemplate = urlConfigService.getUpstreamUrl() + "/api/{namespace}";
         var uriVariables = Map.of("namespace", namespace);
         try {
-            var json = restTemplate.getForObject(urlTemplate, NamespaceJson.class, uriVariables);
+            var json = responses.getForObject(urlTemplate, NamespaceJson.class, uriVariables);
             return proxy != null ? proxy.rewriteUrls(json) : json;
         } catch (RestClientException exc) {
             if(!isNotFound(exc)) {
@@ -75,7 +79,7 @@ public class UpstreamRegistryService implements IExtensionRegistry {
         var urlTemplate = urlConfigService.getUpstreamUrl() + "/api/{namespace}/details";
         var uriVariables = Map.of("namespace", namespace);
         try {
-            return restTemplate.getForObject(urlTemplate, NamespaceDetailsJson.class, uriVariables);
+            return responses.getForObject(urlTemplate, NamespaceDetailsJson.class, uriVariables);
         } catch (RestClientException exc) {
             handleError(exc);
             throw exc;
@@ -83,7 +87,7 @@ public class UpstreamRegistryService implements IExtensionRegistry {
     }
 
     @Override
-    public ResponseEntity<byte[]> getNamespaceLogo(String namespaceName, String fileName) {
+    public ResponseEntity<Resource> getNamespaceLogo(String namespaceName, String fileName) {
         var urlTemplate = urlConfigService.getUpstreamUrl() + "/api/{namespace}/logo/{file}";
         var uriVariables = Map.of("namespace", namespaceName, "file", fileName);
         return getFile(urlTemplate, uriVariables);
@@ -101,7 +105,7 @@ public class UpstreamRegistryService implements IExtensionRegistry {
         }
 
         try {
-            var json = restTemplate.getForObject(urlTemplate, ExtensionJson.class, uriVariables);
+            var json = responses.getForObject(urlTemplate, ExtensionJson.class, uriVariables);
             makeDownloadsCompatible(json);
             return proxy != null ? proxy.rewriteUrls(json) : json;
         } catch (RestClientException exc) {
@@ -129,7 +133,7 @@ public class UpstreamRegistryService implements IExtensionRegistry {
         }
 
         try {
-            var json = restTemplate.getForObject(urlTemplate, ExtensionJson.class, uriVariables);
+            var json = responses.getForObject(urlTemplate, ExtensionJson.class, uriVariables);
             makeDownloadsCompatible(json);
             return proxy != null ? proxy.rewriteUrls(json) : json;
         } catch (RestClientException exc) {
@@ -157,7 +161,7 @@ public class UpstreamRegistryService implements IExtensionRegistry {
         uriVariables.put("size", String.valueOf(size));
 
         try {
-            var json = restTemplate.getForObject(urlTemplate, VersionsJson.class, uriVariables);
+            var json = responses.getForObject(urlTemplate, VersionsJson.class, uriVariables);
             return proxy != null ? proxy.rewriteUrls(json) : json;
         } catch (RestClientException exc) {
             if(!isNotFound(exc)) {
@@ -184,7 +188,7 @@ public class UpstreamRegistryService implements IExtensionRegistry {
         uriVariables.put("size", String.valueOf(size));
 
         try {
-            var json = restTemplate.getForObject(urlTemplate, VersionReferencesJson.class, uriVariables);
+            var json = responses.getForObject(urlTemplate, VersionReferencesJson.class, uriVariables);
             return proxy != null ? proxy.rewriteUrls(json) : json;
         } catch (RestClientException exc) {
             if(!isNotFound(exc)) {
@@ -196,7 +200,7 @@ public class UpstreamRegistryService implements IExtensionRegistry {
     }
 
     @Override
-    public ResponseEntity<byte[]> getFile(String namespace, String extension, String targetPlatform, String version, String fileName) {
+    public ResponseEntity<Resource> getFile(String namespace, String extension, String targetPlatform, String version, String fileName) {
         var urlTemplate = urlConfigService.getUpstreamUrl() + "/api/{namespace}/{extension}";
         var uriVariables = new HashMap<String, String>();
         uriVariables.put("namespace", namespace);
@@ -215,7 +219,7 @@ public class UpstreamRegistryService implements IExtensionRegistry {
         return getFile(urlTemplate, uriVariables);
     }
 
-    private ResponseEntity<byte[]> getFile(String urlTemplate, Map<String, ?> uriVariables) {
+    private <T> ResponseEntity<T> getFile(String urlTemplate, Map<String, ?> uriVariables) {
         ResponseEntity<byte[]> response;
         try {
             response = restTemplate.exchange(urlTemplate, HttpMethod.HEAD, null, byte[].class, uriVariables);
@@ -234,7 +238,7 @@ public class UpstreamRegistryService implements IExtensionRegistry {
                     .build();
         }
         if (statusCode.is3xxRedirection()) {
-            return response;
+            return ResponseEntity.status(statusCode).headers(response.getHeaders()).build();
         }
         if (statusCode.isError() && statusCode != HttpStatus.NOT_FOUND) {
             var url = UriComponentsBuilder.fromUriString(urlTemplate).build(uriVariables);
@@ -251,7 +255,7 @@ public class UpstreamRegistryService implements IExtensionRegistry {
         uriVariables.put("extension", extension);
 
         try {
-            return restTemplate.getForObject(urlTemplate, ReviewListJson.class, uriVariables);
+            return responses.getForObject(urlTemplate, ReviewListJson.class, uriVariables);
         } catch (RestClientException exc) {
             if(!isNotFound(exc)) {
                 var url = UriComponentsBuilder.fromUriString(urlTemplate).build(uriVariables);
@@ -285,7 +289,7 @@ public class UpstreamRegistryService implements IExtensionRegistry {
         }
 
         try {
-            var json = restTemplate.getForObject(urlTemplate, SearchResultJson.class, uriVariables);
+            var json = responses.getForObject(urlTemplate, SearchResultJson.class, uriVariables);
             return proxy != null ? proxy.rewriteUrls(json) : json;
         } catch (RestClientException exc) {
             if(!isNotFound(exc)) {
@@ -322,7 +326,7 @@ public class UpstreamRegistryService implements IExtensionRegistry {
         }
 
         try {
-            var json = restTemplate.getForObject(urlTemplate, QueryResultJson.class, queryParams);
+            var json = responses.getForObject(urlTemplate, QueryResultJson.class, queryParams);
             return proxy != null ? proxy.rewriteUrls(json) : json;
         } catch (RestClientException exc) {
             if(!isNotFound(exc)) {
@@ -358,7 +362,7 @@ public class UpstreamRegistryService implements IExtensionRegistry {
         }
 
         try {
-            return restTemplate.getForObject(urlTemplate, QueryResultJson.class, queryParams);
+            return responses.getForObject(urlTemplate, QueryResultJson.class, queryParams);
         } catch (RestClientException exc) {
             if(!isNotFound(exc)) {
                 var url = UriComponentsBuilder.fromUriString(urlTemplate).build(queryParams);
@@ -374,7 +378,7 @@ public class UpstreamRegistryService implements IExtensionRegistry {
         uriVariables.put("publicId", publicId);
 
         try {
-            return restTemplate.getForObject(urlTemplate, String.class, uriVariables);
+            return responses.getForObject(urlTemplate, String.class, uriVariables);
         } catch (RestClientException exc) {
             if(!isNotFound(exc)) {
                 var url = UriComponentsBuilder.fromUriString(urlTemplate).build(uriVariables);
@@ -0,0 +1,206 @@
+/** ******************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * ****************************************************************************** */
+package org.eclipse.openvsx;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.openvsx.util.NotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.eclipse.openvsx.cache.CacheService.CACHE_UPSTREAM_RESPONSE;
+
+/**
+ * Caches the bodies of GET requests to the upstream registry by URL. Responses are kept as
+ * long as the upstream {@code Cache-Control} header allows, or {@code ovsx.upstream.cache.default-max-age}
+ * seconds if there is none. Expired responses with an ETag are revalidated with a conditional request.
+ * Concurrent requests of the same URL share a single upstream request, and a {@code 404 Not Found}
+ * is remembered for {@code ovsx.upstream.cache.not-found-ttl} seconds.
+ * <p>
+ * The raw body is cached, so every caller receives its own deserialized JSON and may modify it.
+ */
+@Component
+public class UpstreamResponseCache {
+
+    private final RestTemplate restTemplate;
+    private final CacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+
+    private final Map<String, CompletableFuture<Response>> pendingRequests = new ConcurrentHashMap<>();
+
+    @Value("${ovsx.upstream.cache.default-max-age:0}")
+    long defaultMaxAge;
+
+    @Value("${ovsx.upstream.cache.not-found-ttl:30}")
+    long notFoundTtl;
+
+    public UpstreamResponseCache(RestTemplate restTemplate, CacheManager cacheManager, ObjectMapper objectMapper) {
+        this(restTemplate, cacheManager, objectMapper, Clock.systemUTC());
+    }
+
+    UpstreamResponseCache(RestTemplate restTemplate, CacheManager cacheManager, ObjectMapper objectMapper, Clock clock) {
+        this.restTemplate = restTemplate;
+        this.cacheManager = cacheManager;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+    }
+
+    /**
+     * Works like {@link RestTemplate#getForObject(String, Class, Map)}, but answers from the cache
+     * when possible.
+     *
+     * @throws NotFoundException if the upstream registry responded with {@code 404 Not Found}
+     */
+    public <T> T getForObject(String urlTemplate, Class<T> responseType, Map<String, ?> uriVariables) {
+        var url = restTemplate.getUriTemplateHandler().expand(urlTemplate, uriVariables);
+        var response = getResponse(url);
+        if (response.notFound()) {
+            throw new NotFoundException();
+        }
+
+        return read(response.body(), responseType);
+    }
+
+    private Response getResponse(URI url) {
+        var key = url.toString();
+        var cache = cacheManager.getCache(CACHE_UPSTREAM_RESPONSE);
+        var cached = cache != null ? cache.get(key, Response.class) : null;
+        if (cached != null && cached.expires() > clock.millis()) {
+            return cached;
+        }
+
+        var request = new CompletableFuture<Response>();
+        var pendingRequest = pendingRequests.putIfAbsent(key, request);
+        if (pendingRequest != null) {
+            try {
+                return pendingRequest.join();
+            } catch (CompletionException exc) {
+                throw exc.getCause() instanceof RuntimeException cause ? cause : exc;
+            }
+        }
+
+        try {
+            var response = fetch(url, cached);
+            if (cache != null && (response.expires() > clock.millis() || response.eTag() != null)) {
+                cache.put(key, response);
+            }
+
+            request.complete(response);
+            return response;
+        } catch (RuntimeException exc) {
+            request.completeExceptionally(exc);
+            throw exc;
+        } finally {
+            pendingRequests.remove(key, request);
+        }
+    }
+
+    private Response fetch(URI url, Response cached) {
+        var headers = new HttpHeaders();
+        if (cached != null && cached.eTag() != null) {
+            headers.setIfNoneMatch(cached.eTag());
+        }
+
+        try {
+            var entity = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+            var body = entity.getStatusCode() == HttpStatus.NOT_MODIFIED && cached != null
+                    ? cached.body()
+                    : entity.getBody();
+
+            if (body == null) {
+                body = new byte[0];
+            }
+
+            var maxAge = getMaxAge(entity.getHeaders().getCacheControl());
+            return maxAge >= 0
+                    ? new Response(body, entity.getHeaders().getETag(), false, clock.millis() + maxAge * 1000)
+                    : new Response(body, null, false, 0);
+        } catch (HttpStatusCodeException exc) {
+            if (exc.getStatusCode() != HttpStatus.NOT_FOUND) {
+                throw exc;
+            }
+
+            return new Response(null, null, true, clock.millis() + notFoundTtl * 1000);
+        }
+    }
+
+    /**
+     * @return the number of seconds the response may be cached, {@code 0} if it must be
+     * revalidated, or {@code -1} if it must not be stored
+     */
+    private long getMaxAge(String cacheControl) {
+        if (StringUtils.isEmpty(cacheControl)) {
+            return defaultMaxAge;
+        }
+
+        var noStore = false;
+        var noCache = false;
+        long maxAge = 0;
+        long sharedMaxAge = -1;
+        for (var directive : cacheControl.toLowerCase().split(",")) {
+            var parts = directive.trim().split("=", 2);
+            var value = parts.length > 1 ? StringUtils.strip(parts[1].trim(), "\"") : null;
+            switch (parts[0]) {
+                case "no-store", "private" -> noStore = true;
+                case "no-cache" -> noCache = true;
+                case "max-age" -> maxAge = parseSeconds(value);
+                case "s-maxage" -> sharedMaxAge = parseSeconds(value);
+            }
+        }
+
+        if (noStore) {
+            return -1;
+        }
+        if (noCache) {
+            return 0;
+        }
+        return sharedMaxAge >= 0 ? sharedMaxAge : maxAge;
+    }
+
+    private long parseSeconds(String value) {
+        try {
+            return Math.max(0, Long.parseLong(value));
+        } catch (NumberFormatException exc) {
+            return 0;
+        }
+    }
+
+    private <T> T read(byte[] body, Class<T> responseType) {
+        if (responseType == String.class) {
+            return responseType.cast(new String(body, StandardCharsets.UTF_8));
+        }
+
+        try {
+            return objectMapper.readValue(body, responseType);
+        } catch (IOException exc) {
+            throw new RestClientException("Failed to read upstream response as " + responseType.getSimpleName(), exc);
+        }
+    }
+
+    record Response(byte[] body, String eTag, boolean notFound, long expires) {}
+}
@@ -12,6 +12,7 @@ package org.eclipse.openvsx;
 import com.google.common.base.Joiner;
 import io.micrometer.observation.Observation;
 import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.PreDestroy;
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import org.eclipse.openvsx.cache.CacheService;
@@ -26,32 +27,41 @@ import org.eclipse.openvsx.util.ErrorResultException;
 import org.eclipse.openvsx.util.NotFoundException;
 import org.eclipse.openvsx.util.TimeUtil;
 import org.eclipse.openvsx.util.UrlUtil;
-import org.springframework.cache.annotation.CacheEvict;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Component;
 
-import java.util.Objects;
-import java.util.UUID;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BinaryOperator;
 
-import static org.eclipse.openvsx.cache.CacheService.CACHE_NAMESPACE_DETAILS_JSON;
 import static org.eclipse.openvsx.util.UrlUtil.createApiUrl;
 
 @Component
 public class UserService {
 
+    protected final Logger logger = LoggerFactory.getLogger(UserService.class);
+
     private final EntityManager entityManager;
     private final RepositoryService repositories;
     private final StorageUtilService storageUtil;
     private final CacheService cache;
+    private final ChangeLogService changeLog;
     private final ExtensionValidator validator;
     private final ObservationRegistry observations;
 
+    private final Map<Long, LocalDateTime> accessedTimestamps = new ConcurrentHashMap<>();
+
     public UserService(
             EntityManager entityManager,
             RepositoryService repositories,
             StorageUtilService storageUtil,
             CacheService cache,
+            ChangeLogService changeLog,
             ExtensionValidator validator,
             ObservationRegistry observations
     ) {
@@ -59,6 +69,7 @@ public class UserService {
         this.repositories = repositories;
         this.storageUtil = storageUtil;
         this.cache = cache;
+        this.changeLog = changeLog;
         this.validator = validator;
         this.observations = observations;
     }
@@ -126,18 +137,44 @@ public class UserService {
         return user;
     }
 
-    @Transactional
+    /**
+     * Active tokens are served from the access token cache. The access time is not written
+     * to the token, but collected and written for all used tokens by {@link #flushAccessedTimestamps()}.
+     */
     public PersonalAccessToken useAccessToken(String tokenValue) {
         return Observation.createNotStarted("UserService#useAccessToken", observations).observe(() -> {
             var token = repositories.findAccessToken(tokenValue);
             if (token == null || !token.isActive()) {
                 return null;
             }
-            token.setAccessedTimestamp(TimeUtil.getCurrentUTC());
+            accessedTimestamps.put(token.getId(), TimeUtil.getCurrentUTC());
             return token;
         });
     }
 
+    @Scheduled(fixedDelayString = "${ovsx.access-token.flush-interval:60000}")
+    public void flushAccessedTimestamps() {
+        var timestamps = new HashMap<Long, LocalDateTime>();
+        for (var tokenId : accessedTimestamps.keySet()) {
+            var timestamp = accessedTimestamps.remove(tokenId);
+            if (timestamp != null) {
+                timestamps.put(tokenId, timestamp);
+            }
+        }
+
+        try {
+            repositories.updateAccessTokenTimestamps(timestamps);
+        } catch (RuntimeException exc) {
+            logger.error("Failed to update access token timestamps", exc);
+            timestamps.forEach((tokenId, timestamp) -> accessedTimestamps.merge(tokenId, timestamp, BinaryOperator.maxBy(Comparator.naturalOrder())));
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        flushAccessedTimestamps();
+    }
+
     public String generateTokenValue() {
         String value;
         do {
@@ -183,6 +220,11 @@ public class UserService {
             throw new ErrorResultException("User " + user.getLoginName() + " is not a member of " + namespace.getName() + ".");
         }
         entityManager.remove(membership);
+        evictNamespaceJsons(namespace);
+        if (membership.getRole().equals(NamespaceMembership.ROLE_OWNER)) {
+            // the namespace may no longer be verified
+            changeLog.namespaceChanged(namespace.getName());
+        }
         return ResultJson.success("Removed " + user.getLoginName() + " from namespace " + namespace.getName() + ".");
     }
 
@@ -198,6 +240,9 @@ public class UserService {
                 throw new ErrorResultException("User " + user.getLoginName() + " already has the role " + role + ".");
             }
             membership.setRole(role);
+            evictNamespaceJsons(namespace);
+            // the namespace is verified if it has an owner
+            changeLog.namespaceChanged(namespace.getName());
             return ResultJson.success("Changed role of " + user.getLoginName() + " in " + namespace.getName() + " to " + role + ".");
         }
         membership = new NamespaceMembership();
@@ -205,11 +250,22 @@ public class UserService {
         membership.setUser(user);
         membership.setRole(role);
         entityManager.persist(membership);
+        evictNamespaceJsons(namespace);
+        if (role.equals(NamespaceMembership.ROLE_OWNER)) {
+            changeLog.namespaceChanged(namespace.getName());
+        }
         return ResultJson.success("Added " + user.getLoginName() + " as " + role + " of " + namespace.getName() + ".");
     }
 
+    /**
+     * The memberships decide whether the namespace and the extensions published in it are verified.
+     */
+    private void evictNamespaceJsons(Namespace namespace) {
+        cache.evictNamespaceDetails(namespace.getName());
+        cache.evictExtensionJsons(namespace);
+    }
+
     @Transactional(rollbackOn = { ErrorResultException.class, NotFoundException.class })
-    @CacheEvict(value = { CACHE_NAMESPACE_DETAILS_JSON }, key="#details.name")
     public ResultJson updateNamespaceDetails(NamespaceDetailsJson details) {
         var namespace = repositories.findNamespace(details.name);
         if (namespace == null) {
@@ -262,6 +318,8 @@ public class UserService {
             }
         }
 
+        cache.evictNamespaceDetails(details.name);
+        changeLog.namespaceChanged(namespace.getName());
         return ResultJson.success("Updated details for namespace " + details.name);
     }
 
@@ -306,6 +364,7 @@ public class UserService {
         }
 
         token.setActive(false);
+        cache.evictAccessToken(token);
         return ResultJson.success("Deleted access token for user " + user.getLoginName() + ".");
     }
 }
\ No newline at end of file
@@ -9,18 +9,19 @@
  * ****************************************************************************** */
 package org.eclipse.openvsx.adapter;
 
+import org.springframework.core.io.Resource;
 import org.springframework.http.ResponseEntity;
 
 public interface IVSCodeService {
 
     ExtensionQueryResult extensionQuery(ExtensionQueryParam param, int defaultPageSize);
 
-    ResponseEntity<byte[]> browse(String namespaceName, String extensionName, String version, String path);
+    ResponseEntity<Resource> browse(String namespaceName, String extensionName, String version, String path);
 
     String download(String namespace, String extension, String version, String targetPlatform);
 
     String getItemUrl(String namespace, String extension);
 
-    ResponseEntity<byte[]> getAsset(String namespace, String extensionName, String version, String assetType,
-                                    String targetPlatform, String restOfTheUrl);
+    ResponseEntity<Resource> getAsset(String namespace, String extensionName, String version, String assetType,
+                                      String targetPlatform, String restOfTheUrl);
 }
@@ -23,6 +23,8 @@ import org.eclipse.openvsx.search.SearchUtilService;
 import org.eclipse.openvsx.storage.StorageUtilService;
 import org.eclipse.openvsx.util.*;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -113,17 +115,13 @@ public class LocalVSCodeService implements IVSCodeService {
         if (!extensionIds.isEmpty()) {
             extensionsList = repositories.findActiveExtensionsByPublicId(extensionIds, BuiltInExtensionUtil.getBuiltInNamespace());
         } else if (!extensionNames.isEmpty()) {
-            extensionsList = extensionNames.stream()
+            var extensionIdsByName = extensionNames.stream()
                     .map(name -> name.split("\\."))
                     .filter(split -> split.length == 2)
                     .filter(split -> !BuiltInExtensionUtil.isBuiltIn(split[0]))
-                    .map(split -> {
-                        var name = split[1];
-                        var namespaceName = split[0];
-                        return repositories.findActiveExtension(name, namespaceName);
-                    })
-                    .filter(Objects::nonNull)
                     .collect(Collectors.toList());
+
+            extensionsList = repositories.findActiveExtensionsByName(extensionIdsByName);
         } else if (!search.isEnabled()) {
             extensionsList = Collections.emptyList();
         } else {
@@ -281,12 +279,13 @@ public class LocalVSCodeService implements IVSCodeService {
     }
 
     @Override
-    public ResponseEntity<byte[]> getAsset(
+    public ResponseEntity<Resource> getAsset(
             String namespace, String extensionName, String version, String assetType, String targetPlatform,
             String restOfTheUrl
     ) {
         if(BuiltInExtensionUtil.isBuiltIn(namespace)) {
-            return new ResponseEntity<>(("Built-in extension namespace '" + namespace + "' not allowed").getBytes(StandardCharsets.UTF_8), null, HttpStatus.BAD_REQUEST);
+            var message = "Built-in extension namespace '" + namespace + "' not allowed";
+            return new ResponseEntity<>(new ByteArrayResource(message.getBytes(StandardCharsets.UTF_8)), null, HttpStatus.BAD_REQUEST);
         }
 
         var asset = (restOfTheUrl != null && !restOfTheUrl.isEmpty()) ? (assetType + "/" + restOfTheUrl) : assetType;
@@ -382,9 +381,10 @@ public class LocalVSCodeService implements IVSCodeService {
     }
 
     @Override
-    public ResponseEntity<byte[]> browse(String namespaceName, String extensionName, String version, String path) {
+    public ResponseEntity<Resource> browse(String namespaceName, String extensionName, String version, String path) {
         if(BuiltInExtensionUtil.isBuiltIn(namespaceName)) {
-            return new ResponseEntity<>(("Built-in extension namespace '" + BuiltInExtensionUtil.getBuiltInNamespace() + "' not allowed").getBytes(StandardCharsets.UTF_8), null, HttpStatus.BAD_REQUEST);
+            var message = "Built-in extension namespace '" + BuiltInExtensionUtil.getBuiltInNamespace() + "' not allowed";
+            return new ResponseEntity<>(new ByteArrayResource(message.getBytes(StandardCharsets.UTF_8)), null, HttpStatus.BAD_REQUEST);
         }
 
         var extVersion = repositories.findActiveExtensionVersion(version, extensionName, namespaceName);
@@ -409,23 +409,15 @@ public class LocalVSCodeService implements IVSCodeService {
                 : browseDirectory(resources, namespace.getName(), extension.getName(), extVersion.getVersion(), path);
     }
 
-    private ResponseEntity<byte[]> browseFile(
+    private ResponseEntity<Resource> browseFile(
             FileResource resource,
             ExtensionVersion extVersion
     ) {
-        if (resource.getStorageType().equals(FileResource.STORAGE_DB)) {
-            var headers = storageUtil.getFileResponseHeaders(resource.getName());
-            return new ResponseEntity<>(resource.getContent(), headers, HttpStatus.OK);
-        } else {
-            resource.setExtension(extVersion);
-            return ResponseEntity.status(HttpStatus.FOUND)
-                    .location(storageUtil.getLocation(resource))
-                    .cacheControl(CacheControl.maxAge(7, TimeUnit.DAYS).cachePublic())
-                    .build();
-        }
+        resource.setExtension(extVersion);
+        return storageUtil.getFileResponse(resource);
     }
 
-    private ResponseEntity<byte[]> browseDirectory(
+    private ResponseEntity<Resource> browseDirectory(
             List<FileResource> resources,
             String namespaceName,
             String extensionName,
@@ -466,7 +458,7 @@ public class LocalVSCodeService implements IVSCodeService {
         return ResponseEntity.ok()
                 .contentType(MediaType.APPLICATION_JSON)
                 .cacheControl(CacheControl.maxAge(7, TimeUnit.DAYS).cachePublic())
-                .body(json.getBytes(StandardCharsets.UTF_8));
+                .body(new ByteArrayResource(json.getBytes(StandardCharsets.UTF_8)));
     }
 
     private ExtensionQueryResult.Extension toQueryExtension(Extension extension, ExtensionVersion latest, int flags) {
@@ -509,7 +501,7 @@ public class LocalVSCodeService implements IVSCodeService {
         return queryExt;
     }
 
-    private ExtensionQueryResult.ExtensionVersion toQueryVersion(
+    ExtensionQueryResult.ExtensionVersion toQueryVersion(
             ExtensionVersion extVer,
             Map<Long, List<FileResource>> fileResources,
             int flags
@@ -17,6 +17,8 @@ import org.eclipse.openvsx.util.HttpHeadersUtil;
 import org.eclipse.openvsx.util.NotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.*;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpStatusCodeException;
@@ -81,7 +83,7 @@ public class UpstreamVSCodeService implements IVSCodeService {
     }
 
     @Override
-    public ResponseEntity<byte[]> browse(String namespaceName, String extensionName, String version, String path) {
+    public ResponseEntity<Resource> browse(String namespaceName, String extensionName, String version, String path) {
         var urlTemplate = urlConfigService.getUpstreamUrl() + "/vscode/unpkg/{namespace}/{extension}/{version}";
         var uriVariables = new HashMap<>(Map.of(
             "namespace", namespaceName,
@@ -113,22 +115,19 @@ public class UpstreamVSCodeService implements IVSCodeService {
             headers.remove(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN);
             headers.remove(HttpHeaders.VARY);
 
+            var body = response.getBody();
             if(proxy != null && MediaType.APPLICATION_JSON.equals(headers.getContentType())) {
                 try {
                     var mapper = new ObjectMapper();
-                    var json = mapper.readTree(response.getBody());
+                    var json = mapper.readTree(body);
                     json = proxy.rewriteUrls(json);
-                    response = ResponseEntity.status(statusCode)
-                            .headers(headers)
-                            .body(mapper.writeValueAsString(json).getBytes(StandardCharsets.UTF_8));
+                    body = mapper.writeValueAsString(json).getBytes(StandardCharsets.UTF_8);
                 } catch (IOException e) {
                     logger.error("Failed to read/write JSON", e);
                 }
-            } else {
-                response = new ResponseEntity<>(response.getBody(), headers, response.getStatusCode());
             }
 
-            return response;
+            return new ResponseEntity<>(toResource(body), headers, statusCode);
         }
         if(statusCode.isError() && statusCode != HttpStatus.NOT_FOUND) {
             var url = UriComponentsBuilder.fromUriString(urlTemplate).build(uriVariables);
@@ -204,7 +203,7 @@ public class UpstreamVSCodeService implements IVSCodeService {
     }
 
     @Override
-    public ResponseEntity<byte[]> getAsset(String namespace, String extensionName, String version, String assetType, String targetPlatform, String restOfTheUrl) {
+    public ResponseEntity<Resource> getAsset(String namespace, String extensionName, String version, String assetType, String targetPlatform, String restOfTheUrl) {
         var urlTemplate = urlConfigService.getUpstreamUrl() + "/vscode/asset/{namespace}/{extension}/{version}/{assetType}";
         var uriVariables = new HashMap<>(Map.of(
             "namespace", namespace,
@@ -238,7 +237,7 @@ public class UpstreamVSCodeService implements IVSCodeService {
             headers.addAll(response.getHeaders());
             headers.remove(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN);
             headers.remove(HttpHeaders.VARY);
-            return new ResponseEntity<>(response.getBody(), headers, response.getStatusCode());
+            return new ResponseEntity<>(toResource(response.getBody()), headers, response.getStatusCode());
         }
         if(statusCode.is3xxRedirection()) {
             var location = response.getHeaders().getLocation();
@@ -259,6 +258,10 @@ public class UpstreamVSCodeService implements IVSCodeService {
         throw new NotFoundException();
     }
 
+    private Resource toResource(byte[] body) {
+        return body != null ? new ByteArrayResource(body) : null;
+    }
+
     private NotFoundException propagateRestException(RestClientException exc, HttpMethod method, String urlTemplate,
         Map<String, String> uriVariables) {
         if (exc instanceof HttpStatusCodeException) {
@@ -13,6 +13,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import org.eclipse.openvsx.util.NotFoundException;
 import org.eclipse.openvsx.util.TargetPlatform;
 import org.eclipse.openvsx.util.UrlUtil;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -70,7 +71,7 @@ public class VSCodeAPI {
 
     @GetMapping("/vscode/asset/{namespaceName}/{extensionName}/{version}/{assetType}/**")
     @CrossOrigin
-    public ResponseEntity<byte[]> getAsset(
+    public ResponseEntity<Resource> getAsset(
             HttpServletRequest request, @PathVariable String namespaceName, @PathVariable String extensionName,
             @PathVariable String version, @PathVariable String assetType,
             @RequestParam(defaultValue = TargetPlatform.NAME_UNIVERSAL) String targetPlatform
@@ -129,7 +130,7 @@ public class VSCodeAPI {
 
     @GetMapping("/vscode/unpkg/{namespaceName}/{extensionName}/{version}/**")
     @CrossOrigin
-    public ResponseEntity<byte[]> browse(
+    public ResponseEntity<Resource> browse(
             HttpServletRequest request,
             @PathVariable String namespaceName,
             @PathVariable String extensionName,
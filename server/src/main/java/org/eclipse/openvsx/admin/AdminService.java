@@ -12,6 +12,7 @@ package org.eclipse.openvsx.admin;
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import org.apache.commons.lang3.StringUtils;
+import org.eclipse.openvsx.ChangeLogService;
 import org.eclipse.openvsx.ExtensionService;
 import org.eclipse.openvsx.ExtensionValidator;
 import org.eclipse.openvsx.UserService;
@@ -50,6 +51,7 @@ public class AdminService {
     private final EclipseService eclipse;
     private final StorageUtilService storageUtil;
     private final CacheService cache;
+    private final ChangeLogService changeLog;
     private final JobRequestScheduler scheduler;
 
     public AdminService(
@@ -62,6 +64,7 @@ public class AdminService {
             EclipseService eclipse,
             StorageUtilService storageUtil,
             CacheService cache,
+            ChangeLogService changeLog,
             JobRequestScheduler scheduler
     ) {
         this.repositories = repositories;
@@ -73,6 +76,7 @@ public class AdminService {
         this.eclipse = eclipse;
         this.storageUtil = storageUtil;
         this.cache = cache;
+        this.changeLog = changeLog;
         this.scheduler = scheduler;
     }
 
@@ -123,6 +127,8 @@ public class AdminService {
                         .collect(Collectors.joining(", ")));
         }
 
+        cache.evictNamespaceDetails(extension);
+        cache.evictLatestExtensionVersion(extension);
         cache.evictExtensionJsons(extension);
         for (var extVersion : repositories.findVersions(extension)) {
             removeExtensionVersion(extVersion);
@@ -133,6 +139,7 @@ public class AdminService {
 
         entityManager.remove(extension);
         search.removeSearchEntry(extension);
+        changeLog.extensionDeleted(extension.getNamespace().getName(), extension.getName());
 
         var result = ResultJson.success("Deleted " + NamingUtil.toExtensionId(extension));
         logAdminAction(admin, result);
@@ -295,6 +302,7 @@ public class AdminService {
             // Deactivate the user's access tokens
             if (accessToken.isActive()) {
                 accessToken.setActive(false);
+                cache.evictAccessToken(accessToken);
                 deactivatedTokenCount++;
             }
         }
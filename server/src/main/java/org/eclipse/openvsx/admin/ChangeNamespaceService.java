@@ -11,6 +11,7 @@ package org.eclipse.openvsx.admin;
 
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
+import org.eclipse.openvsx.ChangeLogService;
 import org.eclipse.openvsx.cache.CacheService;
 import org.eclipse.openvsx.entities.Extension;
 import org.eclipse.openvsx.entities.FileResource;
@@ -30,17 +31,20 @@ public class ChangeNamespaceService {
     private final EntityManager entityManager;
     private final CacheService cache;
     private final SearchUtilService search;
+    private final ChangeLogService changeLog;
 
     public ChangeNamespaceService(
             RepositoryService repositories,
             EntityManager entityManager,
             CacheService cache,
-            SearchUtilService search
+            SearchUtilService search,
+            ChangeLogService changeLog
     ) {
         this.repositories = repositories;
         this.entityManager = entityManager;
         this.cache = cache;
         this.search = search;
+        this.changeLog = changeLog;
     }
 
     @Transactional
@@ -56,6 +60,8 @@ public class ChangeNamespaceService {
             cache.evictExtensionJsons(extension);
             cache.evictLatestExtensionVersion(extension);
         }
+        cache.evictNamespaceDetails(oldNamespace.getName());
+        cache.evictNamespaceDetails(newNamespace.getName());
 
         if(createNewNamespace) {
             entityManager.persist(newNamespace);
@@ -73,12 +79,17 @@ public class ChangeNamespaceService {
         }
 
         search.updateSearchEntries(extensions.toList());
+        changeLog.namespaceChanged(newNamespace.getName());
     }
 
     private void changeExtensionNamespace(Streamable<Extension> extensions, Namespace newNamespace) {
         for(var extension : extensions) {
             extension = entityManager.merge(extension);
+            changeLog.extensionDeleted(extension.getNamespace().getName(), extension.getName());
             extension.setNamespace(newNamespace);
+            if (extension.isActive()) {
+                changeLog.extensionUpdated(extension);
+            }
         }
     }
 
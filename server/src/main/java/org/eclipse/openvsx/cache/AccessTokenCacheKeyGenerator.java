@@ -0,0 +1,33 @@
+/** ******************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * ****************************************************************************** */
+package org.eclipse.openvsx.cache;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+
+/**
+ * Keys cached access tokens by the SHA-256 hash of the token value, so token values are
+ * neither kept as cache keys nor sent to other nodes when a token is evicted.
+ */
+@Component
+public class AccessTokenCacheKeyGenerator implements KeyGenerator {
+
+    @Override
+    public Object generate(Object target, Method method, Object... params) {
+        return generate((String) params[0]);
+    }
+
+    public String generate(String tokenValue) {
+        return DigestUtils.sha256Hex(tokenValue);
+    }
+}
@@ -0,0 +1,261 @@
+/** ******************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * ****************************************************************************** */
+package org.eclipse.openvsx.cache;
+
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts cache invalidations to the other server nodes through Postgres {@code LISTEN/NOTIFY},
+ * so node-local caches stay coherent across a cluster.
+ * <p>
+ * Invalidations are published as a topic, e.g. a cache name, and an argument, e.g. an extension id.
+ * They are collected and sent in batches every {@code ovsx.cache.invalidation.flush-interval}
+ * milliseconds. Duplicates are sent once, and invalidating all entries of a topic ({@link #ALL})
+ * replaces the pending invalidations of single entries. Each node applies the invalidations of the
+ * other nodes with the handlers registered through {@link #subscribe(String, Consumer)}.
+ */
+@Component
+public class CacheInvalidationBus {
+
+    public static final String ALL = "*";
+
+    static final String CHANNEL = "ovsx_cache_invalidation";
+
+    /** Postgres rejects notification payloads of 8000 bytes or more. */
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+    private static final int POLL_TIMEOUT_MILLIS = 10_000;
+    private static final long RECONNECT_DELAY_MILLIS = 5_000;
+
+    protected final Logger logger = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    private final DataSource dataSource;
+    private final TaskScheduler taskScheduler;
+    private final TransactionTemplate transactions;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, Consumer<String>> handlers = new ConcurrentHashMap<>();
+    private final Set<String> pending = new LinkedHashSet<>();
+    private volatile boolean running;
+
+    @Value("${ovsx.cache.invalidation.enabled:false}")
+    boolean enabled;
+
+    @Value("${ovsx.cache.invalidation.flush-interval:200}")
+    long flushInterval;
+
+    public CacheInvalidationBus(DataSource dataSource, TaskScheduler taskScheduler, TransactionTemplate transactions) {
+        this.dataSource = dataSource;
+        this.taskScheduler = taskScheduler;
+        this.transactions = transactions;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Register the handler that applies invalidations of the given topic sent by other nodes.
+     */
+    public void subscribe(String topic, Consumer<String> handler) {
+        handlers.put(topic, handler);
+    }
+
+    /**
+     * Queue an invalidation for the other nodes. The argument must not contain line breaks.
+     * Within a transaction, the invalidation is queued once the transaction has committed, so
+     * the other nodes do not reload the state from before the transaction.
+     */
+    public void publish(String topic, String argument) {
+        if (!enabled) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(topic, argument);
+                }
+            });
+        } else {
+            enqueue(topic, argument);
+        }
+    }
+
+    private void enqueue(String topic, String argument) {
+        var event = toEvent(topic, argument);
+        synchronized (pending) {
+            if (pending.contains(toEvent(topic, ALL))) {
+                return;
+            }
+            if (ALL.equals(argument)) {
+                var prefix = toEvent(topic, "");
+                pending.removeIf(e -> e.startsWith(prefix));
+            }
+
+            pending.add(event);
+        }
+    }
+
+    @EventListener
+    public void start(ApplicationStartedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        running = true;
+        var listener = new Thread(this::listen, "cache-invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+        taskScheduler.scheduleWithFixedDelay(this::flush, Duration.ofMillis(flushInterval));
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        flush();
+    }
+
+    /**
+     * Send the pending invalidations. Invalidations that could not be sent are queued again.
+     */
+    public void flush() {
+        List<String> events;
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            events = new ArrayList<>(pending);
+            pending.clear();
+        }
+
+        try (
+                var connection = dataSource.getConnection();
+                var statement = connection.prepareStatement("SELECT pg_notify(?, ?)")
+        ) {
+            for (var payload : toPayloads(events)) {
+                statement.setString(1, CHANNEL);
+                statement.setString(2, payload);
+                statement.execute();
+            }
+        } catch (SQLException exc) {
+            logger.error("Failed to send cache invalidations", exc);
+            events.forEach(event -> {
+                var separator = event.indexOf(' ');
+                enqueue(event.substring(0, separator), event.substring(separator + 1));
+            });
+        }
+    }
+
+    List<String> toPayloads(List<String> events) {
+        var payloads = new ArrayList<String>();
+        var payload = new StringBuilder(nodeId);
+        var payloadBytes = nodeId.length();
+        for (var event : events) {
+            var eventBytes = event.getBytes(StandardCharsets.UTF_8).length + 1;
+            if (payloadBytes + eventBytes > MAX_PAYLOAD_BYTES) {
+                payloads.add(payload.toString());
+                payload = new StringBuilder(nodeId);
+                payloadBytes = nodeId.length();
+            }
+
+            payload.append('\n').append(event);
+            payloadBytes += eventBytes;
+        }
+
+        payloads.add(payload.toString());
+        return payloads;
+    }
+
+    private void listen() {
+        var reconnect = false;
+        while (running) {
+            try (var connection = dataSource.getConnection()) {
+                try (var statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (reconnect) {
+                    // invalidations sent while the listener was disconnected are lost
+                    handlers.values().forEach(handler -> handler.accept(ALL));
+                }
+
+                var notifications = connection.unwrap(PGConnection.class);
+                while (running) {
+                    var received = notifications.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (received != null) {
+                        for (var notification : received) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException exc) {
+                if (!running) {
+                    return;
+                }
+
+                logger.error("Cache invalidation listener failed, reconnecting", exc);
+                reconnect = true;
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    void receive(String payload) {
+        var lines = payload.split("\n");
+        if (lines[0].equals(nodeId)) {
+            return; // this node has applied its invalidations already
+        }
+
+        transactions.executeWithoutResult(status -> {
+            for (var i = 1; i < lines.length; i++) {
+                var separator = lines[i].indexOf(' ');
+                var handler = handlers.get(lines[i].substring(0, separator));
+                if (handler == null) {
+                    continue;
+                }
+
+                try {
+                    handler.accept(lines[i].substring(separator + 1));
+                } catch (RuntimeException exc) {
+                    logger.error("Failed to apply cache invalidation: " + lines[i], exc);
+                }
+            }
+        });
+    }
+
+    private String toEvent(String topic, String argument) {
+        return topic + ' ' + argument;
+    }
+}
@@ -0,0 +1,79 @@
+/** ******************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * ****************************************************************************** */
+package org.eclipse.openvsx.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reverse index from a tag, e.g. an extension, to the cache keys that were generated for it.
+ * Evicting a tag then only touches the keys that can actually be cached instead of every
+ * possible combination of versions and target platforms.
+ * <p>
+ * A tag that has not been used for longer than the time to live of the cache entries
+ * (see {@code ehcache.xml}) is dropped, because all entries of the tag have expired by then.
+ * A tag that collects more than {@code maxKeysPerTag} keys stops recording keys; the
+ * caller has to evict all possible keys of such a tag.
+ */
+class CacheKeyIndex {
+
+    private static final int EXPIRE_AFTER_ACCESS_HOURS = 2;
+    private static final Set<Object> OVERFLOW = Collections.emptySet();
+
+    private final int maxKeysPerTag;
+    private final Cache<String, Set<Object>> keysByTag = CacheBuilder.newBuilder()
+            .expireAfterAccess(EXPIRE_AFTER_ACCESS_HOURS, TimeUnit.HOURS)
+            .build();
+
+    CacheKeyIndex(int maxKeysPerTag) {
+        this.maxKeysPerTag = maxKeysPerTag;
+    }
+
+    void add(String tag, Object key) {
+        // compute atomically, so a key is never added to a set that has just been removed
+        keysByTag.asMap().compute(tag, (t, keys) -> {
+            if (keys == OVERFLOW) {
+                return keys;
+            }
+            if (keys == null) {
+                keys = ConcurrentHashMap.newKeySet();
+            }
+            if (!keys.contains(key) && keys.size() >= maxKeysPerTag) {
+                return OVERFLOW;
+            }
+
+            keys.add(key);
+            return keys;
+        });
+    }
+
+    /**
+     * Removes the tag from the index. Keys that are generated afterwards are recorded again.
+     *
+     * @return the keys generated for the tag or {@code null} if the tag overflowed
+     */
+    Set<Object> remove(String tag) {
+        var keys = keysByTag.asMap().remove(tag);
+        if (keys == OVERFLOW) {
+            return null;
+        }
+
+        return keys != null ? keys : Collections.emptySet();
+    }
+
+    void clear() {
+        keysByTag.invalidateAll();
+    }
+}
@@ -13,26 +13,39 @@ import io.micrometer.observation.Observation;
 import io.micrometer.observation.ObservationRegistry;
 import org.eclipse.openvsx.entities.Extension;
 import org.eclipse.openvsx.entities.ExtensionVersion;
+import org.eclipse.openvsx.entities.Namespace;
+import org.eclipse.openvsx.entities.PersonalAccessToken;
 import org.eclipse.openvsx.entities.UserData;
 import org.eclipse.openvsx.repositories.RepositoryService;
+import org.eclipse.openvsx.search.ISearchService;
+import org.eclipse.openvsx.util.NamingUtil;
 import org.eclipse.openvsx.util.TargetPlatform;
 import org.eclipse.openvsx.util.VersionAlias;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 @Component
 public class CacheService {
 
+    public static final String CACHE_ACCESS_TOKEN = "access.token";
     public static final String CACHE_DATABASE_SEARCH = "database.search";
     public static final String CACHE_EXTENSION_JSON = "extension.json";
+    public static final String CACHE_EXTENSION_JSON_BYTES = "extension.json.bytes";
     public static final String CACHE_LATEST_EXTENSION_VERSION = "latest.extension.version";
     public static final String CACHE_NAMESPACE_DETAILS_JSON = "namespace.details.json";
+    public static final String CACHE_NAMESPACE_DETAILS_JSON_BYTES = "namespace.details.json.bytes";
+    public static final String CACHE_SEARCH_JSON_BYTES = "search.json.bytes";
+    public static final String CACHE_QUERY_TOTAL_SIZE = "query.total.size";
     public static final String CACHE_AVERAGE_REVIEW_RATING = "average.review.rating";
     public static final String CACHE_SITEMAP = "sitemap";
+    public static final String CACHE_UPSTREAM_RESPONSE = "upstream.response";
 
+    public static final String GENERATOR_ACCESS_TOKEN = "accessTokenCacheKeyGenerator";
     public static final String GENERATOR_EXTENSION_JSON = "extensionJsonCacheKeyGenerator";
     public static final String GENERATOR_LATEST_EXTENSION_VERSION = "latestExtensionVersionCacheKeyGenerator";
 
@@ -40,6 +53,9 @@ public class CacheService {
     private final RepositoryService repositories;
     private final ExtensionJsonCacheKeyGenerator extensionJsonCacheKey;
     private final LatestExtensionVersionCacheKeyGenerator latestExtensionVersionCacheKey;
+    private final AccessTokenCacheKeyGenerator accessTokenCacheKey;
+    private final CacheInvalidationBus invalidations;
+    private final ChangeStampService changeStamps;
     private final ObservationRegistry observations;
 
     public CacheService(
@@ -47,70 +63,171 @@ public class CacheService {
             RepositoryService repositories,
             ExtensionJsonCacheKeyGenerator extensionJsonCacheKey,
             LatestExtensionVersionCacheKeyGenerator latestExtensionVersionCacheKey,
+            AccessTokenCacheKeyGenerator accessTokenCacheKey,
+            CacheInvalidationBus invalidations,
+            ChangeStampService changeStamps,
             ObservationRegistry observations
     ) {
         this.cacheManager = cacheManager;
         this.repositories = repositories;
         this.extensionJsonCacheKey = extensionJsonCacheKey;
         this.latestExtensionVersionCacheKey = latestExtensionVersionCacheKey;
+        this.accessTokenCacheKey = accessTokenCacheKey;
+        this.invalidations = invalidations;
+        this.changeStamps = changeStamps;
         this.observations = observations;
+
+        invalidations.subscribe(CACHE_EXTENSION_JSON, this::evictLocalExtensionJsons);
+        invalidations.subscribe(CACHE_LATEST_EXTENSION_VERSION, this::evictLocalLatestExtensionVersion);
+        invalidations.subscribe(CACHE_NAMESPACE_DETAILS_JSON, this::evictLocalNamespaceDetails);
+        invalidations.subscribe(CACHE_SITEMAP, argument -> invalidateCache(CACHE_SITEMAP));
+        invalidations.subscribe(CACHE_ACCESS_TOKEN, this::evictLocalAccessToken);
+    }
+
+    /**
+     * Evicts the token now and again after the surrounding transaction has committed,
+     * so a concurrent request cannot cache the token as it was before the change.
+     */
+    public void evictAccessToken(PersonalAccessToken token) {
+        var key = accessTokenCacheKey.generate(token.getValue());
+        evictLocalAccessToken(key);
+        invalidations.publish(CACHE_ACCESS_TOKEN, key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictLocalAccessToken(key);
+                }
+            });
+        }
+    }
+
+    private void evictLocalAccessToken(String key) {
+        if (CacheInvalidationBus.ALL.equals(key)) {
+            invalidateCache(CACHE_ACCESS_TOKEN);
+        } else {
+            getCaches(CACHE_ACCESS_TOKEN).forEach(cache -> cache.evictIfPresent(key));
+        }
     }
 
     public void evictNamespaceDetails() {
-        invalidateCache(CACHE_NAMESPACE_DETAILS_JSON);
+        evictNamespaceDetails(CacheInvalidationBus.ALL);
     }
 
     public void evictNamespaceDetails(Extension extension) {
-        var cache = cacheManager.getCache(CACHE_NAMESPACE_DETAILS_JSON);
-        if(cache == null) {
-            return; // cache is not created
+        evictNamespaceDetails(extension.getNamespace().getName());
+    }
+
+    public void evictNamespaceDetails(String namespaceName) {
+        evictLocalNamespaceDetails(namespaceName);
+        invalidations.publish(CACHE_NAMESPACE_DETAILS_JSON, namespaceName);
+    }
+
+    private void evictLocalNamespaceDetails(String namespaceName) {
+        if (CacheInvalidationBus.ALL.equals(namespaceName)) {
+            invalidateCache(CACHE_NAMESPACE_DETAILS_JSON);
+            invalidateCache(CACHE_NAMESPACE_DETAILS_JSON_BYTES);
+        } else {
+            getCaches(CACHE_NAMESPACE_DETAILS_JSON, CACHE_NAMESPACE_DETAILS_JSON_BYTES)
+                    .forEach(cache -> cache.evictIfPresent(namespaceName));
         }
+        changeStamps.namespaceChanged(namespaceName);
+    }
 
-        var namespaceName = extension.getNamespace().getName();
-        cache.evictIfPresent(namespaceName);
+    /**
+     * The average is evicted on this node only. Each node reads it when it refreshes
+     * its search stats, see {@link org.eclipse.openvsx.search.RelevanceService}.
+     */
+    public void evictAverageReviewRating() {
+        invalidateCache(CACHE_AVERAGE_REVIEW_RATING);
+    }
+
+    public void evictSitemap() {
+        invalidateCache(CACHE_SITEMAP);
+        invalidations.publish(CACHE_SITEMAP, CacheInvalidationBus.ALL);
+    }
+
+    /**
+     * Search results are evicted on this node only. Other nodes maintain their own search
+     * index, see {@link org.eclipse.openvsx.search.DatabaseSearchService}.
+     */
+    public void evictDatabaseSearch() {
+        invalidateCache(CACHE_DATABASE_SEARCH);
+        invalidateCache(CACHE_SEARCH_JSON_BYTES);
+    }
+
+    public void evictDatabaseSearch(Collection<ISearchService.Options> options) {
+        for (var cache : getCaches(CACHE_DATABASE_SEARCH, CACHE_SEARCH_JSON_BYTES)) {
+            options.forEach(cache::evictIfPresent);
+        }
     }
 
     public void evictExtensionJsons() {
-        invalidateCache(CACHE_EXTENSION_JSON);
+        evictLocalExtensionJsons(CacheInvalidationBus.ALL);
+        invalidations.publish(CACHE_EXTENSION_JSON, CacheInvalidationBus.ALL);
     }
 
     public void evictExtensionJsons(UserData user) {
         repositories.findExtensions(user).forEach(this::evictExtensionJsons);
     }
 
+    public void evictExtensionJsons(Namespace namespace) {
+        repositories.findExtensions(namespace).forEach(this::evictExtensionJsons);
+    }
+
     public void evictExtensionJsons(Extension extension) {
-//        Observation.createNotStarted("CacheService#evictExtensionJsons", observations).observe(() -> {
-            var cache = cacheManager.getCache(CACHE_EXTENSION_JSON);
-            if (cache == null) {
-                return; // cache is not created
+        var extensionId = NamingUtil.toExtensionId(extension);
+        invalidations.publish(CACHE_EXTENSION_JSON, extensionId);
+        var caches = getCaches(CACHE_EXTENSION_JSON, CACHE_EXTENSION_JSON_BYTES);
+        if (!caches.isEmpty()) {
+            var keys = extensionJsonCacheKey.removeKeys(extension);
+            if (keys == null) {
+                keys = getAllExtensionJsonKeys(extension);
             }
-            if (extension.getVersions() == null) {
-                return;
+            for (var key : keys) {
+                caches.forEach(cache -> cache.evictIfPresent(key));
             }
+        }
+        changeStamps.extensionChanged(extensionId);
+    }
 
-            var versions = new ArrayList<>(VersionAlias.ALIAS_NAMES);
-            extension.getVersions().stream()
-                    .map(ExtensionVersion::getVersion)
-                    .forEach(versions::add);
-
-            var namespaceName = extension.getNamespace().getName();
-            var extensionName = extension.getName();
-            var targetPlatforms = new ArrayList<>(TargetPlatform.TARGET_PLATFORM_NAMES);
-            targetPlatforms.add("null");
-            for (var version : versions) {
-                for (var targetPlatform : targetPlatforms) {
-                    cache.evictIfPresent(extensionJsonCacheKey.generate(namespaceName, extensionName, targetPlatform, version));
-                }
+    private Set<Object> getAllExtensionJsonKeys(Extension extension) {
+        var keys = new HashSet<>();
+        if (extension.getVersions() == null) {
+            return keys;
+        }
+
+        var versions = new ArrayList<>(VersionAlias.ALIAS_NAMES);
+        extension.getVersions().stream()
+                .map(ExtensionVersion::getVersion)
+                .forEach(versions::add);
+
+        var namespaceName = extension.getNamespace().getName();
+        var extensionName = extension.getName();
+        var targetPlatforms = new ArrayList<>(TargetPlatform.TARGET_PLATFORM_NAMES);
+        targetPlatforms.add("null");
+        for (var version : versions) {
+            for (var targetPlatform : targetPlatforms) {
+                keys.add(extensionJsonCacheKey.generate(namespaceName, extensionName, targetPlatform, version));
             }
-//        });
+        }
+        return keys;
     }
 
+    /**
+     * Other nodes evict all entries of the extension, since they only track keys by extension.
+     */
     public void evictExtensionJsons(ExtensionVersion extVersion) {
-        var cache = cacheManager.getCache(CACHE_EXTENSION_JSON);
-        if (cache == null) {
-            return; // cache is not created
+        var extensionId = NamingUtil.toExtensionId(extVersion.getExtension());
+        invalidations.publish(CACHE_EXTENSION_JSON, extensionId);
+        var caches = getCaches(CACHE_EXTENSION_JSON, CACHE_EXTENSION_JSON_BYTES);
+        if (!caches.isEmpty()) {
+            evictExtensionJsons(caches, extVersion);
         }
+        changeStamps.extensionChanged(extensionId);
+    }
 
+    private void evictExtensionJsons(List<Cache> caches, ExtensionVersion extVersion) {
         var extension = extVersion.getExtension();
         var namespace = extension.getNamespace();
         var versions = new ArrayList<>(List.of(VersionAlias.LATEST, extVersion.getVersion()));
@@ -121,34 +238,84 @@ public class CacheService {
             versions.add(VersionAlias.PREVIEW);
         }
         for (var version : versions) {
-            cache.evictIfPresent(extensionJsonCacheKey.generate(namespace.getName(), extension.getName(), extVersion.getTargetPlatform(), version));
+            var key = extensionJsonCacheKey.generate(namespace.getName(), extension.getName(), extVersion.getTargetPlatform(), version);
+            caches.forEach(cache -> cache.evictIfPresent(key));
         }
     }
 
+    private void evictLocalExtensionJsons(String extensionId) {
+        var keys = CacheInvalidationBus.ALL.equals(extensionId) ? null : extensionJsonCacheKey.removeKeys(extensionId);
+        if (keys == null) {
+            extensionJsonCacheKey.clearKeys();
+            invalidateCache(CACHE_EXTENSION_JSON);
+            invalidateCache(CACHE_EXTENSION_JSON_BYTES);
+        } else {
+            var caches = getCaches(CACHE_EXTENSION_JSON, CACHE_EXTENSION_JSON_BYTES);
+            for (var key : keys) {
+                caches.forEach(cache -> cache.evictIfPresent(key));
+            }
+        }
+        changeStamps.extensionChanged(extensionId);
+    }
+
     public void evictLatestExtensionVersions() {
-        invalidateCache(CACHE_LATEST_EXTENSION_VERSION);
+        evictLocalLatestExtensionVersion(CacheInvalidationBus.ALL);
+        invalidations.publish(CACHE_LATEST_EXTENSION_VERSION, CacheInvalidationBus.ALL);
     }
 
     public void evictLatestExtensionVersion(Extension extension) {
-//        Observation.createNotStarted("CacheService#evictLatestExtensionVersion", observations).observe(() -> {
-            var cache = cacheManager.getCache(CACHE_LATEST_EXTENSION_VERSION);
-            if(cache == null) {
-                return;
-            }
+        invalidations.publish(CACHE_LATEST_EXTENSION_VERSION, NamingUtil.toExtensionId(extension));
+        var cache = cacheManager.getCache(CACHE_LATEST_EXTENSION_VERSION);
+        if(cache == null) {
+            return;
+        }
 
-            var targetPlatforms = new ArrayList<>(TargetPlatform.TARGET_PLATFORM_NAMES);
-            targetPlatforms.add(null);
-            for (var targetPlatform : targetPlatforms) {
-                for (var preRelease : List.of(true, false)) {
-                    for (var onlyActive : List.of(true, false)) {
-                        for(var type : ExtensionVersion.Type.values()) {
-                            var key = latestExtensionVersionCacheKey.generate(extension, targetPlatform, preRelease, onlyActive, type);
-                            cache.evictIfPresent(key);
-                        }
+        var keys = latestExtensionVersionCacheKey.removeKeys(extension);
+        if (keys == null) {
+            keys = getAllLatestExtensionVersionKeys(extension);
+        }
+        keys.forEach(cache::evictIfPresent);
+    }
+
+    private Set<Object> getAllLatestExtensionVersionKeys(Extension extension) {
+        var keys = new HashSet<>();
+        var targetPlatforms = new ArrayList<>(TargetPlatform.TARGET_PLATFORM_NAMES);
+        targetPlatforms.add(null);
+        for (var targetPlatform : targetPlatforms) {
+            for (var preRelease : List.of(true, false)) {
+                for (var onlyActive : List.of(true, false)) {
+                    for(var type : ExtensionVersion.Type.values()) {
+                        keys.add(latestExtensionVersionCacheKey.generate(extension, targetPlatform, preRelease, onlyActive, type));
                     }
                 }
             }
-//        });
+        }
+        return keys;
+    }
+
+    private void evictLocalLatestExtensionVersion(String extensionId) {
+        var keys = CacheInvalidationBus.ALL.equals(extensionId) ? null : latestExtensionVersionCacheKey.removeKeys(extensionId);
+        if (keys == null) {
+            latestExtensionVersionCacheKey.clearKeys();
+            invalidateCache(CACHE_LATEST_EXTENSION_VERSION);
+            return;
+        }
+
+        var cache = cacheManager.getCache(CACHE_LATEST_EXTENSION_VERSION);
+        if (cache != null) {
+            keys.forEach(cache::evictIfPresent);
+        }
+    }
+
+    private List<Cache> getCaches(String... cacheNames) {
+        var caches = new ArrayList<Cache>(cacheNames.length);
+        for (var cacheName : cacheNames) {
+            var cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                caches.add(cache);
+            }
+        }
+        return caches;
     }
 
     private void invalidateCache(String cacheName) {
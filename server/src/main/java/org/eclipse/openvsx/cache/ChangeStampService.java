@@ -0,0 +1,117 @@
+/** ******************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * ****************************************************************************** */
+package org.eclipse.openvsx.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Derives ETags of the extension and namespace JSON from change stamps, so a conditional request
+ * can be answered without loading the JSON. A stamp is advanced whenever {@link CacheService}
+ * evicts the cached JSON, including evictions received from other nodes, and once more after the
+ * surrounding transaction has committed.
+ * <p>
+ * Stamps are kept in memory, so every ETag contains the start time of this node and a random
+ * value that tells apart nodes started at the same time. After a restart or on another node the
+ * ETags differ and the first request is answered in full.
+ * See {@link #enabled} for deployments with several nodes.
+ */
+@Component
+public class ChangeStampService {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36)
+            + Integer.toString(ThreadLocalRandom.current().nextInt(Integer.MAX_VALUE), 36);
+    private final AtomicLong clock = new AtomicLong();
+    private final Map<String, Long> extensionStamps = new ConcurrentHashMap<>();
+    private final Map<String, Long> namespaceStamps = new ConcurrentHashMap<>();
+    private volatile long allExtensionsStamp;
+    private volatile long allNamespacesStamp;
+
+    /**
+     * The epoch and the stamps are per node. With N replicas behind a load balancer, a conditional
+     * request reaches the node that issued its ETag only about 1/N of the time and is answered in
+     * full otherwise. Disable this on such deployments to use the hash of the serialized JSON as
+     * ETag instead, which is the same on every node but requires loading the JSON.
+     */
+    @Value("${ovsx.cache.change-stamps.enabled:true}")
+    boolean enabled;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getExtensionETag(String namespaceName, String extensionName) {
+        var extensionId = (namespaceName + "." + extensionName).toLowerCase();
+        var stamp = Math.max(
+                Math.max(allExtensionsStamp, extensionStamps.getOrDefault(extensionId, 0L)),
+                getNamespaceStamp(namespaceName)
+        );
+        return toETag(stamp);
+    }
+
+    public String getNamespaceETag(String namespaceName) {
+        return toETag(getNamespaceStamp(namespaceName));
+    }
+
+    private long getNamespaceStamp(String namespaceName) {
+        return Math.max(allNamespacesStamp, namespaceStamps.getOrDefault(namespaceName.toLowerCase(), 0L));
+    }
+
+    private String toETag(long stamp) {
+        return "\"" + epoch + "-" + Long.toString(stamp, 36) + "\"";
+    }
+
+    public void extensionChanged(String extensionId) {
+        if (CacheInvalidationBus.ALL.equals(extensionId)) {
+            advanceAfterCommit(() -> {
+                allExtensionsStamp = clock.incrementAndGet();
+                extensionStamps.clear();
+            });
+        } else {
+            var key = extensionId.toLowerCase();
+            advanceAfterCommit(() -> extensionStamps.put(key, clock.incrementAndGet()));
+        }
+    }
+
+    public void namespaceChanged(String namespaceName) {
+        if (CacheInvalidationBus.ALL.equals(namespaceName)) {
+            advanceAfterCommit(() -> {
+                allNamespacesStamp = clock.incrementAndGet();
+                namespaceStamps.clear();
+            });
+        } else {
+            var key = namespaceName.toLowerCase();
+            advanceAfterCommit(() -> namespaceStamps.put(key, clock.incrementAndGet()));
+        }
+    }
+
+    /**
+     * A request running concurrently with the transaction may still return the old JSON with
+     * the new stamp. Advancing the stamp again after the commit invalidates that ETag.
+     */
+    private void advanceAfterCommit(Runnable advance) {
+        advance.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    advance.run();
+                }
+            });
+        }
+    }
+}
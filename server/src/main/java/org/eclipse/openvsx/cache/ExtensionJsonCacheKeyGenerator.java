@@ -9,23 +9,53 @@
  * ****************************************************************************** */
 package org.eclipse.openvsx.cache;
 
+import org.eclipse.openvsx.entities.Extension;
 import org.eclipse.openvsx.util.NamingUtil;
 import org.eclipse.openvsx.util.VersionAlias;
 import org.springframework.cache.interceptor.KeyGenerator;
 import org.springframework.stereotype.Component;
 
 import java.lang.reflect.Method;
+import java.util.Set;
 
 @Component
 public class ExtensionJsonCacheKeyGenerator implements KeyGenerator {
 
+    private final CacheKeyIndex index = new CacheKeyIndex(1024);
+
     @Override
     public Object generate(Object target, Method method, Object... params) {
+        var namespaceName = (String) params[0];
+        var extensionName = (String) params[1];
         var version = params.length == 4 ? (String) params[3] : VersionAlias.LATEST;
-        return generate((String) params[0], (String) params[1], (String) params[2], version);
+        var key = generate(namespaceName, extensionName, (String) params[2], version);
+        index.add(getTag(namespaceName, extensionName), key);
+        return key;
     }
 
     public String generate(String namespaceName, String extensionName, String targetPlatform, String version) {
         return NamingUtil.toFileFormat(namespaceName, extensionName, version, targetPlatform);
     }
+
+    /**
+     * Returns the keys generated for the extension and stops tracking them.
+     *
+     * @return the generated keys or {@code null} if all possible keys have to be evicted
+     */
+    public Set<Object> removeKeys(Extension extension) {
+        return removeKeys(NamingUtil.toExtensionId(extension));
+    }
+
+    public Set<Object> removeKeys(String extensionId) {
+        return index.remove(extensionId.toLowerCase());
+    }
+
+    public void clearKeys() {
+        index.clear();
+    }
+
+    private String getTag(String namespaceName, String extensionName) {
+        // the URL path is matched case-insensitively, so all spellings share the tag
+        return NamingUtil.toExtensionId(namespaceName, extensionName).toLowerCase();
+    }
 }
@@ -18,10 +18,13 @@ import org.springframework.stereotype.Component;
 
 import java.lang.reflect.Method;
 import java.util.List;
+import java.util.Set;
 
 @Component
 public class LatestExtensionVersionCacheKeyGenerator implements KeyGenerator {
 
+    private final CacheKeyIndex index = new CacheKeyIndex(256);
+
     @Override
     public Object generate(Object target, Method method, Object... params) {
         Extension extension;
@@ -47,7 +50,9 @@ public class LatestExtensionVersionCacheKeyGenerator implements KeyGenerator {
             }
         }
 
-        return generate(extension, targetPlatform, preRelease, onlyActive, type);
+        var key = generate(extension, targetPlatform, preRelease, onlyActive, type);
+        index.add(NamingUtil.toExtensionId(extension).toLowerCase(), key);
+        return key;
     }
 
     public String generate(Extension extension, String targetPlatform, boolean preRelease, boolean onlyActive, ExtensionVersion.Type type) {
@@ -56,4 +61,21 @@ public class LatestExtensionVersionCacheKeyGenerator implements KeyGenerator {
         return NamingUtil.toFileFormat(namespaceName, extensionName, targetPlatform, VersionAlias.LATEST) +
                 ",pre-release=" + preRelease + ",only-active=" + onlyActive + ",type=" + type;
     }
+
+    /**
+     * Returns the keys generated for the extension and stops tracking them.
+     *
+     * @return the generated keys or {@code null} if all possible keys have to be evicted
+     */
+    public Set<Object> removeKeys(Extension extension) {
+        return removeKeys(NamingUtil.toExtensionId(extension));
+    }
+
+    public Set<Object> removeKeys(String extensionId) {
+        return index.remove(extensionId.toLowerCase());
+    }
+
+    public void clearKeys() {
+        index.clear();
+    }
 }
@@ -0,0 +1,55 @@
+/** ******************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * ****************************************************************************** */
+package org.eclipse.openvsx.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.util.DigestUtils;
+
+import java.io.Serializable;
+
+/**
+ * A JSON response body that has already been serialized to UTF-8, together with its strong
+ * {@code ETag}. The {@code ETag} has the same format as the one computed by
+ * {@link org.springframework.web.filter.ShallowEtagHeaderFilter}, so tags that clients
+ * received before remain valid.
+ */
+public class SerializedJson implements Serializable {
+
+    private final byte[] content;
+    private final String eTag;
+
+    private SerializedJson(byte[] content) {
+        this.content = content;
+        var builder = new StringBuilder(37).append("\"0");
+        DigestUtils.appendMd5DigestAsHex(content, builder);
+        this.eTag = builder.append('"').toString();
+    }
+
+    public static SerializedJson of(Object json, ObjectMapper mapper) {
+        try {
+            return new SerializedJson(mapper.writeValueAsBytes(json));
+        } catch (JsonProcessingException exc) {
+            throw new RuntimeException("Failed to serialize " + json.getClass().getSimpleName(), exc);
+        }
+    }
+
+    public byte[] getContent() {
+        return content;
+    }
+
+    public int getContentLength() {
+        return content.length;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+}
@@ -0,0 +1,101 @@
+/** ******************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * ****************************************************************************** */
+package org.eclipse.openvsx.entities;
+
+import jakarta.persistence.*;
+import org.eclipse.openvsx.json.ChangeJson;
+import org.eclipse.openvsx.util.TimeUtil;
+
+import java.time.LocalDateTime;
+
+/**
+ * A change of an extension or namespace that mirrors need to apply. Namespace and extension
+ * are stored by name, so the entry outlives the entities it refers to.
+ */
+@Entity
+public class ChangeLogEntry {
+
+    /** Versions were published, activated, deactivated or deleted, and the extension is active. */
+    public static final String UPDATE = "update";
+    /** All versions of the extension were deactivated. */
+    public static final String DEACTIVATE = "deactivate";
+    /** The extension was deleted or moved to another namespace. */
+    public static final String DELETE = "delete";
+    /** The metadata or the members of the namespace changed. */
+    public static final String NAMESPACE = "namespace";
+
+    /**
+     * Entries are read in the order of their id, so ids are allocated one at a time
+     * instead of in blocks per node.
+     */
+    @Id
+    @GeneratedValue(generator = "changeLogEntrySeq")
+    @SequenceGenerator(name = "changeLogEntrySeq", sequenceName = "change_log_entry_seq", allocationSize = 1)
+    long id;
+
+    LocalDateTime timestamp;
+
+    @Column(length = 32)
+    String type;
+
+    String namespace;
+
+    String extension;
+
+    public ChangeJson toChangeJson() {
+        var json = new ChangeJson();
+        json.id = id;
+        json.timestamp = TimeUtil.toUTCString(timestamp);
+        json.type = type;
+        json.namespace = namespace;
+        json.extension = extension;
+        return json;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getNamespace() {
+        return namespace;
+    }
+
+    public void setNamespace(String namespace) {
+        this.namespace = namespace;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public void setExtension(String extension) {
+        this.extension = extension;
+    }
+}
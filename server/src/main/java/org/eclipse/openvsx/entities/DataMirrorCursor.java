@@ -0,0 +1,41 @@
+/** ******************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * ****************************************************************************** */
+package org.eclipse.openvsx.entities;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+/**
+ * Position of a mirror in the change log of the registry it mirrors.
+ */
+@Entity
+public class DataMirrorCursor {
+
+    @Id
+    String url;
+
+    long changeId;
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public long getChangeId() {
+        return changeId;
+    }
+
+    public void setChangeId(long changeId) {
+        this.changeId = changeId;
+    }
+}
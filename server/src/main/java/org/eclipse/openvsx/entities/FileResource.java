@@ -31,6 +31,7 @@ public class FileResource {
     public static final String STORAGE_DB = "database";
     public static final String STORAGE_GOOGLE = "google-cloud";
     public static final String STORAGE_AZURE = "azure-blob";
+    public static final String STORAGE_FILE_SYSTEM = "file-system";
 
     @Id
     @GeneratedValue(generator = "fileResourceSeq")
@@ -9,13 +9,13 @@
  ********************************************************************************/
 package org.eclipse.openvsx.entities;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.apache.commons.lang3.StringUtils;
 
 import jakarta.persistence.Embeddable;
 import java.io.Serializable;
-import java.util.List;
 import java.util.Objects;
-import java.util.function.Supplier;
 import java.util.regex.Pattern;
 
 @Embeddable
@@ -27,7 +27,23 @@ public class SemanticVersion implements Comparable<SemanticVersion>, Serializabl
     // has been modified to only use non-capturing groups (?:.*), so that it can be used as a URI template regex
     public static final String VERSION_PATH_PARAM_REGEX = "(?:0|[1-9]\\d*)\\.(?:0|[1-9]\\d*)\\.(?:0|[1-9]\\d*)(?:-(?:(?:0|[1-9]\\d*|\\d*[a-zA-Z-][0-9a-zA-Z-]*)(?:\\.(?:0|[1-9]\\d*|\\d*[a-zA-Z-][0-9a-zA-Z-]*))*))?(?:\\+(?:[0-9a-zA-Z-]+(?:\\.[0-9a-zA-Z-]+)*))?";
 
+    /** Parsed version strings, so the regex isn't evaluated again for the same version. */
+    private static final Cache<String, SemanticVersion> PARSE_CACHE = CacheBuilder.newBuilder()
+            .maximumSize(10_000)
+            .build();
+
     public static SemanticVersion parse(String version) {
+        var parsed = PARSE_CACHE.getIfPresent(version);
+        if (parsed == null) {
+            parsed = parseVersion(version);
+            PARSE_CACHE.put(version, parsed);
+        }
+
+        // SemanticVersion is mutable, don't hand out the cached instance
+        return parsed.copy();
+    }
+
+    private static SemanticVersion parseVersion(String version) {
         try {
             var matcher = VERSION_PARSE_PATTERN.matcher(version);
             matcher.find();
@@ -118,23 +134,38 @@ public class SemanticVersion implements Comparable<SemanticVersion>, Serializabl
         return Objects.hash(major, minor, patch, preRelease, isPreRelease, buildMetadata);
     }
 
+    private SemanticVersion copy() {
+        var semver = new SemanticVersion();
+        semver.major = major;
+        semver.minor = minor;
+        semver.patch = patch;
+        semver.preRelease = preRelease;
+        semver.isPreRelease = isPreRelease;
+        semver.buildMetadata = buildMetadata;
+        return semver;
+    }
+
+    /**
+     * Sorts newer versions first and releases before pre-releases of the same version.
+     * Called for every comparison of {@link ExtensionVersion#SORT_COMPARATOR}, so it doesn't allocate.
+     */
     @Override
     public int compareTo(SemanticVersion that) {
-        List<Supplier<Integer>> comparators = List.of(
-                () -> Integer.compare(that.getMajor(), this.getMajor()),
-                () -> Integer.compare(that.getMinor(), this.getMinor()),
-                () -> Integer.compare(that.getPatch(), this.getPatch()),
-                () -> -Boolean.compare(that.isIsPreRelease(), this.isIsPreRelease())
-        );
-
-        var compare = 0;
-        for(var comparator : comparators) {
-            compare = comparator.get();
-            if(compare != 0) {
-                return compare;
-            }
+        var compare = Integer.compare(that.major, this.major);
+        if (compare != 0) {
+            return compare;
+        }
+
+        compare = Integer.compare(that.minor, this.minor);
+        if (compare != 0) {
+            return compare;
+        }
+
+        compare = Integer.compare(that.patch, this.patch);
+        if (compare != 0) {
+            return compare;
         }
 
-        return compare;
+        return -Boolean.compare(that.isPreRelease, this.isPreRelease);
     }
 }
\ No newline at end of file
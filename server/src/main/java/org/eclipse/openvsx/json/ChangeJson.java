@@ -0,0 +1,43 @@
+/** ******************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * ****************************************************************************** */
+package org.eclipse.openvsx.json;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+
+@Schema(
+    name = "Change",
+    description = "A change of an extension or namespace"
+)
+@JsonInclude(Include.NON_NULL)
+public class ChangeJson {
+
+    @Schema(description = "Identifier of the change, changes are ordered by their identifier")
+    @NotNull
+    public long id;
+
+    @Schema(description = "Date and time when the change was made (ISO-8601)")
+    @NotNull
+    public String timestamp;
+
+    @Schema(description = "Type of the change", allowableValues = {"update", "deactivate", "delete", "namespace"})
+    @NotNull
+    public String type;
+
+    @Schema(description = "Name of the namespace")
+    @NotNull
+    public String namespace;
+
+    @Schema(description = "Name of the extension, absent for namespace changes")
+    public String extension;
+}
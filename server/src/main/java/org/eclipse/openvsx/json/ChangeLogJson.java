@@ -0,0 +1,39 @@
+/** ******************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * ****************************************************************************** */
+package org.eclipse.openvsx.json;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+@Schema(
+    name = "ChangeLog",
+    description = "Changes of extensions and namespaces in the order they were made"
+)
+@JsonInclude(Include.NON_NULL)
+public class ChangeLogJson extends ResultJson {
+
+    public static ChangeLogJson error(String message) {
+        var result = new ChangeLogJson();
+        result.error = message;
+        return result;
+    }
+
+    @Schema(description = "Changes made after the given cursor (may be empty)")
+    public List<ChangeJson> changes;
+
+    @Schema(description = "Cursor to pass to the next request to get the following changes")
+    @NotNull
+    public long nextCursor;
+}
@@ -33,6 +33,8 @@ public class QueryRequest {
 
     public int offset;
 
+    public String cursor;
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -41,6 +43,7 @@ public class QueryRequest {
         return includeAllVersions == that.includeAllVersions
                 && size == that.size
                 && offset == that.offset
+                && Objects.equals(cursor, that.cursor)
                 && Objects.equals(namespaceName, that.namespaceName)
                 && Objects.equals(extensionName, that.extensionName)
                 && Objects.equals(extensionVersion, that.extensionVersion)
@@ -53,6 +56,6 @@ public class QueryRequest {
     @Override
     public int hashCode() {
         return Objects.hash(namespaceName, extensionName, extensionVersion, extensionId, extensionUuid, namespaceUuid,
-                includeAllVersions, targetPlatform, size, offset);
+                includeAllVersions, targetPlatform, size, offset, cursor);
     }
 }
\ No newline at end of file
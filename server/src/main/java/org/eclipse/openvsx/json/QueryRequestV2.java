@@ -30,4 +30,6 @@ public class QueryRequestV2 {
     public int size;
 
     public int offset;
+
+    public String cursor;
 }
\ No newline at end of file
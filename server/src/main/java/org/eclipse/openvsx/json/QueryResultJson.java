@@ -44,5 +44,8 @@ public class QueryResultJson extends ResultJson {
 
     @Schema(description = "Extensions that match the given query (may be empty)")
     public List<ExtensionJson> extensions;
+
+    @Schema(description = "Cursor to pass to the next query to get the following entries, absent on the last page or if the query did not use a cursor")
+    public String nextCursor;
     
 }
\ No newline at end of file
@@ -17,6 +17,7 @@ import org.eclipse.openvsx.entities.MigrationItem;
 import org.eclipse.openvsx.repositories.RepositoryService;
 import org.eclipse.openvsx.storage.AzureBlobStorageService;
 import org.eclipse.openvsx.storage.GoogleCloudStorageService;
+import org.eclipse.openvsx.storage.FileSystemStorageService;
 import org.eclipse.openvsx.storage.IStorageService;
 import org.eclipse.openvsx.util.NamingUtil;
 import org.eclipse.openvsx.util.TempFile;
@@ -34,6 +35,7 @@ import org.springframework.web.client.RestTemplate;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.AbstractMap;
 import java.util.Map;
 import java.util.UUID;
@@ -48,6 +50,7 @@ public class MigrationService {
     private final RepositoryService repositories;
     private final AzureBlobStorageService azureStorage;
     private final GoogleCloudStorageService googleStorage;
+    private final FileSystemStorageService fileSystemStorage;
     private final JobRequestScheduler scheduler;
 
     public MigrationService(
@@ -56,6 +59,7 @@ public class MigrationService {
             RepositoryService repositories,
             AzureBlobStorageService azureStorage,
             GoogleCloudStorageService googleStorage,
+            FileSystemStorageService fileSystemStorage,
             JobRequestScheduler scheduler
     ) {
         this.backgroundRestTemplate =  backgroundRestTemplate;
@@ -63,6 +67,7 @@ public class MigrationService {
         this.repositories = repositories;
         this.azureStorage = azureStorage;
         this.googleStorage = googleStorage;
+        this.fileSystemStorage = fileSystemStorage;
         this.scheduler = scheduler;
     }
 
@@ -88,7 +93,9 @@ public class MigrationService {
         var extensionFile = new TempFile("migration-extension_", ".vsix");
 
         var content = entry.getValue();
-        if(content == null) {
+        if(content == null && entry.getKey().getStorageType().equals(FileResource.STORAGE_FILE_SYSTEM)) {
+            Files.copy(fileSystemStorage.getPath(entry.getKey()), extensionFile.getPath(), StandardCopyOption.REPLACE_EXISTING);
+        } else if(content == null) {
             var download = entry.getKey();
             var storage = getStorage(download);
             var uri = storage.getLocation(download);
@@ -180,7 +187,8 @@ public class MigrationService {
     private IStorageService getStorage(FileResource resource) {
         var storages = Map.of(
                 FileResource.STORAGE_AZURE, azureStorage,
-                FileResource.STORAGE_GOOGLE, googleStorage
+                FileResource.STORAGE_GOOGLE, googleStorage,
+                FileResource.STORAGE_FILE_SYSTEM, fileSystemStorage
         );
 
         return storages.get(resource.getStorageType());
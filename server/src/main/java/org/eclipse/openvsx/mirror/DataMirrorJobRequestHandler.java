@@ -11,9 +11,14 @@ package org.eclipse.openvsx.mirror;
 
 import org.eclipse.openvsx.UrlConfigService;
 import org.eclipse.openvsx.admin.AdminService;
+import org.eclipse.openvsx.entities.ChangeLogEntry;
+import org.eclipse.openvsx.entities.UserData;
+import org.eclipse.openvsx.json.ChangeJson;
+import org.eclipse.openvsx.json.ChangeLogJson;
 import org.eclipse.openvsx.repositories.RepositoryService;
 import org.eclipse.openvsx.util.ErrorResultException;
 import org.eclipse.openvsx.util.NamingUtil;
+import org.eclipse.openvsx.util.NotFoundException;
 import org.jobrunr.jobs.annotations.Job;
 import org.jobrunr.jobs.lambdas.JobRequestHandler;
 import org.slf4j.Logger;
@@ -23,6 +28,9 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.RequestEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.w3c.dom.Element;
 import org.xml.sax.InputSource;
@@ -33,13 +41,19 @@ import java.net.URI;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
+import static org.eclipse.openvsx.util.UrlUtil.addQuery;
 import static org.eclipse.openvsx.util.UrlUtil.createApiUrl;
 
 @Component
 public class DataMirrorJobRequestHandler implements JobRequestHandler<DataMirrorJobRequest> {
 
+    private static final int CHANGES_PAGE_SIZE = 100;
+
     protected final Logger logger = LoggerFactory.getLogger(DataMirrorJobRequestHandler.class);
 
     private DataMirrorService data;
@@ -49,10 +63,19 @@ public class DataMirrorJobRequestHandler implements JobRequestHandler<DataMirror
     private final AdminService admin;
     private final MirrorExtensionService mirrorExtensionService;
     private final DateTimeFormatter dateFormatter;
+    private final Map<Long, Integer> failedChanges = new ConcurrentHashMap<>();
 
     @Value("${ovsx.data.mirror.schedule:}")
     String schedule;
 
+    /** Follow the change log of the mirrored registry instead of comparing all extensions in every run. */
+    @Value("${ovsx.data.mirror.change-feed:false}")
+    boolean changeFeed;
+
+    /** Number of runs that try to apply a failing change before it is skipped. */
+    @Value("${ovsx.data.mirror.change-attempts:3}")
+    int changeAttempts;
+
     public DataMirrorJobRequestHandler(
             Optional<DataMirrorService> dataMirrorService,
             RepositoryService repositories,
@@ -80,60 +103,10 @@ public class DataMirrorJobRequestHandler implements JobRequestHandler<DataMirror
         logger.debug(">> Starting DataMirrorJob");
         try {
             var mirrorUser = data.createMirrorUser();
-                
-            var extensionIds = new ArrayList<String>();
-            try(var reader = new StringReader(getSitemap())) {
-                var factory = DocumentBuilderFactory.newInstance();
-                var builder = factory.newDocumentBuilder();
-                var sitemap = builder.parse(new InputSource(reader));
-                var urls = sitemap.getElementsByTagName("url");
-                var progress = jobContext().progressBar(urls.getLength());
-                for(var i = 0; i < urls.getLength(); i++) {
-                    var url = (Element) urls.item(i);
-                    var location = URI.create(url.getElementsByTagName("loc").item(0).getTextContent());
-                    var pathParams = location.getPath().split("/");
-                    var namespace = pathParams[pathParams.length - 2];
-                    var extension = pathParams[pathParams.length - 1];
-                    var extensionId = NamingUtil.toExtensionId(namespace, extension);
-                    if (!data.match(namespace, extension)) {
-                        jobContext().logger().info("excluded, skipping " + extensionId + " (" + (i+1) + "/" +  urls.getLength() + ")");
-                        continue;
-                    }
-                    jobContext().logger().info("mirroring " + extensionId + " (" + (i+1) + "/" +  urls.getLength() + ")");
-                    
-                    LocalDate lastModified = null;
-                    try {
-                        var lastModifiedString = url.getElementsByTagName("lastmod").item(0).getTextContent();
-                        lastModified = LocalDate.parse(lastModifiedString, dateFormatter);
-                    } catch(Throwable t) {
-                        logger.error("failed to resolve last modified date " + extensionId, t);
-                    }
-                    try {
-                        mirrorExtensionService.mirrorExtension(namespace, extension, mirrorUser, lastModified, jobContext());
-                    } catch (Throwable t) {
-                        logger.error("failed to mirror " + extensionId, t);
-                    }
-                    extensionIds.add(extensionId);
-                    progress.increaseByOne();
-                }
-            }
-
-            var notMatchingExtensions = repositories.findAllNotMatchingByExtensionId(extensionIds);
-            if (!notMatchingExtensions.isEmpty()) {
-                for(var extension : notMatchingExtensions) {
-                    var extensionId = NamingUtil.toExtensionId(extension);
-                    jobContext().logger().info("deleting " + extensionId);
-                    try {
-                        var namespace = extension.getNamespace();
-                        admin.deleteExtension(namespace.getName(), extension.getName(), mirrorUser);
-                    } catch (ErrorResultException t) { 
-                        if (t.getStatus() != HttpStatus.NOT_FOUND) {
-                            logger.warn("mirror: failed to delete extension " + extensionId, t);
-                        }
-                    } catch (Throwable t) {
-                        logger.error("mirror: failed to delete extension " + extensionId,  t);
-                    }
-                }
+            if (changeFeed) {
+                mirrorWithChangeFeed(mirrorUser);
+            } else {
+                mirrorAll(mirrorUser);
             }
         } catch (Throwable t) {
             logger.error("failed to mirror data", t);
@@ -143,6 +116,189 @@ public class DataMirrorJobRequestHandler implements JobRequestHandler<DataMirror
         } 
     }
 
+    /**
+     * Applies the changes listed in the change log of the mirrored registry since the previous run.
+     * A change that fails does not stop the run, but the next run starts with it again until it has
+     * failed {@code ovsx.data.mirror.change-attempts} times and is skipped. If the mirrored registry
+     * cannot be reached, the run stops and the next run starts with the change that failed. The first
+     * run, a run whose position in the change log has expired, or a run against a registry without a
+     * change log mirrors all extensions.
+     */
+    private void mirrorWithChangeFeed(UserData mirrorUser) throws Exception {
+        var serverUrl = urlConfigService.getMirrorServerUrl();
+        var cursor = data.getChangeCursor(serverUrl);
+        if (cursor != null) {
+            try {
+                mirrorChanges(serverUrl, cursor, mirrorUser);
+                return;
+            } catch (HttpClientErrorException.Gone exc) {
+                jobContext().logger().info("change log position " + cursor + " has expired, mirroring all extensions");
+            }
+        }
+
+        ChangeLogJson changeLog;
+        try {
+            changeLog = getChanges(serverUrl, null);
+        } catch (RestClientException exc) {
+            logger.warn("mirror: failed to get the change log of " + serverUrl + ", mirroring all extensions", exc);
+            mirrorAll(mirrorUser);
+            return;
+        }
+
+        // changes made while mirroring all extensions are applied again by the next run
+        mirrorAll(mirrorUser);
+        data.updateChangeCursor(serverUrl, changeLog.nextCursor);
+    }
+
+    private void mirrorChanges(String serverUrl, long cursor, UserData mirrorUser) {
+        ChangeLogJson changeLog;
+        do {
+            changeLog = getChanges(serverUrl, cursor);
+            // mirroring an extension copies its complete state, so only its last change is applied
+            var changes = new LinkedHashMap<String, ChangeJson>();
+            for (var change : changeLog.changes) {
+                var key = change.extension != null
+                        ? NamingUtil.toExtensionId(change.namespace, change.extension)
+                        : change.namespace;
+
+                changes.remove(key);
+                changes.put(key, change);
+            }
+            // changes are applied in the order of their ids, so the first failed change is the oldest
+            Long retryChangeId = null;
+            for (var change : changes.values()) {
+                try {
+                    mirrorChange(change, mirrorUser);
+                    failedChanges.remove(change.id);
+                } catch (ResourceAccessException exc) {
+                    logger.warn("mirror: failed to apply change " + change.id + ", retrying in the next run", exc);
+                    data.updateChangeCursor(serverUrl, (retryChangeId != null ? retryChangeId : change.id) - 1);
+                    return;
+                } catch (Throwable t) {
+                    var attempts = failedChanges.merge(change.id, 1, Integer::sum);
+                    if (attempts < changeAttempts) {
+                        logger.error("mirror: failed to apply change " + change.id + " (attempt " + attempts + " of " + changeAttempts + "), retrying in the next run", t);
+                        if (retryChangeId == null) {
+                            retryChangeId = change.id;
+                        }
+                    } else {
+                        logger.error("mirror: failed to apply change " + change.id + " " + attempts + " times, skipping it", t);
+                        failedChanges.remove(change.id);
+                    }
+                }
+            }
+            if (retryChangeId != null) {
+                data.updateChangeCursor(serverUrl, retryChangeId - 1);
+                return;
+            }
+
+            cursor = changeLog.nextCursor;
+            data.updateChangeCursor(serverUrl, cursor);
+            var appliedCursor = cursor;
+            failedChanges.keySet().removeIf(id -> id <= appliedCursor);
+        } while (changeLog.changes.size() == CHANGES_PAGE_SIZE);
+    }
+
+    private void mirrorChange(ChangeJson change, UserData mirrorUser) {
+        if (change.extension == null) {
+            if (repositories.namespaceExists(change.namespace)) {
+                jobContext().logger().info("mirroring namespace " + change.namespace);
+                data.mirrorNamespaceMetadata(change.namespace);
+            }
+            return;
+        }
+
+        var extensionId = NamingUtil.toExtensionId(change.namespace, change.extension);
+        if (!data.match(change.namespace, change.extension)) {
+            jobContext().logger().info("excluded, skipping " + extensionId);
+            return;
+        }
+        if (change.type.equals(ChangeLogEntry.UPDATE)) {
+            try {
+                jobContext().logger().info("mirroring " + extensionId);
+                mirrorExtensionService.mirrorExtension(change.namespace, change.extension, mirrorUser, null, jobContext());
+                return;
+            } catch (NotFoundException exc) {
+                // the extension has been deactivated or deleted since this change
+            }
+        }
+
+        jobContext().logger().info("deleting " + extensionId);
+        try {
+            admin.deleteExtension(change.namespace, change.extension, mirrorUser);
+        } catch (ErrorResultException exc) {
+            if (exc.getStatus() != HttpStatus.NOT_FOUND) {
+                throw exc;
+            }
+        }
+    }
+
+    private void mirrorAll(UserData mirrorUser) throws Exception {
+        var extensionIds = new ArrayList<String>();
+        try(var reader = new StringReader(getSitemap())) {
+            var factory = DocumentBuilderFactory.newInstance();
+            var builder = factory.newDocumentBuilder();
+            var sitemap = builder.parse(new InputSource(reader));
+            var urls = sitemap.getElementsByTagName("url");
+            var progress = jobContext().progressBar(urls.getLength());
+            for(var i = 0; i < urls.getLength(); i++) {
+                var url = (Element) urls.item(i);
+                var location = URI.create(url.getElementsByTagName("loc").item(0).getTextContent());
+                var pathParams = location.getPath().split("/");
+                var namespace = pathParams[pathParams.length - 2];
+                var extension = pathParams[pathParams.length - 1];
+                var extensionId = NamingUtil.toExtensionId(namespace, extension);
+                if (!data.match(namespace, extension)) {
+                    jobContext().logger().info("excluded, skipping " + extensionId + " (" + (i+1) + "/" +  urls.getLength() + ")");
+                    continue;
+                }
+                jobContext().logger().info("mirroring " + extensionId + " (" + (i+1) + "/" +  urls.getLength() + ")");
+                
+                LocalDate lastModified = null;
+                try {
+                    var lastModifiedString = url.getElementsByTagName("lastmod").item(0).getTextContent();
+                    lastModified = LocalDate.parse(lastModifiedString, dateFormatter);
+                } catch(Throwable t) {
+                    logger.error("failed to resolve last modified date " + extensionId, t);
+                }
+                try {
+                    mirrorExtensionService.mirrorExtension(namespace, extension, mirrorUser, lastModified, jobContext());
+                } catch (Throwable t) {
+                    logger.error("failed to mirror " + extensionId, t);
+                }
+                extensionIds.add(extensionId);
+                progress.increaseByOne();
+            }
+        }
+
+        var notMatchingExtensions = repositories.findAllNotMatchingByExtensionId(extensionIds);
+        if (!notMatchingExtensions.isEmpty()) {
+            for(var extension : notMatchingExtensions) {
+                var extensionId = NamingUtil.toExtensionId(extension);
+                jobContext().logger().info("deleting " + extensionId);
+                try {
+                    var namespace = extension.getNamespace();
+                    admin.deleteExtension(namespace.getName(), extension.getName(), mirrorUser);
+                } catch (ErrorResultException t) { 
+                    if (t.getStatus() != HttpStatus.NOT_FOUND) {
+                        logger.warn("mirror: failed to delete extension " + extensionId, t);
+                    }
+                } catch (Throwable t) {
+                    logger.error("mirror: failed to delete extension " + extensionId,  t);
+                }
+            }
+        }
+    }
+
+    private ChangeLogJson getChanges(String serverUrl, Long since) {
+        var url = createApiUrl(serverUrl, "api", "-", "changes");
+        url = since != null
+                ? addQuery(url, "since", since.toString(), "size", Integer.toString(CHANGES_PAGE_SIZE))
+                : url;
+
+        return backgroundRestTemplate.getForObject(URI.create(url), ChangeLogJson.class);
+    }
+
     private String getSitemap() {
         var requestUrl = URI.create(createApiUrl(urlConfigService.getMirrorServerUrl(), "sitemap.xml"));
         var request = new RequestEntity<Void>(HttpMethod.GET, requestUrl);
@@ -130,6 +130,26 @@ public class DataMirrorService {
         return extension.getVersions().stream().filter(v -> targetPlatform.equals(v.getTargetPlatform())).collect(Collectors.toList());
     }
 
+    /**
+     * @return the position in the change log of the given registry, or {@code null} if
+     * the change log has not been followed yet
+     */
+    public Long getChangeCursor(String serverUrl) {
+        var cursor = repositories.findDataMirrorCursor(serverUrl);
+        return cursor != null ? cursor.getChangeId() : null;
+    }
+
+    @Transactional
+    public void updateChangeCursor(String serverUrl, long changeId) {
+        var cursor = repositories.findDataMirrorCursor(serverUrl);
+        if (cursor == null) {
+            cursor = new DataMirrorCursor();
+            cursor.setUrl(serverUrl);
+            entityManager.persist(cursor);
+        }
+        cursor.setChangeId(changeId);
+    }
+
     @Transactional
     public UserData createMirrorUser() {
         var user = repositories.findUserByLoginName(null, userName);
@@ -9,6 +9,8 @@
  * ****************************************************************************** */
 package org.eclipse.openvsx.mirror;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.eclipse.openvsx.ExtensionService;
 import org.eclipse.openvsx.UpstreamRegistryService;
 import org.eclipse.openvsx.UserService;
@@ -21,6 +23,7 @@ import org.eclipse.openvsx.util.*;
 import org.jobrunr.jobs.context.JobContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
@@ -30,6 +33,12 @@ import java.net.URI;
 import java.nio.file.Files;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.zip.ZipFile;
 
@@ -50,6 +59,16 @@ public class MirrorExtensionService {
     private final ExtensionService extensions;
     private final ExtensionVersionIntegrityService integrityService;
 
+    /** Maximum number of upstream requests and downloads running concurrently while mirroring. */
+    @Value("${ovsx.data.mirror.concurrency:4}")
+    int concurrency;
+
+    /** Downloads use the background connection pool, so they should not wait for a pooled connection. */
+    @Value("${ovsx.backgroundHttpConnPool.defaultMaxPerRoute:20}")
+    int maxConnectionsPerRoute;
+
+    private ExecutorService mirrorExecutor;
+
     public MirrorExtensionService(
             Optional<DataMirrorService> dataMirrorService,
             RepositoryService repositories,
@@ -70,6 +89,22 @@ public class MirrorExtensionService {
         this.integrityService = integrityService;
     }
 
+    @PostConstruct
+    public void createMirrorExecutor() {
+        concurrency = Math.max(1, Math.min(concurrency, maxConnectionsPerRoute));
+        var threadCount = new AtomicInteger();
+        mirrorExecutor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            var thread = new Thread(runnable, "mirror-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdownMirrorExecutor() {
+        mirrorExecutor.shutdown();
+    }
+
     /**
      * It applies delta from previous execution.
      */
@@ -109,14 +144,16 @@ public class MirrorExtensionService {
     private void mirrorExtensionVersions(String namespaceName, String extensionName, UserData mirrorUser, JobContext jobContext) {
         data.ensureNamespace(namespaceName);
 
-        var toAdd = new ArrayList<ExtensionJson>();
+        var targetPlatformVersions = new LinkedHashMap<String, CompletableFuture<Set<String>>>();
         for(var targetPlatform : TargetPlatform.TARGET_PLATFORM_NAMES) {
-            Set<String> versions;
-            try {
-                var json = upstream.getExtension(namespaceName, extensionName, targetPlatform);
-                versions = json.allVersions.keySet();
-                VersionAlias.ALIAS_NAMES.forEach(versions::remove);
-            } catch (NotFoundException e) {
+            targetPlatformVersions.put(targetPlatform, supplyAsync(() -> getVersions(namespaceName, extensionName, targetPlatform)));
+        }
+
+        var toFetch = new ArrayList<CompletableFuture<ExtensionJson>>();
+        for(var entry : targetPlatformVersions.entrySet()) {
+            var targetPlatform = entry.getKey();
+            var versions = join(entry.getValue());
+            if(versions == null) {
                 // combination of extension and target platform doesn't exist, try next
                 continue;
             }
@@ -127,38 +164,72 @@ public class MirrorExtensionService {
                     .filter(extVersion -> !versions.contains(extVersion.getVersion()))
                     .forEach(extVersion -> data.deleteExtensionVersion(extVersion, mirrorUser));
 
-            toAdd.addAll(
-                versions.stream()
+            versions.stream()
                     .filter(version -> targetVersions.stream().noneMatch(extVersion -> extVersion.getVersion().equals(version)))
-                    .map(version -> upstream.getExtension(namespaceName, extensionName, targetPlatform, version))
-                    .collect(Collectors.toList())
-            );
+                    .map(version -> supplyAsync(() -> upstream.getExtension(namespaceName, extensionName, targetPlatform, version)))
+                    .forEach(toFetch::add);
         }
-        toAdd.sort(Comparator.comparing(extensionJson -> TimeUtil.fromUTCString(extensionJson.timestamp)));
-        
-        for(var i = 0; i < toAdd.size(); i++) {
-            var json = toAdd.get(i);
-            jobContext.logger().info("mirroring " + NamingUtil.toLogFormat(json) + " (" + (i+1) + "/" +  toAdd.size() + ")");
-            try {
-                mirrorExtensionVersion(json);
-                data.getMirroredVersions().increment();
-            } catch (Throwable t) {
-                data.getFailedVersions().increment();
-                throw t;
+
+        var toAdd = toFetch.stream()
+                .map(this::join)
+                .sorted(Comparator.comparing(extensionJson -> TimeUtil.fromUTCString(extensionJson.timestamp)))
+                .collect(Collectors.toList());
+
+        // versions are downloaded ahead concurrently, but persisted one after another in timestamp order
+        var downloads = new ArrayDeque<CompletableFuture<VersionDownload>>();
+        var nextDownload = 0;
+        try {
+            for(var i = 0; i < toAdd.size(); i++) {
+                while(nextDownload < toAdd.size() && nextDownload - i < concurrency) {
+                    var json = toAdd.get(nextDownload++);
+                    downloads.add(supplyAsync(() -> downloadExtensionVersion(json)));
+                }
+
+                var json = toAdd.get(i);
+                jobContext.logger().info("mirroring " + NamingUtil.toLogFormat(json) + " (" + (i+1) + "/" +  toAdd.size() + ")");
+                try {
+                    var download = join(downloads.remove());
+                    try {
+                        mirrorExtensionVersion(json, download);
+                    } finally {
+                        deleteFile(download.extensionFile());
+                    }
+                    data.getMirroredVersions().increment();
+                } catch (Throwable t) {
+                    data.getFailedVersions().increment();
+                    throw t;
+                }
             }
+        } finally {
+            downloads.forEach(download -> download.thenAccept(d -> deleteFile(d.extensionFile())));
         }
     }
 
-    private void mirrorExtensionVersion(ExtensionJson json) throws RuntimeException {
-        var download = json.files.get("download");
-        var userJson = new UserJson();
-        userJson.provider = json.publishedBy.provider;
-        userJson.loginName = json.publishedBy.loginName;
-        userJson.fullName = json.publishedBy.fullName;
-        userJson.avatarUrl = json.publishedBy.avatarUrl;
-        userJson.homepage = json.publishedBy.homepage;
-        var namespaceName = json.namespace;
+    private Set<String> getVersions(String namespaceName, String extensionName, String targetPlatform) {
+        try {
+            var json = upstream.getExtension(namespaceName, extensionName, targetPlatform);
+            var versions = json.allVersions.keySet();
+            VersionAlias.ALIAS_NAMES.forEach(versions::remove);
+            return versions;
+        } catch (NotFoundException e) {
+            return null;
+        }
+    }
 
+    private <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(supplier, mirrorExecutor);
+    }
+
+    private <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException exc) {
+            throw exc.getCause() instanceof RuntimeException cause ? cause : exc;
+        }
+    }
+
+    private VersionDownload downloadExtensionVersion(ExtensionJson json) {
+        var download = json.files.get("download");
         var vsixResourceHeaders = backgroundNonRedirectingRestTemplate.headForHeaders("{resolveVsixLocation}", Map.of("resolveVsixLocation", download));
         var vsixLocation = vsixResourceHeaders.getLocation();
         if (vsixLocation == null) {
@@ -172,7 +243,10 @@ public class MirrorExtensionService {
         }
 
         String signatureName = null;
-        try (var extensionFile = downloadToFile(download, "extension_", ".vsix")) {
+        TempFile extensionFile = null;
+        var downloaded = false;
+        try {
+            extensionFile = downloadToFile(download, "extension_", ".vsix");
             if(json.files.containsKey(DOWNLOAD_SIG)) {
                 try(
                     var signatureZip = downloadToFile(json.files.get(DOWNLOAD_SIG), "extension_", ".sigzip");
@@ -189,21 +263,38 @@ public class MirrorExtensionService {
                 signatureName = signaturePathParams[signaturePathParams.length - 1];
             }
 
-            var user = data.getOrAddUser(userJson);
-            var namespace = repositories.findNamespace(namespaceName);
-            data.ensureNamespaceMembership(user, namespace);
-
-            var description = "MirrorExtensionVersion";
-            var accessTokenValue = data.getOrAddAccessTokenValue(user, description);
-
-            var token = users.useAccessToken(accessTokenValue);
-            extensions.mirrorVersion(extensionFile, signatureName, token, filename, json.timestamp);
-            logger.debug("completed mirroring of extension version: {}", NamingUtil.toLogFormat(json));
+            downloaded = true;
+            return new VersionDownload(filename, extensionFile, signatureName);
         } catch (IOException e) {
             throw new RuntimeException(e);
+        } finally {
+            if(!downloaded && extensionFile != null) {
+                deleteFile(extensionFile);
+            }
         }
     }
 
+    private void mirrorExtensionVersion(ExtensionJson json, VersionDownload download) throws RuntimeException {
+        var userJson = new UserJson();
+        userJson.provider = json.publishedBy.provider;
+        userJson.loginName = json.publishedBy.loginName;
+        userJson.fullName = json.publishedBy.fullName;
+        userJson.avatarUrl = json.publishedBy.avatarUrl;
+        userJson.homepage = json.publishedBy.homepage;
+        var namespaceName = json.namespace;
+
+        var user = data.getOrAddUser(userJson);
+        var namespace = repositories.findNamespace(namespaceName);
+        data.ensureNamespaceMembership(user, namespace);
+
+        var description = "MirrorExtensionVersion";
+        var accessTokenValue = data.getOrAddAccessTokenValue(user, description);
+
+        var token = users.useAccessToken(accessTokenValue);
+        extensions.mirrorVersion(download.extensionFile(), download.signatureName(), token, download.filename(), json.timestamp);
+        logger.debug("completed mirroring of extension version: {}", NamingUtil.toLogFormat(json));
+    }
+
     private TempFile downloadToFile(String url, String prefix, String suffix) throws IOException {
         var file = new TempFile(prefix, suffix);
         backgroundRestTemplate.execute("{url}", HttpMethod.GET, null, response -> {
@@ -234,4 +325,14 @@ public class MirrorExtensionService {
 
         return signature;
     }
+
+    private void deleteFile(TempFile file) {
+        try {
+            file.close();
+        } catch (IOException e) {
+            logger.warn("Failed to delete " + file.getPath(), e);
+        }
+    }
+
+    private record VersionDownload(String filename, TempFile extensionFile, String signatureName) {}
 }
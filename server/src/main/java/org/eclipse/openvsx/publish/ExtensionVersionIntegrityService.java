@@ -11,16 +11,18 @@ package org.eclipse.openvsx.publish;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import org.apache.commons.codec.binary.Base64;
-import org.apache.commons.codec.digest.DigestUtils;
 import org.bouncycastle.asn1.x509.SubjectPublicKeyInfo;
 import org.bouncycastle.crypto.params.AsymmetricKeyParameter;
 import org.bouncycastle.crypto.params.Ed25519PrivateKeyParameters;
 import org.bouncycastle.crypto.signers.Ed25519Signer;
 import org.bouncycastle.crypto.util.PublicKeyFactory;
 import org.bouncycastle.openssl.PEMParser;
+import org.eclipse.openvsx.ExtensionProcessor;
+import org.eclipse.openvsx.ExtensionProcessor.EntryDigest;
 import org.eclipse.openvsx.cache.CacheService;
 import org.eclipse.openvsx.entities.ExtensionVersion;
 import org.eclipse.openvsx.entities.FileResource;
@@ -37,12 +39,12 @@ import org.springframework.stereotype.Component;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.Map;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipFile;
 import java.util.zip.ZipOutputStream;
 
 import static org.eclipse.openvsx.entities.SignatureKeyPair.KEYPAIR_MODE_CREATE;
@@ -110,20 +112,33 @@ public class ExtensionVersionIntegrityService {
     }
 
     public FileResource generateSignature(FileResource download, TempFile extensionFile, SignatureKeyPair keyPair) {
+        try (var processor = new ExtensionProcessor(extensionFile, ObservationRegistry.NOOP)) {
+            return generateSignature(download, processor, keyPair);
+        }
+    }
+
+    /**
+     * Generate the signature archive of the extension file. The entry digests collected by the processor
+     * are reused, and the extension file is signed in the same read that computes its digest.
+     */
+    public FileResource generateSignature(FileResource download, ExtensionProcessor processor, SignatureKeyPair keyPair) {
         var resource = new FileResource();
         resource.setExtension(download.getExtension());
         resource.setName(NamingUtil.toFileFormat(download.getExtension(), ".sigzip"));
         resource.setType(FileResource.DOWNLOAD_SIG);
         try (var out = new ByteArrayOutputStream()) {
+            var signer = new Ed25519Signer();
+            signer.init(true, new Ed25519PrivateKeyParameters(keyPair.getPrivateKey(), 0));
+            var packageDigest = processor.digestExtensionFile(signer);
             try (var zip = new ZipOutputStream(out)) {
                 var sigEntry = new ZipEntry(".signature.sig");
                 zip.putNextEntry(sigEntry);
-                zip.write(generateSignature(extensionFile, keyPair));
+                zip.write(signer.generateSignature());
                 zip.closeEntry();
 
                 var manifestEntry = new ZipEntry(".signature.manifest");
                 zip.putNextEntry(manifestEntry);
-                zip.write(generateSignatureManifest(extensionFile));
+                zip.write(generateSignatureManifest(packageDigest, processor.getEntryDigests()));
                 zip.closeEntry();
 
                 // Add dummy file to the archive because VS Code checks if it exists
@@ -134,59 +149,34 @@ public class ExtensionVersionIntegrityService {
             }
 
             resource.setContent(out.toByteArray());
-        } catch (IOException e) {
+        } catch (IOException | UncheckedIOException e) {
             throw new ErrorResultException("Failed to sign extension file", e);
         }
 
         return resource;
     }
 
-    private byte[] generateSignature(TempFile extensionFile, SignatureKeyPair keyPair) throws IOException {
-        var privateKeyParameters = new Ed25519PrivateKeyParameters(keyPair.getPrivateKey(), 0);
-        var signer = new Ed25519Signer();
-        signer.init(true, privateKeyParameters);
-        try (var in = Files.newInputStream(extensionFile.getPath())) {
-            int len;
-            var buffer = new byte[1024];
-            while ((len = in.read(buffer)) > 0) {
-                signer.update(buffer, 0, len);
-            }
-        }
-
-        return signer.generateSignature();
-    }
-
-    private byte[] generateSignatureManifest(TempFile extensionFile) throws IOException {
+    private byte[] generateSignatureManifest(EntryDigest packageDigest, Map<String, EntryDigest> entryDigests) throws IOException {
         var base64 = new Base64();
         var mapper = new ObjectMapper();
         var manifestEntries = mapper.createObjectNode();
-        try(var zip = new ZipFile(extensionFile.getPath().toFile())) {
-            zip.stream()
-                    .filter(entry -> !entry.isDirectory())
-                    .forEach(entry -> {
-                        try (var entryStream = zip.getInputStream(entry)) {
-                            var manifestEntry = generateManifestEntry(entryStream, entry.getSize(), mapper, base64);
-                            manifestEntries.set(new String(base64.encode(entry.getName().getBytes(StandardCharsets.UTF_8))), manifestEntry);
-                        } catch (IOException e) {
-                            throw new RuntimeException(e);
-                        }
-                    });
-        }
+        entryDigests.forEach((name, digest) -> {
+            var manifestEntry = generateManifestEntry(digest, mapper, base64);
+            manifestEntries.set(new String(base64.encode(name.getBytes(StandardCharsets.UTF_8))), manifestEntry);
+        });
 
         var manifest = mapper.createObjectNode();
-        try (var extensionStream = Files.newInputStream(extensionFile.getPath())) {
-            manifest.set("package", generateManifestEntry(extensionStream, Files.size(extensionFile.getPath()), mapper, base64));
-        }
+        manifest.set("package", generateManifestEntry(packageDigest, mapper, base64));
         manifest.set("entries", manifestEntries);
         return mapper.writeValueAsBytes(manifest);
     }
 
-    private JsonNode generateManifestEntry(InputStream stream, long size, ObjectMapper mapper, Base64 base64) throws IOException {
+    private JsonNode generateManifestEntry(EntryDigest digest, ObjectMapper mapper, Base64 base64) {
         var manifestEntry = mapper.createObjectNode();
-        manifestEntry.put("size", size);
+        manifestEntry.put("size", digest.size());
 
         var manifestEntryDigests = mapper.createObjectNode();
-        var sha256 = new String(base64.encode(DigestUtils.sha256(stream)));
+        var sha256 = new String(base64.encode(digest.sha256()));
         manifestEntryDigests.put("sha256", sha256);
         manifestEntry.set("digests", manifestEntryDigests);
         return manifestEntry;
@@ -12,6 +12,8 @@ package org.eclipse.openvsx.publish;
 import com.google.common.base.Joiner;
 import io.micrometer.observation.Observation;
 import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import org.apache.commons.lang3.StringUtils;
@@ -28,6 +30,7 @@ import org.eclipse.openvsx.util.TempFile;
 import org.jobrunr.scheduling.JobRequestScheduler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
@@ -35,7 +38,9 @@ import org.springframework.stereotype.Component;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.function.Consumer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Component
 public class PublishExtensionVersionHandler {
@@ -51,6 +56,16 @@ public class PublishExtensionVersionHandler {
     private final ExtensionValidator validator;
     private final ObservationRegistry  observations;
 
+    /** Maximum number of file resources stored concurrently while publishing an extension version. */
+    @Value("${ovsx.publish.upload-threads:8}")
+    int uploadThreads;
+
+    /** Number of file resources inserted per JDBC batch while publishing an extension version. */
+    @Value("${ovsx.publish.resource-batch-size:100}")
+    int resourceBatchSize;
+
+    private ExecutorService uploadExecutor;
+
     public PublishExtensionVersionHandler(
             PublishExtensionVersionService service,
             ExtensionVersionIntegrityService integrityService,
@@ -71,6 +86,21 @@ public class PublishExtensionVersionHandler {
         this.observations = observations;
     }
 
+    @PostConstruct
+    public void createUploadExecutor() {
+        var threadCount = new AtomicInteger();
+        uploadExecutor = Executors.newFixedThreadPool(Math.max(1, uploadThreads), runnable -> {
+            var thread = new Thread(runnable, "publish-upload-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdownUploadExecutor() {
+        uploadExecutor.shutdown();
+    }
+
     @Transactional(rollbackOn = ErrorResultException.class)
     public ExtensionVersion createExtensionVersion(ExtensionProcessor processor, PersonalAccessToken token, LocalDateTime timestamp, boolean checkDependencies) {
         return Observation.createNotStarted("PublishExtensionVersionHandler#createExtensionVersion", observations).observe(() -> {
@@ -195,8 +225,10 @@ public class PublishExtensionVersionHandler {
         service.deleteFileResources(extVersion);
         download.setId(0L);
 
-        service.storeDownload(download, extensionFile);
-        service.persistResource(download);
+        Observation.createNotStarted("PublishExtensionVersionHandler#storeDownload", observations).observe(() -> {
+            service.storeDownload(download, extensionFile);
+            service.persistResource(download);
+        });
         try(var processor = new ExtensionProcessor(extensionFile, ObservationRegistry.NOOP)) {
             extVersion.setPotentiallyMalicious(processor.isPotentiallyMalicious());
             if (extVersion.isPotentiallyMalicious()) {
@@ -204,17 +236,10 @@ public class PublishExtensionVersionHandler {
                 return;
             }
 
-            Consumer<FileResource> consumer = resource -> {
-                service.storeResource(resource);
-                service.persistResource(resource);
-            };
-
+            SignatureKeyPair keyPair = null;
             if(integrityService.isEnabled()) {
-                var keyPair = extVersion.getSignatureKeyPair();
-                if(keyPair != null) {
-                    var signature = integrityService.generateSignature(download, extensionFile, keyPair);
-                    consumer.accept(signature);
-                } else {
+                keyPair = extVersion.getSignatureKeyPair();
+                if(keyPair == null) {
                     // Can happen when GenerateKeyPairJobRequestHandler hasn't run yet and there is no active SignatureKeyPair.
                     // This extension version should be assigned a SignatureKeyPair and a signature FileResource should be created
                     // by the ExtensionVersionSignatureJobRequestHandler migration.
@@ -222,9 +247,20 @@ public class PublishExtensionVersionHandler {
                 }
             }
 
-            processor.processEachResource(extVersion, consumer);
-            processor.getFileResources(extVersion).forEach(consumer);
-            consumer.accept(processor.generateSha256Checksum(extVersion));
+            var signatureKeyPair = keyPair;
+            Observation.createNotStarted("PublishExtensionVersionHandler#storeResources", observations).observe(() -> {
+                try (var uploader = new ResourceUploader(service, uploadExecutor, observations, uploadThreads, resourceBatchSize)) {
+                    // Read each archive entry once: the entries are stored as resources, digested for the signature
+                    // manifest and the files returned by getFileResources are kept in memory
+                    processor.processEachResource(extVersion, signatureKeyPair != null, uploader);
+                    processor.getFileResources(extVersion).forEach(uploader);
+                    if(signatureKeyPair != null) {
+                        // Computes the checksum of the extension file in the same read
+                        uploader.accept(integrityService.generateSignature(download, processor, signatureKeyPair));
+                    }
+                    uploader.accept(processor.generateSha256Checksum(extVersion));
+                }
+            });
         }
 
         // Update whether extension is active, the search index and evict cache
@@ -12,6 +12,7 @@ package org.eclipse.openvsx.publish;
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import org.eclipse.openvsx.ExtensionService;
+import org.eclipse.openvsx.cache.CacheService;
 import org.eclipse.openvsx.entities.Extension;
 import org.eclipse.openvsx.entities.ExtensionVersion;
 import org.eclipse.openvsx.entities.FileResource;
@@ -19,14 +20,13 @@ import org.eclipse.openvsx.repositories.RepositoryService;
 import org.eclipse.openvsx.storage.StorageUtilService;
 import org.eclipse.openvsx.util.ErrorResultException;
 import org.eclipse.openvsx.util.TempFile;
-import org.springframework.cache.annotation.CacheEvict;
+import org.hibernate.Session;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.nio.file.Files;
-
-import static org.eclipse.openvsx.cache.CacheService.CACHE_SITEMAP;
+import java.util.List;
 
 @Component
 public class PublishExtensionVersionService {
@@ -34,15 +34,18 @@ public class PublishExtensionVersionService {
     private final RepositoryService repositories;
     private final EntityManager entityManager;
     private final StorageUtilService storageUtil;
+    private final CacheService cache;
 
     public PublishExtensionVersionService(
             RepositoryService repositories,
             EntityManager entityManager,
-            StorageUtilService storageUtil
+            StorageUtilService storageUtil,
+            CacheService cache
     ) {
         this.repositories = repositories;
         this.entityManager = entityManager;
         this.storageUtil = storageUtil;
+        this.cache = cache;
     }
 
     @Transactional
@@ -90,12 +93,22 @@ public class PublishExtensionVersionService {
         entityManager.persist(resource);
     }
 
+    /**
+     * Persist the given resources with JDBC batch inserts. File resource ids are allocated
+     * from a pooled sequence, so Hibernate can batch the inserts.
+     */
+    @Transactional
+    public void persistResources(List<FileResource> resources) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(resources.size());
+        resources.forEach(entityManager::persist);
+    }
+
     @Transactional
-    @CacheEvict(value = CACHE_SITEMAP, allEntries = true)
     public void activateExtension(ExtensionVersion extVersion, ExtensionService extensions) {
         extVersion.setActive(true);
         extVersion = entityManager.merge(extVersion);
         extensions.updateExtension(extVersion.getExtension());
+        cache.evictSitemap();
     }
 
     @Transactional(Transactional.TxType.REQUIRES_NEW)
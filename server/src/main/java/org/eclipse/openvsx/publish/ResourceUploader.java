@@ -0,0 +1,118 @@
+/** ******************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * ****************************************************************************** */
+package org.eclipse.openvsx.publish;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.eclipse.openvsx.entities.FileResource;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Stores file resources concurrently and persists the stored resources in batches.
+ * At most {@code maxUploads} resources are stored at the same time; accepting another
+ * resource blocks until an upload has finished, so the resource contents held in memory
+ * stay bounded. Closing the uploader waits for the pending uploads and persists the rest.
+ */
+class ResourceUploader implements Consumer<FileResource>, AutoCloseable {
+
+    private final PublishExtensionVersionService service;
+    private final Executor executor;
+    private final ObservationRegistry observations;
+    private final int batchSize;
+
+    private final Semaphore uploads;
+    private final Phaser pendingUploads = new Phaser(1);
+    private final ConcurrentLinkedQueue<FileResource> storedResources = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger storedCount = new AtomicInteger();
+    private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+    ResourceUploader(
+            PublishExtensionVersionService service,
+            Executor executor,
+            ObservationRegistry observations,
+            int maxUploads,
+            int batchSize
+    ) {
+        this.service = service;
+        this.executor = executor;
+        this.observations = observations;
+        this.uploads = new Semaphore(Math.max(1, maxUploads));
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Override
+    public void accept(FileResource resource) {
+        throwOnFailure();
+        uploads.acquireUninterruptibly();
+        pendingUploads.register();
+        try {
+            executor.execute(() -> store(resource));
+        } catch (RuntimeException exc) {
+            uploads.release();
+            pendingUploads.arriveAndDeregister();
+            throw exc;
+        }
+
+        persistResources(false);
+    }
+
+    private void store(FileResource resource) {
+        try {
+            if (failure.get() == null) {
+                Observation.createNotStarted("ResourceUploader#store", observations)
+                        .observe(() -> service.storeResource(resource));
+
+                storedResources.add(resource);
+                storedCount.incrementAndGet();
+            }
+        } catch (RuntimeException exc) {
+            failure.compareAndSet(null, exc);
+        } finally {
+            uploads.release();
+            pendingUploads.arriveAndDeregister();
+        }
+    }
+
+    private void persistResources(boolean all) {
+        while (all ? !storedResources.isEmpty() : storedCount.get() >= batchSize) {
+            var batch = new ArrayList<FileResource>(batchSize);
+            FileResource resource;
+            while (batch.size() < batchSize && (resource = storedResources.poll()) != null) {
+                batch.add(resource);
+            }
+
+            storedCount.addAndGet(-batch.size());
+            Observation.createNotStarted("ResourceUploader#persist", observations)
+                    .observe(() -> service.persistResources(batch));
+        }
+    }
+
+    private void throwOnFailure() {
+        var exc = failure.get();
+        if (exc != null) {
+            throw exc;
+        }
+    }
+
+    @Override
+    public void close() {
+        pendingUploads.arriveAndAwaitAdvance();
+        throwOnFailure();
+        persistResources(true);
+    }
+}
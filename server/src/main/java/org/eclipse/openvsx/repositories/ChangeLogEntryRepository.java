@@ -0,0 +1,34 @@
+/** ******************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * ****************************************************************************** */
+package org.eclipse.openvsx.repositories;
+
+import org.eclipse.openvsx.entities.ChangeLogEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ChangeLogEntryRepository extends Repository<ChangeLogEntry, Long> {
+
+    List<ChangeLogEntry> findByIdGreaterThanAndTimestampBeforeOrderById(long id, LocalDateTime timestamp, Pageable page);
+
+    @Query("select max(c.id) from ChangeLogEntry c where c.timestamp < ?1")
+    Long findMaxIdByTimestampBefore(LocalDateTime timestamp);
+
+    @Query("select min(c.id) from ChangeLogEntry c")
+    Long findMinId();
+
+    @Modifying
+    @Query("delete from ChangeLogEntry c where c.timestamp < ?1 and c.id < (select max(l.id) from ChangeLogEntry l)")
+    int deleteByTimestampBeforeExceptLatest(LocalDateTime timestamp);
+}
@@ -19,6 +19,7 @@ import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -53,6 +54,25 @@ public class ExtensionJooqRepository {
         return fetch(query);
     }
 
+    /**
+     * Find the active extensions matching the given namespace and extension names, ignoring case,
+     * with a single query. Each element of {@code extensionIds} is a {@code [namespace, name]} pair.
+     */
+    public List<Extension> findAllActiveByNameIgnoreCaseAndNamespaceNameIgnoreCase(Collection<String[]> extensionIds) {
+        if(extensionIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // upper() matches the unique_extension and namespace name indexes
+        var rows = extensionIds.stream()
+                .map(id -> DSL.row(DSL.upper(DSL.val(id[0])), DSL.upper(DSL.val(id[1]))))
+                .toList();
+
+        var query = findAllActive();
+        query.addConditions(DSL.row(DSL.upper(NAMESPACE.NAME), DSL.upper(EXTENSION.NAME)).in(rows));
+        return fetch(query);
+    }
+
     public Extension findActiveByNameIgnoreCaseAndNamespaceNameIgnoreCase(String name, String namespaceName) {
         var query = findAllActive();
         query.addConditions(
@@ -193,6 +213,24 @@ public class ExtensionJooqRepository {
                 .execute();
     }
 
+    public void increaseDownloadCounts(Map<Long, Integer> extensionDownloads) {
+        if(extensionDownloads.isEmpty()) {
+            return;
+        }
+
+        var extension = EXTENSION.as("e");
+        var rows = extensionDownloads.entrySet().stream()
+                .map(e -> DSL.row(e.getKey(), e.getValue()))
+                .collect(Collectors.toList());
+
+        var updates = DSL.values(rows.toArray(Row2[]::new)).as("u", "id", "downloads");
+        dsl.update(extension)
+                .set(extension.DOWNLOAD_COUNT, extension.DOWNLOAD_COUNT.plus(updates.field("downloads", Integer.class)))
+                .from(updates)
+                .where(updates.field("id", Long.class).eq(extension.ID))
+                .execute();
+    }
+
     public boolean publicIdExists(String publicId) {
         return dsl.selectOne()
                 .from(EXTENSION)
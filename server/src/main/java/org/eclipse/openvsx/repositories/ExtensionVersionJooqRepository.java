@@ -10,10 +10,12 @@
 package org.eclipse.openvsx.repositories;
 
 import io.micrometer.observation.annotation.Observed;
+import jakarta.transaction.Transactional;
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.openvsx.entities.*;
 import org.eclipse.openvsx.json.QueryRequest;
 import org.eclipse.openvsx.json.VersionTargetPlatformsJson;
+import org.eclipse.openvsx.search.ExtensionSearchRow;
 import org.eclipse.openvsx.util.TargetPlatform;
 import org.eclipse.openvsx.util.VersionAlias;
 import org.jooq.Record;
@@ -21,13 +23,15 @@ import org.jooq.*;
 import org.jooq.impl.DSL;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import static org.eclipse.openvsx.cache.CacheService.CACHE_QUERY_TOTAL_SIZE;
 import static org.eclipse.openvsx.jooq.Tables.*;
 
 @Component
@@ -274,44 +278,61 @@ public class ExtensionVersionJooqRepository {
         return versionsQuery.fetch(record -> record.get(EXTENSION_VERSION.VERSION));
     }
 
-    public Page<ExtensionVersion> findActiveVersions(QueryRequest request) {
-        var conditions = new ArrayList<Condition>();
-        if (!StringUtils.isEmpty(request.namespaceUuid)) {
-            conditions.add(NAMESPACE.PUBLIC_ID.eq(request.namespaceUuid));
-        }
-        if (!StringUtils.isEmpty(request.namespaceName)) {
-            conditions.add(NAMESPACE.NAME.equalIgnoreCase(request.namespaceName));
-        }
-        if (!StringUtils.isEmpty(request.extensionUuid)) {
-            conditions.add(EXTENSION.PUBLIC_ID.eq(request.extensionUuid));
-        }
-        if (!StringUtils.isEmpty(request.extensionName)) {
-            conditions.add(EXTENSION.NAME.equalIgnoreCase(request.extensionName));
-        }
-        if(request.targetPlatform != null) {
-            conditions.add(EXTENSION_VERSION.TARGET_PLATFORM.eq(request.targetPlatform));
-        }
-        if (!StringUtils.isEmpty(request.extensionVersion)) {
-            conditions.add(EXTENSION_VERSION.VERSION.eq(request.extensionVersion));
+    public List<ExtensionVersion> findActiveVersions(QueryRequest request) {
+        var query = findActiveVersionsQuery(request);
+        query.addOffset(request.offset);
+        query.addLimit(request.size);
+        return fetch(query);
+    }
+
+    /**
+     * Find the page of versions that follows the given cursor, or the first page if the cursor is {@code null}.
+     * The page is selected by comparing the sort key, so a deep page costs the same as the first one.
+     */
+    public List<ExtensionVersion> findActiveVersions(QueryRequest request, QueryCursor after) {
+        var query = findActiveVersionsQuery(request);
+        if(after != null && !request.includeAllVersions) {
+            // compare the DISTINCT ON key only, the other versions of the last target platform are skipped
+            query.addConditions(seekAfter(
+                    List.of(EXTENSION_VERSION.EXTENSION_ID, EXTENSION_VERSION.UNIVERSAL_TARGET_PLATFORM, EXTENSION_VERSION.TARGET_PLATFORM),
+                    List.of(true, false, true),
+                    List.of(after.extensionId(), after.isUniversalTargetPlatform(), after.targetPlatform())
+            ));
+        } else if(after != null) {
+            query.addConditions(seekAfter(
+                    List.of(
+                            EXTENSION_VERSION.EXTENSION_ID,
+                            EXTENSION_VERSION.SEMVER_MAJOR,
+                            EXTENSION_VERSION.SEMVER_MINOR,
+                            EXTENSION_VERSION.SEMVER_PATCH,
+                            EXTENSION_VERSION.SEMVER_IS_PRE_RELEASE,
+                            EXTENSION_VERSION.UNIVERSAL_TARGET_PLATFORM,
+                            EXTENSION_VERSION.TARGET_PLATFORM,
+                            EXTENSION_VERSION.ID
+                    ),
+                    List.of(true, false, false, false, true, false, true, true),
+                    List.of(
+                            after.extensionId(),
+                            after.major(),
+                            after.minor(),
+                            after.patch(),
+                            after.preRelease(),
+                            after.isUniversalTargetPlatform(),
+                            after.targetPlatform(),
+                            after.id()
+                    )
+            ));
         }
 
-        var totalCol = "total";
-        var totalQuery = dsl.selectQuery();
-        totalQuery.addFrom(EXTENSION_VERSION);
-        totalQuery.addJoin(EXTENSION, EXTENSION.ID.eq(EXTENSION_VERSION.EXTENSION_ID));
-        totalQuery.addJoin(NAMESPACE, NAMESPACE.ID.eq(EXTENSION.NAMESPACE_ID));
-        totalQuery.addConditions(EXTENSION_VERSION.ACTIVE.eq(true));
+        query.addLimit(request.size);
+        return fetch(query);
+    }
 
+    private SelectQuery<Record> findActiveVersionsQuery(QueryRequest request) {
         var query = findAllActive();
+        query.addConditions(toConditions(request));
         if(!request.includeAllVersions) {
-            var distinctOn = new Field[] {
-                    EXTENSION_VERSION.EXTENSION_ID,
-                    EXTENSION_VERSION.UNIVERSAL_TARGET_PLATFORM,
-                    EXTENSION_VERSION.TARGET_PLATFORM
-            };
-
-            totalQuery.addSelect(DSL.countDistinct(distinctOn).as(totalCol));
-            query.addDistinctOn(distinctOn);
+            query.addDistinctOn(distinctTargetPlatforms());
             query.addOrderBy(
                     EXTENSION_VERSION.EXTENSION_ID.asc(),
                     EXTENSION_VERSION.UNIVERSAL_TARGET_PLATFORM.desc(),
@@ -323,7 +344,7 @@ public class ExtensionVersionJooqRepository {
                     EXTENSION_VERSION.TIMESTAMP.desc()
             );
         } else {
-            totalQuery.addSelect(DSL.count().as(totalCol));
+            // the id is the last sort key, so the order is total and can be continued from a cursor
             query.addOrderBy(
                     EXTENSION_VERSION.EXTENSION_ID.asc(),
                     EXTENSION_VERSION.SEMVER_MAJOR.desc(),
@@ -332,17 +353,82 @@ public class ExtensionVersionJooqRepository {
                     EXTENSION_VERSION.SEMVER_IS_PRE_RELEASE.asc(),
                     EXTENSION_VERSION.UNIVERSAL_TARGET_PLATFORM.desc(),
                     EXTENSION_VERSION.TARGET_PLATFORM.asc(),
-                    EXTENSION_VERSION.TIMESTAMP.desc()
+                    EXTENSION_VERSION.ID.asc()
             );
         }
 
-        totalQuery.addConditions(conditions);
-        query.addConditions(conditions);
-        query.addOffset(request.offset);
-        query.addLimit(request.size);
+        return query;
+    }
+
+    /**
+     * Count the versions matching the given query. Paging parameters are ignored, so the
+     * count is cached for all pages of the query.
+     */
+    @Cacheable(
+            value = CACHE_QUERY_TOTAL_SIZE,
+            key = "{#request.namespaceName, #request.extensionName, #request.extensionVersion, #request.extensionUuid, "
+                    + "#request.namespaceUuid, #request.includeAllVersions, #request.targetPlatform}"
+    )
+    public int countActiveVersions(QueryRequest request) {
+        var totalCol = "total";
+        var totalQuery = dsl.selectQuery();
+        totalQuery.addFrom(EXTENSION_VERSION);
+        totalQuery.addJoin(EXTENSION, EXTENSION.ID.eq(EXTENSION_VERSION.EXTENSION_ID));
+        totalQuery.addJoin(NAMESPACE, NAMESPACE.ID.eq(EXTENSION.NAMESPACE_ID));
+        totalQuery.addConditions(EXTENSION_VERSION.ACTIVE.eq(true));
+        totalQuery.addConditions(toConditions(request));
+        totalQuery.addSelect(request.includeAllVersions
+                ? DSL.count().as(totalCol)
+                : DSL.countDistinct(distinctTargetPlatforms()).as(totalCol)
+        );
+        return totalQuery.fetchOne(totalCol, Integer.class);
+    }
+
+    private Field<?>[] distinctTargetPlatforms() {
+        return new Field[] {
+                EXTENSION_VERSION.EXTENSION_ID,
+                EXTENSION_VERSION.UNIVERSAL_TARGET_PLATFORM,
+                EXTENSION_VERSION.TARGET_PLATFORM
+        };
+    }
+
+    private List<Condition> toConditions(QueryRequest request) {
+        var conditions = new ArrayList<Condition>();
+        if (!StringUtils.isEmpty(request.namespaceUuid)) {
+            conditions.add(NAMESPACE.PUBLIC_ID.eq(request.namespaceUuid));
+        }
+        if (!StringUtils.isEmpty(request.namespaceName)) {
+            conditions.add(NAMESPACE.NAME.equalIgnoreCase(request.namespaceName));
+        }
+        if (!StringUtils.isEmpty(request.extensionUuid)) {
+            conditions.add(EXTENSION.PUBLIC_ID.eq(request.extensionUuid));
+        }
+        if (!StringUtils.isEmpty(request.extensionName)) {
+            conditions.add(EXTENSION.NAME.equalIgnoreCase(request.extensionName));
+        }
+        if(request.targetPlatform != null) {
+            conditions.add(EXTENSION_VERSION.TARGET_PLATFORM.eq(request.targetPlatform));
+        }
+        if (!StringUtils.isEmpty(request.extensionVersion)) {
+            conditions.add(EXTENSION_VERSION.VERSION.eq(request.extensionVersion));
+        }
+        return conditions;
+    }
 
-        var total = totalQuery.fetchOne(totalCol, Integer.class);
-        return new PageImpl<>(fetch(query), PageRequest.of(request.offset / request.size, request.size), total);
+    /**
+     * Select the rows that come after the given values when sorted by the given fields, e.g.
+     * {@code a > 1 OR (a = 1 AND (b < 2 OR (b = 2 AND ...)))} for {@code a ASC, b DESC}.
+     */
+    @SuppressWarnings("unchecked")
+    private Condition seekAfter(List<Field<?>> fields, List<Boolean> ascending, List<Object> values) {
+        var condition = DSL.falseCondition();
+        for (var i = fields.size() - 1; i >= 0; i--) {
+            var field = (Field<Object>) fields.get(i);
+            var value = values.get(i);
+            var after = ascending.get(i) ? field.gt(value) : field.lt(value);
+            condition = after.or(field.eq(value).and(condition));
+        }
+        return condition;
     }
 
     public ExtensionVersion findActiveByVersionAndExtensionNameAndNamespaceName(String version, String extensionName, String namespaceName) {
@@ -842,6 +928,121 @@ public class ExtensionVersionJooqRepository {
         return query.fetch(record -> toExtensionVersionFull(record, null, new TableFieldMapper(latest)));
     }
 
+    /**
+     * Read the search index data of all active extensions: the latest active version, the target platforms
+     * of the active versions and whether the publisher is verified. The rows are read through a cursor and
+     * passed to the consumer in batches of {@code batchSize} rows.
+     */
+    @Transactional
+    public void findAllActiveSearchRows(int batchSize, Consumer<List<ExtensionSearchRow>> consumer) {
+        var searchRows = new SearchRowQuery(dsl, findLatestQuery(null, false, true));
+        try (var cursor = searchRows.query.fetchSize(batchSize).fetchLazy()) {
+            while (cursor.hasNext()) {
+                consumer.accept(cursor.fetchNext(batchSize).map(searchRows::toSearchRow));
+            }
+        }
+    }
+
+    public List<ExtensionSearchRow> findActiveSearchRows(Collection<Long> extensionIds) {
+        var searchRows = new SearchRowQuery(dsl, findLatestQuery(null, false, true));
+        searchRows.query.addConditions(EXTENSION.ID.in(extensionIds));
+        return searchRows.query.fetch(searchRows::toSearchRow);
+    }
+
+    private static class SearchRowQuery {
+        final SelectQuery<Record> query;
+        final Table<Record> latest;
+        final Field<String[]> targetPlatforms;
+        final Field<Boolean> verified;
+        final ListOfStringConverter converter = new ListOfStringConverter();
+
+        SearchRowQuery(DSLContext dsl, SelectQuery<Record> latestQuery) {
+            latestQuery.addSelect(
+                    EXTENSION_VERSION.TIMESTAMP,
+                    EXTENSION_VERSION.DISPLAY_NAME,
+                    EXTENSION_VERSION.DESCRIPTION,
+                    EXTENSION_VERSION.CATEGORIES,
+                    EXTENSION_VERSION.TAGS,
+                    EXTENSION_VERSION.PUBLISHED_WITH_ID
+            );
+            latestQuery.addConditions(EXTENSION_VERSION.EXTENSION_ID.eq(EXTENSION.ID));
+            latest = latestQuery.asTable();
+
+            var tp = EXTENSION_VERSION.as("tp");
+            targetPlatforms = DSL.field(
+                    DSL.select(DSL.arrayAggDistinct(tp.TARGET_PLATFORM))
+                            .from(tp)
+                            .where(tp.EXTENSION_ID.eq(EXTENSION.ID))
+                            .and(tp.ACTIVE.eq(true))
+            );
+
+            var nm = NAMESPACE_MEMBERSHIP.as("nm");
+            var onm = NAMESPACE_MEMBERSHIP.as("onm");
+            verified = DSL.field(DSL.exists(
+                    DSL.selectOne()
+                            .from(nm)
+                            .join(onm).on(onm.NAMESPACE.eq(nm.NAMESPACE))
+                            .where(onm.NAMESPACE.eq(NAMESPACE.ID))
+                            .and(onm.ROLE.eq(NamespaceMembership.ROLE_OWNER))
+                            .and(nm.USER_DATA.eq(PERSONAL_ACCESS_TOKEN.USER_DATA))
+            ));
+
+            query = dsl.selectQuery();
+            query.addSelect(
+                    NAMESPACE.ID,
+                    NAMESPACE.NAME,
+                    EXTENSION.ID,
+                    EXTENSION.NAME,
+                    EXTENSION.AVERAGE_RATING,
+                    EXTENSION.REVIEW_COUNT,
+                    EXTENSION.DOWNLOAD_COUNT,
+                    latest.field(EXTENSION_VERSION.TIMESTAMP),
+                    latest.field(EXTENSION_VERSION.DISPLAY_NAME),
+                    latest.field(EXTENSION_VERSION.DESCRIPTION),
+                    latest.field(EXTENSION_VERSION.CATEGORIES),
+                    latest.field(EXTENSION_VERSION.TAGS),
+                    targetPlatforms,
+                    verified
+            );
+            query.addFrom(NAMESPACE);
+            query.addJoin(EXTENSION, EXTENSION.NAMESPACE_ID.eq(NAMESPACE.ID));
+            query.addJoin(latest, JoinType.CROSS_APPLY, DSL.condition(true));
+            query.addJoin(PERSONAL_ACCESS_TOKEN, JoinType.LEFT_OUTER_JOIN, PERSONAL_ACCESS_TOKEN.ID.eq(latest.field(EXTENSION_VERSION.PUBLISHED_WITH_ID)));
+            query.addConditions(EXTENSION.ACTIVE.eq(true));
+        }
+
+        ExtensionSearchRow toSearchRow(Record record) {
+            var namespace = new Namespace();
+            namespace.setId(record.get(NAMESPACE.ID));
+            namespace.setName(record.get(NAMESPACE.NAME));
+
+            var extension = new Extension();
+            extension.setId(record.get(EXTENSION.ID));
+            extension.setName(record.get(EXTENSION.NAME));
+            extension.setAverageRating(record.get(EXTENSION.AVERAGE_RATING));
+            extension.setReviewCount(record.get(EXTENSION.REVIEW_COUNT));
+            extension.setDownloadCount(record.get(EXTENSION.DOWNLOAD_COUNT));
+            extension.setActive(true);
+            extension.setNamespace(namespace);
+
+            var extVersion = new ExtensionVersion();
+            extVersion.setTimestamp(record.get(latest.field(EXTENSION_VERSION.TIMESTAMP)));
+            extVersion.setDisplayName(record.get(latest.field(EXTENSION_VERSION.DISPLAY_NAME)));
+            extVersion.setDescription(record.get(latest.field(EXTENSION_VERSION.DESCRIPTION)));
+            extVersion.setCategories(converter.convertToEntityAttribute(record.get(latest.field(EXTENSION_VERSION.CATEGORIES))));
+            extVersion.setTags(converter.convertToEntityAttribute(record.get(latest.field(EXTENSION_VERSION.TAGS))));
+            extVersion.setExtension(extension);
+
+            var platforms = record.get(targetPlatforms);
+            return new ExtensionSearchRow(
+                    extension,
+                    extVersion,
+                    platforms != null ? Arrays.asList(platforms) : Collections.emptyList(),
+                    record.get(verified)
+            );
+        }
+    }
+
     public List<ExtensionVersion> findLatest(Namespace namespace) {
         var latestQuery = findLatestQuery(null, false, true);
         latestQuery.addSelect(
@@ -18,6 +18,8 @@ import org.eclipse.openvsx.util.VersionAlias;
 import org.jooq.DSLContext;
 import org.jooq.Record;
 import org.jooq.SelectQuery;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
 import org.springframework.stereotype.Component;
 
 import java.util.Collection;
@@ -64,8 +66,7 @@ public class FileResourceJooqRepository {
                     FILE_RESOURCE.EXTENSION_ID,
                     FILE_RESOURCE.NAME,
                     FILE_RESOURCE.TYPE,
-                    FILE_RESOURCE.STORAGE_TYPE,
-                    FILE_RESOURCE.CONTENT
+                    FILE_RESOURCE.STORAGE_TYPE
                 )
                 .from(FILE_RESOURCE)
                 .where(FILE_RESOURCE.TYPE.eq(FileResource.RESOURCE))
@@ -75,12 +76,30 @@ public class FileResourceJooqRepository {
                 .map(record -> {
                     var fileResource = toFileResource(record);
                     fileResource.setStorageType(record.get(FILE_RESOURCE.STORAGE_TYPE));
-                    fileResource.setContent(record.get(FILE_RESOURCE.CONTENT));
 
                     return fileResource;
                 });
     }
 
+    public Long findContentLength(long id) {
+        return dsl.select(DSL.octetLength(FILE_RESOURCE.CONTENT))
+                .from(FILE_RESOURCE)
+                .where(FILE_RESOURCE.ID.eq(id))
+                .fetchOne(record -> record.value1() != null ? record.value1().longValue() : null);
+    }
+
+    /**
+     * Read {@code length} bytes of the content column starting at the zero-based {@code offset},
+     * without loading the whole content into memory.
+     */
+    public byte[] findContent(long id, long offset, int length) {
+        var chunk = DSL.field("substring({0} from {1} for {2})", SQLDataType.BLOB, FILE_RESOURCE.CONTENT, DSL.val(offset + 1), DSL.val(length));
+        return dsl.select(chunk)
+                .from(FILE_RESOURCE)
+                .where(FILE_RESOURCE.ID.eq(id))
+                .fetchOne(chunk);
+    }
+
     private FileResource toFileResource(Record record) {
         var extVersion = new ExtensionVersion();
         extVersion.setId(record.get(FILE_RESOURCE.EXTENSION_ID));
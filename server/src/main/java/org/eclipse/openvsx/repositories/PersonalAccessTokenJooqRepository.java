@@ -11,8 +11,14 @@ package org.eclipse.openvsx.repositories;
 
 import org.eclipse.openvsx.entities.UserData;
 import org.jooq.DSLContext;
+import org.jooq.Row2;
+import org.jooq.impl.DSL;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 import static org.eclipse.openvsx.jooq.Tables.PERSONAL_ACCESS_TOKEN;
 import static org.eclipse.openvsx.jooq.Tables.USER_DATA;
 
@@ -42,4 +48,22 @@ public class PersonalAccessTokenJooqRepository {
                         .and(USER_DATA.ROLE.eq(UserData.ROLE_ADMIN))
         );
     }
+
+    public void updateAccessedTimestamps(Map<Long, LocalDateTime> accessedTimestamps) {
+        if(accessedTimestamps.isEmpty()) {
+            return;
+        }
+
+        var token = PERSONAL_ACCESS_TOKEN.as("t");
+        var rows = accessedTimestamps.entrySet().stream()
+                .map(e -> DSL.row(e.getKey(), e.getValue()))
+                .collect(Collectors.toList());
+
+        var updates = DSL.values(rows.toArray(Row2[]::new)).as("u", "id", "accessed_timestamp");
+        dsl.update(token)
+                .set(token.ACCESSED_TIMESTAMP, updates.field("accessed_timestamp", LocalDateTime.class))
+                .from(updates)
+                .where(updates.field("id", Long.class).eq(token.ID))
+                .execute();
+    }
 }
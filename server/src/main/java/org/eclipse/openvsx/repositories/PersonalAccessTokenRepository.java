@@ -11,9 +11,13 @@ package org.eclipse.openvsx.repositories;
 
 import org.eclipse.openvsx.entities.PersonalAccessToken;
 import org.eclipse.openvsx.entities.UserData;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.repository.Repository;
 import org.springframework.data.util.Streamable;
 
+import static org.eclipse.openvsx.cache.CacheService.CACHE_ACCESS_TOKEN;
+import static org.eclipse.openvsx.cache.CacheService.GENERATOR_ACCESS_TOKEN;
+
 public interface PersonalAccessTokenRepository extends Repository<PersonalAccessToken, Long> {
 
     Streamable<PersonalAccessToken> findAll();
@@ -26,6 +30,7 @@ public interface PersonalAccessTokenRepository extends Repository<PersonalAccess
 
     PersonalAccessToken findById(long id);
 
+    @Cacheable(value = CACHE_ACCESS_TOKEN, keyGenerator = GENERATOR_ACCESS_TOKEN, unless = "#result == null || !#result.active")
     PersonalAccessToken findByValue(String value);
 
     PersonalAccessToken findByUserAndDescriptionAndActiveTrue(UserData user, String description);
@@ -0,0 +1,92 @@
+/** ******************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * ****************************************************************************** */
+package org.eclipse.openvsx.repositories;
+
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.openvsx.entities.ExtensionVersion;
+import org.eclipse.openvsx.util.ErrorResultException;
+import org.eclipse.openvsx.util.TargetPlatform;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Sort key of the last extension version of a query result page. It is passed to the
+ * client as an opaque token, which continues the query after that version.
+ */
+public record QueryCursor(
+        long extensionId,
+        String targetPlatform,
+        int major,
+        int minor,
+        int patch,
+        boolean preRelease,
+        long id
+) {
+
+    public static QueryCursor of(ExtensionVersion extVersion) {
+        var semver = extVersion.getSemanticVersion();
+        return new QueryCursor(
+                extVersion.getExtension().getId(),
+                extVersion.getTargetPlatform(),
+                semver.getMajor(),
+                semver.getMinor(),
+                semver.getPatch(),
+                semver.isIsPreRelease(),
+                extVersion.getId()
+        );
+    }
+
+    /**
+     * @return the decoded cursor, or {@code null} if the token is empty
+     */
+    public static QueryCursor parse(String token) {
+        if (StringUtils.isEmpty(token)) {
+            return null;
+        }
+
+        try {
+            var parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+            if (parts.length != 7 || !TargetPlatform.isValid(parts[1])) {
+                throw new IllegalArgumentException();
+            }
+
+            return new QueryCursor(
+                    Long.parseLong(parts[0]),
+                    parts[1],
+                    Integer.parseInt(parts[2]),
+                    Integer.parseInt(parts[3]),
+                    Integer.parseInt(parts[4]),
+                    Boolean.parseBoolean(parts[5]),
+                    Long.parseLong(parts[6])
+            );
+        } catch (IllegalArgumentException exc) {
+            throw new ErrorResultException("Invalid cursor: " + token);
+        }
+    }
+
+    public boolean isUniversalTargetPlatform() {
+        return TargetPlatform.isUniversal(targetPlatform);
+    }
+
+    @Override
+    public String toString() {
+        var key = String.join(":",
+                Long.toString(extensionId),
+                targetPlatform,
+                Integer.toString(major),
+                Integer.toString(minor),
+                Integer.toString(patch),
+                Boolean.toString(preRelease),
+                Long.toString(id)
+        );
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -14,9 +14,11 @@ import io.micrometer.observation.ObservationRegistry;
 import org.eclipse.openvsx.entities.*;
 import org.eclipse.openvsx.json.QueryRequest;
 import org.eclipse.openvsx.json.VersionTargetPlatformsJson;
+import org.eclipse.openvsx.search.ExtensionSearchRow;
 import org.eclipse.openvsx.util.NamingUtil;
 import org.eclipse.openvsx.web.SitemapRow;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -27,6 +29,7 @@ import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import static org.eclipse.openvsx.entities.FileResource.*;
 
@@ -63,6 +66,8 @@ public class RepositoryService {
     private final MigrationItemRepository migrationItemRepo;
     private final SignatureKeyPairRepository signatureKeyPairRepo;
     private final SignatureKeyPairJooqRepository signatureKeyPairJooqRepo;
+    private final ChangeLogEntryRepository changeLogRepo;
+    private final DataMirrorCursorRepository dataMirrorCursorRepo;
 
     public RepositoryService(
             ObservationRegistry observations,
@@ -87,7 +92,9 @@ public class RepositoryService {
             AdminStatisticCalculationsRepository adminStatisticCalculationsRepo,
             MigrationItemRepository migrationItemRepo,
             SignatureKeyPairRepository signatureKeyPairRepo,
-            SignatureKeyPairJooqRepository signatureKeyPairJooqRepo
+            SignatureKeyPairJooqRepository signatureKeyPairJooqRepo,
+            ChangeLogEntryRepository changeLogRepo,
+            DataMirrorCursorRepository dataMirrorCursorRepo
     ) {
         this.observations = observations;
         this.namespaceRepo = namespaceRepo;
@@ -112,6 +119,8 @@ public class RepositoryService {
         this.migrationItemRepo = migrationItemRepo;
         this.signatureKeyPairRepo = signatureKeyPairRepo;
         this.signatureKeyPairJooqRepo = signatureKeyPairJooqRepo;
+        this.changeLogRepo = changeLogRepo;
+        this.dataMirrorCursorRepo = dataMirrorCursorRepo;
     }
 
     public Namespace findNamespace(String name) {
@@ -164,6 +173,14 @@ public class RepositoryService {
         return extensionRepo.findByActiveTrue();
     }
 
+    public void findAllActiveExtensionSearchRows(int batchSize, Consumer<List<ExtensionSearchRow>> consumer) {
+        extensionVersionJooqRepo.findAllActiveSearchRows(batchSize, consumer);
+    }
+
+    public List<ExtensionSearchRow> findActiveExtensionSearchRows(Collection<Long> extensionIds) {
+        return extensionVersionJooqRepo.findActiveSearchRows(extensionIds);
+    }
+
     public Streamable<Extension> findAllNotMatchingByExtensionId(List<String> extensionIds) {
         return extensionRepo.findAllNotMatchingByExtensionId(extensionIds);
     }
@@ -310,6 +327,10 @@ public class RepositoryService {
         return extensionReviewRepo.countByExtensionAndActiveTrue(extension);
     }
 
+    public long countActiveReviews() {
+        return extensionReviewRepo.countByActiveTrue();
+    }
+
     public UserData findUserByLoginName(String provider, String loginName) {
         return userDataRepo.findByProviderAndLoginName(provider, loginName);
     }
@@ -374,6 +395,10 @@ public class RepositoryService {
         return Observation.createNotStarted("RepositoryService#findAccessToken", observations).observe(() -> tokenRepo.findByValue(value));
     }
 
+    public void updateAccessTokenTimestamps(Map<Long, LocalDateTime> accessedTimestamps) {
+        tokenJooqRepo.updateAccessedTimestamps(accessedTimestamps);
+    }
+
     public boolean isAdminToken(String value) {
         return tokenJooqRepo.isAdminToken(value);
     }
@@ -390,6 +415,26 @@ public class RepositoryService {
         return persistedLogRepo.findByTimestampAfterOrderByTimestampAsc(dateTime);
     }
 
+    public List<ChangeLogEntry> findChanges(long after, LocalDateTime before, int size) {
+        return changeLogRepo.findByIdGreaterThanAndTimestampBeforeOrderById(after, before, Pageable.ofSize(size));
+    }
+
+    public Long findLatestChangeId(LocalDateTime before) {
+        return changeLogRepo.findMaxIdByTimestampBefore(before);
+    }
+
+    public Long findOldestChangeId() {
+        return changeLogRepo.findMinId();
+    }
+
+    public int deleteChangesBefore(LocalDateTime timestamp) {
+        return changeLogRepo.deleteByTimestampBeforeExceptLatest(timestamp);
+    }
+
+    public DataMirrorCursor findDataMirrorCursor(String url) {
+        return dataMirrorCursorRepo.findByUrl(url);
+    }
+
     public List<String> findAllSucceededAzureDownloadCountProcessedItemsByNameIn(List<String> names) {
 //        return Observation.createNotStarted("RepositoryService#findAllSucceededAzureDownloadCountProcessedItemsByNameIn", observations).observe(() -> {
             return downloadCountRepo.findAllSucceededAzureDownloadCountProcessedItemsByNameIn(names);
@@ -404,12 +449,26 @@ public class RepositoryService {
         return extensionJooqRepo.findActiveByNameIgnoreCaseAndNamespaceNameIgnoreCase(name, namespaceName);
     }
 
+    public List<Extension> findActiveExtensionsByName(Collection<String[]> extensionIds) {
+        return extensionJooqRepo.findAllActiveByNameIgnoreCaseAndNamespaceNameIgnoreCase(extensionIds);
+    }
+
     public List<Extension> findActiveExtensionsById(Collection<Long> ids) {
         return extensionJooqRepo.findAllActiveById(ids);
     }
 
     public Page<ExtensionVersion> findActiveVersions(QueryRequest request) {
-        return extensionVersionJooqRepo.findActiveVersions(request);
+        var versions = extensionVersionJooqRepo.findActiveVersions(request);
+        var total = extensionVersionJooqRepo.countActiveVersions(request);
+        return new PageImpl<>(versions, PageRequest.of(request.offset / request.size, request.size), total);
+    }
+
+    public List<ExtensionVersion> findActiveVersions(QueryRequest request, QueryCursor after) {
+        return extensionVersionJooqRepo.findActiveVersions(request, after);
+    }
+
+    public int countActiveVersions(QueryRequest request) {
+        return extensionVersionJooqRepo.countActiveVersions(request);
     }
 
     public List<ExtensionVersion> findActiveExtensionVersions(Collection<Long> extensionIds, String targetPlatform) {
@@ -428,6 +487,14 @@ public class RepositoryService {
         return fileResourceJooqRepo.findAllResources(extVersionId, prefix);
     }
 
+    public Long findFileContentLength(long fileResourceId) {
+        return fileResourceJooqRepo.findContentLength(fileResourceId);
+    }
+
+    public byte[] findFileContent(long fileResourceId, long offset, int length) {
+        return fileResourceJooqRepo.findContent(fileResourceId, offset, length);
+    }
+
     public List<NamespaceMembership> findNamespaceMemberships(Collection<Long> namespaceIds) {
         return membershipJooqRepo.findAllByNamespaceId(namespaceIds);
     }
@@ -581,6 +648,10 @@ public class RepositoryService {
         extensionJooqRepo.updatePublicIds(publicIds);
     }
 
+    public void increaseDownloadCounts(Map<Long, Integer> extensionDownloads) {
+        extensionJooqRepo.increaseDownloadCounts(extensionDownloads);
+    }
+
     public void updateNamespacePublicIds(Map<Long, String> publicIds) {
         namespaceJooqRepo.updatePublicIds(publicIds);
     }
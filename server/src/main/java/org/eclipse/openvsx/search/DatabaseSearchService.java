@@ -11,10 +11,10 @@
 package org.eclipse.openvsx.search;
 
 import jakarta.transaction.Transactional;
+import org.eclipse.openvsx.cache.CacheInvalidationBus;
+import org.eclipse.openvsx.cache.CacheService;
 import org.eclipse.openvsx.entities.Extension;
 import org.eclipse.openvsx.repositories.RepositoryService;
-import org.eclipse.openvsx.search.RelevanceService.SearchStats;
-import org.eclipse.openvsx.util.TargetPlatform;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
@@ -23,30 +23,53 @@ import org.springframework.data.elasticsearch.core.SearchHits;
 import org.springframework.data.elasticsearch.core.SearchHitsImpl;
 import org.springframework.data.elasticsearch.core.TotalHitsRelation;
 import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import static org.eclipse.openvsx.cache.CacheService.CACHE_AVERAGE_REVIEW_RATING;
 import static org.eclipse.openvsx.cache.CacheService.CACHE_DATABASE_SEARCH;
 
 /**
- * Alternative to ElasticSearch service using database search.
+ * Alternative to ElasticSearch service using database search. The active extensions
+ * are loaded once into an in-memory inverted index, which is queried instead of the database.
  */
 @Component
 public class DatabaseSearchService implements ISearchService {
 
+    private static final int MAX_TRACKED_SEARCHES = 10_000;
+    private static final int INDEX_BATCH_SIZE = 1000;
+    private static final Set<String> RANKED_SORT_FIELDS = Set.of("relevance", "downloadCount");
+    private static final String INVALIDATION_TOPIC = "database.search.index";
+
     private final RelevanceService relevanceService;
     private final RepositoryService repositories;
+    private final CacheService cache;
+    private final CacheInvalidationBus invalidations;
+    private final InMemorySearchIndex index = new InMemorySearchIndex();
+
+    /** Options of the search results that are possibly held in the {@code database.search} cache. */
+    private final Set<Options> cachedSearches = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean rankingChanged = new AtomicBoolean();
 
     @Value("${ovsx.databasesearch.enabled:false}")
     boolean enableSearch;
 
-    public DatabaseSearchService(RelevanceService relevanceService, RepositoryService repositories) {
+    public DatabaseSearchService(
+            RelevanceService relevanceService,
+            RepositoryService repositories,
+            CacheService cache,
+            CacheInvalidationBus invalidations
+    ) {
         this.relevanceService = relevanceService;
         this.repositories = repositories;
+        this.cache = cache;
+        this.invalidations = invalidations;
+        invalidations.subscribe(INVALIDATION_TOPIC, this::applyInvalidation);
     }
 
     public boolean isEnabled() {
@@ -57,82 +80,20 @@ public class DatabaseSearchService implements ISearchService {
     @Cacheable(CACHE_DATABASE_SEARCH)
     @CacheEvict(value = CACHE_AVERAGE_REVIEW_RATING, allEntries = true)
     public SearchHits<ExtensionSearch> search(ISearchService.Options options) {
-        // grab all extensions
-        var matchingExtensions = repositories.findAllActiveExtensions();
-
-        // no extensions in the database
-        if (matchingExtensions.isEmpty()) {
-            return new SearchHitsImpl<>(0,TotalHitsRelation.OFF, 0f, null, null, Collections.emptyList(), null, null);
-        }
-
-        // exlude namespaces
-        if(options.namespacesToExclude != null) {
-            for(var namespaceToExclude : options.namespacesToExclude) {
-                matchingExtensions = matchingExtensions.filter(extension -> !extension.getNamespace().getName().equals(namespaceToExclude));
-            }
-        }
-
-        // filter target platform
-        if(TargetPlatform.isValid(options.targetPlatform)) {
-            matchingExtensions = matchingExtensions.filter(extension -> extension.getVersions().stream().anyMatch(ev -> ev.getTargetPlatform().equals(options.targetPlatform)));
-        }
-
-        // filter category
-        if (options.category != null) {
-            matchingExtensions = matchingExtensions.filter(extension -> {
-                var latest = repositories.findLatestVersion(extension, null, false, true);
-                return latest.getCategories().stream().anyMatch(category -> category.equalsIgnoreCase(options.category));
-            });
-        }
-
-        // filter text
-        if (options.queryString != null) {
-            matchingExtensions = matchingExtensions.filter(extension -> {
-                var latest = repositories.findLatestVersion(extension, null, false, true);
-                return extension.getName().toLowerCase().contains(options.queryString.toLowerCase())
-                    || extension.getNamespace().getName().contains(options.queryString.toLowerCase())
-                    || (latest.getDescription() != null && latest.getDescription()
-                        .toLowerCase().contains(options.queryString.toLowerCase()))
-                    || (latest.getDisplayName() != null && latest.getDisplayName()
-                        .toLowerCase().contains(options.queryString.toLowerCase()));
-            });
-        }
-
-        // need to perform the sortBy ()
-        // 'relevance' | 'timestamp' | 'rating' | 'downloadCount';
-
-        Stream<ExtensionSearch> searchEntries;
-        if("relevance".equals(options.sortBy) || "rating".equals(options.sortBy)) {
-            var searchStats = new SearchStats(repositories);
-            searchEntries = matchingExtensions.stream().map(extension -> relevanceService.toSearchEntry(extension, searchStats));
-        } else {
-            searchEntries = matchingExtensions.stream().map(extension -> {
-                var latest = repositories.findLatestVersion(extension, null, false, true);
-                var targetPlatforms = repositories.findExtensionTargetPlatforms(extension);
-                return extension.toSearch(latest, targetPlatforms);
-            });
+        if (!index.isInitialized()) {
+            buildIndex(false);
         }
-
-        var comparators = new HashMap<>(Map.of(
-                "relevance", new RelevanceComparator(),
-                "timestamp", new TimestampComparator(),
-                "rating", new RatingComparator(),
-                "downloadCount", new DownloadedCountComparator()
-        ));
-
-        var comparator = comparators.get(options.sortBy);
-        if(comparator != null) {
-            searchEntries = searchEntries.sorted(comparator);
+        if (cachedSearches.size() >= MAX_TRACKED_SEARCHES) {
+            // keys of expired cache entries are not tracked, start over
+            cachedSearches.clear();
+            cache.evictDatabaseSearch();
         }
+        cachedSearches.add(options);
 
-        var sortedExtensions = searchEntries.collect(Collectors.toList());
-
-        // need to do sortOrder
-        // 'asc' | 'desc';
-        if ("desc".equals(options.sortOrder)) {
-            // reverse the order
-            Collections.reverse(sortedExtensions);
-        }
+        // filter, match and sort the indexed entries
+        // sortBy: 'relevance' | 'timestamp' | 'rating' | 'downloadCount'
+        // sortOrder: 'asc' | 'desc'
+        var sortedExtensions = index.search(options);
 
         // Paging
         var totalHits = sortedExtensions.size();
@@ -152,95 +113,196 @@ public class DatabaseSearchService implements ISearchService {
     }
 
     /**
-     * Clear the cache when asked to update the search index. It could be done also
-     * through a cron job as well
+     * Load all active extensions into the in-memory search index. This is the only
+     * operation that scans the whole extension table, the index is kept up-to-date
+     * through the {@code updateSearchEntry} and {@code removeSearchEntry} hooks afterwards.
+     */
+    private synchronized void buildIndex(boolean clear) {
+        if (!clear && index.isInitialized()) {
+            return;
+        }
+
+        relevanceService.refreshSearchStats();
+        var stats = relevanceService.getSearchStats();
+        var searchEntries = new ArrayList<ExtensionSearch>();
+        repositories.findAllActiveExtensionSearchRows(INDEX_BATCH_SIZE, rows -> {
+            for (var row : rows) {
+                searchEntries.add(relevanceService.toSearchEntry(row, stats));
+            }
+        });
+
+        index.replaceAll(searchEntries);
+    }
+
+    /**
+     * Rebuild the in-memory search index and clear the cache when asked to
+     * update the search index. It could be done also through a cron job as well.
+     * In <em>soft</em> mode the index is only built if it has not been built yet.
      */
     @Override
-    @CacheEvict(value = CACHE_DATABASE_SEARCH, allEntries = true)
+    @Transactional
     public void updateSearchIndex(boolean clear) {
+        rebuildIndex(clear);
+        if (clear) {
+            invalidations.publish(INVALIDATION_TOPIC, CacheInvalidationBus.ALL);
+        }
+    }
 
+    private void rebuildIndex(boolean clear) {
+        buildIndex(clear);
+        cachedSearches.clear();
+        rankingChanged.set(false);
+        cache.evictDatabaseSearch();
     }
 
     @Override
     @Async
-    @CacheEvict(value = CACHE_DATABASE_SEARCH, allEntries = true)
     public void updateSearchEntriesAsync(List<Extension> extensions) {
-
+        updateIndexEntries(extensions);
     }
 
     @Override
-    @CacheEvict(value = CACHE_DATABASE_SEARCH, allEntries = true)
     public void updateSearchEntries(List<Extension> extensions) {
-
+        updateIndexEntries(extensions);
     }
 
     @Override
-    @CacheEvict(value = CACHE_DATABASE_SEARCH, allEntries = true)
     public void updateSearchEntry(Extension extension) {
-
+        updateIndexEntries(List.of(extension));
     }
 
     @Override
-    @CacheEvict(value = CACHE_DATABASE_SEARCH, allEntries = true)
     public void removeSearchEntries(Collection<Long> ids) {
+        publishInvalidations(ids);
+        removeIndexEntries(ids);
+    }
 
+    private void removeIndexEntries(Collection<Long> ids) {
+        if (index.isInitialized()) {
+            index.remove(ids).forEach(removed -> evictSearchResults(removed, null));
+        }
     }
 
     @Override
-    @CacheEvict(value = CACHE_DATABASE_SEARCH, allEntries = true)
     public void removeSearchEntry(Extension extension) {
+        removeSearchEntries(List.of(extension.getId()));
+    }
 
+    private void updateIndexEntries(List<Extension> extensions) {
+        publishInvalidations(extensions.stream().map(Extension::getId).collect(Collectors.toList()));
+        updateLocalIndexEntries(extensions);
     }
 
-    /**
-     * Sort by download count
-     */
-    class DownloadedCountComparator implements Comparator<ExtensionSearch> {
+    private void updateLocalIndexEntries(List<Extension> extensions) {
+        relevanceService.updateDownloadCounts(extensions);
+        if (!index.isInitialized()) {
+            // the index is built from scratch on the first search, nothing is cached yet
+            return;
+        }
 
-        @Override
-        public int compare(ExtensionSearch ext1, ExtensionSearch ext2) {
-            // download count
-            return Integer.compare(ext1.downloadCount, ext2.downloadCount);
+        var stats = relevanceService.getSearchStats();
+        for (var extension : extensions) {
+            if (extension.isActive()) {
+                var entry = relevanceService.toSearchEntry(extension, stats);
+                var previous = index.put(entry);
+                evictSearchResults(previous, entry);
+            } else {
+                removeIndexEntries(List.of(extension.getId()));
+            }
+        }
+    }
+
+    private void publishInvalidations(Collection<Long> ids) {
+        if (isEnabled()) {
+            ids.forEach(id -> invalidations.publish(INVALIDATION_TOPIC, Long.toString(id)));
         }
     }
 
     /**
-     * Sort by averageRating
+     * Apply a change of the search index on another node: the index entry of the given
+     * extension id is read from the database again, or the whole index is rebuilt.
      */
-    class RatingComparator implements Comparator<ExtensionSearch> {
-
-        @Override
-        public int compare(ExtensionSearch ext1, ExtensionSearch ext2) {
-            if (ext1.rating == null) {
-                return -1;
-            } else if (ext2.rating == null) {
-                return 1;
-            }
-            // rating
-            return Double.compare(ext1.rating, ext2.rating);
+    private void applyInvalidation(String argument) {
+        if (!index.isInitialized()) {
+            // the index is built from scratch on the first search, nothing is cached yet
+            return;
+        }
+        if (CacheInvalidationBus.ALL.equals(argument)) {
+            rebuildIndex(true);
+            return;
+        }
+
+        var id = Long.parseLong(argument);
+        var extensions = repositories.findExtensions(List.of(id)).toList();
+        if (extensions.isEmpty()) {
+            removeIndexEntries(List.of(id));
+        } else {
+            updateLocalIndexEntries(extensions);
         }
     }
 
     /**
-     * Sort by timestamp
+     * Evict the cached search results that are affected by the change of an index entry.
+     * A change of the download count only affects the order of search results sorted by
+     * download count or relevance. Such results are evicted periodically by
+     * {@link #evictRankedSearchResults()}, so download traffic doesn't empty the cache.
      */
-    class TimestampComparator implements Comparator<ExtensionSearch> {
-
-        @Override
-        public int compare(ExtensionSearch ext1, ExtensionSearch ext2) {
-            // timestamp
-            return Long.compare(ext1.timestamp, ext2.timestamp);
+    private void evictSearchResults(ExtensionSearch previous, ExtensionSearch entry) {
+        if (previous != null && entry != null && isRankingChange(previous, entry)) {
+            rankingChanged.set(true);
+            return;
         }
+
+        var affected = cachedSearches.stream()
+                .filter(options -> (previous != null && index.matches(options, previous))
+                        || (entry != null && index.matches(options, entry)))
+                .collect(Collectors.toList());
+        evictSearchResults(affected);
+    }
+
+    private boolean isRankingChange(ExtensionSearch previous, ExtensionSearch entry) {
+        return copyWithoutRanking(previous).equals(copyWithoutRanking(entry));
+    }
+
+    private ExtensionSearch copyWithoutRanking(ExtensionSearch entry) {
+        var copy = new ExtensionSearch();
+        copy.id = entry.id;
+        copy.name = entry.name;
+        copy.namespace = entry.namespace;
+        copy.extensionId = entry.extensionId;
+        copy.targetPlatforms = entry.targetPlatforms;
+        copy.displayName = entry.displayName;
+        copy.description = entry.description;
+        copy.timestamp = entry.timestamp;
+        copy.rating = entry.rating;
+        copy.categories = entry.categories;
+        copy.tags = entry.tags;
+        return copy;
     }
 
     /**
-     * Sort by relevance
+     * Evict cached search results sorted by download count or relevance if the download
+     * count of any extension has changed since the last run. This bounds the staleness of
+     * their order to {@code ovsx.databasesearch.ranking-refresh-delay} milliseconds.
      */
-    class RelevanceComparator implements Comparator<ExtensionSearch> {
+    @Scheduled(fixedDelayString = "${ovsx.databasesearch.ranking-refresh-delay:60000}")
+    public void evictRankedSearchResults() {
+        if (!rankingChanged.getAndSet(false)) {
+            return;
+        }
 
-        @Override
-        public int compare(ExtensionSearch ext1, ExtensionSearch ext2) {
-            return Double.compare(ext1.relevance, ext2.relevance);
+        var affected = cachedSearches.stream()
+                .filter(options -> RANKED_SORT_FIELDS.contains(options.sortBy))
+                .collect(Collectors.toList());
+        evictSearchResults(affected);
+    }
+
+    private void evictSearchResults(List<Options> affected) {
+        if (affected.isEmpty()) {
+            return;
         }
+
+        affected.forEach(cachedSearches::remove);
+        cache.evictDatabaseSearch(affected);
     }
 }
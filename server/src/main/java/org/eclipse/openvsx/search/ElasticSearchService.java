@@ -14,11 +14,14 @@ import co.elastic.clients.elasticsearch._types.mapping.FieldType;
 import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
 import co.elastic.clients.elasticsearch._types.query_dsl.QueryBuilders;
 import co.elastic.clients.util.ObjectBuilder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PreDestroy;
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.openvsx.entities.Extension;
 import org.eclipse.openvsx.migration.HandlerJobRequest;
 import org.eclipse.openvsx.repositories.RepositoryService;
-import org.eclipse.openvsx.search.RelevanceService.SearchStats;
 import org.eclipse.openvsx.util.ErrorResultException;
 import org.eclipse.openvsx.util.TargetPlatform;
 import org.jobrunr.scheduling.JobRequestScheduler;
@@ -34,14 +37,26 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder;
 import org.springframework.data.elasticsearch.core.*;
+import org.springframework.data.elasticsearch.core.index.AliasAction;
+import org.springframework.data.elasticsearch.core.index.AliasActionParameters;
+import org.springframework.data.elasticsearch.core.index.AliasActions;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
 import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.data.elasticsearch.core.query.Query;
 import org.springframework.retry.annotation.Retryable;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.StopWatch;
 
+import java.time.Clock;
 import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
@@ -63,6 +78,8 @@ public class ElasticSearchService implements ISearchService {
     boolean enableSearch;
     @Value("${ovsx.elasticsearch.clear-on-start:false}")
     boolean clearOnStart;
+    @Value("${ovsx.elasticsearch.index-batch-size:1000}")
+    int indexBatchSize;
 
     @Value("${ovsx.elasticsearch.relevance.rating:1.0}")
     double ratingRelevance;
@@ -74,17 +91,32 @@ public class ElasticSearchService implements ISearchService {
     double unverifiedRelevance;
 
     private Long maxResultWindow;
+    /** The index that is being built by {@link #reindex()}, it receives the updates of the live index. */
+    private volatile IndexCoordinates reindexTarget;
+    /** Extensions whose search entries have been written to {@link #reindexTarget}. */
+    private final Set<Long> reindexTargetChanges = ConcurrentHashMap.newKeySet();
+    /** Held while queued search entries are flushed, so flushes are applied in order. */
+    private final Object flushLock = new Object();
+    /** Extensions whose search entries are written by the next {@link #flushSearchEntries()}. */
+    private final SearchIndexQueue queue = new SearchIndexQueue(Clock.systemUTC());
 
     public ElasticSearchService(
             RepositoryService repositories,
             ElasticsearchOperations searchOperations,
             RelevanceService relevanceService,
-            JobRequestScheduler scheduler
+            JobRequestScheduler scheduler,
+            MeterRegistry registry
     ) {
         this.repositories = repositories;
         this.searchOperations = searchOperations;
         this.relevanceService = relevanceService;
         this.scheduler = scheduler;
+        Gauge.builder("ovsx_search_index_queue_size", queue, SearchIndexQueue::size)
+                .description("Number of extensions waiting for their search entry to be updated")
+                .register(registry);
+        TimeGauge.builder("ovsx_search_index_queue_lag", queue, TimeUnit.MILLISECONDS, SearchIndexQueue::getLag)
+                .description("Time the oldest extension in the search index queue has been waiting")
+                .register(registry);
     }
     
     public boolean isEnabled() {
@@ -132,126 +164,264 @@ public class ElasticSearchService implements ISearchService {
 
     /**
      * Updating the search index has two modes:
-     * <em>soft</em> ({@code clear} is set to {@code false}) means the index is created
-     * if it does not exist yet, and
-     * <em>hard</em> ({@code clear} is set to {@code true}) means the index is deleted
-     * and then recreated.
+     * <em>soft</em> ({@code clear} is set to {@code false}) means the documents of the
+     * existing index are updated in place, and
+     * <em>hard</em> ({@code clear} is set to {@code true}) means a new index is built
+     * and replaces the current one, see {@link #reindex()}. The soft mode also builds
+     * a new index if there is none yet.
      * In any case, this method scans all extensions in the database and indexes their
      * relevant metadata.
      */
     @Retryable(DataAccessResourceFailureException.class)
     public void updateSearchIndex(boolean clear) {
-        var locked = false;
+        var indexOps = searchOperations.indexOps(ExtensionSearch.class);
+        if (clear || !indexOps.exists()) {
+            reindex();
+            return;
+        }
+
+        indexAllExtensions(indexOps.getIndexCoordinates(), true);
+    }
+
+    /**
+     * Build a new timestamped index and switch the {@code extensions} alias over to it, while searches are
+     * still served by the current index. Entries updated or removed in the meantime are written to both
+     * indices. The bulk load reads an older state of the database than these writes and may overwrite
+     * them, so the extensions that changed during the bulk load are indexed again once it is done.
+     * The alias is switched in a single atomic request once the new index holds all extensions,
+     * then the old index is deleted. An index that was created under the alias name before aliases were
+     * used is replaced by the alias in the same request.
+     */
+    @Retryable(DataAccessResourceFailureException.class)
+    public synchronized void reindex() {
+        var indexOps = searchOperations.indexOps(ExtensionSearch.class);
+        var alias = indexOps.getIndexCoordinates().getIndexName();
+        var newIndex = IndexCoordinates.of(alias + "-" + System.currentTimeMillis());
+        var newIndexOps = searchOperations.indexOps(newIndex);
+        newIndexOps.create(indexOps.createSettings(ExtensionSearch.class), indexOps.createMapping(ExtensionSearch.class));
+
+        var swapped = false;
         try {
-            var indexOps = searchOperations.indexOps(ExtensionSearch.class);
-            if (clear) {
-                // Hard mode: delete the index if it exists, then recreate it
-                rwLock.writeLock().lock();
-                locked = true;
-                if (indexOps.exists()) {
-                    indexOps.delete();
+            reindexTargetChanges.clear();
+            reindexTarget = newIndex;
+            var expected = indexAllExtensions(newIndex, false);
+            reindexTargetChanges.forEach(queue::add);
+            flushSearchEntries();
+
+            // every changed extension may have been removed
+            expected -= reindexTargetChanges.size();
+            newIndexOps.refresh();
+            var actual = searchOperations.count(Query.findAll(), ExtensionSearch.class, newIndex);
+            if (actual < expected) {
+                throw new IllegalStateException("Index " + newIndex.getIndexName() + " holds " + actual + " of " + expected + " extensions.");
+            }
+
+            Set<String> oldIndices;
+            rwLock.writeLock().lock();
+            try {
+                oldIndices = indexOps.exists() ? indexOps.getAliasesForIndex(alias).keySet() : Collections.emptySet();
+                var actions = new AliasActions(new AliasAction.Add(aliasParameters(newIndex.getIndexName(), alias)));
+                for (var oldIndex : oldIndices) {
+                    actions.add(oldIndex.equals(alias)
+                            ? new AliasAction.RemoveIndex(AliasActionParameters.builder().withIndices(oldIndex).build())
+                            : new AliasAction.Remove(aliasParameters(oldIndex, alias)));
                 }
-                indexOps.create();
-            } else if (!indexOps.exists()) {
-                // Soft mode: the index is created only when it does not exist yet
-                rwLock.writeLock().lock();
-                locked = true;
-                indexOps.create();
+
+                indexOps.alias(actions);
+                swapped = true;
+            } finally {
+                reindexTarget = null;
+                rwLock.writeLock().unlock();
             }
-            
-            // Scan all extensions and create index queries
-            var allExtensions = repositories.findAllActiveExtensions();
-            if (allExtensions.isEmpty()) {
-                return;
+
+            for (var oldIndex : oldIndices) {
+                if (!oldIndex.equals(alias)) {
+                    searchOperations.indexOps(IndexCoordinates.of(oldIndex)).delete();
+                }
             }
-            var stats = new SearchStats(repositories);
-            var indexQueries = allExtensions.map(extension ->
+        } finally {
+            reindexTarget = null;
+            if (!swapped) {
+                newIndexOps.delete();
+            }
+        }
+    }
+
+    private AliasActionParameters aliasParameters(String index, String alias) {
+        return AliasActionParameters.builder().withIndices(index).withAliases(alias).build();
+    }
+
+    /**
+     * Scan all extensions in batches and submit an index query for each batch.
+     * The write lock is held only while a batch is submitted to the live index.
+     *
+     * @return the number of indexed extensions
+     */
+    private long indexAllExtensions(IndexCoordinates index, boolean live) {
+        var count = new AtomicLong();
+        relevanceService.refreshSearchStats();
+        var stats = relevanceService.getSearchStats();
+        repositories.findAllActiveExtensionSearchRows(indexBatchSize, rows -> {
+            var indexQueries = rows.stream().map(row ->
                 new IndexQueryBuilder()
-                    .withObject(relevanceService.toSearchEntry(extension, stats))
+                    .withObject(relevanceService.toSearchEntry(row, stats))
                     .build()
             ).toList();
 
-            if (!locked) {
-                // The write lock has not been acquired upfront, so do it just before submitting the index queries
+            if (live) {
                 rwLock.writeLock().lock();
-                locked = true;
             }
-            searchOperations.bulkIndex(indexQueries, indexOps.getIndexCoordinates());
-        } finally {
-            if (locked) {
-                rwLock.writeLock().unlock();
+            try {
+                searchOperations.bulkIndex(indexQueries, index);
+            } finally {
+                if (live) {
+                    rwLock.writeLock().unlock();
+                }
             }
-        }
+            count.addAndGet(indexQueries.size());
+        });
+        return count.get();
     }
 
-    @Async
-    @Retryable(DataAccessResourceFailureException.class)
     public void updateSearchEntriesAsync(List<Extension> extensions) {
         updateSearchEntries(extensions);
     }
 
-    @Retryable(DataAccessResourceFailureException.class)
+    /**
+     * Queue the search entries of the given extensions for the next {@link #flushSearchEntries() flush}.
+     */
     public void updateSearchEntries(List<Extension> extensions) {
         if (!isEnabled() || extensions.isEmpty()) {
             return;
         }
-        try {
-            rwLock.writeLock().lock();
-            var indexOps = searchOperations.indexOps(ExtensionSearch.class);
-            var stats = new SearchStats(repositories);
-            var indexQueries = extensions.stream().map(extension ->
-                    new IndexQueryBuilder()
-                            .withObject(relevanceService.toSearchEntry(extension, stats))
-                            .build()
-            ).collect(Collectors.toList());
-            searchOperations.bulkIndex(indexQueries, indexOps.getIndexCoordinates());
-        } finally {
-            rwLock.writeLock().unlock();
-        }
+
+        relevanceService.updateDownloadCounts(extensions);
+        var ids = extensions.stream().map(Extension::getId).toList();
+        enqueueAfterCommit(() -> ids.forEach(queue::add));
     }
 
-    @Retryable(DataAccessResourceFailureException.class)
+    /**
+     * Queue the search entry of the given extension for the next {@link #flushSearchEntries() flush}.
+     * An extension that is updated many times before the flush is indexed once.
+     */
     public void updateSearchEntry(Extension extension) {
         if (!isEnabled()) {
             return;
         }
-        try {
-            rwLock.writeLock().lock();
-            var stats = new SearchStats(repositories);
-            var indexQuery = new IndexQueryBuilder()
-                    .withObject(relevanceService.toSearchEntry(extension, stats))
-                    .build();
-            var indexOps = searchOperations.indexOps(ExtensionSearch.class);
-            searchOperations.index(indexQuery, indexOps.getIndexCoordinates());
-        } finally {
-            rwLock.writeLock().unlock();
+
+        relevanceService.updateDownloadCounts(List.of(extension));
+        var id = extension.getId();
+        enqueueAfterCommit(() -> queue.add(id));
+    }
+
+    /**
+     * The flush reads the extensions in a new transaction, so they are queued once the
+     * changes of the surrounding transaction are visible.
+     */
+    private void enqueueAfterCommit(Runnable enqueue) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue.run();
+                }
+            });
+        } else {
+            enqueue.run();
         }
     }
 
-    @Retryable(DataAccessResourceFailureException.class)
-    public void removeSearchEntries(Collection<Long> ids) {
+    /**
+     * Write the search entries of the queued extensions with one bulk request per
+     * {@code ovsx.elasticsearch.index-batch-size} extensions. Queued extensions that are
+     * no longer active are removed from the index. Extensions that could not be indexed
+     * are queued again for the next flush.
+     */
+    @Scheduled(fixedDelayString = "${ovsx.elasticsearch.index-queue.flush-interval:5000}")
+    public void flushSearchEntries() {
         if (!isEnabled()) {
             return;
         }
 
-        var queryBuilder = new NativeQueryBuilder();
-        var query = queryBuilder.withQuery(builder -> builder.ids(idsBuilder -> idsBuilder.values(ids.stream().map(String::valueOf).collect(Collectors.toList())))).build();
-        searchOperations.delete(query, ExtensionSearch.class);
+        synchronized (flushLock) {
+            flushQueue();
+        }
+    }
+
+    private void flushQueue() {
+        Map<Long, Long> batch;
+        while (!(batch = queue.take(indexBatchSize)).isEmpty()) {
+            try {
+                var rows = repositories.findActiveExtensionSearchRows(batch.keySet());
+                var removedIds = new LinkedHashSet<>(batch.keySet());
+                var stats = relevanceService.getSearchStats();
+                var indexQueries = rows.stream().map(row -> {
+                    removedIds.remove(row.extension().getId());
+                    return new IndexQueryBuilder()
+                            .withObject(relevanceService.toSearchEntry(row, stats))
+                            .build();
+                }).collect(Collectors.toList());
+                rwLock.writeLock().lock();
+                try {
+                    var indexOps = searchOperations.indexOps(ExtensionSearch.class);
+                    writeSearchEntries(indexQueries, removedIds, indexOps.getIndexCoordinates());
+                    var target = reindexTarget;
+                    if (target != null) {
+                        writeSearchEntries(indexQueries, removedIds, target);
+                        reindexTargetChanges.addAll(batch.keySet());
+                    }
+                } finally {
+                    rwLock.writeLock().unlock();
+                }
+            } catch (RuntimeException exc) {
+                queue.putBack(batch);
+                logger.error("Failed to update " + batch.size() + " search entries", exc);
+                return;
+            }
+        }
     }
 
+    private void writeSearchEntries(List<IndexQuery> indexQueries, Collection<Long> removedIds, IndexCoordinates index) {
+        if (!indexQueries.isEmpty()) {
+            searchOperations.bulkIndex(indexQueries, index);
+        }
+        if (!removedIds.isEmpty()) {
+            var queryBuilder = new NativeQueryBuilder();
+            var query = queryBuilder.withQuery(builder -> builder.ids(idsBuilder -> idsBuilder.values(removedIds.stream().map(String::valueOf).collect(Collectors.toList())))).build();
+            searchOperations.delete(query, ExtensionSearch.class, index);
+        }
+    }
 
-    @Retryable(DataAccessResourceFailureException.class)
+    @PreDestroy
+    public void stop() {
+        flushSearchEntries();
+    }
+
+    /**
+     * Queue the search entries of the given extensions for the next {@link #flushSearchEntries() flush},
+     * which removes them from the index. Removals go through the same queue as updates, so an update
+     * that has been read before the removal was committed cannot bring the entry back.
+     */
+    public void removeSearchEntries(Collection<Long> ids) {
+        if (!isEnabled() || ids.isEmpty()) {
+            return;
+        }
+
+        var removedIds = List.copyOf(ids);
+        enqueueAfterCommit(() -> removedIds.forEach(queue::add));
+    }
+
+    /**
+     * Queue the search entry of the given extension for the next {@link #flushSearchEntries() flush},
+     * which removes it from the index.
+     */
     public void removeSearchEntry(Extension extension) {
         if (!isEnabled()) {
             return;
         }
-        try {
-            rwLock.writeLock().lock();
-            var indexOps = searchOperations.indexOps(ExtensionSearch.class);
-            searchOperations.delete(Long.toString(extension.getId()), indexOps.getIndexCoordinates());
-        } finally {
-            rwLock.writeLock().unlock();
-        }
+
+        var id = extension.getId();
+        enqueueAfterCommit(() -> queue.add(id));
     }
 
     public SearchHits<ExtensionSearch> search(Options options) {
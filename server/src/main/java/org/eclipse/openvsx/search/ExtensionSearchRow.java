@@ -0,0 +1,20 @@
+/** ******************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * ****************************************************************************** */
+package org.eclipse.openvsx.search;
+
+import org.eclipse.openvsx.entities.Extension;
+import org.eclipse.openvsx.entities.ExtensionVersion;
+
+import java.util.List;
+
+/**
+ * The data needed to create the {@link ExtensionSearch} entry of an extension.
+ */
+public record ExtensionSearchRow(Extension extension, ExtensionVersion latest, List<String> targetPlatforms, boolean verified){}
@@ -0,0 +1,287 @@
+/********************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.openvsx.search;
+
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.openvsx.util.TargetPlatform;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Tokenized inverted index over {@link ExtensionSearch} entries. It is held in memory by
+ * {@link DatabaseSearchService}, so search queries don't need to scan the database.
+ */
+class InMemorySearchIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Map<String, Comparator<IndexEntry>> COMPARATORS = Map.of(
+            "relevance", Comparator.comparingDouble(IndexEntry::relevance),
+            "timestamp", Comparator.comparingLong(IndexEntry::timestamp),
+            "rating", Comparator.comparingDouble(IndexEntry::rating),
+            "downloadCount", Comparator.comparingInt(IndexEntry::downloadCount)
+    );
+
+    private final ReadWriteLock rwLock = new ReentrantReadWriteLock();
+
+    /** Entries by extension id, in insertion order. */
+    private final Map<Long, IndexEntry> entries = new LinkedHashMap<>();
+
+    /** Extension ids by token, sorted by token to support prefix lookups. */
+    private final NavigableMap<String, Set<Long>> postings = new TreeMap<>();
+
+    private volatile boolean initialized;
+
+    boolean isInitialized() {
+        return initialized;
+    }
+
+    int size() {
+        try {
+            rwLock.readLock().lock();
+            return entries.size();
+        } finally {
+            rwLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replace the whole content of the index with the given entries.
+     */
+    void replaceAll(Collection<ExtensionSearch> searchEntries) {
+        try {
+            rwLock.writeLock().lock();
+            entries.clear();
+            postings.clear();
+            searchEntries.forEach(this::doPut);
+            initialized = true;
+        } finally {
+            rwLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add the given entry or replace the existing entry with the same id.
+     * Returns the replaced entry or {@code null} if there was none.
+     */
+    ExtensionSearch put(ExtensionSearch searchEntry) {
+        try {
+            rwLock.writeLock().lock();
+            var previous = doPut(searchEntry);
+            return previous != null ? previous.search() : null;
+        } finally {
+            rwLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove the entries with the given ids. Returns the removed entries.
+     */
+    List<ExtensionSearch> remove(Collection<Long> ids) {
+        try {
+            rwLock.writeLock().lock();
+            var removed = new ArrayList<ExtensionSearch>(ids.size());
+            for (var id : ids) {
+                var entry = doRemove(id);
+                if (entry != null) {
+                    removed.add(entry.search());
+                }
+            }
+            return removed;
+        } finally {
+            rwLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Whether the given entry would be part of the search result for the given options,
+     * regardless of paging.
+     */
+    boolean matches(ISearchService.Options options, ExtensionSearch searchEntry) {
+        var entry = toIndexEntry(searchEntry);
+        var criteria = new Criteria(options);
+        return criteria.test(entry) && criteria.queryTokens().stream()
+                .allMatch(queryToken -> entry.tokens().stream().anyMatch(token -> token.startsWith(queryToken)));
+    }
+
+    /**
+     * Find all entries matching the given options, sorted according to the
+     * {@code sortBy} and {@code sortOrder} options. Paging is left to the caller.
+     */
+    List<ExtensionSearch> search(ISearchService.Options options) {
+        try {
+            rwLock.readLock().lock();
+            var criteria = new Criteria(options);
+            var matches = findCandidates(criteria.queryTokens()).stream()
+                    .filter(criteria::test)
+                    .collect(Collectors.toList());
+
+            var comparator = COMPARATORS.get(options.sortBy);
+            if (comparator != null) {
+                matches.sort(comparator);
+            }
+            if ("desc".equals(options.sortOrder)) {
+                Collections.reverse(matches);
+            }
+
+            return matches.stream().map(IndexEntry::search).collect(Collectors.toList());
+        } finally {
+            rwLock.readLock().unlock();
+        }
+    }
+
+    private Collection<IndexEntry> findCandidates(List<String> queryTokens) {
+        if (queryTokens.isEmpty()) {
+            return entries.values();
+        }
+
+        // Every query token must be a prefix of at least one token of a matching entry
+        Set<Long> matchingIds = null;
+        for (var queryToken : queryTokens) {
+            var tokenIds = new HashSet<Long>();
+            postings.subMap(queryToken, true, queryToken + Character.MAX_VALUE, false)
+                    .values()
+                    .forEach(tokenIds::addAll);
+
+            if (matchingIds == null) {
+                matchingIds = tokenIds;
+            } else {
+                matchingIds.retainAll(tokenIds);
+            }
+            if (matchingIds.isEmpty()) {
+                return Collections.emptyList();
+            }
+        }
+
+        // Keep the insertion order of entries
+        var ids = matchingIds;
+        return entries.values().stream()
+                .filter(entry -> ids.contains(entry.search().id))
+                .collect(Collectors.toList());
+    }
+
+    private IndexEntry doPut(ExtensionSearch search) {
+        var previous = entries.get(search.id);
+        if (previous != null) {
+            removePostings(previous);
+        }
+
+        var entry = toIndexEntry(search);
+        for (var token : entry.tokens()) {
+            postings.computeIfAbsent(token, key -> new HashSet<>()).add(search.id);
+        }
+
+        // An existing entry keeps its position in the insertion order
+        entries.put(search.id, entry);
+        return previous;
+    }
+
+    private IndexEntry doRemove(long id) {
+        var entry = entries.remove(id);
+        if (entry != null) {
+            removePostings(entry);
+        }
+
+        return entry;
+    }
+
+    private void removePostings(IndexEntry entry) {
+        var id = entry.search().id;
+        for (var token : entry.tokens()) {
+            var ids = postings.get(token);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+        }
+    }
+
+    private IndexEntry toIndexEntry(ExtensionSearch search) {
+        var tokens = new HashSet<String>();
+        tokens.addAll(tokenize(search.name));
+        tokens.addAll(tokenize(search.namespace));
+        tokens.addAll(tokenize(search.displayName));
+        tokens.addAll(tokenize(search.description));
+        if (search.tags != null) {
+            search.tags.forEach(tag -> tokens.addAll(tokenize(tag)));
+        }
+        if (search.categories != null) {
+            search.categories.forEach(category -> tokens.addAll(tokenize(category)));
+        }
+
+        var categories = search.categories != null
+                ? search.categories.stream().map(String::toLowerCase).collect(Collectors.toSet())
+                : Collections.<String>emptySet();
+        var targetPlatforms = search.targetPlatforms != null
+                ? new HashSet<>(search.targetPlatforms)
+                : Collections.<String>emptySet();
+        var rating = search.rating != null ? search.rating : Double.NEGATIVE_INFINITY;
+        return new IndexEntry(search, tokens, categories, targetPlatforms, search.relevance, rating,
+                search.timestamp, search.downloadCount);
+    }
+
+    private static List<String> tokenize(String value) {
+        if (StringUtils.isBlank(value)) {
+            return Collections.emptyList();
+        }
+
+        return Arrays.stream(TOKEN_SEPARATOR.split(value.toLowerCase()))
+                .filter(token -> !token.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Indexed search entry with precomputed filter values and sort keys.
+     */
+    private record IndexEntry(
+            ExtensionSearch search,
+            Set<String> tokens,
+            Set<String> categories,
+            Set<String> targetPlatforms,
+            double relevance,
+            double rating,
+            long timestamp,
+            int downloadCount
+    ) {}
+
+    /**
+     * Filter criteria of the search options. The query tokens are matched separately,
+     * since the candidates are looked up through the inverted index.
+     */
+    private record Criteria(
+            List<String> queryTokens,
+            String category,
+            String targetPlatform,
+            Set<String> namespacesToExclude
+    ) {
+        Criteria(ISearchService.Options options) {
+            this(
+                    tokenize(options.queryString),
+                    options.category != null ? options.category.toLowerCase() : null,
+                    TargetPlatform.isValid(options.targetPlatform) ? options.targetPlatform : null,
+                    options.namespacesToExclude != null
+                            ? new HashSet<>(Arrays.asList(options.namespacesToExclude))
+                            : Collections.emptySet()
+            );
+        }
+
+        boolean test(IndexEntry entry) {
+            return !namespacesToExclude.contains(entry.search().namespace)
+                    && (targetPlatform == null || entry.targetPlatforms().contains(targetPlatform))
+                    && (category == null || entry.categories().contains(category));
+        }
+    }
+}
@@ -12,6 +12,9 @@ package org.eclipse.openvsx.search;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.eclipse.openvsx.cache.CacheService;
 import org.eclipse.openvsx.entities.Extension;
 import org.eclipse.openvsx.entities.ExtensionVersion;
 import org.eclipse.openvsx.repositories.RepositoryService;
@@ -20,12 +23,18 @@ import org.eclipse.openvsx.util.TimeUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
 
 /**
  * Provides relevance for a given extension
@@ -36,6 +45,9 @@ public class RelevanceService {
     protected final Logger logger = LoggerFactory.getLogger(RelevanceService.class);
 
     private final RepositoryService repositories;
+    private final CacheService cache;
+    private final AtomicReference<SearchStats> searchStats = new AtomicReference<>();
+    private final AtomicInteger searchStatsUpdates = new AtomicInteger();
 
     @Value("${ovsx.search.relevance.rating:1.0}")
     double ratingRelevance;
@@ -55,8 +67,15 @@ public class RelevanceService {
     @Value("${ovsx.elasticsearch.relevance.unverified:-1.0}")
     double deprecatedElasticSearchUnverifiedRelevance;
 
-    public RelevanceService(RepositoryService repositories) {
+    @Value("${ovsx.search.stats.max-updates:10000}")
+    int maxSearchStatsUpdates;
+
+    public RelevanceService(RepositoryService repositories, CacheService cache, MeterRegistry registry) {
         this.repositories = repositories;
+        this.cache = cache;
+        TimeGauge.builder("ovsx_search_stats_age", searchStats, TimeUnit.MILLISECONDS, RelevanceService::getAge)
+                .description("Time since the search stats have been read from the database")
+                .register(registry);
     }
 
     @PostConstruct
@@ -79,12 +98,94 @@ public class RelevanceService {
         }
     }
 
+    /**
+     * Get the shared snapshot of the stats that ratings and relevance are calculated from.
+     * Between the scheduled refreshes the snapshot is kept up-to-date incrementally. Changes
+     * made on other nodes and removed extensions are only seen by a refresh, so the snapshot
+     * is also refreshed after {@code ovsx.search.stats.max-updates} incremental updates.
+     */
+    public SearchStats getSearchStats() {
+        var stats = searchStats.get();
+        if (stats == null || searchStatsUpdates.get() >= maxSearchStatsUpdates) {
+            stats = loadSearchStats();
+        }
+        return stats;
+    }
+
+    /**
+     * Read the stats from the database and replace the shared snapshot.
+     */
+    @Scheduled(fixedDelayString = "${ovsx.search.stats.refresh-interval:3600000}")
+    public void refreshSearchStats() {
+        loadSearchStats();
+    }
+
+    /**
+     * The cached average review rating does not include incremental updates of the snapshot,
+     * so it is evicted to be read together with the current number of reviews.
+     */
+    private SearchStats loadSearchStats() {
+        cache.evictAverageReviewRating();
+        var stats = new SearchStats(repositories);
+        searchStats.set(stats);
+        searchStatsUpdates.set(0);
+        return stats;
+    }
+
+    /**
+     * The download counts of the given extensions have changed, raise the download
+     * reference of the snapshot if an extension exceeds the highest download count.
+     */
+    public void updateDownloadCounts(Collection<Extension> extensions) {
+        var maxDownloads = extensions.stream().mapToInt(Extension::getDownloadCount).max();
+        if (maxDownloads.isPresent()) {
+            updateSearchStats(stats -> maxDownloads.getAsInt() > stats.maxDownloads
+                    ? stats.withMaxDownloads(maxDownloads.getAsInt())
+                    : stats);
+        }
+    }
+
+    /**
+     * A review with the given rating has been added, update the average review rating of the snapshot.
+     */
+    public void addReviewRating(int rating) {
+        updateSearchStats(stats -> stats.withReviewRating(rating, 1));
+    }
+
+    /**
+     * A review with the given rating has been deactivated, update the average review rating of the snapshot.
+     */
+    public void removeReviewRating(int rating) {
+        updateSearchStats(stats -> stats.withReviewRating(rating, -1));
+    }
+
+    private void updateSearchStats(UnaryOperator<SearchStats> update) {
+        var previous = searchStats.getAndUpdate(stats -> stats != null ? update.apply(stats) : null);
+        if (previous != null) {
+            searchStatsUpdates.incrementAndGet();
+        }
+    }
+
+    private static double getAge(AtomicReference<SearchStats> searchStats) {
+        var stats = searchStats.get();
+        return stats != null ? Duration.between(stats.timestamp, TimeUtil.getCurrentUTC()).toMillis() : 0;
+    }
+
     public ExtensionSearch toSearchEntry(Extension extension, SearchStats stats) {
         var latest = repositories.findLatestVersion(extension,  null, false, true);
         var targetPlatforms = repositories.findExtensionTargetPlatforms(extension);
-        var entry = extension.toSearch(latest, targetPlatforms);
+        return toSearchEntry(new ExtensionSearchRow(extension, latest, targetPlatforms, isVerified(latest)), stats);
+    }
+
+    /**
+     * Create the search entry from data that has been loaded already, see
+     * {@link org.eclipse.openvsx.repositories.RepositoryService#findAllActiveExtensionSearchRows}.
+     */
+    public ExtensionSearch toSearchEntry(ExtensionSearchRow row, SearchStats stats) {
+        var extension = row.extension();
+        var entry = extension.toSearch(row.latest(), row.targetPlatforms());
         entry.rating = calculateRating(extension, stats);
-        entry.relevance = calculateRelevance(extension, latest, stats, entry);
+        entry.relevance = calculateRelevance(extension, row.latest(), row.verified(), stats, entry);
 
         return entry;
     }
@@ -98,7 +199,7 @@ public class RelevanceService {
         return (averageRating * reviews + stats.averageReviewRating * padding) / (reviews + padding);
     }
 
-    private double calculateRelevance(Extension extension, ExtensionVersion latest, SearchStats stats, ExtensionSearch entry) {
+    private double calculateRelevance(Extension extension, ExtensionVersion latest, boolean verified, SearchStats stats, ExtensionSearch entry) {
         var ratingValue = 0.0;
         if (extension.getAverageRating() != null) {
             var reviewCount = extension.getReviewCount();
@@ -113,7 +214,7 @@ public class RelevanceService {
                 + timestampRelevance * limit(timestampValue);
 
         // Reduce the relevance value of unverified extensions
-        if (!isVerified(latest)) {
+        if (!verified) {
             relevance *= unverifiedRelevance;
         }
 
@@ -157,15 +258,38 @@ public class RelevanceService {
         protected final double timestampRef;
         protected final LocalDateTime oldest;
         protected final double averageReviewRating;
+        protected final int maxDownloads;
+        protected final long reviewCount;
+        protected final LocalDateTime timestamp;
 
         public SearchStats(RepositoryService repositories) {
-            var now = TimeUtil.getCurrentUTC();
-            var maxDownloads = repositories.getMaxExtensionDownloadCount();
-            var oldestTimestamp = repositories.getOldestExtensionTimestamp();
+            this(
+                    repositories.getMaxExtensionDownloadCount(),
+                    repositories.getOldestExtensionTimestamp(),
+                    repositories.getAverageReviewRating(),
+                    repositories.countActiveReviews(),
+                    TimeUtil.getCurrentUTC()
+            );
+        }
+
+        SearchStats(int maxDownloads, LocalDateTime oldestTimestamp, double averageReviewRating, long reviewCount, LocalDateTime timestamp) {
+            this.maxDownloads = maxDownloads;
             this.downloadRef = maxDownloads * 1.5 + 100;
-            this.oldest = oldestTimestamp == null ? now : oldestTimestamp;
-            this.timestampRef = Duration.between(this.oldest, now).toSeconds() + 60;
-            this.averageReviewRating = repositories.getAverageReviewRating();
+            this.oldest = oldestTimestamp == null ? timestamp : oldestTimestamp;
+            this.timestampRef = Duration.between(this.oldest, timestamp).toSeconds() + 60;
+            this.averageReviewRating = averageReviewRating;
+            this.reviewCount = reviewCount;
+            this.timestamp = timestamp;
+        }
+
+        SearchStats withMaxDownloads(int maxDownloads) {
+            return new SearchStats(maxDownloads, oldest, averageReviewRating, reviewCount, timestamp);
+        }
+
+        SearchStats withReviewRating(int rating, int delta) {
+            var count = Math.max(0, reviewCount + delta);
+            var average = count > 0 ? (averageReviewRating * reviewCount + rating * delta) / count : 0.0;
+            return new SearchStats(maxDownloads, oldest, average, count, timestamp);
         }
     }
 }
@@ -0,0 +1,71 @@
+/** ******************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * ****************************************************************************** */
+package org.eclipse.openvsx.search;
+
+import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Collects the ids of extensions whose search entries must be updated. An extension that is
+ * queued again before it has been taken from the queue is kept once, with the time it was
+ * first queued.
+ */
+class SearchIndexQueue {
+
+    private final Clock clock;
+    private final Map<Long, Long> pending = new LinkedHashMap<>();
+
+    SearchIndexQueue(Clock clock) {
+        this.clock = clock;
+    }
+
+    synchronized void add(long extensionId) {
+        pending.putIfAbsent(extensionId, clock.millis());
+    }
+
+    /**
+     * Take up to {@code max} extensions from the queue, the ones queued first come first.
+     *
+     * @return the taken extension ids with the time they were queued
+     */
+    synchronized Map<Long, Long> take(int max) {
+        var taken = new LinkedHashMap<Long, Long>();
+        var iterator = pending.entrySet().iterator();
+        while (taken.size() < max && iterator.hasNext()) {
+            var entry = iterator.next();
+            taken.put(entry.getKey(), entry.getValue());
+            iterator.remove();
+        }
+        return taken;
+    }
+
+    /**
+     * Put extensions that could not be indexed back into the queue, keeping the time they were queued.
+     */
+    synchronized void putBack(Map<Long, Long> extensionIds) {
+        var requeued = new LinkedHashMap<>(extensionIds);
+        requeued.putAll(pending);
+        pending.clear();
+        pending.putAll(requeued);
+    }
+
+    synchronized int size() {
+        return pending.size();
+    }
+
+    /**
+     * @return the milliseconds since the oldest queued extension was queued, or 0 if the queue is empty
+     */
+    synchronized long getLag() {
+        var iterator = pending.values().iterator();
+        return iterator.hasNext() ? clock.millis() - iterator.next() : 0;
+    }
+}
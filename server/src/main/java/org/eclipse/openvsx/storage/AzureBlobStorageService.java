@@ -16,12 +16,10 @@ import com.azure.storage.blob.models.BlobCopyInfo;
 import com.azure.storage.blob.models.BlobHttpHeaders;
 import com.azure.storage.blob.models.BlobStorageException;
 import com.azure.storage.blob.models.CopyStatusType;
-import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.openvsx.entities.FileResource;
 import org.eclipse.openvsx.entities.Namespace;
 import org.eclipse.openvsx.util.TempFile;
-import org.eclipse.openvsx.util.UrlUtil;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.util.Pair;
 import org.springframework.http.HttpStatus;
@@ -167,17 +165,7 @@ public class AzureBlobStorageService implements IStorageService {
 	}
 
     protected String getBlobName(FileResource resource) {
-        var extVersion = resource.getExtension();
-        var extension = extVersion.getExtension();
-        var namespace = extension.getNamespace();
-        var segments = new String[]{namespace.getName(), extension.getName()};
-		if(!extVersion.isUniversalTargetPlatform()) {
-		    segments = ArrayUtils.add(segments, extVersion.getTargetPlatform());
-        }
-
-	    segments = ArrayUtils.add(segments, extVersion.getVersion());
-        segments = ArrayUtils.addAll(segments, resource.getName().split("/"));
-        return UrlUtil.createApiUrl("", segments).substring(1); // remove first '/'
+        return StorageUtil.getBlobName(resource);
     }
 
     @Override
@@ -194,7 +182,7 @@ public class AzureBlobStorageService implements IStorageService {
     }
 
     protected String getBlobName(Namespace namespace) {
-        return UrlUtil.createApiUrl("", namespace.getName(), "logo", namespace.getLogoName()).substring(1); // remove first '/'
+        return StorageUtil.getBlobName(namespace);
     }
 
     @Override
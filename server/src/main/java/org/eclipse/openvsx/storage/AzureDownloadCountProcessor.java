@@ -23,8 +23,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
-import java.time.LocalDateTime;
 import java.util.AbstractMap;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -57,15 +57,8 @@ public class AzureDownloadCountProcessor {
     }
 
     @Transactional
-    public void persistProcessedItem(String name, LocalDateTime processedOn, int executionTime, boolean success) {
-//        Observation.createNotStarted("AzureDownloadCountProcessor#persistProcessedItem", observations).observe(() -> {
-            var processedItem = new AzureDownloadCountProcessedItem();
-            processedItem.setName(name);
-            processedItem.setProcessedOn(processedOn);
-            processedItem.setExecutionTime(executionTime);
-            processedItem.setSuccess(success);
-            entityManager.persist(processedItem);
-//        });
+    public void persistProcessedItems(List<AzureDownloadCountProcessedItem> processedItems) {
+        processedItems.forEach(entityManager::persist);
     }
 
     public Map<Long, Integer> processDownloadCounts(Map<String, Integer> files) {
@@ -79,28 +72,25 @@ public class AzureDownloadCountProcessor {
 //        });
     }
 
+    /**
+     * Increases the download counts with a single update statement and records the processed
+     * items in the same transaction, so the downloads of a log blob are counted exactly once.
+     */
     @Transactional
-    public List<Extension> increaseDownloadCounts(Map<Long, Integer> extensionDownloads) {
-//        return Observation.createNotStarted("AzureDownloadCountProcessor#increaseDownloadCounts", observations).observe(() -> {
-            var extensions = repositories.findExtensions(extensionDownloads.keySet()).toList();
-            extensions.forEach(extension -> {
-                var downloads = extensionDownloads.get(extension.getId());
-                extension.setDownloadCount(extension.getDownloadCount() + downloads);
-            });
-
-            return extensions;
-//        });
-    }
-
-    @Transactional //needs transaction for lazy-loading versions
-    public void evictCaches(List<Extension> extensions) {
-//        Observation.createNotStarted("AzureDownloadCountProcessor#evictCaches", observations).observe(() -> {
-            extensions.forEach(extension -> {
-                extension = entityManager.merge(extension);
-                cache.evictExtensionJsons(extension);
-                cache.evictLatestExtensionVersion(extension);
-            });
-//        });
+    public List<Extension> increaseDownloadCounts(Map<Long, Integer> extensionDownloads, List<AzureDownloadCountProcessedItem> processedItems) {
+        repositories.increaseDownloadCounts(extensionDownloads);
+        persistProcessedItems(processedItems);
+        if (extensionDownloads.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        var extensions = repositories.findExtensions(extensionDownloads.keySet()).toList();
+        extensions.forEach(extension -> {
+            cache.evictExtensionJsons(extension);
+            cache.evictLatestExtensionVersion(extension);
+        });
+
+        return extensions;
     }
 
     public void updateSearchEntries(List<Extension> extensions) {
@@ -17,12 +17,14 @@ import com.azure.storage.blob.models.BlobItem;
 import com.azure.storage.blob.models.BlobListDetails;
 import com.azure.storage.blob.models.BlobStorageException;
 import com.azure.storage.blob.models.ListBlobsOptions;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import io.micrometer.observation.Observation;
 import io.micrometer.observation.ObservationRegistry;
 import org.apache.commons.lang3.StringUtils;
-import org.eclipse.openvsx.util.TempFile;
+import org.eclipse.openvsx.entities.AzureDownloadCountProcessedItem;
+import org.eclipse.openvsx.entities.Extension;
 import org.jobrunr.jobs.annotations.Job;
 import org.jobrunr.spring.annotations.Recurring;
 import org.slf4j.Logger;
@@ -30,19 +32,19 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
-import org.springframework.util.StopWatch;
 import org.springframework.web.util.UriUtils;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.AbstractMap;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -57,8 +59,8 @@ public class AzureDownloadCountService {
 
     private final AzureDownloadCountProcessor processor;
     private final ObservationRegistry observations;
+    private final JsonFactory jsonFactory = new JsonFactory();
     private BlobContainerClient containerClient;
-    private ObjectMapper objectMapper;
     private Pattern blobItemNamePattern;
 
     @Value("${ovsx.logs.azure.sas-token:}")
@@ -76,6 +78,10 @@ public class AzureDownloadCountService {
     @Value("${ovsx.storage.azure.blob-container:openvsx-resources}")
     String storageBlobContainer;
 
+    /** Number of log blobs downloaded and parsed concurrently. */
+    @Value("${ovsx.logs.azure.concurrency:4}")
+    int concurrency;
+
     public AzureDownloadCountService(
             AzureDownloadCountProcessor processor,
             ObservationRegistry observations
@@ -115,52 +121,35 @@ public class AzureDownloadCountService {
             var blobs = listBlobs();
             var iterableByPage = blobs.iterableByPage();
 
-            var stopWatch = new StopWatch();
-            while (iterableByPage != null) {
-                PagedResponse<BlobItem> response = null;
-                var iterator = iterableByPage.iterator();
-                if (iterator.hasNext()) {
-                    response = iterator.next();
-                    var blobNames = getBlobNames(response.getValue());
-                    var processedItems = processor.processedItems(blobNames);
-                    processedItems.forEach(this::deleteBlob);
-                    blobNames.removeAll(processedItems);
-                    for (var name : blobNames) {
-                        if (LocalDateTime.now().isAfter(maxExecutionTime)) {
+            var threadCount = new AtomicInteger();
+            var executor = Executors.newFixedThreadPool(Math.max(1, concurrency), runnable -> {
+                var thread = new Thread(runnable, "azure-download-count-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                while (iterableByPage != null) {
+                    PagedResponse<BlobItem> response = null;
+                    var iterator = iterableByPage.iterator();
+                    if (iterator.hasNext()) {
+                        response = iterator.next();
+                        var blobNames = getBlobNames(response.getValue());
+                        var processedItems = processor.processedItems(blobNames);
+                        processedItems.forEach(this::deleteBlob);
+                        blobNames.removeAll(processedItems);
+                        if (!processBlobItems(blobNames, maxExecutionTime, executor)) {
                             var nextJobRunTime = LocalDateTime.now().plusHours(1).withMinute(5);
                             logger.info("Failed to process all download counts within timeslot, next job run is at {}", nextJobRunTime);
                             logger.info("<< updateDownloadCounts");
                             return;
                         }
-
-                        var processedOn = LocalDateTime.now();
-                        var success = false;
-                        stopWatch.start();
-                        try {
-                            var files = processBlobItem(name);
-                            if (!files.isEmpty()) {
-                                var extensionDownloads = processor.processDownloadCounts(files);
-                                var updatedExtensions = processor.increaseDownloadCounts(extensionDownloads);
-                                processor.evictCaches(updatedExtensions);
-                                processor.updateSearchEntries(updatedExtensions);
-                            }
-
-                            success = true;
-                        } catch (Exception e) {
-                            logger.error("Failed to process BlobItem: " + name, e);
-                        }
-
-                        stopWatch.stop();
-                        var executionTime = (int) stopWatch.getLastTaskTimeMillis();
-                        processor.persistProcessedItem(name, processedOn, executionTime, success);
-//                        if(success) {
-//                            deleteBlob(name);
-//                        }
                     }
-                }
 
-                var continuationToken = response != null ? response.getContinuationToken() : "";
-                iterableByPage = !StringUtils.isEmpty(continuationToken) ? blobs.iterableByPage(continuationToken) : null;
+                    var continuationToken = response != null ? response.getContinuationToken() : "";
+                    iterableByPage = !StringUtils.isEmpty(continuationToken) ? blobs.iterableByPage(continuationToken) : null;
+                }
+            } finally {
+                executor.shutdownNow();
             }
 
             logger.info("<< updateDownloadCounts");
@@ -179,56 +168,118 @@ public class AzureDownloadCountService {
         }
     }
 
-    private Map<String, Integer> processBlobItem(String blobName) {
-//        return Observation.createNotStarted("AzureDownloadCountService#processBlobItem", observations).observe(() -> {
-            try (
-                    var downloadsTempFile = downloadBlobItem(blobName);
-                    var reader = Files.newBufferedReader(downloadsTempFile.getPath())
-            ) {
-                return reader.lines()
-                        .map(line -> {
-                            try {
-                                return getObjectMapper().readTree(line);
-                            } catch (JsonProcessingException e) {
-                                throw new RuntimeException(e);
-                            }
-                        })
-                        .filter(node -> {
-                            var operationName = node.get("operationName").asText();
-                            var statusCode = node.get("statusCode").asInt();
-                            var uri = node.get("uri").asText();
-                            return operationName.equals("GetBlob") && statusCode == 200 && uri.endsWith(".vsix");
-                        }).map(node -> {
-                            var uri = node.get("uri").asText();
-                            var pathParams = uri.substring(storageServiceEndpoint.length()).split("/");
-                            return new AbstractMap.SimpleEntry<>(pathParams, node.get("time").asText());
-                        })
-                        .filter(entry -> storageBlobContainer.equals(entry.getKey()[1]))
-                        .map(entry -> {
-                            var pathParams = entry.getKey();
-                            var fileName = UriUtils.decode(pathParams[pathParams.length - 1], StandardCharsets.UTF_8).toUpperCase();
-                            return new AbstractMap.SimpleEntry<>(fileName, 1);
-                        })
-                        .collect(Collectors.groupingBy(Map.Entry::getKey, Collectors.summingInt(Map.Entry::getValue)));
-            } catch (IOException e) {
-                throw new RuntimeException(e);
+    /**
+     * Processes a batch of log blobs concurrently, then applies the downloads of all blobs with
+     * a single update of the download counts and of the search index. Blobs not started before
+     * {@code maxExecutionTime} are left for the next job run.
+     *
+     * @return whether all blobs have been processed
+     */
+    private boolean processBlobItems(List<String> blobNames, LocalDateTime maxExecutionTime, ExecutorService executor) {
+        var results = blobNames.stream()
+                .map(name -> CompletableFuture.supplyAsync(() -> processBlobItem(name, maxExecutionTime), executor))
+                .toList();
+
+        var blobResults = new ArrayList<BlobResult>();
+        var files = new HashMap<String, Integer>();
+        for (var result : results) {
+            var blobResult = result.join();
+            if (blobResult != null) {
+                blobResults.add(blobResult);
+                blobResult.files().forEach((fileName, count) -> files.merge(fileName, count, Integer::sum));
             }
-//        });
+        }
+
+        var processedItems = blobResults.stream()
+                .map(blobResult -> blobResult.toProcessedItem(true))
+                .collect(Collectors.toList());
+
+        List<Extension> updatedExtensions = Collections.emptyList();
+        try {
+            var extensionDownloads = !files.isEmpty()
+                    ? processor.processDownloadCounts(files)
+                    : Collections.<Long, Integer>emptyMap();
+
+            updatedExtensions = processor.increaseDownloadCounts(extensionDownloads, processedItems);
+        } catch (Exception e) {
+            logger.error("Failed to update download counts of BlobItems: " + blobNames, e);
+            // the blobs are processed again by the next job run
+            processor.persistProcessedItems(blobResults.stream()
+                    .map(blobResult -> blobResult.toProcessedItem(false))
+                    .collect(Collectors.toList()));
+        }
+
+        if (!updatedExtensions.isEmpty()) {
+            processor.updateSearchEntries(updatedExtensions);
+        }
+
+        return blobResults.size() == blobNames.size();
     }
 
-    private TempFile downloadBlobItem(String blobName) throws IOException {
-//        return Observation.createNotStarted("AzureDownloadCountService#downloadBlobItem", observations).observe(() -> {
-//            TempFile downloadsTempFile = null;
-//            try {
-                var downloadsTempFile = new TempFile("azure-downloads-", ".json");
-//            } catch (IOException e) {
-//                // TODO add `throws IOException` to `downloadBlobItem` method signature when reverting Observations
-//                // TODO remove try catch around `downloadsTempFile`
-//                throw new RuntimeException(e);
-//            }
-            getContainerClient().getBlobClient(blobName).downloadToFile(downloadsTempFile.getPath().toAbsolutePath().toString(), true);
-            return downloadsTempFile;
-//        });
+    /**
+     * @return the downloads found in the blob, or {@code null} if the blob was not started in time
+     */
+    private BlobResult processBlobItem(String blobName, LocalDateTime maxExecutionTime) {
+        var processedOn = LocalDateTime.now();
+        if (processedOn.isAfter(maxExecutionTime)) {
+            return null;
+        }
+
+        var start = System.currentTimeMillis();
+        try (var logs = getContainerClient().getBlobClient(blobName).openInputStream()) {
+            var files = countDownloads(logs);
+            return new BlobResult(blobName, processedOn, (int) (System.currentTimeMillis() - start), files, true);
+        } catch (Exception e) {
+            logger.error("Failed to process BlobItem: " + blobName, e);
+            return new BlobResult(blobName, processedOn, (int) (System.currentTimeMillis() - start), Collections.emptyMap(), false);
+        }
+    }
+
+    /**
+     * Counts the downloads of each file in a log with one JSON object per line. Only the fields
+     * needed to recognize a download are read, all other values are skipped.
+     *
+     * @return the number of downloads by upper-case file name
+     */
+    Map<String, Integer> countDownloads(InputStream logs) throws IOException {
+        var files = new HashMap<String, Integer>();
+        try (var parser = jsonFactory.createParser(logs)) {
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                var fileName = readDownloadedFileName(parser);
+                if (fileName != null) {
+                    files.merge(fileName, 1, Integer::sum);
+                }
+            }
+        }
+
+        return files;
+    }
+
+    private String readDownloadedFileName(JsonParser parser) throws IOException {
+        String operationName = null;
+        String uri = null;
+        var statusCode = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            var fieldName = parser.currentName();
+            parser.nextToken();
+            switch (fieldName) {
+                case "operationName" -> operationName = parser.getValueAsString();
+                case "statusCode" -> statusCode = parser.getValueAsInt();
+                case "uri" -> uri = parser.getValueAsString();
+                default -> parser.skipChildren();
+            }
+        }
+
+        if (!"GetBlob".equals(operationName) || statusCode != 200 || uri == null || !uri.endsWith(".vsix")) {
+            return null;
+        }
+
+        var pathParams = uri.substring(storageServiceEndpoint.length()).split("/");
+        if (pathParams.length < 2 || !storageBlobContainer.equals(pathParams[1])) {
+            return null;
+        }
+
+        return UriUtils.decode(pathParams[pathParams.length - 1], StandardCharsets.UTF_8).toUpperCase();
     }
 
     private List<String> getBlobNames(List<BlobItem> items) {
@@ -273,14 +324,6 @@ public class AzureDownloadCountService {
         return containerClient;
     }
 
-    private ObjectMapper getObjectMapper() {
-        if(objectMapper == null) {
-            objectMapper = new ObjectMapper();
-        }
-
-        return objectMapper;
-    }
-
     private boolean isCorrectName(String name) {
         return getBlobItemNamePattern().matcher(name).matches();
     }
@@ -296,4 +339,15 @@ public class AzureDownloadCountService {
 
         return blobItemNamePattern;
     }
+
+    private record BlobResult(String name, LocalDateTime processedOn, int executionTime, Map<String, Integer> files, boolean success) {
+        AzureDownloadCountProcessedItem toProcessedItem(boolean applied) {
+            var processedItem = new AzureDownloadCountProcessedItem();
+            processedItem.setName(name);
+            processedItem.setProcessedOn(processedOn);
+            processedItem.setExecutionTime(executionTime);
+            processedItem.setSuccess(success && applied);
+            return processedItem;
+        }
+    }
 }
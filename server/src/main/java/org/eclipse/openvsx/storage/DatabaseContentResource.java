@@ -0,0 +1,145 @@
+/** ******************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * ****************************************************************************** */
+package org.eclipse.openvsx.storage;
+
+import org.eclipse.openvsx.repositories.RepositoryService;
+import org.springframework.core.io.AbstractResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+
+/**
+ * Content of a {@link org.eclipse.openvsx.entities.FileResource} stored in the database.
+ * The content is read in chunks while it is written to the response, so the file is never
+ * held in memory as a whole. Skipping is done without reading, which makes range requests cheap.
+ */
+class DatabaseContentResource extends AbstractResource {
+
+    private final RepositoryService repositories;
+    private final long fileResourceId;
+    private final String fileName;
+    private final long contentLength;
+    private final int chunkSize;
+
+    DatabaseContentResource(RepositoryService repositories, long fileResourceId, String fileName, long contentLength, int chunkSize) {
+        this.repositories = repositories;
+        this.fileResourceId = fileResourceId;
+        this.fileName = fileName;
+        this.contentLength = contentLength;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Database content of file resource [" + fileResourceId + "]";
+    }
+
+    @Override
+    public String getFilename() {
+        return fileName;
+    }
+
+    @Override
+    public boolean exists() {
+        return true;
+    }
+
+    @Override
+    public long contentLength() {
+        return contentLength;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return new ContentInputStream();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || (other instanceof DatabaseContentResource that && fileResourceId == that.fileResourceId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(fileResourceId);
+    }
+
+    private class ContentInputStream extends InputStream {
+
+        /** Position of the next byte to read. */
+        private long position;
+        /** Position of the first byte of the current chunk. */
+        private long chunkStart;
+        private byte[] chunk = new byte[0];
+
+        @Override
+        public int read() throws IOException {
+            if (!fillChunk()) {
+                return -1;
+            }
+
+            return chunk[(int) (position++ - chunkStart)] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            Objects.checkFromIndexSize(off, len, b.length);
+            if (len == 0) {
+                return 0;
+            }
+            if (!fillChunk()) {
+                return -1;
+            }
+
+            var chunkOffset = (int) (position - chunkStart);
+            var count = Math.min(len, chunk.length - chunkOffset);
+            System.arraycopy(chunk, chunkOffset, b, off, count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public long skip(long n) {
+            if (n <= 0) {
+                return 0;
+            }
+
+            var skipped = Math.min(n, contentLength - position);
+            position += skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            var chunkOffset = position - chunkStart;
+            return chunkOffset >= 0 && chunkOffset < chunk.length ? (int) (chunk.length - chunkOffset) : 0;
+        }
+
+        private boolean fillChunk() throws IOException {
+            if (position >= contentLength) {
+                return false;
+            }
+            if (position >= chunkStart && position < chunkStart + chunk.length) {
+                return true;
+            }
+
+            var length = (int) Math.min(chunkSize, contentLength - position);
+            var content = repositories.findFileContent(fileResourceId, position, length);
+            if (content == null || content.length != length) {
+                throw new IOException("Content of file resource " + fileResourceId + " changed while reading it");
+            }
+
+            chunk = content;
+            chunkStart = position;
+            return true;
+        }
+    }
+}
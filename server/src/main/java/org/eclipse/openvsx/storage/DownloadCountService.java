@@ -0,0 +1,156 @@
+/********************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+package org.eclipse.openvsx.storage;
+
+import jakarta.annotation.PreDestroy;
+import org.eclipse.openvsx.cache.CacheService;
+import org.eclipse.openvsx.entities.Extension;
+import org.eclipse.openvsx.repositories.RepositoryService;
+import org.eclipse.openvsx.search.SearchUtilService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Counts downloads in memory and writes the aggregated counts to the database
+ * periodically, so downloading an extension doesn't open a write transaction.
+ */
+@Component
+public class DownloadCountService {
+
+    protected final Logger logger = LoggerFactory.getLogger(DownloadCountService.class);
+
+    private final TaskScheduler taskScheduler;
+    private final TransactionTemplate transactions;
+    private final RepositoryService repositories;
+    private final CacheService cache;
+    private final SearchUtilService search;
+
+    /** Download counters by extension id. Counters are never reset, see {@link #flush()}. */
+    private final ConcurrentHashMap<Long, DownloadCounter> counters = new ConcurrentHashMap<>();
+    private final AtomicLong pendingDownloads = new AtomicLong();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    /** Maximum time in milliseconds before counted downloads are written to the database. */
+    @Value("${ovsx.download-count.flush-interval:10000}")
+    long flushInterval;
+
+    /**
+     * Number of counted downloads that triggers writing to the database before the interval has passed.
+     * After a failed write only the interval triggers writing until a write has succeeded.
+     */
+    @Value("${ovsx.download-count.flush-threshold:1000}")
+    long flushThreshold;
+
+    public DownloadCountService(
+            TaskScheduler taskScheduler,
+            TransactionTemplate transactions,
+            RepositoryService repositories,
+            CacheService cache,
+            SearchUtilService search
+    ) {
+        this.taskScheduler = taskScheduler;
+        this.transactions = transactions;
+        this.repositories = repositories;
+        this.cache = cache;
+        this.search = search;
+    }
+
+    @EventListener
+    public void scheduleFlush(ApplicationStartedEvent event) {
+        var duration = Duration.of(flushInterval, ChronoUnit.MILLIS);
+        taskScheduler.scheduleWithFixedDelay(this::flush, duration);
+    }
+
+    /**
+     * Count a download of the given extension. The download count in the database
+     * is increased by the next flush.
+     */
+    public void increaseDownloadCount(long extensionId) {
+        counters.computeIfAbsent(extensionId, id -> new DownloadCounter()).downloads.increment();
+        if (pendingDownloads.incrementAndGet() >= flushThreshold && flushScheduled.compareAndSet(false, true)) {
+            taskScheduler.schedule(this::flush, Instant.now());
+        }
+    }
+
+    /**
+     * Write the downloads counted since the last flush to the database with a single update statement,
+     * then evict the caches and update the search index once for each affected extension.
+     */
+    @PreDestroy
+    public synchronized void flush() {
+        try {
+            // Counters are monotonic, so downloads counted concurrently are included in the next flush
+            var sums = new HashMap<Long, Long>();
+            var extensionDownloads = new HashMap<Long, Integer>();
+            counters.forEach((id, counter) -> {
+                var sum = counter.downloads.sum();
+                if (sum > counter.flushed) {
+                    sums.put(id, sum);
+                    extensionDownloads.put(id, Math.toIntExact(sum - counter.flushed));
+                }
+            });
+            if (extensionDownloads.isEmpty()) {
+                flushScheduled.set(false);
+                return;
+            }
+
+            transactions.<Void>execute(status -> {
+                repositories.increaseDownloadCounts(extensionDownloads);
+                var extensions = repositories.findExtensions(extensionDownloads.keySet()).toList();
+                for (var extension : extensions) {
+                    cache.evictNamespaceDetails(extension);
+                    cache.evictExtensionJsons(extension);
+                }
+
+                var activeExtensions = extensions.stream()
+                        .filter(Extension::isActive)
+                        .collect(Collectors.toList());
+                search.updateSearchEntries(activeExtensions);
+                return null;
+            });
+
+            var total = 0L;
+            for (var entry : sums.entrySet()) {
+                var counter = counters.get(entry.getKey());
+                total += entry.getValue() - counter.flushed;
+                counter.flushed = entry.getValue();
+            }
+            pendingDownloads.addAndGet(-total);
+            flushScheduled.set(false);
+        } catch (RuntimeException exc) {
+            // The counted downloads are kept and written by the next scheduled flush. Downloads
+            // don't trigger a flush until then, since it would most likely fail the same way.
+            flushScheduled.set(true);
+            logger.error("Failed to update download counts", exc);
+        }
+    }
+
+    private static class DownloadCounter {
+        final LongAdder downloads = new LongAdder();
+        /** Sum of downloads already written to the database, only accessed while flushing. */
+        long flushed;
+    }
+}
@@ -0,0 +1,180 @@
+/** ******************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * ****************************************************************************** */
+package org.eclipse.openvsx.storage;
+
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.openvsx.entities.FileResource;
+import org.eclipse.openvsx.entities.Namespace;
+import org.eclipse.openvsx.util.NotFoundException;
+import org.eclipse.openvsx.util.TempFile;
+import org.eclipse.openvsx.util.UrlUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.util.Pair;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+
+/**
+ * Stores files in a local or mounted directory, using the same layout as the blob names
+ * of {@link AzureBlobStorageService}. The files are served by this server, see {@link #getFileResponse(FileResource)}.
+ */
+@Component
+public class FileSystemStorageService implements IStorageService {
+
+    @Value("${ovsx.storage.file-system.directory:}")
+    String directory;
+
+    @Override
+    public boolean isEnabled() {
+        return !StringUtils.isEmpty(directory);
+    }
+
+    @Override
+    public void uploadFile(FileResource resource) {
+        var content = resource.getContent();
+        writeFile(getPath(resource), tempFile -> Files.write(tempFile, content));
+    }
+
+    @Override
+    public void uploadFile(FileResource resource, TempFile file) {
+        writeFile(getPath(resource), tempFile -> Files.copy(file.getPath(), tempFile, StandardCopyOption.REPLACE_EXISTING));
+    }
+
+    @Override
+    public void uploadNamespaceLogo(Namespace namespace) {
+        var content = namespace.getLogoBytes();
+        writeFile(getPath(namespace), tempFile -> Files.write(tempFile, content));
+    }
+
+    /**
+     * Write the file next to its target and move it into place afterwards, so concurrent
+     * readers never see a partially written file and the file attributes identify the content.
+     */
+    private void writeFile(Path path, FileWriter writer) {
+        try {
+            Files.createDirectories(path.getParent());
+            var tempFile = Files.createTempFile(path.getParent(), ".upload-", ".tmp");
+            try {
+                writer.write(tempFile);
+                Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        } catch (IOException exc) {
+            throw new RuntimeException(exc);
+        }
+    }
+
+    @Override
+    public void removeFile(FileResource resource) {
+        removeFile(getPath(resource));
+    }
+
+    @Override
+    public void removeNamespaceLogo(Namespace namespace) {
+        removeFile(getPath(namespace));
+    }
+
+    private void removeFile(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException exc) {
+            throw new RuntimeException(exc);
+        }
+    }
+
+    @Override
+    public URI getLocation(FileResource resource) {
+        return URI.create(UrlUtil.createApiFileUrl(UrlUtil.getBaseUrl(), resource.getExtension(), resource.getName()));
+    }
+
+    @Override
+    public URI getNamespaceLogoLocation(Namespace namespace) {
+        return URI.create(UrlUtil.createApiUrl(UrlUtil.getBaseUrl(), "api", namespace.getName(), "logo", namespace.getLogoName()));
+    }
+
+    @Override
+    public void copyFiles(List<Pair<FileResource, FileResource>> pairs) {
+        for (var pair : pairs) {
+            var source = getPath(pair.getFirst());
+            writeFile(getPath(pair.getSecond()), tempFile -> Files.copy(source, tempFile, StandardCopyOption.REPLACE_EXISTING));
+        }
+    }
+
+    public ResponseEntity<Resource> getFileResponse(FileResource resource) {
+        return getFileResponse(getPath(resource), resource.getName());
+    }
+
+    public ResponseEntity<Resource> getNamespaceLogo(Namespace namespace) {
+        return getFileResponse(getPath(namespace), namespace.getLogoName());
+    }
+
+    /**
+     * Serve the file with a strong {@code ETag}, so conditional requests are answered with
+     * {@code 304 Not Modified}. Range requests are handled by Spring, which seeks to the
+     * requested position through the file channel instead of reading the skipped bytes.
+     */
+    private ResponseEntity<Resource> getFileResponse(Path path, String fileName) {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException exc) {
+            throw new NotFoundException();
+        } catch (IOException exc) {
+            throw new RuntimeException(exc);
+        }
+
+        var headers = StorageUtil.getFileResponseHeaders(fileName);
+        var lastModified = attributes.lastModifiedTime().toMillis();
+        // Files are replaced atomically, so size and modification time identify the content
+        headers.setETag("\"" + Long.toHexString(attributes.size()) + "-" + Long.toHexString(lastModified) + "\"");
+        headers.setLastModified(lastModified);
+        return new ResponseEntity<>(new FileSystemResource(path), headers, HttpStatus.OK);
+    }
+
+    public Path getPath(FileResource resource) {
+        return getPath(StorageUtil.getBlobName(resource));
+    }
+
+    public Path getPath(Namespace namespace) {
+        return getPath(StorageUtil.getBlobName(namespace));
+    }
+
+    private Path getPath(String blobName) {
+        if (!isEnabled()) {
+            throw new IllegalStateException("Cannot determine path of file "
+                    + blobName + ": missing storage directory");
+        }
+
+        var root = Path.of(directory).toAbsolutePath().normalize();
+        var path = root.resolve(blobName).normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalArgumentException("Invalid file name: " + blobName);
+        }
+
+        return path;
+    }
+
+    @FunctionalInterface
+    private interface FileWriter {
+        void write(Path tempFile) throws IOException;
+    }
+}
@@ -14,8 +14,13 @@ import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import org.eclipse.openvsx.entities.FileResource;
 import org.eclipse.openvsx.entities.Namespace;
+import org.eclipse.openvsx.repositories.RepositoryService;
+import org.eclipse.openvsx.util.NotFoundException;
 import org.eclipse.openvsx.util.TempFile;
 import org.eclipse.openvsx.util.UrlUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -29,9 +34,15 @@ import java.nio.file.Files;
 public class LocalStorageService {
 
     private final EntityManager entityManager;
+    private final RepositoryService repositories;
 
-    public LocalStorageService(EntityManager entityManager) {
+    /** Number of bytes read from the database at once when serving a file. */
+    @Value("${ovsx.storage.local.chunk-size:1048576}")
+    int chunkSize;
+
+    public LocalStorageService(EntityManager entityManager, RepositoryService repositories) {
         this.entityManager = entityManager;
+        this.repositories = repositories;
     }
 
     public URI getLocation(FileResource resource) {
@@ -53,28 +64,29 @@ public class LocalStorageService {
         return new TempFile("namespace-logo", ".png");
     }
 
-    @Transactional
-    public ResponseEntity<byte[]> getFileResponse(FileResource resource) {
-        resource = entityManager.find(FileResource.class, resource.getId());
+    /**
+     * Stream the file content from the database. {@code Range} requests are answered
+     * with {@code 206 Partial Content} by Spring, since the body is a {@link Resource}.
+     */
+    public ResponseEntity<Resource> getFileResponse(FileResource resource) {
+        var contentLength = repositories.findFileContentLength(resource.getId());
+        if (contentLength == null) {
+            throw new NotFoundException();
+        }
+
         var headers = getFileResponseHeaders(resource.getName());
-        return new ResponseEntity<>(resource.getContent(), headers, HttpStatus.OK);
+        var content = new DatabaseContentResource(repositories, resource.getId(), resource.getName(), contentLength, chunkSize);
+        return new ResponseEntity<>(content, headers, HttpStatus.OK);
     }
 
     @Transactional
-    public ResponseEntity<byte[]> getNamespaceLogo(Namespace namespace) {
+    public ResponseEntity<Resource> getNamespaceLogo(Namespace namespace) {
         namespace = entityManager.merge(namespace);
         var headers = getFileResponseHeaders(namespace.getLogoName());
-        return new ResponseEntity<>(namespace.getLogoBytes(), headers, HttpStatus.OK);
+        return new ResponseEntity<>(new ByteArrayResource(namespace.getLogoBytes()), headers, HttpStatus.OK);
     }
 
     public HttpHeaders getFileResponseHeaders(String fileName) {
-        var headers = new HttpHeaders();
-        headers.setContentType(StorageUtil.getFileType(fileName));
-        if (fileName.endsWith(".vsix")) {
-            headers.add("Content-Disposition", "attachment; filename=\"" + fileName + "\"");
-        } else {
-            headers.setCacheControl(StorageUtil.getCacheControl(fileName));
-        }
-        return headers;
+        return StorageUtil.getFileResponseHeaders(fileName);
     }
 }
@@ -23,6 +23,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
@@ -44,6 +46,7 @@ public class StorageMigration {
     private final EntityManager entityManager;
     private final RepositoryService repositories;
     private final StorageUtilService storageUtil;
+    private final FileSystemStorageService fileSystemStorage;
     private final RestTemplate backgroundRestTemplate;
     private final ConcurrentLinkedQueue<Long> resourceQueue;
     private ScheduledFuture<?> scheduledFuture;
@@ -57,6 +60,7 @@ public class StorageMigration {
             EntityManager entityManager,
             RepositoryService repositories,
             StorageUtilService storageUtil,
+            FileSystemStorageService fileSystemStorage,
             RestTemplate backgroundRestTemplate
     ) {
         this.taskScheduler = taskScheduler;
@@ -64,6 +68,7 @@ public class StorageMigration {
         this.entityManager = entityManager;
         this.repositories = repositories;
         this.storageUtil = storageUtil;
+        this.fileSystemStorage = fileSystemStorage;
         this.backgroundRestTemplate = backgroundRestTemplate;
         this.resourceQueue = new ConcurrentLinkedQueue<>();
     }
@@ -76,7 +81,7 @@ public class StorageMigration {
             return;
         }
 
-        var migrations = new ArrayList<>(List.of(STORAGE_DB, STORAGE_GOOGLE, STORAGE_AZURE));
+        var migrations = new ArrayList<>(List.of(STORAGE_DB, STORAGE_GOOGLE, STORAGE_AZURE, STORAGE_FILE_SYSTEM));
         migrations.remove(storageType);
         var migrationCount = new int[migrations.size()];
         for (var i = 0; i < migrations.size(); i++) {
@@ -130,6 +135,14 @@ public class StorageMigration {
     }
 
     private byte[] downloadFile(FileResource resource) {
+        if (resource.getStorageType().equals(STORAGE_FILE_SYSTEM)) {
+            try {
+                return Files.readAllBytes(fileSystemStorage.getPath(resource));
+            } catch (IOException exc) {
+                throw new RuntimeException(exc);
+            }
+        }
+
         var location = storageUtil.getLocation(resource);
         return backgroundRestTemplate.getForObject("{extensionLocation}", byte[].class, Map.of("extensionLocation", location));
     }
@@ -10,7 +10,12 @@
 
 package org.eclipse.openvsx.storage;
 
+import org.apache.commons.lang3.ArrayUtils;
+import org.eclipse.openvsx.entities.FileResource;
+import org.eclipse.openvsx.entities.Namespace;
+import org.eclipse.openvsx.util.UrlUtil;
 import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 
 import java.net.URLConnection;
@@ -37,4 +42,40 @@ class StorageUtil {
         // Files are requested with a version string in the URL, so their content cannot change
         return CacheControl.maxAge(30, TimeUnit.DAYS).cachePublic();
     }
+
+    static HttpHeaders getFileResponseHeaders(String fileName) {
+        var headers = new HttpHeaders();
+        headers.setContentType(getFileType(fileName));
+        if (fileName.endsWith(".vsix")) {
+            headers.add("Content-Disposition", "attachment; filename=\"" + fileName + "\"");
+        } else {
+            headers.setCacheControl(getCacheControl(fileName));
+        }
+        return headers;
+    }
+
+    /**
+     * Returns the path of a file resource relative to the storage root,
+     * e.g. {@code namespace/extension/targetPlatform/version/fileName}.
+     */
+    static String getBlobName(FileResource resource) {
+        var extVersion = resource.getExtension();
+        var extension = extVersion.getExtension();
+        var namespace = extension.getNamespace();
+        var segments = new String[]{namespace.getName(), extension.getName()};
+        if(!extVersion.isUniversalTargetPlatform()) {
+            segments = ArrayUtils.add(segments, extVersion.getTargetPlatform());
+        }
+
+        segments = ArrayUtils.add(segments, extVersion.getVersion());
+        segments = ArrayUtils.addAll(segments, resource.getName().split("/"));
+        return UrlUtil.createApiUrl("", segments).substring(1); // remove first '/'
+    }
+
+    /**
+     * Returns the path of a namespace logo relative to the storage root.
+     */
+    static String getBlobName(Namespace namespace) {
+        return UrlUtil.createApiUrl("", namespace.getName(), "logo", namespace.getLogoName()).substring(1); // remove first '/'
+    }
 }
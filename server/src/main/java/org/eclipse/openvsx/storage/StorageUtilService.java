@@ -12,18 +12,16 @@ package org.eclipse.openvsx.storage;
 import com.google.common.collect.Maps;
 import io.micrometer.observation.Observation;
 import io.micrometer.observation.ObservationRegistry;
-import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import org.apache.commons.lang3.StringUtils;
-import org.eclipse.openvsx.cache.CacheService;
 import org.eclipse.openvsx.entities.ExtensionVersion;
 import org.eclipse.openvsx.entities.FileResource;
 import org.eclipse.openvsx.entities.Namespace;
 import org.eclipse.openvsx.repositories.RepositoryService;
-import org.eclipse.openvsx.search.SearchUtilService;
 import org.eclipse.openvsx.util.TempFile;
 import org.eclipse.openvsx.util.UrlUtil;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
 import org.springframework.data.util.Pair;
 import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
@@ -51,11 +49,10 @@ public class StorageUtilService implements IStorageService {
     private final RepositoryService repositories;
     private final GoogleCloudStorageService googleStorage;
     private final AzureBlobStorageService azureStorage;
+    private final FileSystemStorageService fileSystemStorage;
     private final LocalStorageService localStorage;
     private final AzureDownloadCountService azureDownloadCountService;
-    private final SearchUtilService search;
-    private final CacheService cache;
-    private final EntityManager entityManager;
+    private final DownloadCountService downloadCountService;
     private final ObservationRegistry observations;
 
     /** Determines which external storage service to use in case multiple services are configured. */
@@ -70,21 +67,19 @@ public class StorageUtilService implements IStorageService {
             RepositoryService repositories,
             GoogleCloudStorageService googleStorage,
             AzureBlobStorageService azureStorage,
+            FileSystemStorageService fileSystemStorage,
             AzureDownloadCountService azureDownloadCountService,
+            DownloadCountService downloadCountService,
             LocalStorageService localStorage,
-            SearchUtilService search,
-            CacheService cache,
-            EntityManager entityManager,
             ObservationRegistry observations
     ) {
         this.repositories = repositories;
         this.googleStorage = googleStorage;
         this.azureStorage = azureStorage;
+        this.fileSystemStorage = fileSystemStorage;
         this.localStorage = localStorage;
         this.azureDownloadCountService = azureDownloadCountService;
-        this.search = search;
-        this.cache = cache;
-        this.entityManager = entityManager;
+        this.downloadCountService = downloadCountService;
         this.observations = observations;
     }
 
@@ -110,15 +105,17 @@ public class StorageUtilService implements IStorageService {
 
     @Override
     public boolean isEnabled() {
-        return googleStorage.isEnabled() || azureStorage.isEnabled();
+        return googleStorage.isEnabled() || azureStorage.isEnabled() || fileSystemStorage.isEnabled();
     }
 
     public String getActiveStorageType() {
-        var storageTypes = new ArrayList<String>(2);
+        var storageTypes = new ArrayList<String>(3);
         if (googleStorage.isEnabled())
             storageTypes.add(STORAGE_GOOGLE);
         if (azureStorage.isEnabled())
             storageTypes.add(STORAGE_AZURE);
+        if (fileSystemStorage.isEnabled())
+            storageTypes.add(STORAGE_FILE_SYSTEM);
         if (!StringUtils.isEmpty(primaryService)) {
             if (!storageTypes.contains(primaryService))
                 throw new RuntimeException("The selected primary storage service is not available.");
@@ -141,6 +138,9 @@ public class StorageUtilService implements IStorageService {
             case STORAGE_AZURE:
                 azureStorage.uploadFile(resource);
                 break;
+            case STORAGE_FILE_SYSTEM:
+                fileSystemStorage.uploadFile(resource);
+                break;
             default:
                 throw new RuntimeException("External storage is not available.");
         }
@@ -158,6 +158,9 @@ public class StorageUtilService implements IStorageService {
             case STORAGE_AZURE:
                 azureStorage.uploadFile(resource, file);
                 break;
+            case STORAGE_FILE_SYSTEM:
+                fileSystemStorage.uploadFile(resource, file);
+                break;
             default:
                 throw new RuntimeException("External storage is not available.");
         }
@@ -176,6 +179,9 @@ public class StorageUtilService implements IStorageService {
             case STORAGE_AZURE:
                 azureStorage.uploadNamespaceLogo(namespace);
                 break;
+            case STORAGE_FILE_SYSTEM:
+                fileSystemStorage.uploadNamespaceLogo(namespace);
+                break;
             default:
                 throw new RuntimeException("External storage is not available.");
         }
@@ -192,6 +198,9 @@ public class StorageUtilService implements IStorageService {
             case STORAGE_AZURE:
                 azureStorage.removeFile(resource);
                 break;
+            case STORAGE_FILE_SYSTEM:
+                fileSystemStorage.removeFile(resource);
+                break;
         }
     }
 
@@ -204,6 +213,9 @@ public class StorageUtilService implements IStorageService {
             case STORAGE_AZURE:
                 azureStorage.removeNamespaceLogo(namespace);
                 break;
+            case STORAGE_FILE_SYSTEM:
+                fileSystemStorage.removeNamespaceLogo(namespace);
+                break;
         }
     }
 
@@ -214,6 +226,8 @@ public class StorageUtilService implements IStorageService {
                 return googleStorage.getLocation(resource);
             case STORAGE_AZURE:
                 return azureStorage.getLocation(resource);
+            case STORAGE_FILE_SYSTEM:
+                return fileSystemStorage.getLocation(resource);
             case STORAGE_DB:
                 return localStorage.getLocation(resource);
             default:
@@ -228,6 +242,8 @@ public class StorageUtilService implements IStorageService {
                 return googleStorage.getNamespaceLogoLocation(namespace);
             case STORAGE_AZURE:
                 return azureStorage.getNamespaceLogoLocation(namespace);
+            case STORAGE_FILE_SYSTEM:
+                return fileSystemStorage.getNamespaceLogoLocation(namespace);
             case STORAGE_DB:
                 return localStorage.getNamespaceLogoLocation(namespace);
             default:
@@ -254,31 +270,25 @@ public class StorageUtilService implements IStorageService {
         });
     }
 
-    @Transactional
     public void increaseDownloadCount(FileResource resource) {
         if(azureDownloadCountService.isEnabled()) {
             // don't count downloads twice
             return;
         }
 
-        var managedResource = entityManager.find(FileResource.class, resource.getId());
-        var extension = managedResource.getExtension().getExtension();
-        extension.setDownloadCount(extension.getDownloadCount() + 1);
-
-        cache.evictNamespaceDetails(extension);
-        cache.evictExtensionJsons(extension);
-        if (extension.isActive()) {
-            search.updateSearchEntry(extension);
-        }
+        var extension = resource.getExtension().getExtension();
+        downloadCountService.increaseDownloadCount(extension.getId());
     }
 
     public HttpHeaders getFileResponseHeaders(String fileName) {
         return localStorage.getFileResponseHeaders(fileName);
     }
 
-    public ResponseEntity<byte[]> getFileResponse(FileResource resource) {
+    public ResponseEntity<Resource> getFileResponse(FileResource resource) {
         if (resource.getStorageType().equals(STORAGE_DB)) {
            return localStorage.getFileResponse(resource);
+        } else if (resource.getStorageType().equals(STORAGE_FILE_SYSTEM)) {
+            return fileSystemStorage.getFileResponse(resource);
         } else {
             return ResponseEntity.status(HttpStatus.FOUND)
                     .location(getLocation(resource))
@@ -287,9 +297,11 @@ public class StorageUtilService implements IStorageService {
         }
     }
 
-    public ResponseEntity<byte[]> getNamespaceLogo(Namespace namespace) {
+    public ResponseEntity<Resource> getNamespaceLogo(Namespace namespace) {
         if (namespace.getLogoStorageType().equals(STORAGE_DB)) {
             return localStorage.getNamespaceLogo(namespace);
+        } else if (namespace.getLogoStorageType().equals(STORAGE_FILE_SYSTEM)) {
+            return fileSystemStorage.getNamespaceLogo(namespace);
         } else {
             return ResponseEntity.status(HttpStatus.FOUND)
                     .location(getNamespaceLogoLocation(namespace))
@@ -307,6 +319,9 @@ public class StorageUtilService implements IStorageService {
             case STORAGE_AZURE:
                 azureStorage.copyFiles(pairs);
                 break;
+            case STORAGE_FILE_SYSTEM:
+                fileSystemStorage.copyFiles(pairs);
+                break;
         }
     }
 }
\ No newline at end of file
@@ -12,6 +12,7 @@ package org.eclipse.openvsx.util;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Objects;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.ArrayUtils;
@@ -28,6 +29,8 @@ import jakarta.servlet.http.HttpServletRequest;
 
 public final class UrlUtil {
 
+    private static final ThreadLocal<String> BASE_URL = new ThreadLocal<>();
+
     private UrlUtil() {
     }
 
@@ -140,6 +143,11 @@ public final class UrlUtil {
      * Get the base URL to use for API requests from the current servlet request.
      */
     public static String getBaseUrl() {
+        var baseUrl = BASE_URL.get();
+        if (baseUrl != null) {
+            return baseUrl;
+        }
+
         try {
             var requestAttrs = (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
             return getBaseUrl(requestAttrs.getRequest());
@@ -149,6 +157,24 @@ public final class UrlUtil {
         }
     }
 
+    /**
+     * Run the given task with the base URL of a servlet request that is handled by another thread.
+     * The base URL is derived on the request thread, so the task does not access the request.
+     */
+    public static <T> T withBaseUrl(String baseUrl, Supplier<T> task) {
+        var previous = BASE_URL.get();
+        BASE_URL.set(baseUrl);
+        try {
+            return task.get();
+        } finally {
+            if (previous != null) {
+                BASE_URL.set(previous);
+            } else {
+                BASE_URL.remove();
+            }
+        }
+    }
+
     protected static String getBaseUrl(HttpServletRequest request) {
         var url = new StringBuilder();
 
@@ -0,0 +1,54 @@
+/** ******************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * ****************************************************************************** */
+package org.eclipse.openvsx.web;
+
+import org.eclipse.openvsx.cache.SerializedJson;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+
+/**
+ * Writes the bytes of a {@link SerializedJson} to the response as they are.
+ */
+public class SerializedJsonHttpMessageConverter extends AbstractHttpMessageConverter<SerializedJson> {
+
+    public SerializedJsonHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return SerializedJson.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected SerializedJson readInternal(Class<? extends SerializedJson> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Serialized JSON cannot be read", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(SerializedJson json, MediaType contentType) {
+        return (long) json.getContentLength();
+    }
+
+    @Override
+    protected void writeInternal(SerializedJson json, HttpOutputMessage outputMessage) throws IOException {
+        outputMessage.getBody().write(json.getContent());
+    }
+}
@@ -16,13 +16,10 @@ public class ShallowEtagHeaderFilter extends org.springframework.web.filter.Shal
 
     protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
         // limit the filter to /api/{namespace}/{extension}, /api/{namespace}/details,
-        // /api/{namespace}/{extension}/{version}, and /api/-/search endpoints
+        // and /api/{namespace}/{extension}/{version} endpoints, where it computes the ETag
+        // of upstream responses. Local responses and /api/-/search carry their own ETag.
         var path = request.getRequestURI().substring(1).split("/");
-        var applyFilter = (path.length == 3 || path.length == 4) && path[0].equals("api");
-        if(applyFilter && path[1].equals("-")) {
-            applyFilter = path[2].contains("search");
-        }
-
+        var applyFilter = (path.length == 3 || path.length == 4) && path[0].equals("api") && !path[1].equals("-");
         return !applyFilter;
     }
 }
@@ -13,12 +13,14 @@ import org.apache.commons.lang3.StringUtils;
 import org.eclipse.openvsx.mirror.MirrorExtensionHandlerInterceptor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.net.URI;
+import java.util.List;
 import java.util.Optional;
 
 @Configuration
@@ -81,4 +83,9 @@ public class WebConfig implements WebMvcConfigurer {
                     );
         }
     }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new SerializedJsonHttpMessageConverter());
+    }
 }
@@ -0,0 +1,17 @@
+CREATE TABLE change_log_entry (
+    id BIGINT NOT NULL,
+    timestamp TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    type CHARACTER VARYING(32) NOT NULL,
+    namespace CHARACTER VARYING(255) NOT NULL,
+    extension CHARACTER VARYING(255),
+    CONSTRAINT change_log_entry_pkey PRIMARY KEY (id)
+);
+
+CREATE SEQUENCE change_log_entry_seq INCREMENT 1 OWNED BY change_log_entry.id;
+CREATE INDEX change_log_entry_timestamp_idx ON change_log_entry(timestamp);
+
+CREATE TABLE data_mirror_cursor (
+    url CHARACTER VARYING(255) NOT NULL,
+    change_id BIGINT NOT NULL,
+    CONSTRAINT data_mirror_cursor_pkey PRIMARY KEY (url)
+);
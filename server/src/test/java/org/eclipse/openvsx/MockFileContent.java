@@ -0,0 +1,40 @@
+/** ******************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * ****************************************************************************** */
+package org.eclipse.openvsx;
+
+import org.eclipse.openvsx.entities.FileResource;
+import org.eclipse.openvsx.repositories.RepositoryService;
+
+import java.util.Arrays;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * Stubs the content of a file stored in the database, which is streamed in chunks
+ * by {@link org.eclipse.openvsx.storage.DatabaseContentResource}.
+ */
+public final class MockFileContent {
+
+    private MockFileContent() {
+    }
+
+    public static void mock(RepositoryService repositories, FileResource resource) {
+        var content = resource.getContent() != null ? resource.getContent() : new byte[0];
+        when(repositories.findFileContentLength(resource.getId())).thenReturn((long) content.length);
+        when(repositories.findFileContent(eq(resource.getId()), anyLong(), anyInt())).thenAnswer(invocation -> {
+            var offset = Math.toIntExact(invocation.<Long>getArgument(1));
+            var length = invocation.<Integer>getArgument(2);
+            return Arrays.copyOfRange(content, offset, offset + length);
+        });
+    }
+}
@@ -16,6 +16,7 @@ import io.micrometer.observation.ObservationRegistry;
 import jakarta.persistence.EntityManager;
 import org.eclipse.openvsx.adapter.VSCodeIdService;
 import org.eclipse.openvsx.cache.CacheService;
+import org.eclipse.openvsx.cache.ChangeStampService;
 import org.eclipse.openvsx.cache.ExtensionJsonCacheKeyGenerator;
 import org.eclipse.openvsx.cache.LatestExtensionVersionCacheKeyGenerator;
 import org.eclipse.openvsx.eclipse.EclipseService;
@@ -24,9 +25,11 @@ import org.eclipse.openvsx.json.*;
 import org.eclipse.openvsx.publish.ExtensionVersionIntegrityService;
 import org.eclipse.openvsx.publish.PublishExtensionVersionHandler;
 import org.eclipse.openvsx.publish.PublishExtensionVersionService;
+import org.eclipse.openvsx.repositories.QueryCursor;
 import org.eclipse.openvsx.repositories.RepositoryService;
 import org.eclipse.openvsx.search.ExtensionSearch;
 import org.eclipse.openvsx.search.ISearchService;
+import org.eclipse.openvsx.search.RelevanceService;
 import org.eclipse.openvsx.search.SearchUtilService;
 import org.eclipse.openvsx.security.OAuth2UserServices;
 import org.eclipse.openvsx.security.SecurityConfig;
@@ -56,6 +59,7 @@ import org.springframework.data.elasticsearch.core.SearchHit;
 import org.springframework.data.elasticsearch.core.SearchHitsImpl;
 import org.springframework.data.elasticsearch.core.TotalHitsRelation;
 import org.springframework.data.util.Streamable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
 import org.springframework.test.web.servlet.MockMvc;
@@ -67,11 +71,13 @@ import java.time.LocalDateTime;
 import java.util.*;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
 import static org.eclipse.openvsx.entities.FileResource.*;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.mockito.ArgumentMatchers.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
@@ -83,8 +89,9 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @AutoConfigureWebClient
 @MockBean({
     ClientRegistrationRepository.class, UpstreamRegistryService.class, GoogleCloudStorageService.class,
-    AzureBlobStorageService.class, VSCodeIdService.class, AzureDownloadCountService.class, CacheService.class,
-    EclipseService.class, PublishExtensionVersionService.class, SimpleMeterRegistry.class, JobRequestScheduler.class
+    AzureBlobStorageService.class, FileSystemStorageService.class, VSCodeIdService.class, AzureDownloadCountService.class, DownloadCountService.class, CacheService.class,
+    EclipseService.class, PublishExtensionVersionService.class, SimpleMeterRegistry.class, JobRequestScheduler.class,
+    RelevanceService.class
 })
 public class RegistryAPITest {
 
@@ -109,6 +116,12 @@ public class RegistryAPITest {
     @Autowired
     ExtensionService extensions;
 
+    @Autowired
+    CacheService cache;
+
+    @Autowired
+    ChangeStampService changeStamps;
+
     @Test
     public void testPublicNamespace() throws Exception {
         var namespace = mockNamespace();
@@ -164,6 +177,54 @@ public class RegistryAPITest {
                 })));
     }
 
+    @Test
+    public void testExtensionNotModified() throws Exception {
+        var extVersion = mockExtension();
+        Mockito.when(repositories.findExtensionVersion("foo", "bar", null, VersionAlias.LATEST)).thenReturn(extVersion);
+
+        var eTag = mockMvc.perform(get("/api/{namespace}/{extension}", "foo", "bar"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/{namespace}/{extension}", "foo", "bar").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+        Mockito.verify(repositories, Mockito.times(1)).findExtensionVersion("foo", "bar", null, VersionAlias.LATEST);
+    }
+
+    @Test
+    public void testExtensionModifiedByNewOwner() throws Exception {
+        var extVersion = mockExtension();
+        var namespace = extVersion.getExtension().getNamespace();
+        var publisher = new UserData();
+        publisher.setLoginName("test_user");
+        var token = new PersonalAccessToken();
+        token.setUser(publisher);
+        extVersion.setPublishedWith(token);
+        Mockito.when(repositories.findExtensionVersion("foo", "bar", null, VersionAlias.LATEST)).thenReturn(extVersion);
+        Mockito.doAnswer(invocation -> {
+            changeStamps.namespaceChanged(invocation.getArgument(0));
+            return null;
+        }).when(cache).evictNamespaceDetails(anyString());
+
+        var eTag = mockMvc.perform(get("/api/{namespace}/{extension}", "foo", "bar"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.verified").value(false))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        users.addNamespaceMember(namespace, publisher, NamespaceMembership.ROLE_OWNER);
+        Mockito.when(repositories.isVerified(namespace, publisher)).thenReturn(true);
+        Mockito.verify(cache).evictExtensionJsons(namespace);
+
+        var newETag = mockMvc.perform(get("/api/{namespace}/{extension}", "foo", "bar").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.verified").value(true))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(eTag, newETag);
+    }
+
     @Test
     public void testExtensionWithPublicKey() throws Exception {
         Mockito.when(integrityService.isEnabled()).thenReturn(true);
@@ -480,6 +541,18 @@ public class RegistryAPITest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    public void testReadmeRange() throws Exception {
+        var resource = mockReadme();
+        Mockito.when(repositories.findFileByType("foo", "bar", "universal", "1.0.0", README)).thenReturn(resource);
+
+        mockMvc.perform(get("/api/{namespace}/{extension}/{version}/file/{fileName}", "foo", "bar", "1.0.0", "README")
+                        .header("Range", "bytes=7-"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 7-13/14"))
+                .andExpect(content().string("read me"));
+    }
+
     @Test
     public void testChangelog() throws Exception {
         var resource = mockChangelog();
@@ -740,6 +813,70 @@ public class RegistryAPITest {
                 })));
     }
 
+    @Test
+    public void testGetQueryCursor() throws Exception {
+        mockExtensionVersion();
+        var cursor = new QueryCursor(2L, TargetPlatform.NAME_UNIVERSAL, 1, 0, 0, false, 3L).toString();
+        mockMvc.perform(get("/api/-/query?extensionName={extensionName}&size={size}&cursor=", "bar", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.extensions[0].name").value("bar"))
+                .andExpect(jsonPath("$.totalSize").value(1))
+                .andExpect(jsonPath("$.nextCursor").value(cursor));
+
+        mockMvc.perform(get("/api/-/query?extensionName={extensionName}&size={size}&cursor={cursor}", "bar", 1, cursor))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{ \"extensions\": [] }"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    public void testGetQueryInvalidCursor() throws Exception {
+        mockExtensionVersion();
+        mockMvc.perform(get("/api/-/query?extensionName={extensionName}&cursor={cursor}", "bar", "foo"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testGetQueryCursorWithOffset() throws Exception {
+        mockExtensionVersion();
+        mockMvc.perform(get("/api/-/query?extensionName={extensionName}&offset={offset}&cursor=", "bar", 10))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().json(errorJson("The parameters 'offset' and 'cursor' must not be combined.")));
+    }
+
+    @Test
+    public void testGetChanges() throws Exception {
+        var timestamp = LocalDateTime.parse("2000-01-01T10:00");
+        var update = changeLogEntry(6, timestamp, ChangeLogEntry.UPDATE, "foo", "bar");
+        var namespaceChange = changeLogEntry(7, timestamp, ChangeLogEntry.NAMESPACE, "foo", null);
+        Mockito.when(repositories.findOldestChangeId()).thenReturn(1L);
+        Mockito.when(repositories.findChanges(eq(5L), any(LocalDateTime.class), eq(100)))
+                .thenReturn(List.of(update, namespaceChange));
+
+        mockMvc.perform(get("/api/-/changes?since={since}", 5))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"nextCursor\":7,\"changes\":["
+                        + "{\"id\":6,\"timestamp\":\"2000-01-01T10:00Z\",\"type\":\"update\",\"namespace\":\"foo\",\"extension\":\"bar\"},"
+                        + "{\"id\":7,\"timestamp\":\"2000-01-01T10:00Z\",\"type\":\"namespace\",\"namespace\":\"foo\"}"
+                        + "]}"));
+    }
+
+    @Test
+    public void testGetChangesWithoutCursor() throws Exception {
+        Mockito.when(repositories.findLatestChangeId(any(LocalDateTime.class))).thenReturn(42L);
+        mockMvc.perform(get("/api/-/changes"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"nextCursor\":42,\"changes\":[]}"));
+    }
+
+    @Test
+    public void testGetChangesExpiredCursor() throws Exception {
+        Mockito.when(repositories.findOldestChangeId()).thenReturn(10L);
+        mockMvc.perform(get("/api/-/changes?since={since}", 5))
+                .andExpect(status().isGone())
+                .andExpect(content().json(errorJson("Changes after cursor 5 are no longer available.")));
+    }
+
     @Test
     public void testGetQueryV2ExtensionName() throws Exception {
         mockExtensionVersion();
@@ -1876,18 +2013,25 @@ public class RegistryAPITest {
         Mockito.when(repositories.findLatestVersionsIsPreview(Set.of(extension.getId())))
                 .thenReturn(Map.of(extension.getId(), extVersion.isPreview()));
 
+        Function<QueryRequest, List<ExtensionVersion>> query = request ->
+                namespace.getPublicId().equals(request.namespaceUuid)
+                        || namespace.getName().equals(request.namespaceName)
+                        || extension.getPublicId().equals(request.extensionUuid)
+                        || extension.getName().equals(request.extensionName)
+                        ? List.of(extVersion)
+                        : Collections.<ExtensionVersion>emptyList();
+
         Mockito.when(repositories.findActiveVersions(any(QueryRequest.class)))
                 .then((Answer<Page<ExtensionVersion>>) invocation -> {
-                    var request = invocation.getArgument(0, QueryRequest.class);
-                    var versions = namespace.getPublicId().equals(request.namespaceUuid)
-                            || namespace.getName().equals(request.namespaceName)
-                            || extension.getPublicId().equals(request.extensionUuid)
-                            || extension.getName().equals(request.extensionName)
-                            ? List.of(extVersion)
-                            : Collections.<ExtensionVersion>emptyList();
-
+                    var versions = query.apply(invocation.getArgument(0, QueryRequest.class));
                     return new PageImpl<>(versions, Pageable.ofSize(100), versions.size());
                 });
+        Mockito.when(repositories.findActiveVersions(any(QueryRequest.class), isNull()))
+                .then((Answer<List<ExtensionVersion>>) invocation -> query.apply(invocation.getArgument(0, QueryRequest.class)));
+        Mockito.when(repositories.findActiveVersions(any(QueryRequest.class), eq(QueryCursor.of(extVersion))))
+                .thenReturn(Collections.emptyList());
+        Mockito.when(repositories.countActiveVersions(any(QueryRequest.class)))
+                .then(invocation -> query.apply(invocation.getArgument(0, QueryRequest.class)).size());
 
         var fileTypes = List.of(DOWNLOAD, MANIFEST, ICON, README, LICENSE, CHANGELOG);
         Mockito.when(repositories.findFileResourcesByExtensionVersionIdAndType(Set.of(extVersion.getId()), fileTypes))
@@ -2007,7 +2151,7 @@ public class RegistryAPITest {
         resource.setType(FileResource.README);
         resource.setContent("Please read me".getBytes());
         resource.setStorageType(FileResource.STORAGE_DB);
-        Mockito.when(entityManager.find(FileResource.class, resource.getId())).thenReturn(resource);
+        MockFileContent.mock(repositories, resource);
         return resource;
     }
 
@@ -2019,7 +2163,7 @@ public class RegistryAPITest {
         resource.setType(FileResource.CHANGELOG);
         resource.setContent("All notable changes is documented here".getBytes());
         resource.setStorageType(FileResource.STORAGE_DB);
-        Mockito.when(entityManager.find(FileResource.class, resource.getId())).thenReturn(resource);
+        MockFileContent.mock(repositories, resource);
         return resource;
     }
 
@@ -2031,7 +2175,7 @@ public class RegistryAPITest {
         resource.setType(FileResource.LICENSE);
         resource.setContent("I never broke the Law! I am the law!".getBytes());
         resource.setStorageType(FileResource.STORAGE_DB);
-        Mockito.when(entityManager.find(FileResource.class, resource.getId())).thenReturn(resource);
+        MockFileContent.mock(repositories, resource);
         return resource;
     }
 
@@ -2043,7 +2187,7 @@ public class RegistryAPITest {
         resource.setType(FileResource.DOWNLOAD);
         resource.setContent("latest download".getBytes());
         resource.setStorageType(FileResource.STORAGE_DB);
-        Mockito.when(entityManager.find(FileResource.class, resource.getId())).thenReturn(resource);
+        MockFileContent.mock(repositories, resource);
         return resource;
     }
 
@@ -2224,6 +2368,16 @@ public class RegistryAPITest {
         return new ObjectMapper().writeValueAsString(json);
     }
 
+    private ChangeLogEntry changeLogEntry(long id, LocalDateTime timestamp, String type, String namespace, String extension) {
+        var entry = new ChangeLogEntry();
+        entry.setId(id);
+        entry.setTimestamp(timestamp);
+        entry.setType(type);
+        entry.setNamespace(namespace);
+        entry.setExtension(extension);
+        return entry;
+    }
+
     private String errorJson(String message) throws JsonProcessingException {
         var json = ResultJson.error(message);
         return new ObjectMapper().writeValueAsString(json);
@@ -2293,6 +2447,11 @@ public class RegistryAPITest {
             return new MockTransactionTemplate();
         }
 
+        @Bean
+        RegistryFanOut registryFanOut() {
+            return new RegistryFanOut();
+        }
+
         @Bean
         OAuth2UserServices oauth2UserServices(
                 UserService users,
@@ -2321,6 +2480,7 @@ public class RegistryAPITest {
                 VersionService versions,
                 UserService users,
                 SearchUtilService search,
+                RelevanceService relevance,
                 ExtensionValidator validator,
                 StorageUtilService storageUtil,
                 EclipseService eclipse,
@@ -2335,6 +2495,7 @@ public class RegistryAPITest {
                     versions,
                     users,
                     search,
+                    relevance,
                     validator,
                     storageUtil,
                     eclipse,
@@ -2344,15 +2505,31 @@ public class RegistryAPITest {
             );
         }
 
+        @Bean
+        SerializedJsonService serializedJsonService(LocalRegistryService local, ObjectMapper mapper) {
+            return new SerializedJsonService(local, mapper);
+        }
+
+        @Bean
+        ChangeStampService changeStampService() {
+            return new ChangeStampService();
+        }
+
+        @Bean
+        ChangeLogService changeLogService(EntityManager entityManager, RepositoryService repositories) {
+            return new ChangeLogService(entityManager, repositories);
+        }
+
         @Bean
         ExtensionService extensionService(
                 RepositoryService repositories,
                 SearchUtilService search,
                 CacheService cache,
                 PublishExtensionVersionHandler publishHandler,
+                ChangeLogService changeLog,
                 ObservationRegistry observations
         ) {
-            return new ExtensionService(repositories, search, cache, publishHandler, observations);
+            return new ExtensionService(repositories, search, cache, publishHandler, changeLog, observations);
         }
 
         @Bean
@@ -2365,29 +2542,27 @@ public class RegistryAPITest {
                 RepositoryService repositories,
                 GoogleCloudStorageService googleStorage,
                 AzureBlobStorageService azureStorage,
+                FileSystemStorageService fileSystemStorage,
                 LocalStorageService localStorage,
                 AzureDownloadCountService azureDownloadCountService,
-                SearchUtilService search,
-                CacheService cache,
-                EntityManager entityManager,
+                DownloadCountService downloadCountService,
                 ObservationRegistry observations
         ) {
             return new StorageUtilService(
                     repositories,
                     googleStorage,
                     azureStorage,
+                    fileSystemStorage,
                     azureDownloadCountService,
+                    downloadCountService,
                     localStorage,
-                    search,
-                    cache,
-                    entityManager,
                     observations
             );
         }
 
         @Bean
-        LocalStorageService localStorageService(EntityManager entityManager) {
-            return new LocalStorageService(entityManager);
+        LocalStorageService localStorageService(EntityManager entityManager, RepositoryService repositories) {
+            return new LocalStorageService(entityManager, repositories);
         }
 
         @Bean
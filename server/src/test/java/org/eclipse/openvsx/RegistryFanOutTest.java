@@ -0,0 +1,205 @@
+/** ******************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * ****************************************************************************** */
+package org.eclipse.openvsx;
+
+import org.eclipse.openvsx.json.NamespaceJson;
+import org.eclipse.openvsx.util.NotFoundException;
+import org.eclipse.openvsx.util.UrlUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class RegistryFanOutTest {
+
+    RegistryFanOut fanOut;
+
+    @AfterEach
+    public void teardown() {
+        fanOut.shutdownExecutor();
+    }
+
+    @Test
+    public void testQueriedConcurrently() {
+        createFanOut(true, 5000);
+        var upstreamCalled = new CountDownLatch(1);
+        var local = mock(IExtensionRegistry.class);
+        when(local.getNamespace("foo")).then(invocation -> {
+            // the local registry answers only after the upstream registry has been called
+            assertTrue(upstreamCalled.await(5, TimeUnit.SECONDS));
+            return namespaceJson("local");
+        });
+        var upstream = mock(IExtensionRegistry.class);
+        when(upstream.getNamespace("foo")).then(invocation -> {
+            upstreamCalled.countDown();
+            return namespaceJson("upstream");
+        });
+
+        var results = fanOut.query(List.of(local, upstream), registry -> registry.getNamespace("foo"));
+        assertEquals("local", results.get(0).get().name);
+        assertEquals("upstream", results.get(1).get().name);
+    }
+
+    @Test
+    public void testUpstreamTimeout() {
+        createFanOut(true, 100);
+        var local = mock(IExtensionRegistry.class);
+        when(local.getNamespace("foo")).thenReturn(namespaceJson("local"));
+        var upstream = mock(IExtensionRegistry.class);
+        when(upstream.getNamespace("foo")).then(invocation -> {
+            Thread.sleep(2000);
+            return namespaceJson("upstream");
+        });
+
+        var results = fanOut.query(List.of(local, upstream), registry -> registry.getNamespace("foo"));
+        assertEquals("local", results.get(0).get().name);
+        assertThrows(NotFoundException.class, () -> results.get(1).get());
+    }
+
+    @Test
+    public void testUpstreamException() {
+        createFanOut(true, 5000);
+        var local = mock(IExtensionRegistry.class);
+        var upstream = mock(IExtensionRegistry.class);
+        when(upstream.getNamespace("foo")).thenThrow(new NotFoundException());
+
+        var results = fanOut.query(List.of(local, upstream), registry -> registry.getNamespace("foo"));
+        assertThrows(NotFoundException.class, () -> results.get(1).get());
+    }
+
+    @Test
+    public void testDisabled() {
+        createFanOut(false, 5000);
+        var local = mock(IExtensionRegistry.class);
+        var upstream = mock(IExtensionRegistry.class);
+
+        var results = fanOut.query(List.of(local, upstream), registry -> registry.getNamespace("foo"));
+        results.get(0).get();
+        verify(upstream, never()).getNamespace("foo");
+        results.get(1).get();
+        verify(upstream).getNamespace("foo");
+    }
+
+    @Test
+    public void testUpstreamTimeoutCancelsRequest() throws InterruptedException {
+        createFanOut(true, 100);
+        var interrupted = new CountDownLatch(1);
+        var local = mock(IExtensionRegistry.class);
+        var upstream = mock(IExtensionRegistry.class);
+        when(upstream.getNamespace("foo")).then(invocation -> {
+            try {
+                Thread.sleep(5000);
+            } catch (InterruptedException exc) {
+                interrupted.countDown();
+            }
+            return namespaceJson("upstream");
+        });
+
+        var results = fanOut.query(List.of(local, upstream), registry -> registry.getNamespace("foo"));
+        assertThrows(NotFoundException.class, () -> results.get(1).get());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testCloseCancelsUnreadRequests() throws InterruptedException {
+        createFanOut(true, 5000);
+        var started = new CountDownLatch(1);
+        var interrupted = new CountDownLatch(1);
+        var local = mock(IExtensionRegistry.class);
+        when(local.getNamespace("foo")).thenReturn(namespaceJson("local"));
+        var upstream = mock(IExtensionRegistry.class);
+        when(upstream.getNamespace("foo")).then(invocation -> {
+            started.countDown();
+            try {
+                Thread.sleep(5000);
+            } catch (InterruptedException exc) {
+                interrupted.countDown();
+            }
+            return namespaceJson("upstream");
+        });
+
+        // the local result suffices, so the upstream result is never read
+        try (var results = fanOut.query(List.of(local, upstream), registry -> registry.getNamespace("foo"))) {
+            assertEquals("local", results.get(0).get().name);
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+        }
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testQueueFull() throws InterruptedException {
+        createFanOut(true, 5000, 1, 0);
+        var release = new CountDownLatch(1);
+        var local = mock(IExtensionRegistry.class);
+        var upstream1 = mock(IExtensionRegistry.class);
+        when(upstream1.getNamespace("foo")).then(invocation -> {
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return namespaceJson("upstream1");
+        });
+        var upstream2 = mock(IExtensionRegistry.class);
+        when(upstream2.getNamespace("foo")).thenReturn(namespaceJson("upstream2"));
+
+        var results = fanOut.query(List.of(local, upstream1, upstream2), registry -> registry.getNamespace("foo"));
+        assertThrows(NotFoundException.class, () -> results.get(2).get());
+        verify(upstream2, never()).getNamespace("foo");
+
+        release.countDown();
+        assertEquals("upstream1", results.get(1).get().name);
+    }
+
+    @Test
+    public void testBaseUrlOfRequest() {
+        createFanOut(true, 5000);
+        var request = new MockHttpServletRequest();
+        request.addHeader("X-Forwarded-Proto", "https");
+        request.addHeader("X-Forwarded-Host", "open-vsx.org");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            var local = mock(IExtensionRegistry.class);
+            var upstream = mock(IExtensionRegistry.class);
+            when(upstream.getNamespace("foo")).then(invocation -> {
+                assertNull(RequestContextHolder.getRequestAttributes());
+                return namespaceJson(UrlUtil.getBaseUrl());
+            });
+
+            var results = fanOut.query(List.of(local, upstream), registry -> registry.getNamespace("foo"));
+            assertEquals("https://open-vsx.org", results.get(1).get().name);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    private void createFanOut(boolean enabled, long timeout) {
+        createFanOut(enabled, timeout, 2, 16);
+    }
+
+    private void createFanOut(boolean enabled, long timeout, int threads, int queueSize) {
+        fanOut = new RegistryFanOut();
+        fanOut.enabled = enabled;
+        fanOut.timeout = timeout;
+        fanOut.threads = threads;
+        fanOut.queueSize = queueSize;
+        fanOut.createExecutor();
+    }
+
+    private NamespaceJson namespaceJson(String name) {
+        var json = new NamespaceJson();
+        json.name = name;
+        return json;
+    }
+}
@@ -0,0 +1,145 @@
+/** ******************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * ****************************************************************************** */
+package org.eclipse.openvsx;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.openvsx.json.NamespaceJson;
+import org.eclipse.openvsx.util.NotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.*;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.eclipse.openvsx.cache.CacheService.CACHE_UPSTREAM_RESPONSE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class UpstreamResponseCacheTest {
+
+    private static final String URL = "https://open-vsx.org/api/{namespace}";
+    private static final Map<String, String> URI_VARIABLES = Map.of("namespace", "foo");
+
+    RestTemplate restTemplate;
+    AtomicLong now;
+    UpstreamResponseCache responses;
+
+    @BeforeEach
+    public void setup() {
+        restTemplate = mock(RestTemplate.class);
+        when(restTemplate.getUriTemplateHandler()).thenReturn(new DefaultUriBuilderFactory());
+
+        now = new AtomicLong(1_000_000L);
+        var clock = mock(Clock.class);
+        when(clock.millis()).then(invocation -> now.get());
+
+        var cacheManager = new ConcurrentMapCacheManager(CACHE_UPSTREAM_RESPONSE);
+        responses = new UpstreamResponseCache(restTemplate, cacheManager, new ObjectMapper(), clock);
+        responses.notFoundTtl = 30;
+    }
+
+    @Test
+    public void testCachedForMaxAge() {
+        mockResponse(HttpStatus.OK, "max-age=60", null);
+
+        var json = responses.getForObject(URL, NamespaceJson.class, URI_VARIABLES);
+        assertEquals("foo", json.name);
+        json.name = "modified";
+        assertEquals("foo", responses.getForObject(URL, NamespaceJson.class, URI_VARIABLES).name);
+        verify(restTemplate, times(1)).exchange(any(URI.class), eq(HttpMethod.GET), any(), eq(byte[].class));
+
+        now.addAndGet(61_000);
+        responses.getForObject(URL, NamespaceJson.class, URI_VARIABLES);
+        verify(restTemplate, times(2)).exchange(any(URI.class), eq(HttpMethod.GET), any(), eq(byte[].class));
+    }
+
+    @Test
+    public void testRevalidatedWithETag() {
+        mockResponse(HttpStatus.OK, "no-cache", "\"1\"");
+        responses.getForObject(URL, NamespaceJson.class, URI_VARIABLES);
+
+        var request = new AtomicReference<HttpEntity<?>>();
+        when(restTemplate.exchange(any(URI.class), eq(HttpMethod.GET), any(), eq(byte[].class))).then(invocation -> {
+            request.set(invocation.getArgument(2));
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag("\"1\"").build();
+        });
+
+        assertEquals("foo", responses.getForObject(URL, NamespaceJson.class, URI_VARIABLES).name);
+        assertEquals("\"1\"", request.get().getHeaders().getIfNoneMatch().get(0));
+    }
+
+    @Test
+    public void testNotFoundCached() {
+        when(restTemplate.exchange(any(URI.class), eq(HttpMethod.GET), any(), eq(byte[].class)))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", HttpHeaders.EMPTY, null, null));
+
+        assertThrows(NotFoundException.class, () -> responses.getForObject(URL, NamespaceJson.class, URI_VARIABLES));
+        assertThrows(NotFoundException.class, () -> responses.getForObject(URL, NamespaceJson.class, URI_VARIABLES));
+        verify(restTemplate, times(1)).exchange(any(URI.class), eq(HttpMethod.GET), any(), eq(byte[].class));
+
+        now.addAndGet(31_000);
+        assertThrows(NotFoundException.class, () -> responses.getForObject(URL, NamespaceJson.class, URI_VARIABLES));
+        verify(restTemplate, times(2)).exchange(any(URI.class), eq(HttpMethod.GET), any(), eq(byte[].class));
+    }
+
+    @Test
+    public void testConcurrentRequestsCollapsed() throws InterruptedException {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        when(restTemplate.exchange(any(URI.class), eq(HttpMethod.GET), any(), eq(byte[].class))).then(invocation -> {
+            started.countDown();
+            release.await();
+            return response(HttpStatus.OK, "no-store", null);
+        });
+
+        var names = new String[2];
+        var first = new Thread(() -> names[0] = responses.getForObject(URL, NamespaceJson.class, URI_VARIABLES).name);
+        var second = new Thread(() -> names[1] = responses.getForObject(URL, NamespaceJson.class, URI_VARIABLES).name);
+        first.start();
+        started.await();
+        second.start();
+        while (second.getState() != Thread.State.WAITING) {
+            Thread.sleep(10);
+        }
+
+        release.countDown();
+        first.join();
+        second.join();
+        assertArrayEquals(new String[] { "foo", "foo" }, names);
+        verify(restTemplate, times(1)).exchange(any(URI.class), eq(HttpMethod.GET), any(), eq(byte[].class));
+    }
+
+    private void mockResponse(HttpStatus status, String cacheControl, String eTag) {
+        when(restTemplate.exchange(any(URI.class), eq(HttpMethod.GET), any(), eq(byte[].class)))
+                .then(invocation -> response(status, cacheControl, eTag));
+    }
+
+    private ResponseEntity<byte[]> response(HttpStatus status, String cacheControl, String eTag) {
+        var headers = new HttpHeaders();
+        headers.setCacheControl(cacheControl);
+        if (eTag != null) {
+            headers.setETag(eTag);
+        }
+
+        var body = "{\"name\":\"foo\"}".getBytes(StandardCharsets.UTF_8);
+        return new ResponseEntity<>(body, headers, status);
+    }
+}
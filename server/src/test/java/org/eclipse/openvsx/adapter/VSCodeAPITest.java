@@ -16,7 +16,9 @@ import com.google.common.io.CharStreams;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.micrometer.observation.ObservationRegistry;
 import jakarta.persistence.EntityManager;
+import org.eclipse.openvsx.ChangeLogService;
 import org.eclipse.openvsx.ExtensionValidator;
+import org.eclipse.openvsx.MockFileContent;
 import org.eclipse.openvsx.MockTransactionTemplate;
 import org.eclipse.openvsx.UserService;
 import org.eclipse.openvsx.cache.CacheService;
@@ -60,7 +62,7 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 import static org.eclipse.openvsx.entities.FileResource.*;
-import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -68,10 +70,10 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @WebMvcTest(VSCodeAPI.class)
 @AutoConfigureWebClient
 @MockBean({
-    ClientRegistrationRepository.class, GoogleCloudStorageService.class, AzureBlobStorageService.class,
-    AzureDownloadCountService.class, CacheService.class, UpstreamVSCodeService.class,
+    ClientRegistrationRepository.class, GoogleCloudStorageService.class, AzureBlobStorageService.class, FileSystemStorageService.class,
+    AzureDownloadCountService.class, DownloadCountService.class, CacheService.class, UpstreamVSCodeService.class,
     VSCodeIdService.class, EntityManager.class, EclipseService.class, ExtensionValidator.class,
-    SimpleMeterRegistry.class
+    ChangeLogService.class, SimpleMeterRegistry.class
 })
 public class VSCodeAPITest {
 
@@ -652,8 +654,9 @@ public class VSCodeAPITest {
                 .thenReturn(results);
 
         var ids = List.of(extension.getId());
-        Mockito.when(repositories.findActiveExtension(extension.getName(), extension.getNamespace().getName()))
-                .thenReturn(extension);
+        Mockito.when(repositories.findActiveExtensionsByName(Mockito.argThat(extensionIds -> extensionIds.stream()
+                        .anyMatch(id -> id[0].equalsIgnoreCase(extension.getNamespace().getName()) && id[1].equalsIgnoreCase(extension.getName())))))
+                .thenReturn(results);
 
         mockExtensionVersions(extension, targetPlatform, targetPlatform);
         return extension;
@@ -754,6 +757,7 @@ public class VSCodeAPITest {
         var resource = mockFileResource(id, extVersion, name, type);
         resource.setStorageType(storageType);
         resource.setContent(content);
+        MockFileContent.mock(repositories, resource);
 
         return resource;
     }
@@ -803,7 +807,7 @@ public class VSCodeAPITest {
         extensionFile.setName("redhat.vscode-yaml-0.5.2.vsix");
         extensionFile.setType(FileResource.DOWNLOAD);
         extensionFile.setStorageType(FileResource.STORAGE_DB);
-        Mockito.when(entityManager.find(FileResource.class, extensionFile.getId())).thenReturn(extensionFile);
+        MockFileContent.mock(repositories, extensionFile);
         Mockito.when(repositories.findFileByType(namespace.getName(), extension.getName(), targetPlatform, extVersion.getVersion(), DOWNLOAD))
                 .thenReturn(extensionFile);
 
@@ -818,7 +822,7 @@ public class VSCodeAPITest {
             manifestContent.put("target", targetPlatform);
         manifestFile.setContent(new ObjectMapper().writeValueAsBytes(manifestContent));
         manifestFile.setStorageType(FileResource.STORAGE_DB);
-        Mockito.when(entityManager.find(FileResource.class, manifestFile.getId())).thenReturn(manifestFile);
+        MockFileContent.mock(repositories, manifestFile);
         Mockito.when(repositories.findFileByType(namespace.getName(), extension.getName(), targetPlatform, extVersion.getVersion(), FileResource.MANIFEST))
                 .thenReturn(manifestFile);
         var readmeFile = new FileResource();
@@ -826,7 +830,7 @@ public class VSCodeAPITest {
         readmeFile.setName("README.md");
         readmeFile.setType(FileResource.README);
         readmeFile.setStorageType(FileResource.STORAGE_DB);
-        Mockito.when(entityManager.find(FileResource.class, readmeFile.getId())).thenReturn(readmeFile);
+        MockFileContent.mock(repositories, readmeFile);
         Mockito.when(repositories.findFileByType(namespace.getName(), extension.getName(), targetPlatform, extVersion.getVersion(), README))
                 .thenReturn(readmeFile);
         var changelogFile = new FileResource();
@@ -834,7 +838,7 @@ public class VSCodeAPITest {
         changelogFile.setName("CHANGELOG.md");
         changelogFile.setType(FileResource.CHANGELOG);
         changelogFile.setStorageType(FileResource.STORAGE_DB);
-        Mockito.when(entityManager.find(FileResource.class, changelogFile.getId())).thenReturn(changelogFile);
+        MockFileContent.mock(repositories, changelogFile);
         Mockito.when(repositories.findFileByType(namespace.getName(), extension.getName(), targetPlatform, extVersion.getVersion(), CHANGELOG))
                 .thenReturn(changelogFile);
         var licenseFile = new FileResource();
@@ -842,7 +846,7 @@ public class VSCodeAPITest {
         licenseFile.setName("LICENSE.txt");
         licenseFile.setType(FileResource.LICENSE);
         licenseFile.setStorageType(FileResource.STORAGE_DB);
-        Mockito.when(entityManager.find(FileResource.class, licenseFile.getId())).thenReturn(licenseFile);
+        MockFileContent.mock(repositories, licenseFile);
         Mockito.when(repositories.findFileByType(namespace.getName(), extension.getName(), targetPlatform, extVersion.getVersion(), LICENSE))
                 .thenReturn(licenseFile);
         var iconFile = new FileResource();
@@ -850,7 +854,7 @@ public class VSCodeAPITest {
         iconFile.setName("icon128.png");
         iconFile.setType(FileResource.ICON);
         iconFile.setStorageType(FileResource.STORAGE_DB);
-        Mockito.when(entityManager.find(FileResource.class, iconFile.getId())).thenReturn(iconFile);
+        MockFileContent.mock(repositories, iconFile);
         Mockito.when(repositories.findFileByType(namespace.getName(), extension.getName(), targetPlatform, extVersion.getVersion(), ICON))
                 .thenReturn(iconFile);
         var vsixManifestFile = new FileResource();
@@ -858,7 +862,7 @@ public class VSCodeAPITest {
         vsixManifestFile.setName("extension.vsixmanifest");
         vsixManifestFile.setType(VSIXMANIFEST);
         vsixManifestFile.setStorageType(FileResource.STORAGE_DB);
-        Mockito.when(entityManager.find(FileResource.class, vsixManifestFile.getId())).thenReturn(vsixManifestFile);
+        MockFileContent.mock(repositories, vsixManifestFile);
         Mockito.when(repositories.findFileByType(namespace.getName(), extension.getName(), targetPlatform, extVersion.getVersion(), VSIXMANIFEST))
                 .thenReturn(vsixManifestFile);
         var signatureFile = new FileResource();
@@ -866,7 +870,7 @@ public class VSCodeAPITest {
         signatureFile.setName("redhat.vscode-yaml-0.5.2.sigzip");
         signatureFile.setType(FileResource.DOWNLOAD_SIG);
         signatureFile.setStorageType(FileResource.STORAGE_DB);
-        Mockito.when(entityManager.find(FileResource.class, signatureFile.getId())).thenReturn(signatureFile);
+        MockFileContent.mock(repositories, signatureFile);
         Mockito.when(repositories.findFileByType(namespace.getName(), extension.getName(), targetPlatform, extVersion.getVersion(), DOWNLOAD_SIG))
                 .thenReturn(signatureFile);
         var webResourceFile = new FileResource();
@@ -875,7 +879,7 @@ public class VSCodeAPITest {
         webResourceFile.setType(FileResource.RESOURCE);
         webResourceFile.setStorageType(STORAGE_DB);
         webResourceFile.setContent("logo.png".getBytes());
-        Mockito.when(entityManager.find(FileResource.class, webResourceFile.getId())).thenReturn(webResourceFile);
+        MockFileContent.mock(repositories, webResourceFile);
         Mockito.when(repositories.findFileByTypeAndName(namespace.getName(), extension.getName(), targetPlatform, extVersion.getVersion(), FileResource.RESOURCE, "extension/img/logo.png"))
                 .thenReturn(webResourceFile);
         Mockito.when(repositories.findFilesByType(anyCollection(), anyCollection())).thenAnswer(invocation -> {
@@ -946,10 +950,11 @@ public class VSCodeAPITest {
                 RepositoryService repositories,
                 StorageUtilService storageUtil,
                 CacheService cache,
+                ChangeLogService changeLog,
                 ExtensionValidator validator,
                 ObservationRegistry observations
         ) {
-            return new UserService(entityManager, repositories, storageUtil, cache, validator, observations);
+            return new UserService(entityManager, repositories, storageUtil, cache, changeLog, validator, observations);
         }
 
         @Bean
@@ -957,29 +962,27 @@ public class VSCodeAPITest {
                 RepositoryService repositories,
                 GoogleCloudStorageService googleStorage,
                 AzureBlobStorageService azureStorage,
+                FileSystemStorageService fileSystemStorage,
                 LocalStorageService localStorage,
                 AzureDownloadCountService azureDownloadCountService,
-                SearchUtilService search,
-                CacheService cache,
-                EntityManager entityManager,
+                DownloadCountService downloadCountService,
                 ObservationRegistry observations
         ) {
             return new StorageUtilService(
                     repositories,
                     googleStorage,
                     azureStorage,
+                    fileSystemStorage,
                     azureDownloadCountService,
+                    downloadCountService,
                     localStorage,
-                    search,
-                    cache,
-                    entityManager,
                     observations
             );
         }
 
         @Bean
-        LocalStorageService localStorage(EntityManager entityManager) {
-            return new LocalStorageService(entityManager);
+        LocalStorageService localStorage(EntityManager entityManager, RepositoryService repositories) {
+            return new LocalStorageService(entityManager, repositories);
         }
 
         @Bean
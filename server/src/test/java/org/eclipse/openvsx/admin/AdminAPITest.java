@@ -23,6 +23,7 @@ import org.eclipse.openvsx.json.*;
 import org.eclipse.openvsx.publish.ExtensionVersionIntegrityService;
 import org.eclipse.openvsx.publish.PublishExtensionVersionHandler;
 import org.eclipse.openvsx.repositories.RepositoryService;
+import org.eclipse.openvsx.search.RelevanceService;
 import org.eclipse.openvsx.search.SearchUtilService;
 import org.eclipse.openvsx.security.OAuth2UserServices;
 import org.eclipse.openvsx.security.SecurityConfig;
@@ -68,9 +69,9 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @AutoConfigureWebClient
 @MockBean({
     ClientRegistrationRepository.class, UpstreamRegistryService.class, GoogleCloudStorageService.class,
-    AzureBlobStorageService.class, VSCodeIdService.class, AzureDownloadCountService.class,
+    AzureBlobStorageService.class, FileSystemStorageService.class, VSCodeIdService.class, AzureDownloadCountService.class, DownloadCountService.class,
     CacheService.class, PublishExtensionVersionHandler.class, SearchUtilService.class,
-    EclipseService.class, SimpleMeterRegistry.class
+    EclipseService.class, SimpleMeterRegistry.class, RelevanceService.class, ChangeLogService.class
 })
 public class AdminAPITest {
     
@@ -1228,6 +1229,7 @@ public class AdminAPITest {
                 EclipseService eclipse,
                 StorageUtilService storageUtil,
                 CacheService cache,
+                ChangeLogService changeLog,
                 JobRequestScheduler scheduler
         ) {
             return new AdminService(
@@ -1240,6 +1242,7 @@ public class AdminAPITest {
                     eclipse,
                     storageUtil,
                     cache,
+                    changeLog,
                     scheduler
             );
         }
@@ -1252,6 +1255,7 @@ public class AdminAPITest {
                 VersionService versions,
                 UserService users,
                 SearchUtilService search,
+                RelevanceService relevance,
                 ExtensionValidator validator,
                 StorageUtilService storageUtil,
                 EclipseService eclipse,
@@ -1266,6 +1270,7 @@ public class AdminAPITest {
                     versions,
                     users,
                     search,
+                    relevance,
                     validator,
                     storageUtil,
                     eclipse,
@@ -1286,9 +1291,10 @@ public class AdminAPITest {
                 SearchUtilService search,
                 CacheService cache,
                 PublishExtensionVersionHandler publishHandler,
+                ChangeLogService changeLog,
                 ObservationRegistry observations
         ) {
-            return new ExtensionService(repositories, search, cache, publishHandler, observations);
+            return new ExtensionService(repositories, search, cache, publishHandler, changeLog, observations);
         }
 
         @Bean
@@ -1301,29 +1307,27 @@ public class AdminAPITest {
                 RepositoryService repositories,
                 GoogleCloudStorageService googleStorage,
                 AzureBlobStorageService azureStorage,
+                FileSystemStorageService fileSystemStorage,
                 LocalStorageService localStorage,
                 AzureDownloadCountService azureDownloadCountService,
-                SearchUtilService search,
-                CacheService cache,
-                EntityManager entityManager,
+                DownloadCountService downloadCountService,
                 ObservationRegistry observations
         ) {
             return new StorageUtilService(
                     repositories,
                     googleStorage,
                     azureStorage,
+                    fileSystemStorage,
                     azureDownloadCountService,
+                    downloadCountService,
                     localStorage,
-                    search,
-                    cache,
-                    entityManager,
                     observations
             );
         }
 
         @Bean
-        LocalStorageService localStorage(EntityManager entityManager) {
-            return new LocalStorageService(entityManager);
+        LocalStorageService localStorage(EntityManager entityManager, RepositoryService repositories) {
+            return new LocalStorageService(entityManager, repositories);
         }
 
         @Bean
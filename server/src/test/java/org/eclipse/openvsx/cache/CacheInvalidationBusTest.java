@@ -0,0 +1,136 @@
+/** ******************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * ****************************************************************************** */
+package org.eclipse.openvsx.cache;
+
+import org.eclipse.openvsx.MockTransactionTemplate;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class CacheInvalidationBusTest {
+
+    @Test
+    public void testCoalesceInvalidations() throws SQLException {
+        var statement = mock(PreparedStatement.class);
+        var bus = createBus(statement);
+        bus.publish("extension.json", "foo.bar");
+        bus.publish("extension.json", "foo.bar");
+        bus.publish("extension.json", "foo.baz");
+        bus.publish("namespace.details.json", "foo");
+        bus.publish("extension.json", CacheInvalidationBus.ALL);
+        bus.publish("extension.json", "foo.qux");
+        bus.flush();
+
+        var payload = ArgumentCaptor.forClass(String.class);
+        verify(statement).setString(eq(2), payload.capture());
+        var lines = payload.getValue().split("\n");
+        assertEquals(List.of("namespace.details.json foo", "extension.json *"), Arrays.asList(lines).subList(1, lines.length));
+
+        // nothing is pending after the flush
+        bus.flush();
+        verify(statement, times(1)).execute();
+    }
+
+    @Test
+    public void testPublishAfterCommit() throws SQLException {
+        var statement = mock(PreparedStatement.class);
+        var bus = createBus(statement);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bus.publish("extension.json", "foo.bar");
+            bus.flush();
+            verify(statement, never()).execute();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        bus.flush();
+        var payload = ArgumentCaptor.forClass(String.class);
+        verify(statement).setString(eq(2), payload.capture());
+        assertTrue(payload.getValue().endsWith("\nextension.json foo.bar"));
+    }
+
+    @Test
+    public void testSplitLargeBatches() {
+        var bus = createBus(mock(PreparedStatement.class));
+        var events = new ArrayList<String>();
+        for (var i = 0; i < 1000; i++) {
+            events.add("extension.json namespace" + i + ".extension" + i);
+        }
+
+        var payloads = bus.toPayloads(events);
+        assertTrue(payloads.size() > 1);
+        var received = new ArrayList<String>();
+        for (var payload : payloads) {
+            assertTrue(payload.length() < 8000);
+            var lines = payload.split("\n");
+            received.addAll(Arrays.asList(lines).subList(1, lines.length));
+        }
+        assertEquals(events, received);
+    }
+
+    @Test
+    public void testApplyInvalidationsOfOtherNodes() {
+        var sender = createBus(mock(PreparedStatement.class));
+        var receiver = createBus(mock(PreparedStatement.class));
+        var applied = new ArrayList<String>();
+        sender.subscribe("extension.json", applied::add);
+        receiver.subscribe("extension.json", applied::add);
+
+        var payload = sender.toPayloads(List.of("extension.json foo.bar", "sitemap *")).get(0);
+        sender.receive(payload);
+        assertTrue(applied.isEmpty());
+
+        receiver.receive(payload);
+        assertEquals(List.of("foo.bar"), applied);
+    }
+
+    @Test
+    public void testDisabled() throws SQLException {
+        var statement = mock(PreparedStatement.class);
+        var bus = createBus(statement);
+        bus.enabled = false;
+        bus.publish("extension.json", "foo.bar");
+        bus.flush();
+        verify(statement, never()).setString(anyInt(), anyString());
+    }
+
+    private CacheInvalidationBus createBus(PreparedStatement statement) {
+        var dataSource = mock(DataSource.class);
+        try {
+            var connection = mock(Connection.class);
+            when(dataSource.getConnection()).thenReturn(connection);
+            when(connection.prepareStatement(anyString())).thenReturn(statement);
+        } catch (SQLException exc) {
+            throw new RuntimeException(exc);
+        }
+
+        var bus = new CacheInvalidationBus(dataSource, mock(TaskScheduler.class), new MockTransactionTemplate());
+        bus.enabled = true;
+        return bus;
+    }
+}
@@ -216,6 +216,26 @@ public class CacheServiceTest {
         assertNull(cache.getCache(CACHE_EXTENSION_JSON).get(cacheKey, ExtensionJson.class));
     }
 
+    @Test
+    @Transactional
+    public void testDeleteExtensionRequestedWithOtherCase() {
+        setRequest();
+        var admin = insertAdmin();
+        var extVersion = insertExtensionVersion();
+        var extension = extVersion.getExtension();
+        var namespace = extension.getNamespace();
+        var namespaceName = namespace.getName().toUpperCase();
+        var extensionName = extension.getName().toUpperCase();
+        var cacheKey = new ExtensionJsonCacheKeyGenerator().generate(namespaceName, extensionName,
+                extVersion.getTargetPlatform(), extVersion.getVersion());
+
+        registry.getExtension(namespaceName, extensionName, extVersion.getTargetPlatform(), extVersion.getVersion());
+        assertNotNull(cache.getCache(CACHE_EXTENSION_JSON).get(cacheKey, ExtensionJson.class));
+
+        admins.deleteExtension(namespace.getName(), extension.getName(), admin);
+        assertNull(cache.getCache(CACHE_EXTENSION_JSON).get(cacheKey, ExtensionJson.class));
+    }
+
     @Test
     @Transactional
     public void testDeleteExtensionVersion() {
@@ -300,6 +320,20 @@ public class CacheServiceTest {
         assertEquals(3L, repositories.getAverageReviewRating());
     }
 
+    @Test
+    @Transactional
+    public void testDeleteAccessToken() {
+        var token = insertExtensionVersion().getPublishedWith();
+        var cacheKey = new AccessTokenCacheKeyGenerator().generate(token.getValue());
+
+        assertEquals(token, users.useAccessToken(token.getValue()));
+        assertNotNull(cache.getCache(CacheService.CACHE_ACCESS_TOKEN).get(cacheKey));
+
+        users.deleteAccessToken(token.getUser(), token.getId());
+        assertNull(cache.getCache(CacheService.CACHE_ACCESS_TOKEN).get(cacheKey));
+        assertNull(users.useAccessToken(token.getValue()));
+    }
+
     private void setLoggedInUser(UserData user) {
         var principal = new IdPrincipal(user.getId(), user.getLoginName(), List.of((GrantedAuthority) () -> "github"));
         var authentication = new TestingAuthenticationToken(principal, null);
@@ -0,0 +1,95 @@
+/** ******************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * ****************************************************************************** */
+package org.eclipse.openvsx.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChangeStampServiceTest {
+
+    @AfterEach
+    public void teardown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testExtensionChanged() {
+        var changeStamps = new ChangeStampService();
+        var bar = changeStamps.getExtensionETag("foo", "bar");
+        var baz = changeStamps.getExtensionETag("foo", "baz");
+        var namespace = changeStamps.getNamespaceETag("foo");
+
+        changeStamps.extensionChanged("Foo.Bar");
+        assertNotEquals(bar, changeStamps.getExtensionETag("foo", "bar"));
+        assertEquals(changeStamps.getExtensionETag("foo", "bar"), changeStamps.getExtensionETag("FOO", "BAR"));
+        assertEquals(baz, changeStamps.getExtensionETag("foo", "baz"));
+        assertEquals(namespace, changeStamps.getNamespaceETag("foo"));
+
+        bar = changeStamps.getExtensionETag("foo", "bar");
+        changeStamps.extensionChanged(CacheInvalidationBus.ALL);
+        assertNotEquals(bar, changeStamps.getExtensionETag("foo", "bar"));
+        assertNotEquals(baz, changeStamps.getExtensionETag("foo", "baz"));
+        assertEquals(namespace, changeStamps.getNamespaceETag("foo"));
+    }
+
+    @Test
+    public void testNamespaceChanged() {
+        var changeStamps = new ChangeStampService();
+        changeStamps.extensionChanged("foo.bar");
+        var bar = changeStamps.getExtensionETag("foo", "bar");
+        var other = changeStamps.getExtensionETag("other", "bar");
+        var namespace = changeStamps.getNamespaceETag("foo");
+
+        // the extension JSON contains namespace details
+        changeStamps.namespaceChanged("foo");
+        assertNotEquals(namespace, changeStamps.getNamespaceETag("foo"));
+        assertNotEquals(bar, changeStamps.getExtensionETag("foo", "bar"));
+        assertEquals(other, changeStamps.getExtensionETag("other", "bar"));
+
+        other = changeStamps.getExtensionETag("other", "bar");
+        changeStamps.namespaceChanged(CacheInvalidationBus.ALL);
+        assertNotEquals(other, changeStamps.getExtensionETag("other", "bar"));
+    }
+
+    @Test
+    public void testAdvanceAfterCommit() {
+        var changeStamps = new ChangeStampService();
+        TransactionSynchronizationManager.initSynchronization();
+        var before = changeStamps.getExtensionETag("foo", "bar");
+        changeStamps.extensionChanged("foo.bar");
+
+        // a concurrent request may have loaded the old JSON with this tag
+        var during = changeStamps.getExtensionETag("foo", "bar");
+        assertNotEquals(before, during);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertNotEquals(during, changeStamps.getExtensionETag("foo", "bar"));
+    }
+
+    @Test
+    public void testEpochPerNode() {
+        var node1 = new ChangeStampService();
+        var node2 = new ChangeStampService();
+        var eTag = node1.getExtensionETag("foo", "bar");
+        assertTrue(eTag.startsWith("\"") && eTag.endsWith("\""));
+        assertEquals(eTag, node1.getExtensionETag("foo", "bar"));
+
+        // stamps are not shared, so equal stamps on two nodes must not produce the same tag
+        node1.extensionChanged("foo.bar");
+        node2.extensionChanged("foo.bar");
+        assertNotEquals(node1.getExtensionETag("foo", "bar"), node2.getExtensionETag("foo", "bar"));
+    }
+}
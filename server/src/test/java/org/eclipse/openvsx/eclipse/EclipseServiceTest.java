@@ -22,6 +22,7 @@ import java.util.Map;
 import io.micrometer.observation.ObservationRegistry;
 import jakarta.persistence.EntityManager;
 
+import org.eclipse.openvsx.ChangeLogService;
 import org.eclipse.openvsx.ExtensionService;
 import org.eclipse.openvsx.ExtensionValidator;
 import org.eclipse.openvsx.MockTransactionTemplate;
@@ -62,9 +63,9 @@ import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(SpringExtension.class)
 @MockBean({
-    EntityManager.class, SearchUtilService.class, GoogleCloudStorageService.class, AzureBlobStorageService.class,
-    VSCodeIdService.class, AzureDownloadCountService.class, CacheService.class,
-    UserService.class, PublishExtensionVersionHandler.class,
+    EntityManager.class, SearchUtilService.class, GoogleCloudStorageService.class, AzureBlobStorageService.class, FileSystemStorageService.class,
+    VSCodeIdService.class, AzureDownloadCountService.class, DownloadCountService.class, CacheService.class,
+    UserService.class, PublishExtensionVersionHandler.class, ChangeLogService.class,
     SimpleMeterRegistry.class
 })
 public class EclipseServiceTest {
@@ -292,9 +293,10 @@ public class EclipseServiceTest {
                 SearchUtilService search,
                 CacheService cache,
                 PublishExtensionVersionHandler publishHandler,
+                ChangeLogService changeLog,
                 ObservationRegistry observations
         ) {
-            return new ExtensionService(repositories, search, cache, publishHandler, observations);
+            return new ExtensionService(repositories, search, cache, publishHandler, changeLog, observations);
         }
 
         @Bean
@@ -307,29 +309,27 @@ public class EclipseServiceTest {
                 RepositoryService repositories,
                 GoogleCloudStorageService googleStorage,
                 AzureBlobStorageService azureStorage,
+                FileSystemStorageService fileSystemStorage,
                 LocalStorageService localStorage,
                 AzureDownloadCountService azureDownloadCountService,
-                SearchUtilService search,
-                CacheService cache,
-                EntityManager entityManager,
+                DownloadCountService downloadCountService,
                 ObservationRegistry observations
         ) {
             return new StorageUtilService(
                     repositories,
                     googleStorage,
                     azureStorage,
+                    fileSystemStorage,
                     azureDownloadCountService,
+                    downloadCountService,
                     localStorage,
-                    search,
-                    cache,
-                    entityManager,
                     observations
             );
         }
 
         @Bean
-        LocalStorageService localStorageService(EntityManager entityManager) {
-            return new LocalStorageService(entityManager);
+        LocalStorageService localStorageService(EntityManager entityManager, RepositoryService repositories) {
+            return new LocalStorageService(entityManager, repositories);
         }
 
         @Bean
@@ -52,5 +52,20 @@ public class SemanticVersionTest {
                 .isEqualTo(0);
         assertThat(SemanticVersion.parse("1.2.3").compareTo(SemanticVersion.parse("1.2.3-next.bc11e2c5")))
                 .isEqualTo(-1);
+        assertThat(SemanticVersion.parse("1.10.0").compareTo(SemanticVersion.parse("1.9.0")))
+                .isEqualTo(-1);
+        assertThat(SemanticVersion.parse("2024.7.11511013").compareTo(SemanticVersion.parse("2024.7.11511013")))
+                .isEqualTo(0);
+    }
+
+    @Test
+    public void testParseCachedVersion() {
+        var semver = SemanticVersion.parse("1.2.31-rc1+armhf");
+        var cached = SemanticVersion.parse("1.2.31-rc1+armhf");
+        assertEquals(semver, cached);
+        assertNotSame(semver, cached);
+
+        semver.setPatch(32);
+        assertEquals(31, SemanticVersion.parse("1.2.31-rc1+armhf").getPatch());
     }
 }
@@ -0,0 +1,249 @@
+/** ******************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * ****************************************************************************** */
+package org.eclipse.openvsx.mirror;
+
+import org.eclipse.openvsx.UrlConfigService;
+import org.eclipse.openvsx.admin.AdminService;
+import org.eclipse.openvsx.entities.ChangeLogEntry;
+import org.eclipse.openvsx.entities.UserData;
+import org.eclipse.openvsx.json.ChangeJson;
+import org.eclipse.openvsx.json.ChangeLogJson;
+import org.eclipse.openvsx.repositories.RepositoryService;
+import org.jobrunr.jobs.context.JobContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.data.util.Streamable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class DataMirrorJobRequestHandlerTest {
+
+    static final String SERVER_URL = "https://open-vsx.org";
+
+    DataMirrorService data;
+    RepositoryService repositories;
+    RestTemplate restTemplate;
+    AdminService admin;
+    MirrorExtensionService mirrorExtensionService;
+    DataMirrorJobRequestHandler handler;
+    UserData mirrorUser;
+
+    @BeforeEach
+    public void setup() {
+        data = mock(DataMirrorService.class);
+        repositories = mock(RepositoryService.class);
+        restTemplate = mock(RestTemplate.class);
+        admin = mock(AdminService.class);
+        mirrorExtensionService = mock(MirrorExtensionService.class);
+        var urlConfigService = mock(UrlConfigService.class);
+        when(urlConfigService.getMirrorServerUrl()).thenReturn(SERVER_URL);
+
+        mirrorUser = new UserData();
+        when(data.createMirrorUser()).thenReturn(mirrorUser);
+        when(data.match(anyString(), anyString())).thenReturn(true);
+        when(repositories.findAllNotMatchingByExtensionId(anyList())).thenReturn(Streamable.empty());
+
+        handler = spy(new DataMirrorJobRequestHandler(Optional.of(data), repositories, restTemplate, urlConfigService, admin, mirrorExtensionService));
+        handler.changeFeed = true;
+        handler.changeAttempts = 3;
+        doReturn(mock(JobContext.class, RETURNS_DEEP_STUBS)).when(handler).jobContext();
+    }
+
+    @Test
+    public void testLastChangePerExtensionApplied() throws Exception {
+        when(data.getChangeCursor(SERVER_URL)).thenReturn(10L);
+        mockChanges(10L, changeLog(14,
+                change(11, ChangeLogEntry.UPDATE, "foo", "bar"),
+                change(12, ChangeLogEntry.UPDATE, "foo", "baz"),
+                change(13, ChangeLogEntry.DEACTIVATE, "foo", "bar"),
+                change(14, ChangeLogEntry.UPDATE, "foo", "baz")
+        ));
+
+        handler.run(new DataMirrorJobRequest());
+
+        InOrder inOrder = inOrder(admin, mirrorExtensionService, data);
+        inOrder.verify(admin).deleteExtension("foo", "bar", mirrorUser);
+        inOrder.verify(mirrorExtensionService).mirrorExtension(eq("foo"), eq("baz"), eq(mirrorUser), isNull(), any());
+        inOrder.verify(data).updateChangeCursor(SERVER_URL, 14L);
+        verify(mirrorExtensionService, never()).mirrorExtension(eq("foo"), eq("bar"), any(), any(), any());
+        verify(mirrorExtensionService, times(1)).mirrorExtension(eq("foo"), eq("baz"), any(), any(), any());
+    }
+
+    @Test
+    public void testCursorStopsAtFailedChange() throws Exception {
+        when(data.getChangeCursor(SERVER_URL)).thenReturn(10L);
+        mockChanges(10L, changeLog(13,
+                change(11, ChangeLogEntry.UPDATE, "foo", "bar"),
+                change(12, ChangeLogEntry.UPDATE, "foo", "baz"),
+                change(13, ChangeLogEntry.UPDATE, "foo", "qux")
+        ));
+        doThrow(new RuntimeException("invalid extension package"))
+                .when(mirrorExtensionService).mirrorExtension(eq("foo"), eq("baz"), any(), any(), any());
+
+        handler.run(new DataMirrorJobRequest());
+
+        // later changes are applied, but the next run starts with the failed change again
+        verify(mirrorExtensionService).mirrorExtension(eq("foo"), eq("bar"), any(), any(), any());
+        verify(mirrorExtensionService).mirrorExtension(eq("foo"), eq("qux"), any(), any(), any());
+        verify(data).updateChangeCursor(SERVER_URL, 11L);
+        verify(data, never()).updateChangeCursor(SERVER_URL, 13L);
+    }
+
+    @Test
+    public void testChangeFailingEveryRunSkipped() throws Exception {
+        when(data.getChangeCursor(SERVER_URL)).thenReturn(10L);
+        mockChanges(10L, changeLog(13,
+                change(11, ChangeLogEntry.UPDATE, "foo", "bar"),
+                change(12, ChangeLogEntry.UPDATE, "foo", "baz"),
+                change(13, ChangeLogEntry.UPDATE, "foo", "qux")
+        ));
+        doThrow(new RuntimeException("invalid extension package"))
+                .when(mirrorExtensionService).mirrorExtension(eq("foo"), eq("baz"), any(), any(), any());
+
+        handler.run(new DataMirrorJobRequest());
+        handler.run(new DataMirrorJobRequest());
+        verify(data, times(2)).updateChangeCursor(SERVER_URL, 11L);
+        verify(data, never()).updateChangeCursor(SERVER_URL, 13L);
+
+        handler.run(new DataMirrorJobRequest());
+        verify(mirrorExtensionService, times(3)).mirrorExtension(eq("foo"), eq("baz"), any(), any(), any());
+        verify(mirrorExtensionService, times(3)).mirrorExtension(eq("foo"), eq("qux"), any(), any(), any());
+        verify(data).updateChangeCursor(SERVER_URL, 13L);
+    }
+
+    @Test
+    public void testCursorHeldWhileUnreachable() throws Exception {
+        when(data.getChangeCursor(SERVER_URL)).thenReturn(10L);
+        mockChanges(10L, changeLog(13,
+                change(11, ChangeLogEntry.UPDATE, "foo", "bar"),
+                change(12, ChangeLogEntry.UPDATE, "foo", "baz"),
+                change(13, ChangeLogEntry.UPDATE, "foo", "qux")
+        ));
+        doThrow(new ResourceAccessException("Connection refused"))
+                .when(mirrorExtensionService).mirrorExtension(eq("foo"), eq("baz"), any(), any(), any());
+
+        for (var i = 0; i < 5; i++) {
+            handler.run(new DataMirrorJobRequest());
+        }
+
+        // connection failures do not count as attempts, so the change is never skipped
+        verify(mirrorExtensionService, never()).mirrorExtension(eq("foo"), eq("qux"), any(), any(), any());
+        verify(data, times(5)).updateChangeCursor(SERVER_URL, 11L);
+        verify(data, never()).updateChangeCursor(SERVER_URL, 13L);
+    }
+
+    @Test
+    public void testCursorFollowsPages() throws Exception {
+        when(data.getChangeCursor(SERVER_URL)).thenReturn(0L);
+        var changes = new ArrayList<ChangeJson>();
+        for (var id = 1; id <= 100; id++) {
+            changes.add(change(id, ChangeLogEntry.UPDATE, "foo", "ext" + id));
+        }
+        mockChanges(0L, changeLog(100, changes.toArray(ChangeJson[]::new)));
+        mockChanges(100L, changeLog(101, change(101, ChangeLogEntry.DELETE, "foo", "bar")));
+
+        handler.run(new DataMirrorJobRequest());
+
+        verify(mirrorExtensionService, times(100)).mirrorExtension(eq("foo"), startsWith("ext"), any(), any(), any());
+        verify(admin).deleteExtension("foo", "bar", mirrorUser);
+        var inOrder = inOrder(data);
+        inOrder.verify(data).updateChangeCursor(SERVER_URL, 100L);
+        inOrder.verify(data).updateChangeCursor(SERVER_URL, 101L);
+    }
+
+    @Test
+    public void testFirstRunMirrorsAll() throws Exception {
+        when(data.getChangeCursor(SERVER_URL)).thenReturn(null);
+        mockChanges(null, changeLog(42));
+        mockSitemap();
+
+        handler.run(new DataMirrorJobRequest());
+
+        verify(mirrorExtensionService).mirrorExtension(eq("foo"), eq("bar"), eq(mirrorUser), any(), any());
+        verify(data).updateChangeCursor(SERVER_URL, 42L);
+    }
+
+    @Test
+    public void testExpiredCursorMirrorsAll() throws Exception {
+        when(data.getChangeCursor(SERVER_URL)).thenReturn(10L);
+        when(restTemplate.getForObject(argThat(uri -> uri != null && uri.toString().contains("since=10&")), eq(ChangeLogJson.class)))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.GONE, "Gone", new HttpHeaders(), null, StandardCharsets.UTF_8));
+        mockChanges(null, changeLog(42));
+        mockSitemap();
+
+        handler.run(new DataMirrorJobRequest());
+
+        verify(mirrorExtensionService).mirrorExtension(eq("foo"), eq("bar"), eq(mirrorUser), any(), any());
+        verify(data).updateChangeCursor(SERVER_URL, 42L);
+    }
+
+    @Test
+    public void testNoChangeLogMirrorsAll() throws Exception {
+        when(data.getChangeCursor(SERVER_URL)).thenReturn(null);
+        when(restTemplate.getForObject(any(URI.class), eq(ChangeLogJson.class)))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", new HttpHeaders(), null, StandardCharsets.UTF_8));
+        mockSitemap();
+
+        handler.run(new DataMirrorJobRequest());
+
+        verify(mirrorExtensionService).mirrorExtension(eq("foo"), eq("bar"), eq(mirrorUser), any(), any());
+        verify(data, never()).updateChangeCursor(anyString(), anyLong());
+    }
+
+    private void mockChanges(Long since, ChangeLogJson changeLog) {
+        if (since == null) {
+            when(restTemplate.getForObject(argThat(uri -> uri != null && !uri.toString().contains("since=")), eq(ChangeLogJson.class)))
+                    .thenReturn(changeLog);
+        } else {
+            when(restTemplate.getForObject(argThat(uri -> uri != null && uri.toString().contains("since=" + since + "&")), eq(ChangeLogJson.class)))
+                    .thenReturn(changeLog);
+        }
+    }
+
+    private void mockSitemap() {
+        var sitemap = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                + "<urlset xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">"
+                + "<url><loc>" + SERVER_URL + "/extension/foo/bar</loc><lastmod>2024-01-01</lastmod></url>"
+                + "</urlset>";
+        when(restTemplate.exchange(any(RequestEntity.class), eq(String.class)))
+                .thenReturn(ResponseEntity.ok(sitemap));
+    }
+
+    private ChangeLogJson changeLog(long nextCursor, ChangeJson... changes) {
+        var json = new ChangeLogJson();
+        json.changes = List.of(changes);
+        json.nextCursor = nextCursor;
+        return json;
+    }
+
+    private ChangeJson change(long id, String type, String namespace, String extension) {
+        var json = new ChangeJson();
+        json.id = id;
+        json.type = type;
+        json.namespace = namespace;
+        json.extension = extension;
+        return json;
+    }
+}
@@ -0,0 +1,208 @@
+/** ******************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * ****************************************************************************** */
+package org.eclipse.openvsx.mirror;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.eclipse.openvsx.ExtensionService;
+import org.eclipse.openvsx.UpstreamRegistryService;
+import org.eclipse.openvsx.UserService;
+import org.eclipse.openvsx.entities.UserData;
+import org.eclipse.openvsx.json.ExtensionJson;
+import org.eclipse.openvsx.json.UserJson;
+import org.eclipse.openvsx.publish.ExtensionVersionIntegrityService;
+import org.eclipse.openvsx.repositories.RepositoryService;
+import org.eclipse.openvsx.util.NotFoundException;
+import org.eclipse.openvsx.util.TargetPlatform;
+import org.eclipse.openvsx.util.TempFile;
+import org.jobrunr.jobs.context.JobContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class MirrorExtensionServiceTest {
+
+    static final int CONCURRENCY = 2;
+
+    DataMirrorService data;
+    UpstreamRegistryService upstream;
+    RestTemplate backgroundRestTemplate;
+    RestTemplate backgroundNonRedirectingRestTemplate;
+    ExtensionService extensions;
+    MirrorExtensionService service;
+
+    /** Download delay in milliseconds by version. */
+    final Map<String, Long> downloadDelays = new ConcurrentHashMap<>();
+    /** Versions whose download fails after the file has been created. */
+    final Set<String> failedDownloads = ConcurrentHashMap.newKeySet();
+    final Set<Path> downloadedFiles = ConcurrentHashMap.newKeySet();
+    final List<String> mirroredTimestamps = Collections.synchronizedList(new ArrayList<>());
+    final AtomicInteger startedDownloads = new AtomicInteger();
+    final AtomicInteger maxDownloadsAhead = new AtomicInteger();
+
+    @BeforeEach
+    public void setup() {
+        data = mock(DataMirrorService.class);
+        upstream = mock(UpstreamRegistryService.class);
+        backgroundRestTemplate = mock(RestTemplate.class);
+        backgroundNonRedirectingRestTemplate = mock(RestTemplate.class);
+        extensions = mock(ExtensionService.class);
+        var registry = new SimpleMeterRegistry();
+        when(data.getMirroredVersions()).thenReturn(registry.counter("mirrored"));
+        when(data.getFailedVersions()).thenReturn(registry.counter("failed"));
+
+        service = new MirrorExtensionService(
+                Optional.of(data),
+                mock(RepositoryService.class),
+                upstream,
+                backgroundRestTemplate,
+                backgroundNonRedirectingRestTemplate,
+                mock(UserService.class),
+                extensions,
+                mock(ExtensionVersionIntegrityService.class)
+        );
+        service.concurrency = CONCURRENCY;
+        service.maxConnectionsPerRoute = 20;
+        service.createMirrorExecutor();
+        mockDownloads();
+    }
+
+    @AfterEach
+    public void teardown() {
+        service.shutdownMirrorExecutor();
+    }
+
+    @Test
+    public void testVersionsMirroredInTimestampOrder() {
+        // the oldest version is downloaded last
+        mockVersions("3.0.0", "2024-03-01T00:00:00Z", "1.0.0", "2024-01-01T00:00:00Z", "4.0.0", "2024-04-01T00:00:00Z", "2.0.0", "2024-02-01T00:00:00Z");
+        downloadDelays.put("1.0.0", 300L);
+        downloadDelays.put("2.0.0", 200L);
+
+        service.mirrorExtension("foo", "bar", new UserData(), null, mock(JobContext.class, RETURNS_DEEP_STUBS));
+
+        assertEquals(List.of("2024-01-01T00:00:00Z", "2024-02-01T00:00:00Z", "2024-03-01T00:00:00Z", "2024-04-01T00:00:00Z"), mirroredTimestamps);
+        assertTrue(maxDownloadsAhead.get() <= CONCURRENCY);
+        assertEquals(4, downloadedFiles.size());
+        downloadedFiles.forEach(file -> assertFalse(Files.exists(file)));
+        verify(data).activateExtension("foo", "bar");
+    }
+
+    @Test
+    public void testTempFilesDeletedOnFailure() throws Exception {
+        mockVersions("1.0.0", "2024-01-01T00:00:00Z", "2.0.0", "2024-02-01T00:00:00Z", "3.0.0", "2024-03-01T00:00:00Z");
+        failedDownloads.add("2.0.0");
+        downloadDelays.put("3.0.0", 200L);
+        var tempFiles = countTempFiles();
+
+        assertThrows(RestClientException.class, () -> service.mirrorExtension("foo", "bar", new UserData(), null, mock(JobContext.class, RETURNS_DEEP_STUBS)));
+
+        assertEquals(List.of("2024-01-01T00:00:00Z"), mirroredTimestamps);
+        verify(data, never()).activateExtension("foo", "bar");
+        // downloads that were started ahead are deleted once they complete
+        var deadline = System.currentTimeMillis() + 5000;
+        while (countTempFiles() > tempFiles && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(tempFiles, countTempFiles());
+        downloadedFiles.forEach(file -> assertFalse(Files.exists(file)));
+    }
+
+    private void mockVersions(String... versionsAndTimestamps) {
+        var allVersions = new LinkedHashMap<String, String>();
+        allVersions.put("latest", "https://open-vsx.org/api/foo/bar/latest");
+        for (var i = 0; i < versionsAndTimestamps.length; i += 2) {
+            var version = versionsAndTimestamps[i];
+            allVersions.put(version, "https://open-vsx.org/api/foo/bar/" + version);
+            when(upstream.getExtension("foo", "bar", TargetPlatform.NAME_UNIVERSAL, version))
+                    .thenReturn(extensionJson(version, versionsAndTimestamps[i + 1]));
+        }
+
+        var latest = extensionJson(versionsAndTimestamps[0], versionsAndTimestamps[1]);
+        latest.allVersions = allVersions;
+        when(upstream.getExtension("foo", "bar", null)).thenReturn(latest);
+        when(upstream.getExtension(eq("foo"), eq("bar"), anyString())).thenThrow(new NotFoundException());
+        doReturn(latest).when(upstream).getExtension("foo", "bar", TargetPlatform.NAME_UNIVERSAL);
+    }
+
+    private ExtensionJson extensionJson(String version, String timestamp) {
+        var json = new ExtensionJson();
+        json.namespace = "foo";
+        json.name = "bar";
+        json.version = version;
+        json.targetPlatform = TargetPlatform.NAME_UNIVERSAL;
+        json.timestamp = timestamp;
+        json.publishedBy = new UserJson();
+        json.files = Map.of("download", "https://open-vsx.org/api/foo/bar/" + version + "/file/foo.bar-" + version + ".vsix");
+        return json;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mockDownloads() {
+        when(backgroundNonRedirectingRestTemplate.headForHeaders(eq("{resolveVsixLocation}"), anyMap()))
+                .then(invocation -> {
+                    maxDownloadsAhead.accumulateAndGet(startedDownloads.incrementAndGet() - mirroredTimestamps.size(), Math::max);
+                    var download = (String) invocation.getArgument(1, Map.class).get("resolveVsixLocation");
+                    var headers = new HttpHeaders();
+                    headers.setLocation(URI.create(download.replace("https://open-vsx.org/api", "https://cdn.open-vsx.org")));
+                    return headers;
+                });
+        when(backgroundRestTemplate.execute(eq("{url}"), eq(HttpMethod.GET), ArgumentMatchers.<RequestCallback>isNull(), any(ResponseExtractor.class), anyMap()))
+                .then(invocation -> {
+                    var url = (String) invocation.getArgument(4, Map.class).get("url");
+                    var version = url.split("/")[6];
+                    Thread.sleep(downloadDelays.getOrDefault(version, 0L));
+                    if (failedDownloads.contains(version)) {
+                        throw new RestClientException("Download of " + version + " failed");
+                    }
+
+                    var response = mock(ClientHttpResponse.class);
+                    when(response.getBody()).thenReturn(new ByteArrayInputStream(new byte[] { 1, 2, 3 }));
+                    var file = (TempFile) invocation.getArgument(3, ResponseExtractor.class).extractData(response);
+                    downloadedFiles.add(file.getPath());
+                    return file;
+                });
+        when(extensions.mirrorVersion(any(TempFile.class), isNull(), any(), anyString(), anyString()))
+                .then(invocation -> {
+                    assertTrue(Files.exists(invocation.getArgument(0, TempFile.class).getPath()));
+                    mirroredTimestamps.add(invocation.getArgument(4));
+                    return null;
+                });
+    }
+
+    private long countTempFiles() throws IOException {
+        try (var files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(file -> {
+                var name = file.getFileName().toString();
+                return name.startsWith("extension_") && name.endsWith(".vsix");
+            }).count();
+        }
+    }
+}
@@ -11,6 +11,8 @@ package org.eclipse.openvsx.publish;
 
 import io.micrometer.observation.ObservationRegistry;
 import jakarta.persistence.EntityManager;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.eclipse.openvsx.ExtensionProcessor;
 import org.eclipse.openvsx.cache.CacheService;
 import org.eclipse.openvsx.entities.Extension;
 import org.eclipse.openvsx.entities.ExtensionVersion;
@@ -30,6 +32,7 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.zip.ZipFile;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -47,7 +50,40 @@ public class ExtensionVersionIntegrityServiceTest {
     @Test
     public void testGenerateSignature() throws IOException {
         var keyPair = keyPairService.generateKeyPair();
+        var download = mockDownload();
+        var sigzipContent = new byte[0];
+        try (var extensionFile = copyExtensionFile()) {
+            var signature = integrityService.generateSignature(download, extensionFile, keyPair);
+            sigzipContent = signature.getContent();
+        }
+
+        assertSigzip(sigzipContent);
+    }
+
+    @Test
+    public void testGenerateSignatureWhileProcessingResources() throws IOException {
+        var keyPair = keyPairService.generateKeyPair();
+        var download = mockDownload();
+        var sigzipContent = new byte[0];
+        try (
+                var extensionFile = copyExtensionFile();
+                var processor = new ExtensionProcessor(extensionFile, ObservationRegistry.NOOP)
+        ) {
+            var resources = new ArrayList<FileResource>();
+            processor.processEachResource(download.getExtension(), true, resources::add);
+            assertFalse(resources.isEmpty());
 
+            var signature = integrityService.generateSignature(download, processor, keyPair);
+            sigzipContent = signature.getContent();
+
+            var checksum = processor.generateSha256Checksum(download.getExtension());
+            assertEquals(DigestUtils.sha256Hex(Files.readAllBytes(extensionFile.getPath())), new String(checksum.getContent()));
+        }
+
+        assertSigzip(sigzipContent);
+    }
+
+    private FileResource mockDownload() {
         var namespace = new Namespace();
         namespace.setName("foo");
 
@@ -62,18 +98,22 @@ public class ExtensionVersionIntegrityServiceTest {
 
         var download = new FileResource();
         download.setExtension(extVersion);
+        return download;
+    }
 
-        var sigzipContent = new byte[0];
+    private TempFile copyExtensionFile() throws IOException {
+        var extensionFile = new TempFile("ms-python", ".vsix");
         try (
                 var stream = getClass().getResource("ms-python.python-2024.7.11511013.vsix").openStream();
-                var extensionFile = new TempFile("ms-python", ".vsix");
                 var out = Files.newOutputStream(extensionFile.getPath())
         ) {
             stream.transferTo(out);
-            var signature = integrityService.generateSignature(download, extensionFile, keyPair);
-            sigzipContent = signature.getContent();
         }
 
+        return extensionFile;
+    }
+
+    private void assertSigzip(byte[] sigzipContent) throws IOException {
         try(var temp = new TempFile("ms-python", ".sigzip")) {
             Files.write(temp.getPath(), sigzipContent);
             try (
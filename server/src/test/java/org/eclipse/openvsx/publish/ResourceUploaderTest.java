@@ -0,0 +1,79 @@
+/** ******************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * ****************************************************************************** */
+package org.eclipse.openvsx.publish;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.eclipse.openvsx.entities.FileResource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class ResourceUploaderTest {
+
+    ExecutorService executor;
+
+    @BeforeEach
+    public void setup() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    public void teardown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testStoreAndPersistInBatches() {
+        var service = mock(PublishExtensionVersionService.class);
+        var resources = new ArrayList<FileResource>();
+        try (var uploader = new ResourceUploader(service, executor, ObservationRegistry.NOOP, 4, 100)) {
+            for (var i = 0; i < 250; i++) {
+                var resource = new FileResource();
+                resource.setName("extension/file" + i);
+                resources.add(resource);
+                uploader.accept(resource);
+            }
+        }
+
+        resources.forEach(resource -> verify(service).storeResource(resource));
+        var captor = ArgumentCaptor.forClass(List.class);
+        verify(service, atLeast(3)).persistResources(captor.capture());
+        var persisted = new HashSet<FileResource>();
+        for (var batch : captor.getAllValues()) {
+            assertTrue(batch.size() <= 100);
+            persisted.addAll(batch);
+        }
+        assertEquals(new HashSet<>(resources), persisted);
+    }
+
+    @Test
+    public void testUploadFailure() {
+        var service = mock(PublishExtensionVersionService.class);
+        doThrow(new RuntimeException("upload failed")).when(service).storeResource(any());
+
+        var uploader = new ResourceUploader(service, executor, ObservationRegistry.NOOP, 4, 100);
+        uploader.accept(new FileResource());
+        var exception = assertThrows(RuntimeException.class, uploader::close);
+        assertEquals("upload failed", exception.getMessage());
+        verify(service, never()).persistResources(any());
+    }
+}
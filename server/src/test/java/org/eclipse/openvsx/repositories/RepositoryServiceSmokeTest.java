@@ -25,6 +25,7 @@ import java.lang.reflect.Modifier;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.toList;
@@ -86,6 +87,7 @@ class RepositoryServiceSmokeTest {
                 () -> repositories.countActiveExtensions(),
                 () -> repositories.countActiveExtensionsGroupedByExtensionReviewRating(),
                 () -> repositories.countActiveReviews(null),
+                () -> repositories.countActiveReviews(),
                 () -> repositories.countExtensions(),
                 () -> repositories.hasMemberships(namespace, "role"),
                 () -> repositories.isVerified(namespace, userData),
@@ -102,6 +104,8 @@ class RepositoryServiceSmokeTest {
                 () -> repositories.findActiveVersions(extension),
                 () -> repositories.findAdminStatisticsByYearAndMonth(1997, 1),
                 () -> repositories.findAllActiveExtensions(),
+                () -> repositories.findAllActiveExtensionSearchRows(100, rows -> {}),
+                () -> repositories.findActiveExtensionSearchRows(List.of(1L)),
                 () -> repositories.findAllPersistedLogs(),
                 () -> repositories.findAllReviews(extension),
                 () -> repositories.findAllSucceededAzureDownloadCountProcessedItemsByNameIn(STRING_LIST),
@@ -153,6 +157,7 @@ class RepositoryServiceSmokeTest {
                 () -> repositories.findResourceFileResources(1L, "prefix"),
                 () -> repositories.findActiveExtensionVersions(LONG_LIST, "targetPlatform"),
                 () -> repositories.findActiveExtension("name", "namespaceName"),
+                () -> repositories.findActiveExtensionsByName(List.of(new String[]{ "namespaceName", "name" })),
                 () -> repositories.findActiveExtensionsById(LONG_LIST),
                 () -> repositories.findActiveExtensionsByPublicId(STRING_LIST, "namespaceName"),
                 () -> repositories.findNamespaceMemberships(LONG_LIST),
@@ -173,6 +178,8 @@ class RepositoryServiceSmokeTest {
                 () -> repositories.findVersionStringsSorted(extension, "targetPlatform", true),
                 () -> repositories.findVersionStringsSorted(extension, "targetPlatform", true),
                 () -> repositories.findActiveVersions(queryRequest),
+                () -> repositories.findActiveVersions(queryRequest, null),
+                () -> repositories.countActiveVersions(queryRequest),
                 () -> repositories.findActiveVersionStringsSorted(LONG_LIST,"targetPlatform"),
                 () -> repositories.findActiveVersionReferencesSorted(List.of(1L)),
                 () -> repositories.findAllPublicIds(),
@@ -207,6 +214,12 @@ class RepositoryServiceSmokeTest {
                 () -> repositories.findActiveExtensionVersion("version", "extensionName", "namespaceName"),
                 () -> repositories.findActiveAccessTokens(userData),
                 () -> repositories.isAdminToken("tokenValue"),
+                () -> repositories.updateAccessTokenTimestamps(Map.of(1L, NOW)),
+                () -> repositories.findChanges(1L, NOW, 10),
+                () -> repositories.findLatestChangeId(NOW),
+                () -> repositories.findOldestChangeId(),
+                () -> repositories.deleteChangesBefore(NOW),
+                () -> repositories.findDataMirrorCursor("url"),
                 () -> repositories.findFileByTypeAndName("namespaceName", "extensionName", "targetPlatform", "version", "type", "name"),
                 () -> repositories.findLatestVersions(List.of(1L)),
                 () -> repositories.hasSameVersion(extVersion),
@@ -222,7 +235,10 @@ class RepositoryServiceSmokeTest {
                 () -> repositories.hasAccessToken("tokenValue"),
                 () -> repositories.findSignatureKeyPairPublicId("namespaceName", "extensionName", "targetPlatform", "version"),
                 () -> repositories.findFirstMembership("namespaceName"),
-                () -> repositories.findActiveExtensionsForUrls(namespace)
+                () -> repositories.findActiveExtensionsForUrls(namespace),
+                () -> repositories.increaseDownloadCounts(Map.of(1L, 1)),
+                () -> repositories.findFileContentLength(1L),
+                () -> repositories.findFileContent(1L, 0L, 1)
         );
 
         // check that we did not miss anything
@@ -10,8 +10,12 @@
 
 package org.eclipse.openvsx.search;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.micrometer.observation.ObservationRegistry;
 import jakarta.persistence.EntityManager;
+import org.eclipse.openvsx.cache.CacheInvalidationBus;
+import org.eclipse.openvsx.cache.CacheService;
 import org.eclipse.openvsx.cache.LatestExtensionVersionCacheKeyGenerator;
 import org.eclipse.openvsx.entities.*;
 import org.eclipse.openvsx.repositories.RepositoryService;
@@ -24,11 +28,12 @@ import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.elasticsearch.core.SearchHit;
-import org.springframework.data.util.Streamable;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -41,6 +46,12 @@ public class DatabaseSearchServiceTest {
     @MockBean
     RepositoryService repositories;
 
+    @MockBean
+    CacheService cache;
+
+    @MockBean
+    CacheInvalidationBus invalidations;
+
     @Autowired
     DatabaseSearchService search;
 
@@ -49,7 +60,8 @@ public class DatabaseSearchServiceTest {
         var ext1 = mockExtension("yaml", 3.0, 100, 0, "redhat", List.of("Snippets", "Programming Languages"));
         var ext2 = mockExtension("java", 4.0, 100, 0, "redhat", List.of("Snippets", "Programming Languages"));
         var ext3 = mockExtension("openshift", 4.0, 100, 0, "redhat", List.of("Snippets", "Other"));
-        Mockito.when(repositories.findAllActiveExtensions()).thenReturn(Streamable.of(List.of(ext1, ext2, ext3)));
+        mockActiveExtensions(ext1, ext2, ext3);
+        search.updateSearchIndex(true);
 
         var searchOptions = new ISearchService.Options(null, "Programming Languages", TargetPlatform.NAME_UNIVERSAL, 50, 0, null, null, false);
         var result = search.search(searchOptions);
@@ -62,7 +74,8 @@ public class DatabaseSearchServiceTest {
         var ext1 = mockExtension("yaml", 1.0, 100, 100, "redhat", List.of("Snippets", "Programming Languages"));
         var ext2 = mockExtension("java", 4.0, 100, 10000, "redhat", List.of("Snippets", "Programming Languages"));
         var ext3 = mockExtension("openshift", 1.0, 100, 10, "redhat", List.of("Snippets", "Other"));
-        Mockito.when(repositories.findAllActiveExtensions()).thenReturn(Streamable.of(List.of(ext1, ext2, ext3)));
+        mockActiveExtensions(ext1, ext2, ext3);
+        search.updateSearchIndex(true);
 
         var searchOptions = new ISearchService.Options(null, null, TargetPlatform.NAME_UNIVERSAL, 50, 0, null, "relevance", false);
         var result = search.search(searchOptions);
@@ -80,7 +93,8 @@ public class DatabaseSearchServiceTest {
     public void testReverse() {
         var ext1 = mockExtension("yaml", 3.0, 100, 0, "redhat", List.of("Snippets", "Programming Languages"));
         var ext2 = mockExtension("java", 4.0, 100, 0, "redhat", List.of("Snippets", "Programming Languages"));
-        Mockito.when(repositories.findAllActiveExtensions()).thenReturn(Streamable.of(List.of(ext1, ext2)));
+        mockActiveExtensions(ext1, ext2);
+        search.updateSearchIndex(true);
 
         var searchOptions = new ISearchService.Options(null, "Programming Languages", TargetPlatform.NAME_UNIVERSAL, 50, 0, "desc", null, false);
         var result = search.search(searchOptions);
@@ -101,7 +115,8 @@ public class DatabaseSearchServiceTest {
         var ext5 = mockExtension("ext5", 3.0, 100, 0, "redhat", List.of("Snippets", "Programming Languages"));
         var ext6 = mockExtension("ext6", 3.0, 100, 0, "redhat", List.of("Snippets", "Programming Languages"));
         var ext7 = mockExtension("ext7", 3.0, 100, 0, "redhat", List.of("Snippets", "Programming Languages"));
-        Mockito.when(repositories.findAllActiveExtensions()).thenReturn(Streamable.of(List.of(ext1, ext2, ext3, ext4, ext5, ext6, ext7)));
+        mockActiveExtensions(ext1, ext2, ext3, ext4, ext5, ext6, ext7);
+        search.updateSearchIndex(true);
 
         var pageSizeItems = 5;
         var searchOptions = new ISearchService.Options(null, null, TargetPlatform.NAME_UNIVERSAL, pageSizeItems, 0, null, null, false);
@@ -129,7 +144,8 @@ public class DatabaseSearchServiceTest {
         var ext5 = mockExtension("ext5", 3.0, 100, 0, "redhat", List.of("Snippets", "Programming Languages"));
         var ext6 = mockExtension("ext6", 3.0, 100, 0, "redhat", List.of("Snippets", "Programming Languages"));
         var ext7 = mockExtension("ext7", 3.0, 100, 0, "redhat", List.of("Snippets", "Programming Languages"));
-        Mockito.when(repositories.findAllActiveExtensions()).thenReturn(Streamable.of(List.of(ext1, ext2, ext3, ext4, ext5, ext6, ext7)));
+        mockActiveExtensions(ext1, ext2, ext3, ext4, ext5, ext6, ext7);
+        search.updateSearchIndex(true);
 
         var pageSizeItems = 2;
         var searchOptions = new ISearchService.Options(null, null, TargetPlatform.NAME_UNIVERSAL, pageSizeItems, 4, null, null, false);
@@ -151,7 +167,8 @@ public class DatabaseSearchServiceTest {
         var ext2 = mockExtension("java", 4.0, 100, 0, "redhat", List.of("Snippets", "Programming Languages"));
         var ext3 = mockExtension("openshift", 4.0, 100, 0, "redhat", List.of("Snippets", "Other"));
         var ext4 = mockExtension("foo", 4.0, 100, 0, "bar", List.of("Other"));
-        Mockito.when(repositories.findAllActiveExtensions()).thenReturn(Streamable.of(List.of(ext1, ext2, ext3, ext4)));
+        mockActiveExtensions(ext1, ext2, ext3, ext4);
+        search.updateSearchIndex(true);
 
         var searchOptions = new ISearchService.Options("redhat", null, TargetPlatform.NAME_UNIVERSAL, 50, 0, null, null, false);
         var result = search.search(searchOptions);
@@ -171,7 +188,8 @@ public class DatabaseSearchServiceTest {
         var ext2 = mockExtension("java", 4.0, 100, 0, "redhat", List.of("Snippets", "Programming Languages"));
         var ext3 = mockExtension("openshift", 4.0, 100, 0, "redhat", List.of("Snippets", "Other"));
         var ext4 = mockExtension("foo", 4.0, 100, 0, "bar", List.of("Other"));
-        Mockito.when(repositories.findAllActiveExtensions()).thenReturn(Streamable.of(List.of(ext1, ext2, ext3, ext4)));
+        mockActiveExtensions(ext1, ext2, ext3, ext4);
+        search.updateSearchIndex(true);
 
         var searchOptions = new ISearchService.Options("openshift", null, TargetPlatform.NAME_UNIVERSAL, 50, 0, null, null, false);
         var result = search.search(searchOptions);
@@ -191,7 +209,8 @@ public class DatabaseSearchServiceTest {
         var ext3 = mockExtension("openshift", 4.0, 100, 0, "redhat", List.of("Snippets", "Other"));
         ext3.getVersions().get(0).setDescription("my custom desc");
         var ext4 = mockExtension("foo", 4.0, 100, 0, "bar", List.of("Other"));
-        Mockito.when(repositories.findAllActiveExtensions()).thenReturn(Streamable.of(List.of(ext1, ext2, ext3, ext4)));
+        mockActiveExtensions(ext1, ext2, ext3, ext4);
+        search.updateSearchIndex(true);
 
         var searchOptions = new ISearchService.Options("my custom desc", null, TargetPlatform.NAME_UNIVERSAL, 50, 0, null, null, false);
         var result = search.search(searchOptions);
@@ -211,7 +230,8 @@ public class DatabaseSearchServiceTest {
         ext2.getVersions().get(0).setDisplayName("Red Hat");
         var ext3 = mockExtension("openshift", 4.0, 100, 0, "redhat", List.of("Snippets", "Other"));
         var ext4 = mockExtension("foo", 4.0, 100, 0, "bar", List.of("Other"));
-        Mockito.when(repositories.findAllActiveExtensions()).thenReturn(Streamable.of(List.of(ext1, ext2, ext3, ext4)));
+        mockActiveExtensions(ext1, ext2, ext3, ext4);
+        search.updateSearchIndex(true);
 
         var searchOptions = new ISearchService.Options("Red Hat", null, TargetPlatform.NAME_UNIVERSAL, 50, 0, null, null, false);
         var result = search.search(searchOptions);
@@ -234,7 +254,8 @@ public class DatabaseSearchServiceTest {
         ext3.getVersions().get(0).setTimestamp(LocalDateTime.parse("2021-10-11T00:00"));
         var ext4 = mockExtension("foo", 4.0, 100, 0, "bar", List.of("Other"));
         ext4.getVersions().get(0).setTimestamp(LocalDateTime.parse("2021-10-06T00:00"));
-        Mockito.when(repositories.findAllActiveExtensions()).thenReturn(Streamable.of(List.of(ext1, ext2, ext3, ext4)));
+        mockActiveExtensions(ext1, ext2, ext3, ext4);
+        search.updateSearchIndex(true);
 
         var searchOptions = new ISearchService.Options(null, null, TargetPlatform.NAME_UNIVERSAL, 50, 0, null, "timestamp", false);
         var result = search.search(searchOptions);
@@ -255,7 +276,8 @@ public class DatabaseSearchServiceTest {
         var ext2 = mockExtension("java", 4.0, 100, 1000, "redhat", List.of("Snippets", "Programming Languages"));
         var ext3 = mockExtension("openshift", 4.0, 100, 300, "redhat", List.of("Snippets", "Other"));
         var ext4 = mockExtension("foo", 4.0, 100, 500, "bar", List.of("Other"));
-        Mockito.when(repositories.findAllActiveExtensions()).thenReturn(Streamable.of(List.of(ext1, ext2, ext3, ext4)));
+        mockActiveExtensions(ext1, ext2, ext3, ext4);
+        search.updateSearchIndex(true);
 
         var searchOptions = new ISearchService.Options(null, null, TargetPlatform.NAME_UNIVERSAL, 50, 0, null, "downloadCount", false);
         var result = search.search(searchOptions);
@@ -276,7 +298,8 @@ public class DatabaseSearchServiceTest {
         var ext2 = mockExtension("java", 5.0, 1, 0, "redhat", List.of("Snippets", "Programming Languages"));
         var ext3 = mockExtension("openshift", 2.0, 1, 0, "redhat", List.of("Snippets", "Other"));
         var ext4 = mockExtension("foo", 1.0, 1, 0, "bar", List.of("Other"));
-        Mockito.when(repositories.findAllActiveExtensions()).thenReturn(Streamable.of(List.of(ext1, ext2, ext3, ext4)));
+        mockActiveExtensions(ext1, ext2, ext3, ext4);
+        search.updateSearchIndex(true);
 
         var searchOptions = new ISearchService.Options(null, null, TargetPlatform.NAME_UNIVERSAL, 50, 0, null, "rating", false);
         var result = search.search(searchOptions);
@@ -291,6 +314,81 @@ public class DatabaseSearchServiceTest {
         assertThat(getIdFromExtensionHits(hits, 3)).isEqualTo(getIdFromExtensionName("java"));
     }
 
+    @Test
+    public void testQueryStringTagPrefix() {
+        var ext1 = mockExtension("yaml", 3.0, 100, 0, "redhat", List.of("Snippets", "Programming Languages"));
+        ext1.getVersions().get(0).setTags(List.of("kubernetes", "schema"));
+        var ext2 = mockExtension("java", 4.0, 100, 0, "redhat", List.of("Snippets", "Programming Languages"));
+        ext2.getVersions().get(0).setTags(List.of("maven"));
+        mockActiveExtensions(ext1, ext2);
+        search.updateSearchIndex(true);
+
+        var searchOptions = new ISearchService.Options("kube", null, TargetPlatform.NAME_UNIVERSAL, 50, 0, null, null, false);
+        var result = search.search(searchOptions);
+        // tag prefix
+        assertThat(result.getTotalHits()).isEqualTo(1);
+
+        // Check it found the correct extension
+        var hits = result.getSearchHits();
+        assertThat(getIdFromExtensionHits(hits, 0)).isEqualTo(getIdFromExtensionName("yaml"));
+    }
+
+    @Test
+    public void testUpdateSearchEntry() {
+        var ext1 = mockExtension("yaml", 3.0, 100, 100, "redhat", List.of("Snippets", "Programming Languages"));
+        var ext2 = mockExtension("java", 4.0, 100, 200, "redhat", List.of("Snippets", "Programming Languages"));
+        mockActiveExtensions(ext1, ext2);
+        search.updateSearchIndex(true);
+
+        var ext3 = mockExtension("openshift", 4.0, 100, 300, "redhat", List.of("Snippets", "Other"));
+        search.updateSearchEntry(ext3);
+        ext1.setDownloadCount(400);
+        search.updateSearchEntry(ext1);
+
+        var searchOptions = new ISearchService.Options(null, null, TargetPlatform.NAME_UNIVERSAL, 50, 0, null, "downloadCount", false);
+        var result = search.search(searchOptions);
+        // the index is updated without scanning all extensions again
+        Mockito.verify(repositories, Mockito.times(1)).findAllActiveExtensionSearchRows(Mockito.anyInt(), Mockito.any());
+        assertThat(result.getTotalHits()).isEqualTo(3);
+
+        var hits = result.getSearchHits();
+        assertThat(getIdFromExtensionHits(hits, 0)).isEqualTo(getIdFromExtensionName("java"));
+        assertThat(getIdFromExtensionHits(hits, 1)).isEqualTo(getIdFromExtensionName("openshift"));
+        assertThat(getIdFromExtensionHits(hits, 2)).isEqualTo(getIdFromExtensionName("yaml"));
+
+        search.removeSearchEntry(ext2);
+        result = search.search(searchOptions);
+        assertThat(result.getTotalHits()).isEqualTo(2);
+    }
+
+    @Test
+    public void testDownloadCountDoesNotEvictSearchResults() {
+        var ext1 = mockExtension("yaml", 3.0, 100, 100, "redhat", List.of("Snippets", "Programming Languages"));
+        var ext2 = mockExtension("java", 4.0, 100, 200, "redhat", List.of("Snippets", "Programming Languages"));
+        mockActiveExtensions(ext1, ext2);
+        search.updateSearchIndex(true);
+
+        var byName = new ISearchService.Options("yaml", null, TargetPlatform.NAME_UNIVERSAL, 50, 0, null, null, false);
+        var byDownloads = new ISearchService.Options(null, null, TargetPlatform.NAME_UNIVERSAL, 50, 0, null, "downloadCount", false);
+        search.search(byName);
+        search.search(byDownloads);
+
+        ext1.setDownloadCount(300);
+        search.updateSearchEntry(ext1);
+        // download count changes don't evict cached search results right away
+        Mockito.verify(cache, Mockito.never()).evictDatabaseSearch(Mockito.anyCollection());
+
+        search.evictRankedSearchResults();
+        // only the search results sorted by download count are evicted
+        Mockito.verify(cache).evictDatabaseSearch(List.of(byDownloads));
+
+        search.search(byDownloads);
+        ext2.getVersions().get(0).setDisplayName("Java Language Support");
+        search.updateSearchEntry(ext2);
+        // other changes evict the cached search results matching the extension
+        Mockito.verify(cache, Mockito.times(2)).evictDatabaseSearch(Mockito.anyCollection());
+    }
+
     // ---------- UTILITY ----------//
 
     long getIdFromExtensionHits(List<SearchHit<ExtensionSearch>> hits, int index) {
@@ -301,6 +399,17 @@ public class DatabaseSearchServiceTest {
         return extensionName.hashCode();
     }
 
+    private void mockActiveExtensions(Extension... extensions) {
+        Mockito.doAnswer(invocation -> {
+            Consumer<List<ExtensionSearchRow>> consumer = invocation.getArgument(1);
+            var rows = Arrays.stream(extensions)
+                    .map(extension -> new ExtensionSearchRow(extension, extension.getVersions().get(0), List.of(TargetPlatform.NAME_UNIVERSAL), false))
+                    .toList();
+            consumer.accept(rows);
+            return null;
+        }).when(repositories).findAllActiveExtensionSearchRows(Mockito.anyInt(), Mockito.any());
+    }
+
     private Extension mockExtension(String name, double averageRating, long ratingCount, int downloadCount,
             String namespaceName, List<String> categories) {
         var extension = new Extension();
@@ -327,19 +436,30 @@ public class DatabaseSearchServiceTest {
         extVer.setPublishedWith(token);
         Mockito.when(repositories.isVerified(namespace, user)).thenReturn(false);
         Mockito.when(repositories.findLatestVersion(extension, null, false, true)).thenReturn(extVer);
+        Mockito.when(repositories.findExtensionTargetPlatforms(extension)).thenReturn(List.of(TargetPlatform.NAME_UNIVERSAL));
         return extension;
     }
 
     @TestConfiguration
     static class TestConfig {
         @Bean
-        DatabaseSearchService searchService(RelevanceService relevanceService, RepositoryService repositories) {
-            return new DatabaseSearchService(relevanceService, repositories);
+        DatabaseSearchService searchService(
+                RelevanceService relevanceService,
+                RepositoryService repositories,
+                CacheService cache,
+                CacheInvalidationBus invalidations
+        ) {
+            return new DatabaseSearchService(relevanceService, repositories, cache, invalidations);
+        }
+
+        @Bean
+        RelevanceService relevanceService(RepositoryService repositories, CacheService cache, MeterRegistry registry) {
+            return new RelevanceService(repositories, cache, registry);
         }
 
         @Bean
-        RelevanceService relevanceService(RepositoryService repositories) {
-            return new RelevanceService(repositories);
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
         }
 
         @Bean
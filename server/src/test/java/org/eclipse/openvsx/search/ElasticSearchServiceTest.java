@@ -9,7 +9,10 @@
  ********************************************************************************/
 package org.eclipse.openvsx.search;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.micrometer.observation.ObservationRegistry;
+import org.eclipse.openvsx.cache.CacheService;
 import org.eclipse.openvsx.cache.LatestExtensionVersionCacheKeyGenerator;
 import org.eclipse.openvsx.entities.*;
 import org.eclipse.openvsx.repositories.RepositoryService;
@@ -22,27 +25,39 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Bean;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
 import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.index.AliasAction;
+import org.springframework.data.elasticsearch.core.index.AliasActions;
+import org.springframework.data.elasticsearch.core.index.AliasData;
 import org.springframework.data.elasticsearch.core.index.Settings;
 import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
 import org.springframework.data.elasticsearch.core.query.IndexQuery;
-import org.springframework.data.util.Streamable;
+import org.springframework.data.elasticsearch.core.query.Query;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import jakarta.persistence.EntityManager;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
 
 @ExtendWith(SpringExtension.class)
-@MockBean({JobRequestScheduler.class})
+@MockBean({JobRequestScheduler.class, CacheService.class})
 public class ElasticSearchServiceTest {
 
+    static final String ALIAS = "extensions";
+
     @MockBean
     EntityManager entityManager;
 
@@ -55,125 +70,236 @@ public class ElasticSearchServiceTest {
     @Autowired
     ElasticSearchService search;
 
+    final Map<Long, ExtensionSearchRow> searchRows = new HashMap<>();
+
     @Test
     public void testRelevanceAverageRating() {
-        var index = mockIndex(true);
+        var cluster = mockCluster("extensions-1");
         var ext1 = mockExtension("foo", "n1", "u1",3.0, 100, 0, LocalDateTime.parse("2020-01-01T00:00"), false, false);
         var ext2 = mockExtension( "bar", "n2", "u2", 4.0, 100, 0, LocalDateTime.parse("2020-01-01T00:00"), false, false);
         search.updateSearchEntry(ext1);
         search.updateSearchEntry(ext2);
+        search.flushSearchEntries();
 
-        assertThat(index.entries).hasSize(2);
-        assertThat(index.entries.get(0).relevance).isLessThan(index.entries.get(1).relevance);
+        var entries = cluster.entries(ALIAS);
+        assertThat(entries).hasSize(2);
+        assertThat(entries.get(0).relevance).isLessThan(entries.get(1).relevance);
     }
 
     @Test
     public void testRelevanceReviewCount() {
-        var index = mockIndex(true);
+        var cluster = mockCluster("extensions-1");
         var ext1 = mockExtension("foo", "n1", "u1",4.0, 2, 0, LocalDateTime.parse("2020-01-01T00:00"), false, false);
         var ext2 = mockExtension("bar", "n2", "u2",4.0, 100, 0, LocalDateTime.parse("2020-01-01T00:00"), false, false);
         search.updateSearchEntry(ext1);
         search.updateSearchEntry(ext2);
+        search.flushSearchEntries();
 
-        assertThat(index.entries).hasSize(2);
-        assertThat(index.entries.get(0).relevance).isLessThan(index.entries.get(1).relevance);
+        var entries = cluster.entries(ALIAS);
+        assertThat(entries).hasSize(2);
+        assertThat(entries.get(0).relevance).isLessThan(entries.get(1).relevance);
     }
 
     @Test
     public void testRelevanceDownloadCount() {
-        var index = mockIndex(true);
+        var cluster = mockCluster("extensions-1");
         var ext1 = mockExtension("foo", "n1", "u1",0.0, 0, 1, LocalDateTime.parse("2020-01-01T00:00"), false, false);
         var ext2 = mockExtension("bar", "n2", "u2",0.0, 0, 10, LocalDateTime.parse("2020-01-01T00:00"), false, false);
         search.updateSearchEntry(ext1);
         search.updateSearchEntry(ext2);
+        search.flushSearchEntries();
 
-        assertThat(index.entries).hasSize(2);
-        assertThat(index.entries.get(0).relevance).isLessThan(index.entries.get(1).relevance);
+        var entries = cluster.entries(ALIAS);
+        assertThat(entries).hasSize(2);
+        assertThat(entries.get(0).relevance).isLessThan(entries.get(1).relevance);
     }
 
     @Test
     public void testRelevanceTimestamp() {
-        var index = mockIndex(true);
+        var cluster = mockCluster("extensions-1");
         var ext1 = mockExtension("foo", "n2", "u2",0.0, 0, 0, LocalDateTime.parse("2020-02-01T00:00"), false, false);
         var ext2 = mockExtension("bar", "n1", "u1",0.0, 0, 0, LocalDateTime.parse("2020-10-01T00:00"), false, false);
         search.updateSearchEntry(ext1);
         search.updateSearchEntry(ext2);
+        search.flushSearchEntries();
 
-        assertThat(index.entries).hasSize(2);
-        assertThat(index.entries.get(0).relevance).isLessThan(index.entries.get(1).relevance);
+        var entries = cluster.entries(ALIAS);
+        assertThat(entries).hasSize(2);
+        assertThat(entries.get(0).relevance).isLessThan(entries.get(1).relevance);
     }
 
     @Test
     public void testRelevanceUnverified1() {
-        var index = mockIndex(true);
+        var cluster = mockCluster("extensions-1");
         var ext1 = mockExtension("foo", "n1", "u1",4.0, 10, 10, LocalDateTime.parse("2020-10-01T00:00"), false, true);
         var ext2 = mockExtension("bar", "n2", "u2",4.0, 10, 10, LocalDateTime.parse("2020-10-01T00:00"), false, false);
         search.updateSearchEntry(ext1);
         search.updateSearchEntry(ext2);
+        search.flushSearchEntries();
 
-        assertThat(index.entries).hasSize(2);
-        assertThat(index.entries.get(0).relevance).isLessThan(index.entries.get(1).relevance);
+        var entries = cluster.entries(ALIAS);
+        assertThat(entries).hasSize(2);
+        assertThat(entries.get(0).relevance).isLessThan(entries.get(1).relevance);
     }
 
     @Test
     public void testRelevanceUnverified2() {
-        var index = mockIndex(true);
+        var cluster = mockCluster("extensions-1");
         var ext1 = mockExtension("foo", "n1", "u1",4.0, 10, 10, LocalDateTime.parse("2020-10-01T00:00"), true, false);
         var ext2 = mockExtension("bar", "n2", "u2",4.0, 10, 10, LocalDateTime.parse("2020-10-01T00:00"), false, false);
         search.updateSearchEntry(ext1);
         search.updateSearchEntry(ext2);
+        search.flushSearchEntries();
+
+        var entries = cluster.entries(ALIAS);
+        assertThat(entries).hasSize(2);
+        assertThat(entries.get(0).relevance).isLessThan(entries.get(1).relevance);
+    }
+
+    @Test
+    public void testUpdatesCoalesced() {
+        var cluster = mockCluster("extensions-1");
+        var ext1 = mockExtension("foo", "n1", "u1",3.0, 100, 0, LocalDateTime.parse("2020-01-01T00:00"), false, false);
+        var ext2 = mockExtension("bar", "n2", "u2", 4.0, 100, 0, LocalDateTime.parse("2020-01-01T00:00"), false, false);
+        for (var i = 0; i < 100; i++) {
+            search.updateSearchEntry(ext1);
+        }
+        search.updateSearchEntries(List.of(ext1, ext2));
+        assertThat(cluster.entries(ALIAS)).isEmpty();
+
+        search.flushSearchEntries();
+        search.flushSearchEntries();
+
+        Mockito.verify(searchOperations).bulkIndex(any(List.class), any(IndexCoordinates.class));
+        assertThat(cluster.entries(ALIAS)).extracting(entry -> entry.name).containsExactly("foo", "bar");
+    }
+
+    @Test
+    public void testRemovedEntryNotFlushed() {
+        var cluster = mockCluster("extensions-1");
+        var ext1 = mockExtension("foo", "n1", "u1",3.0, 100, 0, LocalDateTime.parse("2020-01-01T00:00"), false, false);
+        var ext2 = mockExtension("bar", "n2", "u2", 4.0, 100, 0, LocalDateTime.parse("2020-01-01T00:00"), false, false);
+        search.updateSearchEntries(List.of(ext1, ext2));
+        searchRows.remove(ext1.getId());
+        search.removeSearchEntry(ext1);
+        search.flushSearchEntries();
+
+        assertThat(cluster.entries(ALIAS)).extracting(entry -> entry.name).containsExactly("bar");
+    }
+
+    @Test
+    public void testInactiveEntryRemoved() {
+        var cluster = mockCluster("extensions-1");
+        var ext1 = mockExtension("foo", "n1", "u1",3.0, 100, 0, LocalDateTime.parse("2020-01-01T00:00"), false, false);
+        var ext2 = mockExtension("bar", "n2", "u2", 4.0, 100, 0, LocalDateTime.parse("2020-01-01T00:00"), false, false);
+        search.updateSearchEntries(List.of(ext1, ext2));
+        search.flushSearchEntries();
+        assertThat(cluster.entries(ALIAS)).extracting(entry -> entry.name).containsExactly("foo", "bar");
 
-        assertThat(index.entries).hasSize(2);
-        assertThat(index.entries.get(0).relevance).isLessThan(index.entries.get(1).relevance);
+        // the extension was deactivated after it had been queued for an update
+        searchRows.remove(ext1.getId());
+        search.updateSearchEntry(ext1);
+        search.flushSearchEntries();
+
+        assertThat(cluster.entries(ALIAS)).extracting(entry -> entry.name).containsExactly("bar");
     }
 
     @Test
     public void testSoftUpdateExists() {
-        var index = mockIndex(true);
+        var cluster = mockCluster("extensions-1");
         mockExtensions();
         search.updateSearchIndex(false);
 
-        assertThat(index.created).isFalse();
-        assertThat(index.deleted).isFalse();
-        assertThat(index.entries).hasSize(3);
+        assertThat(cluster.indices.keySet()).containsExactly("extensions-1");
+        assertThat(cluster.aliases).containsEntry(ALIAS, "extensions-1");
+        assertThat(cluster.entries(ALIAS)).hasSize(3);
     }
 
     @Test
     public void testSoftUpdateNotExists() {
-        var index = mockIndex(false);
+        var cluster = mockCluster(null);
         mockExtensions();
         search.updateSearchIndex(false);
 
-        assertThat(index.created).isTrue();
-        assertThat(index.deleted).isFalse();
-        assertThat(index.entries).hasSize(3);
+        assertThat(cluster.indices).hasSize(1);
+        assertThat(cluster.aliases.get(ALIAS)).startsWith(ALIAS + "-");
+        assertThat(cluster.entries(ALIAS)).hasSize(3);
     }
 
     @Test
     public void testHardUpdateExists() {
-        var index = mockIndex(true);
+        var cluster = mockCluster("extensions-1");
+        cluster.entries(ALIAS).add(new ExtensionSearch());
         mockExtensions();
         search.updateSearchIndex(true);
 
-        assertThat(index.created).isTrue();
-        assertThat(index.deleted).isTrue();
-        assertThat(index.entries).hasSize(3);
+        assertThat(cluster.indices).hasSize(1).doesNotContainKey("extensions-1");
+        assertThat(cluster.aliases.get(ALIAS)).startsWith(ALIAS + "-");
+        assertThat(cluster.entries(ALIAS)).hasSize(3);
     }
 
     @Test
     public void testHardUpdateNotExists() {
-        var index = mockIndex(false);
+        var cluster = mockCluster(null);
         mockExtensions();
         search.updateSearchIndex(true);
 
-        assertThat(index.created).isTrue();
-        assertThat(index.deleted).isFalse();
-        assertThat(index.entries).hasSize(3);
+        assertThat(cluster.indices).hasSize(1);
+        assertThat(cluster.aliases.get(ALIAS)).startsWith(ALIAS + "-");
+        assertThat(cluster.entries(ALIAS)).hasSize(3);
+    }
+
+    @Test
+    public void testHardUpdateReplacesIndexWithAlias() {
+        var cluster = mockCluster(ALIAS);
+        mockExtensions();
+        search.updateSearchIndex(true);
+
+        assertThat(cluster.indices).hasSize(1).doesNotContainKey(ALIAS);
+        assertThat(cluster.aliases.get(ALIAS)).startsWith(ALIAS + "-");
+        assertThat(cluster.entries(ALIAS)).hasSize(3);
+    }
+
+    @Test
+    public void testHardUpdateReappliesChanges() {
+        var cluster = mockCluster("extensions-1");
+        var ext1 = mockExtension("foo", "n1", "u1",3.0, 1, 0, LocalDateTime.parse("2020-01-01T00:00"), false, false);
+        var ext2 = mockExtension("bar", "n2", "u2", 3.0, 1, 0, LocalDateTime.parse("2020-01-01T00:00"), false, false);
+        var staleRows = List.of(searchRows.get(ext1.getId()), searchRows.get(ext2.getId()));
+        Mockito.doAnswer(invocation -> {
+                    // the extension is deactivated after the bulk load has read it
+                    searchRows.remove(ext1.getId());
+                    search.removeSearchEntry(ext1);
+                    search.flushSearchEntries();
+
+                    Consumer<List<ExtensionSearchRow>> consumer = invocation.getArgument(1);
+                    consumer.accept(staleRows);
+                    return null;
+                })
+                .when(repositories).findAllActiveExtensionSearchRows(anyInt(), any());
+
+        search.updateSearchIndex(true);
+
+        assertThat(cluster.aliases.get(ALIAS)).startsWith(ALIAS + "-");
+        assertThat(cluster.entries(ALIAS)).extracting(entry -> entry.name).containsExactly("bar");
+    }
+
+    @Test
+    public void testHardUpdateIncomplete() {
+        var cluster = mockCluster("extensions-1");
+        cluster.entries(ALIAS).add(new ExtensionSearch());
+        cluster.dropDocuments = true;
+        mockExtensions();
+
+        assertThrows(IllegalStateException.class, () -> search.updateSearchIndex(true));
+        assertThat(cluster.indices.keySet()).containsExactly("extensions-1");
+        assertThat(cluster.aliases).containsEntry(ALIAS, "extensions-1");
+        assertThat(cluster.entries(ALIAS)).hasSize(1);
     }
 
     @Test
     public void testSearchResultWindowTooLarge() {
-        mockIndex(true);
+        mockCluster("extensions-1");
 
         var options = new ISearchService.Options("foo", "bar", "universal", 50, 10000, null, null, false);
         var searchHits = search.search(options);
@@ -184,53 +310,109 @@ public class ElasticSearchServiceTest {
     //---------- UTILITY ----------//
 
     private void mockStats() {
+        Mockito.when(repositories.findActiveExtensionSearchRows(anyCollection()))
+                .then(invocation -> {
+                    Collection<Long> ids = invocation.getArgument(0);
+                    return ids.stream().map(searchRows::get).filter(Objects::nonNull).toList();
+                });
         Mockito.when(repositories.getMaxExtensionDownloadCount())
                 .thenReturn(10);
         Mockito.when(repositories.getOldestExtensionTimestamp())
                 .thenReturn(LocalDateTime.parse("2020-01-01T00:00"));
     }
 
+    /**
+     * Mock a cluster with the given index. It is created under the alias name unless the name is different.
+     */
     @SuppressWarnings("unchecked")
-    private MockIndex mockIndex(boolean exists) {
+    private LocalCluster mockCluster(String index) {
         mockStats();
 
-        var index = new MockIndex();
+        var cluster = new LocalCluster();
+        if (index != null) {
+            cluster.indices.put(index, new ArrayList<>());
+            if (!index.equals(ALIAS)) {
+                cluster.aliases.put(ALIAS, index);
+            }
+        }
+
         Mockito.when(searchOperations.index(any(IndexQuery.class), any(IndexCoordinates.class)))
             .then(invocation -> {
                 var query = invocation.getArgument(0, IndexQuery.class);
-                index.entries.add((ExtensionSearch) query.getObject());
+                var coordinates = invocation.getArgument(1, IndexCoordinates.class);
+                cluster.entries(coordinates.getIndexName()).add((ExtensionSearch) query.getObject());
                 return "test";
             });
         Mockito.doAnswer(invocation -> {
                 var queries = (List<IndexQuery>) invocation.getArgument(0);
-                queries.forEach(query -> index.entries.add((ExtensionSearch) query.getObject()));
+                var coordinates = invocation.getArgument(1, IndexCoordinates.class);
+                var entries = cluster.entries(coordinates.getIndexName());
+                queries.stream()
+                        .skip(cluster.dropDocuments ? 1 : 0)
+                        .map(query -> (ExtensionSearch) query.getObject())
+                        .forEach(entry -> {
+                            entries.removeIf(existing -> existing.id == entry.id);
+                            entries.add(entry);
+                        });
                 return null;
             }).when(searchOperations).bulkIndex(any(List.class), any(IndexCoordinates.class));
+        Mockito.when(searchOperations.delete(any(Query.class), eq(ExtensionSearch.class), any(IndexCoordinates.class)))
+            .then(invocation -> {
+                var ids = invocation.getArgument(0, NativeQuery.class).getQuery().ids().values();
+                var coordinates = invocation.getArgument(2, IndexCoordinates.class);
+                cluster.entries(coordinates.getIndexName()).removeIf(entry -> ids.contains(String.valueOf(entry.id)));
+                return null;
+            });
+        Mockito.when(searchOperations.count(any(Query.class), eq(ExtensionSearch.class), any(IndexCoordinates.class)))
+            .then(invocation -> {
+                var coordinates = invocation.getArgument(2, IndexCoordinates.class);
+                return (long) cluster.entries(coordinates.getIndexName()).size();
+            });
 
-        var indexOps = Mockito.mock(IndexOperations.class);
+        var aliasOps = mockIndexOps(cluster, ALIAS);
         Mockito.when(searchOperations.indexOps(ExtensionSearch.class))
-            .thenReturn(indexOps);
-        Mockito.when(indexOps.getIndexCoordinates())
-            .thenReturn(IndexCoordinates.of("extensions"));
+            .thenReturn(aliasOps);
+        Mockito.when(searchOperations.indexOps(any(IndexCoordinates.class)))
+            .then(invocation -> mockIndexOps(cluster, invocation.getArgument(0, IndexCoordinates.class).getIndexName()));
+        return cluster;
+    }
 
+    private IndexOperations mockIndexOps(LocalCluster cluster, String name) {
+        var indexOps = Mockito.mock(IndexOperations.class);
+        Mockito.when(indexOps.getIndexCoordinates())
+            .thenReturn(IndexCoordinates.of(name));
         Mockito.when(indexOps.getSettings(true))
-                .thenReturn(new Settings(Map.of("index.max_result_window", "10000")));
+            .thenReturn(new Settings(Map.of("index.max_result_window", "10000")));
+        Mockito.when(indexOps.createSettings(ExtensionSearch.class))
+            .thenReturn(new Settings());
+        Mockito.when(indexOps.createMapping(ExtensionSearch.class))
+            .thenReturn(Document.create());
 
         Mockito.when(indexOps.exists())
-            .thenReturn(exists);
+            .then(invocation -> cluster.indices.containsKey(cluster.resolve(name)));
+        Mockito.when(indexOps.create(anyMap(), any(Document.class)))
+            .then(invocation -> {
+                if (cluster.indices.containsKey(cluster.resolve(name)))
+                    throw new IllegalStateException("Index already exists.");
+                cluster.indices.put(name, new ArrayList<>());
+                return true;
+            });
         Mockito.when(indexOps.delete())
             .then(invocation -> {
-                if (!exists && !index.created)
+                var index = cluster.resolve(name);
+                if (cluster.indices.remove(index) == null)
                     throw new IllegalStateException("Index does not exist.");
-                return index.deleted = true;
+                cluster.aliases.values().removeIf(index::equals);
+                return true;
             });
-        Mockito.when(indexOps.create())
+        Mockito.when(indexOps.getAliasesForIndex(name))
+            .then(invocation -> Map.of(cluster.resolve(name), Set.<AliasData>of()));
+        Mockito.when(indexOps.alias(any(AliasActions.class)))
             .then(invocation -> {
-                if (exists && !index.deleted)
-                    throw new IllegalStateException("Index already exists.");
-                return index.created = true;
+                cluster.apply(invocation.getArgument(0, AliasActions.class));
+                return true;
             });
-        return index;
+        return indexOps;
     }
 
     private Extension mockExtension(String name, String namespaceName, String userName, double averageRating, long ratingCount, int downloadCount,
@@ -261,6 +443,8 @@ public class ElasticSearchServiceTest {
                 .thenReturn(extVer);
         Mockito.when(repositories.isVerified(namespace, user))
                 .thenReturn(!isUnverified && !isUnrelated);
+        var row = new ExtensionSearchRow(extension, extVer, List.of(extVer.getTargetPlatform()), !isUnverified && !isUnrelated);
+        searchRows.put(extension.getId(), row);
         return extension;
     }
 
@@ -268,14 +452,53 @@ public class ElasticSearchServiceTest {
         var ext1 = mockExtension("foo", "n1", "u1",3.0, 1, 0, LocalDateTime.parse("2020-01-01T00:00"), false, false);
         var ext2 = mockExtension("bar", "n2", "u2", 3.0, 1, 0, LocalDateTime.parse("2020-01-01T00:00"), false, false);
         var ext3 = mockExtension("baz", "n3", "u3", 3.0, 1, 0, LocalDateTime.parse("2020-01-01T00:00"), false, false);
-        Mockito.when(repositories.findAllActiveExtensions())
-                .thenReturn(Streamable.of(ext1, ext2, ext3));
+        var rows = Stream.of(ext1, ext2, ext3)
+                .map(extension -> {
+                    var latest = extension.getVersions().get(0);
+                    return new ExtensionSearchRow(extension, latest, List.of(latest.getTargetPlatform()), true);
+                })
+                .toList();
+        Mockito.doAnswer(invocation -> {
+                    Consumer<List<ExtensionSearchRow>> consumer = invocation.getArgument(1);
+                    consumer.accept(rows);
+                    return null;
+                })
+                .when(repositories).findAllActiveExtensionSearchRows(anyInt(), any());
     }
 
-    static class MockIndex {
-        final List<ExtensionSearch> entries = new ArrayList<>();
-        boolean created;
-        boolean deleted;
+    /**
+     * Stand-in for an Elasticsearch cluster that holds the documents of each index and
+     * the index each alias points to.
+     */
+    static class LocalCluster {
+        final Map<String, List<ExtensionSearch>> indices = new LinkedHashMap<>();
+        final Map<String, String> aliases = new HashMap<>();
+        boolean dropDocuments;
+
+        String resolve(String name) {
+            return aliases.getOrDefault(name, name);
+        }
+
+        List<ExtensionSearch> entries(String name) {
+            var entries = indices.get(resolve(name));
+            if (entries == null)
+                throw new IllegalStateException("Index does not exist: " + name);
+            return entries;
+        }
+
+        void apply(AliasActions actions) {
+            for (var action : actions.getActions()) {
+                var parameters = action.getParameters();
+                var index = parameters.getIndices()[0];
+                if (action instanceof AliasAction.Add) {
+                    aliases.put(parameters.getAliases()[0], index);
+                } else if (action instanceof AliasAction.Remove) {
+                    aliases.remove(parameters.getAliases()[0], index);
+                } else if (action instanceof AliasAction.RemoveIndex) {
+                    indices.remove(index);
+                }
+            }
+        }
     }
     
     @TestConfiguration
@@ -285,14 +508,20 @@ public class ElasticSearchServiceTest {
                 RepositoryService repositories,
                 ElasticsearchOperations searchOperations,
                 RelevanceService relevanceService,
-                JobRequestScheduler scheduler
+                JobRequestScheduler scheduler,
+                MeterRegistry registry
         ) {
-            return new ElasticSearchService(repositories, searchOperations, relevanceService, scheduler);
+            return new ElasticSearchService(repositories, searchOperations, relevanceService, scheduler, registry);
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
         }
 
         @Bean
-        RelevanceService relevanceService(RepositoryService repositories) {
-            return new RelevanceService(repositories);
+        RelevanceService relevanceService(RepositoryService repositories, CacheService cache, MeterRegistry registry) {
+            return new RelevanceService(repositories, cache, registry);
         }
 
         @Bean
@@ -0,0 +1,104 @@
+/** ******************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * ****************************************************************************** */
+package org.eclipse.openvsx.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.eclipse.openvsx.cache.CacheService;
+import org.eclipse.openvsx.entities.Extension;
+import org.eclipse.openvsx.repositories.RepositoryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class RelevanceServiceTest {
+
+    RepositoryService repositories;
+    CacheService cache;
+    SimpleMeterRegistry registry;
+    RelevanceService relevance;
+
+    @BeforeEach
+    public void setup() {
+        repositories = mock(RepositoryService.class);
+        when(repositories.getMaxExtensionDownloadCount()).thenReturn(100);
+        when(repositories.getOldestExtensionTimestamp()).thenReturn(LocalDateTime.parse("2020-01-01T00:00"));
+        when(repositories.getAverageReviewRating()).thenReturn(4.0);
+        when(repositories.countActiveReviews()).thenReturn(3L);
+
+        cache = mock(CacheService.class);
+        registry = new SimpleMeterRegistry();
+        relevance = new RelevanceService(repositories, cache, registry);
+        relevance.maxSearchStatsUpdates = 10;
+    }
+
+    @Test
+    public void testSearchStatsShared() {
+        var stats = relevance.getSearchStats();
+        assertSame(stats, relevance.getSearchStats());
+        verify(repositories, times(1)).getMaxExtensionDownloadCount();
+        assertNotNull(registry.find("ovsx_search_stats_age").timeGauge());
+    }
+
+    @Test
+    public void testSearchStatsUpdatedIncrementally() {
+        relevance.getSearchStats();
+        relevance.addReviewRating(0);
+        assertEquals(3.0, relevance.getSearchStats().averageReviewRating);
+        relevance.removeReviewRating(0);
+        assertEquals(4.0, relevance.getSearchStats().averageReviewRating);
+
+        var extension = new Extension();
+        extension.setDownloadCount(50);
+        relevance.updateDownloadCounts(List.of(extension));
+        assertEquals(100, relevance.getSearchStats().maxDownloads);
+        extension.setDownloadCount(200);
+        relevance.updateDownloadCounts(List.of(extension));
+        assertEquals(200, relevance.getSearchStats().maxDownloads);
+
+        verify(repositories, times(1)).getMaxExtensionDownloadCount();
+    }
+
+    @Test
+    public void testSearchStatsRefreshedAfterMaxUpdates() {
+        relevance.getSearchStats();
+        for (var i = 0; i < 10; i++) {
+            relevance.addReviewRating(5);
+        }
+
+        assertEquals(4.0, relevance.getSearchStats().averageReviewRating);
+        verify(repositories, times(2)).getMaxExtensionDownloadCount();
+    }
+
+    @Test
+    public void testAverageReviewRatingReloadedAfterMaxUpdates() {
+        relevance.getSearchStats();
+        for (var i = 0; i < 10; i++) {
+            relevance.addReviewRating(5);
+        }
+
+        // the cached average is evicted, so it is read together with the current number of reviews
+        when(repositories.getAverageReviewRating()).thenReturn(4.6);
+        when(repositories.countActiveReviews()).thenReturn(13L);
+        var stats = relevance.getSearchStats();
+        assertEquals(4.6, stats.averageReviewRating);
+        assertEquals(13L, stats.reviewCount);
+
+        var inOrder = inOrder(cache, repositories);
+        inOrder.verify(cache).evictAverageReviewRating();
+        inOrder.verify(repositories).getAverageReviewRating();
+        inOrder.verify(cache).evictAverageReviewRating();
+        inOrder.verify(repositories).getAverageReviewRating();
+    }
+}
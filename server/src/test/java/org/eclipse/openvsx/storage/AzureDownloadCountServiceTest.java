@@ -0,0 +1,52 @@
+/** ******************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * ****************************************************************************** */
+package org.eclipse.openvsx.storage;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+public class AzureDownloadCountServiceTest {
+
+    private static final String URI_PREFIX = "https://openvsxorg.blob.core.windows.net:443/";
+
+    @Test
+    public void testCountDownloads() throws IOException {
+        var service = new AzureDownloadCountService(mock(AzureDownloadCountProcessor.class), ObservationRegistry.NOOP);
+        service.storageServiceEndpoint = "https://openvsxorg.blob.core.windows.net/";
+        service.storageBlobContainer = "openvsx-resources";
+
+        var logs = String.join("\n",
+                logLine("GetBlob", 200, "openvsx-resources/foo/bar/1.0.0/foo.bar-1.0.0.vsix"),
+                logLine("GetBlob", 200, "openvsx-resources/foo/bar/1.0.0/foo.bar-1.0.0.vsix"),
+                logLine("GetBlob", 200, "openvsx-resources/foo/baz/1.0.0/foo.baz%2B1-1.0.0.vsix"),
+                logLine("GetBlob", 404, "openvsx-resources/foo/bar/2.0.0/foo.bar-2.0.0.vsix"),
+                logLine("GetBlobProperties", 200, "openvsx-resources/foo/bar/1.0.0/foo.bar-1.0.0.vsix"),
+                logLine("GetBlob", 200, "openvsx-resources/foo/bar/1.0.0/package.json"),
+                logLine("GetBlob", 200, "other-container/foo/bar/1.0.0/foo.bar-1.0.0.vsix")
+        );
+
+        var files = service.countDownloads(new ByteArrayInputStream(logs.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(Map.of("FOO.BAR-1.0.0.VSIX", 2, "FOO.BAZ+1-1.0.0.VSIX", 1), files);
+    }
+
+    private String logLine(String operationName, int statusCode, String path) {
+        return "{\"time\":\"2024-01-01T10:00:00.0000000Z\",\"operationName\":\"" + operationName + "\","
+                + "\"statusCode\":" + statusCode + ",\"identity\":{\"type\":\"Anonymous\",\"tokenHash\":[1,2]},"
+                + "\"uri\":\"" + URI_PREFIX + path + "\",\"properties\":{\"contentLengthHeader\":0}}";
+    }
+}
@@ -0,0 +1,131 @@
+/** ******************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * ****************************************************************************** */
+package org.eclipse.openvsx.storage;
+
+import org.eclipse.openvsx.MockTransactionTemplate;
+import org.eclipse.openvsx.cache.CacheService;
+import org.eclipse.openvsx.entities.Extension;
+import org.eclipse.openvsx.repositories.RepositoryService;
+import org.eclipse.openvsx.search.SearchUtilService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.util.Streamable;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class DownloadCountServiceTest {
+
+    TaskScheduler taskScheduler;
+    RepositoryService repositories;
+    SearchUtilService search;
+    DownloadCountService service;
+
+    @BeforeEach
+    public void setup() {
+        taskScheduler = mock(TaskScheduler.class);
+        repositories = mock(RepositoryService.class);
+        search = mock(SearchUtilService.class);
+        when(repositories.findExtensions(anyCollection())).thenReturn(Streamable.empty());
+
+        service = new DownloadCountService(taskScheduler, new MockTransactionTemplate(), repositories, mock(CacheService.class), search);
+        service.flushInterval = 10000;
+        service.flushThreshold = 3;
+    }
+
+    @Test
+    public void testFlushOnThreshold() {
+        service.increaseDownloadCount(1);
+        service.increaseDownloadCount(2);
+        verify(taskScheduler, never()).schedule(any(Runnable.class), any(Instant.class));
+
+        service.increaseDownloadCount(1);
+        var flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler).schedule(flush.capture(), any(Instant.class));
+
+        // the flush is scheduled once until it has run
+        service.increaseDownloadCount(1);
+        verify(taskScheduler, times(1)).schedule(any(Runnable.class), any(Instant.class));
+
+        flush.getValue().run();
+        verify(repositories).increaseDownloadCounts(Map.of(1L, 3, 2L, 1));
+    }
+
+    @Test
+    public void testFlushOnInterval() {
+        service.scheduleFlush(null);
+        var flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler).scheduleWithFixedDelay(flush.capture(), eq(Duration.ofMillis(10000)));
+
+        flush.getValue().run();
+        verify(repositories, never()).increaseDownloadCounts(anyMap());
+
+        var extension = new Extension();
+        extension.setId(1);
+        extension.setActive(true);
+        when(repositories.findExtensions(anyCollection())).thenReturn(Streamable.of(extension));
+        service.increaseDownloadCount(1);
+        flush.getValue().run();
+        verify(repositories).increaseDownloadCounts(Map.of(1L, 1));
+        verify(search).updateSearchEntries(List.of(extension));
+
+        // downloads are written once
+        flush.getValue().run();
+        verify(repositories, times(1)).increaseDownloadCounts(anyMap());
+    }
+
+    @Test
+    public void testKeepDownloadsOnFailure() {
+        doThrow(new RuntimeException("database unavailable"))
+                .doNothing()
+                .when(repositories).increaseDownloadCounts(anyMap());
+
+        service.increaseDownloadCount(1);
+        service.increaseDownloadCount(2);
+        service.flush();
+        verify(repositories).increaseDownloadCounts(Map.of(1L, 1, 2L, 1));
+
+        service.increaseDownloadCount(1);
+        service.flush();
+        verify(repositories).increaseDownloadCounts(Map.of(1L, 2, 2L, 1));
+
+        service.flush();
+        verify(repositories, times(2)).increaseDownloadCounts(anyMap());
+    }
+
+    @Test
+    public void testNoThresholdFlushAfterFailure() {
+        doThrow(new RuntimeException("database unavailable"))
+                .doNothing()
+                .when(repositories).increaseDownloadCounts(anyMap());
+
+        service.increaseDownloadCount(1);
+        service.flush();
+        for (var i = 0; i < 5; i++) {
+            service.increaseDownloadCount(1);
+        }
+        verify(taskScheduler, never()).schedule(any(Runnable.class), any(Instant.class));
+
+        // the next scheduled flush succeeds, so the threshold applies again
+        service.flush();
+        verify(repositories).increaseDownloadCounts(Map.of(1L, 6));
+        for (var i = 0; i < 3; i++) {
+            service.increaseDownloadCount(1);
+        }
+        verify(taskScheduler).schedule(any(Runnable.class), any(Instant.class));
+    }
+}
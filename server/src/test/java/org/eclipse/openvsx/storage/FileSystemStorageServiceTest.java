@@ -0,0 +1,116 @@
+/** ******************************************************************************
+ * Copyright (c) 2024 Precies. Software OU and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * ****************************************************************************** */
+package org.eclipse.openvsx.storage;
+
+import org.eclipse.openvsx.entities.Extension;
+import org.eclipse.openvsx.entities.ExtensionVersion;
+import org.eclipse.openvsx.entities.FileResource;
+import org.eclipse.openvsx.entities.Namespace;
+import org.eclipse.openvsx.util.NotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+public class FileSystemStorageServiceTest {
+
+    @Autowired
+    FileSystemStorageService service;
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    public void setup() {
+        service.directory = directory.toString();
+    }
+
+    @Test
+    public void testGetPath() {
+        var resource = mockResource("extension/themes/abelFubu Dark+-color-theme.json", "darwin-arm64");
+        var expected = directory.resolve("abelfubu/abelfubu-dark/darwin-arm64/1.3.4/extension/themes/abelFubu%20Dark+-color-theme.json");
+        assertEquals(expected, service.getPath(resource));
+    }
+
+    @Test
+    public void testUploadAndServeFile() throws IOException {
+        var resource = mockResource("extension/package.json", "universal");
+        resource.setContent("{\"name\":\"abelfubu-dark\"}".getBytes(StandardCharsets.UTF_8));
+        service.uploadFile(resource);
+
+        var response = service.getFileResponse(resource);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        var eTag = response.getHeaders().getETag();
+        assertNotNull(eTag);
+        assertFalse(eTag.startsWith("W/"));
+        assertArrayEquals(resource.getContent(), response.getBody().getContentAsByteArray());
+        try (var files = Files.list(service.getPath(resource).getParent())) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    public void testRemoveFile() {
+        var resource = mockResource("extension/package.json", "universal");
+        resource.setContent(new byte[0]);
+        service.uploadFile(resource);
+        service.removeFile(resource);
+
+        assertFalse(Files.exists(service.getPath(resource)));
+        assertThrows(NotFoundException.class, () -> service.getFileResponse(resource));
+    }
+
+    @Test
+    public void testInvalidFileName() {
+        var resource = mockResource("../../../../../etc/passwd", "universal");
+        assertThrows(IllegalArgumentException.class, () -> service.getPath(resource));
+    }
+
+    private FileResource mockResource(String name, String targetPlatform) {
+        var namespace = new Namespace();
+        namespace.setName("abelfubu");
+
+        var extension = new Extension();
+        extension.setName("abelfubu-dark");
+        extension.setNamespace(namespace);
+
+        var extVersion = new ExtensionVersion();
+        extVersion.setVersion("1.3.4");
+        extVersion.setTargetPlatform(targetPlatform);
+        extVersion.setExtension(extension);
+
+        var resource = new FileResource();
+        resource.setName(name);
+        resource.setExtension(extVersion);
+        resource.setStorageType(FileResource.STORAGE_FILE_SYSTEM);
+        return resource;
+    }
+
+    @TestConfiguration
+    static class TestConfig {
+        @Bean
+        FileSystemStorageService fileSystemStorageService() {
+            return new FileSystemStorageService();
+        }
+    }
+}